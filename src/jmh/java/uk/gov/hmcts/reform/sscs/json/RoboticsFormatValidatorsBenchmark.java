@@ -0,0 +1,89 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares validating the agreed robotics json against the schema as written (regex patterns and the
+ * built-in date format) with the schema as {@link RoboticsSchemaLoader} loads it, plus the individual
+ * checks on their own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoboticsFormatValidatorsBenchmark {
+
+    private static final Pattern CASE_CODE = Pattern.compile(RoboticsFormatValidators.CASE_CODE_PATTERN);
+    private static final Pattern POST_CODE = Pattern.compile(RoboticsFormatValidators.POST_CODE_PATTERN);
+
+    private Schema regexSchema;
+    private Schema formatSchema;
+    private JSONObject roboticsJson;
+
+    @Setup
+    public void setup() {
+        JSONObject schemaJson = RoboticsSchemaLoader.readSchemaJson("/schema/sscs-robotics.json");
+        regexSchema = SchemaLoader.builder().schemaJson(schemaJson).build().load().build();
+        formatSchema = RoboticsSchemaLoader.load(schemaJson);
+        roboticsJson = new JSONObject(new JSONTokener(
+                RoboticsFormatValidatorsBenchmark.class.getResourceAsStream("/schema/valid_robotics_agreed.json")));
+    }
+
+    @Benchmark
+    public void validateWithRegexSchema() {
+        regexSchema.validate(roboticsJson);
+    }
+
+    @Benchmark
+    public void validateWithFormatSchema() {
+        formatSchema.validate(roboticsJson);
+    }
+
+    @Benchmark
+    public boolean caseCodeRegex() {
+        return CASE_CODE.matcher("002DD").find();
+    }
+
+    @Benchmark
+    public boolean caseCodeFormat() {
+        return !RoboticsFormatValidators.CASE_CODE.validate("002DD").isPresent();
+    }
+
+    @Benchmark
+    public boolean postCodeRegex() {
+        return POST_CODE.matcher("SW1A 1AA").find();
+    }
+
+    @Benchmark
+    public boolean postCodeFormat() {
+        return RoboticsFormatValidators.isPostCode("SW1A 1AA");
+    }
+
+    @Benchmark
+    public Object dateFormatter() {
+        return DateTimeFormatter.ISO_LOCAL_DATE.parse("2018-06-01");
+    }
+
+    @Benchmark
+    public boolean dateFormat() {
+        return RoboticsFormatValidators.isIsoLocalDate("2018-06-01");
+    }
+}
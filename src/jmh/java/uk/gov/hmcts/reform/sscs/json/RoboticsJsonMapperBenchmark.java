@@ -0,0 +1,103 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+
+/**
+ * Compares {@code map} with the scratch mapping mode, and org.json serialisation with the payload writer.
+ *
+ * <p>Run with {@code ./gradlew jmh} (the gc profiler is enabled in build.gradle) and compare
+ * {@code gc.alloc.rate.norm}. {@code mapIntoScratch} must stay at or below half the bytes per operation
+ * of {@code map}; {@code ./gradlew checkMapperAllocation} runs {@link #main(String[])}, which fails if it
+ * does not. Allocation depends on the JVM and its JIT, so this is checked here rather than in a unit test.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoboticsJsonMapperBenchmark {
+
+    private RoboticsJsonMapper mapper;
+    private RoboticsWrapper wrapper;
+
+    @Setup
+    public void setup() {
+        mapper = new RoboticsJsonMapper(true);
+        wrapper = RoboticsWrapper.builder()
+                .sscsCaseData(buildCaseData())
+                .ccdCaseId(1529335642096820L).venueName("Bromley").evidencePresent("Yes")
+                .build();
+    }
+
+    @Benchmark
+    public int map() {
+        return mapper.map(wrapper).length();
+    }
+
+    @Benchmark
+    public int mapIntoScratch() {
+        return mapper.mapIntoScratch(wrapper).length();
+    }
+
+    @Benchmark
+    public String mapAndWriteJsonObject() {
+        return mapper.map(wrapper).toString();
+    }
+
+    @Benchmark
+    public String mapAndWritePayload() {
+        return RoboticsPayloadWriter.write(mapper.mapToPayload(wrapper));
+    }
+
+    /**
+     * Runs {@code map} and {@code mapIntoScratch} with the gc profiler and fails unless
+     * {@code mapIntoScratch} allocates at most half the bytes per operation of {@code map}.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Map<String, Double> bytesPerOperation = new HashMap<>();
+        for (RunResult result : new Runner(new OptionsBuilder()
+                .include(RoboticsJsonMapperBenchmark.class.getName() + "\\.(map|mapIntoScratch)$")
+                .addProfiler(GCProfiler.class)
+                .build()).run()) {
+            bytesPerOperation.put(result.getParams().getBenchmark(), allocationRate(result));
+        }
+        double map = bytesPerOperation.get(RoboticsJsonMapperBenchmark.class.getName() + ".map");
+        double scratch = bytesPerOperation.get(RoboticsJsonMapperBenchmark.class.getName() + ".mapIntoScratch");
+        if (scratch * 2 > map) {
+            throw new IllegalStateException(String.format(
+                    "mapIntoScratch allocated %.0f bytes per case, more than half of map's %.0f", scratch, map));
+        }
+    }
+
+    private static double allocationRate(RunResult result) {
+        for (Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+            // the profiler prefixes its result names, so match on the end
+            if (secondary.getKey().endsWith("gc.alloc.rate.norm")) {
+                return secondary.getValue().getScore();
+            }
+        }
+        throw new IllegalStateException("No gc.alloc.rate.norm for " + result.getParams().getBenchmark());
+    }
+}
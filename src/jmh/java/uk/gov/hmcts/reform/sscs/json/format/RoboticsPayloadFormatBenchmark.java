@@ -0,0 +1,55 @@
+package uk.gov.hmcts.reform.sscs.json.format;
+
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoboticsPayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String formatName;
+
+    private RoboticsPayloadFormat format;
+    private JSONObject roboticsJson;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        format = RoboticsPayloadFormats.defaultFormats().get(formatName);
+        roboticsJson = new RoboticsJsonMapper(true).map(RoboticsWrapper.builder()
+                .sscsCaseData(buildCaseData())
+                .ccdCaseId(1529335642096820L).venueName("Bromley").evidencePresent("Yes")
+                .build());
+        payload = format.write(roboticsJson);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return format.write(roboticsJson);
+    }
+
+    @Benchmark
+    public JSONObject read() {
+        return format.read(payload);
+    }
+}
@@ -0,0 +1,295 @@
+package uk.gov.hmcts.reform.sscs.backfill;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Address;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsDocument;
+import uk.gov.hmcts.reform.sscs.ccd.service.CcdService;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.service.RoboticsDeadline;
+import uk.gov.hmcts.reform.sscs.service.RoboticsJsonUploadService;
+import uk.gov.hmcts.reform.sscs.service.RoboticsService;
+
+/**
+ * Attaches {@code robotics_json.txt} to historic cases that never got it, for instance because the document
+ * store was down when they were sent.
+ *
+ * <p>For each case id it reads the case from CCD, skips it if it already has the document, regenerates the
+ * robotics json with {@link RoboticsService#createRobotics(RoboticsWrapper)} and attaches it with
+ * {@link RoboticsJsonUploadService}; with the upload spool on, a case whose upload is spooled counts as done,
+ * as the spool attaches it later. Cases run on {@code robotics.backfill.concurrency} threads, started at
+ * no more than {@code robotics.backfill.ratePerSecond} a second. Every case that needs no further work is
+ * appended to the checkpoint file, and a run given the same file skips those, so an interrupted backfill
+ * resumes where it stopped and a rerun retries only the failures.
+ */
+@Component
+@Slf4j
+public class RoboticsBackfill {
+
+    static final String ROBOTICS_JSON_FILENAME = "robotics_json.txt";
+
+    private final RoboticsService roboticsService;
+    private final RoboticsJsonUploadService roboticsJsonUploadService;
+    private final CcdService ccdService;
+    private final int concurrency;
+    private final long pauseNanos;
+
+    @Autowired
+    public RoboticsBackfill(RoboticsService roboticsService,
+                            RoboticsJsonUploadService roboticsJsonUploadService,
+                            CcdService ccdService,
+                            @Value("${robotics.backfill.concurrency:4}") int concurrency,
+                            @Value("${robotics.backfill.ratePerSecond:5}") double ratePerSecond) {
+        this.roboticsService = roboticsService;
+        this.roboticsJsonUploadService = roboticsJsonUploadService;
+        this.ccdService = ccdService;
+        this.concurrency = concurrency;
+        this.pauseNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    }
+
+    public Result run(List<Long> caseIds, Path checkpointFile, IdamTokens idamTokens) throws InterruptedException {
+        Set<Long> done = readCheckpoint(checkpointFile);
+        Map<Outcome, AtomicInteger> outcomes = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new AtomicInteger());
+        }
+        Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        Pacer pacer = new Pacer(pauseNanos);
+
+        log.info("Robotics backfill of {} cases, {} already done, {} threads", caseIds.size(), done.size(), concurrency);
+        final long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try (BufferedWriter checkpoint = Files.newBufferedWriter(checkpointFile, UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Long caseId : caseIds) {
+                if (done.contains(caseId)) {
+                    outcomes.get(Outcome.CHECKPOINTED).incrementAndGet();
+                    continue;
+                }
+                executor.execute(() -> {
+                    if (!pacer.acquire()) {
+                        return;
+                    }
+                    Outcome outcome = backfill(caseId, idamTokens, failures);
+                    outcomes.get(outcome).incrementAndGet();
+                    if (outcome != Outcome.FAILED) {
+                        checkpoint(checkpoint, caseId, outcome);
+                    }
+                });
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Robotics backfill in progress: {}", outcomes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write robotics backfill checkpoint " + checkpointFile, e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Result result = new Result(caseIds.size(), outcomeCounts(outcomes), failureCounts(failures),
+                System.nanoTime() - start);
+        log.info("Robotics backfill finished: {}", result.summary());
+        return result;
+    }
+
+    Outcome backfill(Long caseId, IdamTokens idamTokens, Map<String, AtomicInteger> failures) {
+        Stage stage = Stage.FETCH;
+        try {
+            SscsCaseDetails caseDetails = ccdService.getByCaseId(caseId, idamTokens);
+            if (caseDetails == null || caseDetails.getData() == null) {
+                log.warn("Robotics backfill could not find case {}", caseId);
+                return Outcome.NOT_FOUND;
+            }
+            SscsCaseData caseData = caseDetails.getData();
+            if (hasRoboticsJson(caseData)) {
+                return Outcome.ALREADY_ATTACHED;
+            }
+
+            stage = Stage.AIR_LOOKUP;
+            String venueName = roboticsService.lookupVenueName(caseData, postcode(caseData));
+
+            stage = Stage.MAP_AND_VALIDATE;
+            JSONObject roboticsJson = roboticsService.createRobotics(RoboticsWrapper.builder().sscsCaseData(caseData)
+                    .ccdCaseId(caseId).venueName(venueName).evidencePresent(caseData.getEvidencePresent()).build());
+
+            stage = Stage.DM_UPLOAD;
+            if (caseData.getCcdCaseId() == null) {
+                caseData.setCcdCaseId(caseId.toString());
+            }
+            RoboticsDeadline timings = RoboticsDeadline.unlimited();
+            try {
+                roboticsJsonUploadService.updateCaseWithRoboticsJson(roboticsJson, caseData, caseDetails, idamTokens,
+                        timings);
+            } finally {
+                if (timings.getStageTimings().containsKey(RoboticsSendStage.CCD_ATTACH)) {
+                    stage = Stage.CCD_ATTACH;
+                }
+            }
+            if (hasRoboticsJson(caseData)) {
+                return Outcome.ATTACHED;
+            }
+            if (roboticsJsonUploadService.isSpooling()) {
+                log.info("Robotics backfill spooled the upload of case {}", caseId);
+                return Outcome.SPOOLED;
+            }
+            throw new IllegalStateException("Document store returned no document for case " + caseId);
+        } catch (RuntimeException e) {
+            failures.computeIfAbsent(stage + " " + e.getClass().getSimpleName(), key -> new AtomicInteger())
+                    .incrementAndGet();
+            log.warn("Robotics backfill of case {} failed at {}", caseId, stage, e);
+            return Outcome.FAILED;
+        }
+    }
+
+    static boolean hasRoboticsJson(SscsCaseData caseData) {
+        if (caseData.getSscsDocument() == null) {
+            return false;
+        }
+        for (SscsDocument document : caseData.getSscsDocument()) {
+            if (document.getValue() != null
+                    && ROBOTICS_JSON_FILENAME.equals(document.getValue().getDocumentFileName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String postcode(SscsCaseData caseData) {
+        Address address = caseData.getAppeal().getAppellant().getAddress();
+        return address == null ? null : address.getPostcode();
+    }
+
+    private static Set<Long> readCheckpoint(Path checkpointFile) {
+        if (!Files.exists(checkpointFile)) {
+            return Collections.emptySet();
+        }
+        Set<Long> done = new HashSet<>();
+        try {
+            for (String line : Files.readAllLines(checkpointFile, UTF_8)) {
+                String caseId = StringUtils.substringBefore(line, " ").trim();
+                if (StringUtils.isNumeric(caseId)) {
+                    done.add(Long.valueOf(caseId));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read robotics backfill checkpoint " + checkpointFile, e);
+        }
+        return done;
+    }
+
+    private static void checkpoint(BufferedWriter checkpoint, Long caseId, Outcome outcome) {
+        synchronized (checkpoint) {
+            try {
+                checkpoint.write(caseId + " " + outcome);
+                checkpoint.newLine();
+                checkpoint.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to checkpoint robotics backfill of case " + caseId, e);
+            }
+        }
+    }
+
+    private static Map<Outcome, Integer> outcomeCounts(Map<Outcome, AtomicInteger> outcomes) {
+        Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.get()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private static Map<String, Integer> failureCounts(Map<String, AtomicInteger> failures) {
+        Map<String, Integer> counts = new TreeMap<>();
+        failures.forEach((failure, count) -> counts.put(failure, count.get()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    public enum Outcome {
+        ATTACHED, SPOOLED, ALREADY_ATTACHED, NOT_FOUND, FAILED, CHECKPOINTED
+    }
+
+    enum Stage {
+        FETCH, AIR_LOOKUP, MAP_AND_VALIDATE, DM_UPLOAD, CCD_ATTACH
+    }
+
+    /**
+     * Spaces out the start of each case, across all threads.
+     */
+    private static final class Pacer {
+        private final long pauseNanos;
+        private long next = System.nanoTime();
+
+        private Pacer(long pauseNanos) {
+            this.pauseNanos = pauseNanos;
+        }
+
+        private boolean acquire() {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                wait = next - now;
+                next = Math.max(next, now) + pauseNanos;
+            }
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @lombok.Value
+    public static class Result {
+        private int cases;
+        private Map<Outcome, Integer> outcomes;
+        private Map<String, Integer> failures;
+        private long elapsedNanos;
+
+        public int count(Outcome outcome) {
+            return outcomes.getOrDefault(outcome, 0);
+        }
+
+        /**
+         * Cases worked on (everything not skipped from the checkpoint) per second.
+         */
+        public double throughputPerSecond() {
+            int worked = cases - count(Outcome.CHECKPOINTED);
+            return elapsedNanos <= 0 ? 0 : worked * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        public String summary() {
+            return String.format("%d cases in %d ms (%.1f cases/s): %s, failures %s", cases,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughputPerSecond(), outcomes, failures);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package uk.gov.hmcts.reform.sscs.benefit;
+
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appeal;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+
+/**
+ * Benefit-specific adjustment applied after the common robotics mapping.
+ */
+@FunctionalInterface
+public interface BenefitMappingRule {
+
+    BenefitMappingRule NONE = (appeal, payload) -> { };
+
+    void apply(Appeal appeal, RoboticsPayload.RoboticsPayloadBuilder payload);
+}
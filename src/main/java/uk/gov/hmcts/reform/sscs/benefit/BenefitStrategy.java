@@ -0,0 +1,23 @@
+package uk.gov.hmcts.reform.sscs.benefit;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+@Value
+@Builder
+public class BenefitStrategy {
+
+    @NonNull
+    private String code;
+
+    @NonNull
+    private String caseCode;
+
+    @NonNull
+    private BenefitVenue venue;
+
+    @NonNull
+    @Builder.Default
+    private BenefitMappingRule mappingRule = BenefitMappingRule.NONE;
+}
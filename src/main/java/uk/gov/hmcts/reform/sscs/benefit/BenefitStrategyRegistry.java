@@ -0,0 +1,89 @@
+package uk.gov.hmcts.reform.sscs.benefit;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Benefit strategies keyed by upper-cased benefit code, built once from {@code robotics.benefits}.
+ *
+ * <p>The property is a comma-separated list of {@code code:caseCode:venue} entries, e.g.
+ * {@code PIP:002DD:PIP,ESA:051DD:ESA}. The first entry is the fallback for benefit codes that are not
+ * configured, which keeps the historical behaviour of treating anything unknown as PIP.
+ */
+@Component
+@Slf4j
+public class BenefitStrategyRegistry {
+
+    public static final String DEFAULT_BENEFITS = "PIP:002DD:PIP,ESA:051DD:ESA";
+
+    private volatile Map<String, BenefitStrategy> strategies;
+    private final BenefitStrategy fallback;
+
+    @Autowired
+    public BenefitStrategyRegistry(@Value("${robotics.benefits:" + DEFAULT_BENEFITS + "}") String benefits) {
+        Map<String, BenefitStrategy> byCode = new HashMap<>();
+        BenefitStrategy first = null;
+        for (String entry : StringUtils.split(benefits, ',')) {
+            BenefitStrategy strategy = parse(entry.trim());
+            byCode.put(strategy.getCode(), strategy);
+            if (first == null) {
+                first = strategy;
+            }
+        }
+        if (first == null) {
+            throw new IllegalArgumentException("robotics.benefits must configure at least one benefit");
+        }
+        this.strategies = Collections.unmodifiableMap(byCode);
+        this.fallback = first;
+        log.info("Robotics benefit strategies {} (fallback {})", byCode.keySet(), fallback.getCode());
+    }
+
+    public static BenefitStrategyRegistry defaultRegistry() {
+        return new BenefitStrategyRegistry(DEFAULT_BENEFITS);
+    }
+
+    public BenefitStrategy get(String benefitCode) {
+        if (benefitCode == null) {
+            return fallback;
+        }
+        BenefitStrategy strategy = strategies.get(benefitCode);
+        if (strategy == null) {
+            strategy = strategies.get(benefitCode.toUpperCase(Locale.ENGLISH));
+        }
+        return strategy == null ? fallback : strategy;
+    }
+
+    /**
+     * Adds or replaces a strategy, e.g. to attach a {@link BenefitMappingRule}; meant for startup wiring.
+     */
+    public synchronized void register(BenefitStrategy strategy) {
+        Map<String, BenefitStrategy> updated = new HashMap<>(strategies);
+        updated.put(strategy.getCode().toUpperCase(Locale.ENGLISH), strategy);
+        strategies = Collections.unmodifiableMap(updated);
+    }
+
+    public Set<String> getCodes() {
+        return strategies.keySet();
+    }
+
+    private static BenefitStrategy parse(String entry) {
+        String[] parts = entry.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException(
+                    "Invalid robotics.benefits entry '" + entry + "', expected code:caseCode:venue");
+        }
+        return BenefitStrategy.builder()
+                .code(parts[0].trim().toUpperCase(Locale.ENGLISH))
+                .caseCode(parts[1].trim())
+                .venue(BenefitVenue.valueOf(parts[2].trim().toUpperCase(Locale.ENGLISH)))
+                .build();
+    }
+}
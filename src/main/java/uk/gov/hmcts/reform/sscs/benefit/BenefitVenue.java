@@ -0,0 +1,22 @@
+package uk.gov.hmcts.reform.sscs.benefit;
+
+import java.util.function.Function;
+import uk.gov.hmcts.reform.sscs.model.AirlookupBenefitToVenue;
+
+/**
+ * Which of the venues returned by the postcode lookup a benefit is heard at.
+ */
+public enum BenefitVenue {
+    PIP(AirlookupBenefitToVenue::getPipVenue),
+    ESA(AirlookupBenefitToVenue::getEsaVenue);
+
+    private final Function<AirlookupBenefitToVenue, String> selector;
+
+    BenefitVenue(Function<AirlookupBenefitToVenue, String> selector) {
+        this.selector = selector;
+    }
+
+    public String select(AirlookupBenefitToVenue venue) {
+        return selector.apply(venue);
+    }
+}
@@ -0,0 +1,22 @@
+package uk.gov.hmcts.reform.sscs.domain.robotics;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class RoboticsHearingArrangements {
+
+    private String languageInterpreter;
+
+    private String signLanguageInterpreter;
+
+    private String hearingLoop;
+
+    private String accessibleHearingRoom;
+
+    private String other;
+
+    private List<String> datesCantAttend;
+}
@@ -0,0 +1,47 @@
+package uk.gov.hmcts.reform.sscs.domain.robotics;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Typed robotics case, one field per property of the robotics schema. Optional properties are null when
+ * absent.
+ */
+@Value
+@Builder
+public class RoboticsPayload {
+
+    private String caseCode;
+
+    private Long caseId;
+
+    private String appellantNino;
+
+    private String appellantPostCode;
+
+    private String appealDate;
+
+    private String receivedVia;
+
+    private String mrnDate;
+
+    private String mrnReasonForBeingLate;
+
+    private String pipNumber;
+
+    private String hearingType;
+
+    private String hearingRequestParty;
+
+    private String evidencePresent;
+
+    private String rpcEmail;
+
+    private RoboticsPerson appellant;
+
+    private RoboticsPerson appointee;
+
+    private RoboticsPerson representative;
+
+    private RoboticsHearingArrangements hearingArrangements;
+}
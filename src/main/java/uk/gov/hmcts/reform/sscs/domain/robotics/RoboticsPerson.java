@@ -0,0 +1,36 @@
+package uk.gov.hmcts.reform.sscs.domain.robotics;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The appellant, appointee or representative of a robotics case.
+ */
+@Value
+@Builder
+public class RoboticsPerson {
+
+    private String title;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String organisation;
+
+    private String sameAddressAsAppellant;
+
+    private String addressLine1;
+
+    private String addressLine2;
+
+    private String townOrCity;
+
+    private String county;
+
+    private String postCode;
+
+    private String phoneNumber;
+
+    private String email;
+}
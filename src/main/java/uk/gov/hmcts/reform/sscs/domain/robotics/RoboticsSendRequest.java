@@ -0,0 +1,35 @@
+package uk.gov.hmcts.reform.sscs.domain.robotics;
+
+import java.time.Duration;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+/**
+ * One case to send to robotics. Without {@code idamTokens} and {@code caseDetails} the robotics json is
+ * emailed but not attached to the case in CCD. The {@code budget}, if given, starts when the case is taken from
+ * the stream and covers every stage including the waits between them; without it a case has no deadline.
+ */
+@Value
+@Builder
+public class RoboticsSendRequest {
+
+    private SscsCaseData sscsCaseData;
+
+    private Long caseId;
+
+    private String postcode;
+
+    private byte[] pdf;
+
+    private Map<String, byte[]> additionalEvidence;
+
+    private IdamTokens idamTokens;
+
+    private SscsCaseDetails caseDetails;
+
+    private Duration budget;
+}
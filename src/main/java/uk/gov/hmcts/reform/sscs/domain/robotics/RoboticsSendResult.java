@@ -0,0 +1,28 @@
+package uk.gov.hmcts.reform.sscs.domain.robotics;
+
+import lombok.Value;
+
+@Value
+public class RoboticsSendResult {
+
+    private Long caseId;
+
+    private RoboticsPayload payload;
+
+    private RoboticsSendStage failedStage;
+
+    private Throwable error;
+
+    public static RoboticsSendResult success(Long caseId, RoboticsPayload payload) {
+        return new RoboticsSendResult(caseId, payload, null, null);
+    }
+
+    public static RoboticsSendResult failure(Long caseId, RoboticsPayload payload, RoboticsSendStage failedStage,
+                                             Throwable error) {
+        return new RoboticsSendResult(caseId, payload, failedStage, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,9 @@
+package uk.gov.hmcts.reform.sscs.domain.robotics;
+
+public enum RoboticsSendStage {
+    AIR_LOOKUP,
+    MAP_AND_VALIDATE,
+    EMAIL,
+    DM_UPLOAD,
+    CCD_ATTACH
+}
@@ -0,0 +1,13 @@
+package uk.gov.hmcts.reform.sscs.emailid;
+
+/**
+ * Reserves ranges of robotics email id numbers. The source decides how far ids are unique: a range is
+ * never handed out twice by sources sharing the same state.
+ */
+public interface EmailIdBlockSource {
+
+    /**
+     * The first number of a newly reserved range of {@code size} numbers.
+     */
+    long reserve(int size);
+}
@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.sscs.emailid;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Ranges from a high-water mark kept in a file and updated under a file lock, so ids are unique across
+ * restarts and across every process sharing the file.
+ *
+ * <p>The new mark is written over the old one and forced to disk before the file is cut to its length.
+ * The mark only grows, so it is never shorter than the text it replaces, and a crash at any point leaves
+ * the old mark or the new one, never an empty file.
+ */
+public class FileEmailIdBlockSource implements EmailIdBlockSource {
+
+    private final Path file;
+
+    public FileEmailIdBlockSource(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized long reserve(int size) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 64));
+            channel.read(buffer, 0);
+            String content = new String(buffer.array(), 0, buffer.position(), UTF_8).trim();
+            long start = content.isEmpty() ? 0 : Long.parseLong(content);
+
+            byte[] mark = Long.toString(start + size).getBytes(UTF_8);
+            channel.write(ByteBuffer.wrap(mark), 0);
+            channel.force(true);
+            channel.truncate(mark.length);
+            channel.force(true);
+            return start;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to reserve robotics email ids from " + file, e);
+        }
+    }
+}
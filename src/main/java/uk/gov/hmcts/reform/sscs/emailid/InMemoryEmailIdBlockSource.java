@@ -0,0 +1,29 @@
+package uk.gov.hmcts.reform.sscs.emailid;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ranges from a counter in this process, starting at the current time in milliseconds. Every reserved
+ * range moves the counter on by its full size, used or not, including the block the allocator prefetches
+ * once half of the current one is used. A restart repeats ids unless more milliseconds have passed since
+ * the previous run started than that run reserved: one block after its first id, two after half a block,
+ * so even a quiet instance collides if restarted within about {@code blockSize * 2} ms. Ids are not
+ * unique across instances running at the same time; use {@link FileEmailIdBlockSource} for either.
+ */
+public class InMemoryEmailIdBlockSource implements EmailIdBlockSource {
+
+    private final AtomicLong next;
+
+    public InMemoryEmailIdBlockSource() {
+        this(System.currentTimeMillis());
+    }
+
+    public InMemoryEmailIdBlockSource(long start) {
+        this.next = new AtomicLong(start);
+    }
+
+    @Override
+    public long reserve(int size) {
+        return next.getAndAdd(size);
+    }
+}
@@ -0,0 +1,173 @@
+package uk.gov.hmcts.reform.sscs.emailid;
+
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appellant;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Identity;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Name;
+import uk.gov.hmcts.reform.sscs.service.EmailService;
+
+/**
+ * Hands out the id used in the robotics email subject and attachment names.
+ *
+ * <p>By default this is {@link EmailService#generateUniqueEmailId}. With {@code robotics.email.id.unique}
+ * the id is the appellant's surname and the last three characters of their NINO, as that method gives
+ * them, cleaned to {@code [A-Za-z0-9_-]}, followed by {@code _} and a base 36 number from an
+ * {@link EmailIdBlockSource}: the file at {@code robotics.email.id.blockFile} if set, otherwise an
+ * in-memory counter. Uniqueness comes from the number alone, so appellants with the same name and NINO
+ * ending cannot collide, and is as wide as the block source's.
+ *
+ * <p>Numbers are taken from the current block with a single atomic increment. The next block is reserved
+ * on a thread of its own once half of the current one is used, so only the first id, or a burst that outruns
+ * the prefetch, waits for the block source, and its file lock never holds up a shared pool.
+ */
+@Component
+@Slf4j
+public class RoboticsEmailIdAllocator implements DisposableBean {
+
+    private final EmailService emailService;
+    private final EmailIdBlockSource blockSource;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+    private final ExecutorService reserver;
+    private CompletableFuture<Block> prefetched;
+
+    @Autowired
+    public RoboticsEmailIdAllocator(EmailService emailService,
+                                    @Value("${robotics.email.id.unique:false}") boolean unique,
+                                    @Value("${robotics.email.id.blockFile:}") String blockFile,
+                                    @Value("${robotics.email.id.blockSize:1000}") int blockSize) {
+        this(emailService, !unique ? null
+                : StringUtils.isBlank(blockFile) ? new InMemoryEmailIdBlockSource()
+                : new FileEmailIdBlockSource(Paths.get(blockFile)), blockSize);
+    }
+
+    public RoboticsEmailIdAllocator(EmailService emailService, EmailIdBlockSource blockSource, int blockSize) {
+        if (blockSize < 2) {
+            throw new IllegalArgumentException("Robotics email id block size must be at least 2");
+        }
+        this.emailService = emailService;
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+        this.reserver = blockSource == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "robotics-email-id-reserver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The id from {@link EmailService#generateUniqueEmailId}, as before this allocator existed.
+     */
+    public static RoboticsEmailIdAllocator legacy(EmailService emailService) {
+        return new RoboticsEmailIdAllocator(emailService, null, 2);
+    }
+
+    public String nextId(Appellant appellant) {
+        if (blockSource == null) {
+            return emailService.generateUniqueEmailId(appellant);
+        }
+        return clean(prefix(appellant)) + "_" + Long.toString(nextNumber(), Character.MAX_RADIX);
+    }
+
+    @Override
+    public void destroy() {
+        if (reserver != null) {
+            reserver.shutdown();
+        }
+    }
+
+    long nextNumber() {
+        while (true) {
+            Block block = current.get();
+            long number = block.next.getAndIncrement();
+            if (number < block.end) {
+                if (number == block.prefetchAt) {
+                    prefetch();
+                }
+                return number;
+            }
+            refill(block);
+        }
+    }
+
+    private synchronized void prefetch() {
+        if (prefetched == null) {
+            try {
+                prefetched = CompletableFuture.supplyAsync(this::reserveBlock, reserver);
+            } catch (RejectedExecutionException e) {
+                log.debug("Not prefetching robotics email ids after shutdown");
+            }
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (current.get() != exhausted) {
+            return;
+        }
+        CompletableFuture<Block> pending = prefetched;
+        prefetched = null;
+        current.set(pending == null ? reserveBlock() : awaitPrefetched(pending));
+    }
+
+    private Block awaitPrefetched(CompletableFuture<Block> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            log.warn("Prefetching robotics email ids failed, reserving again", e.getCause());
+            return reserveBlock();
+        }
+    }
+
+    private Block reserveBlock() {
+        long start = blockSource.reserve(blockSize);
+        log.debug("Reserved robotics email ids {} to {}", start, start + blockSize - 1);
+        return new Block(start, blockSize);
+    }
+
+    static String prefix(Appellant appellant) {
+        Name name = appellant.getName();
+        Identity identity = appellant.getIdentity();
+        return StringUtils.defaultString(name == null ? null : name.getLastName()) + "_"
+                + StringUtils.right(StringUtils.defaultString(identity == null ? null : identity.getNino()), 3);
+    }
+
+    static String clean(String prefix) {
+        StringBuilder cleaned = new StringBuilder(prefix == null ? 0 : prefix.length());
+        if (prefix != null) {
+            for (int i = 0; i < prefix.length(); i++) {
+                char c = prefix.charAt(i);
+                boolean safe = c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9'
+                        || c == '_' || c == '-';
+                cleaned.append(safe ? c : '-');
+            }
+        }
+        return cleaned.length() == 0 ? "robotics" : cleaned.toString();
+    }
+
+    private static final class Block {
+        private static final Block EMPTY = new Block(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+        private final long prefetchAt;
+
+        private Block(long start, int size) {
+            this.next = new AtomicLong(start);
+            this.end = start + size;
+            this.prefetchAt = start + size / 2;
+        }
+    }
+}
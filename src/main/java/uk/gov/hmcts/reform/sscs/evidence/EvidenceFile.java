@@ -0,0 +1,22 @@
+package uk.gov.hmcts.reform.sscs.evidence;
+
+import lombok.Value;
+
+/**
+ * One additional evidence attachment on its way to the robotics email.
+ */
+@Value
+public class EvidenceFile {
+
+    private String filename;
+
+    private byte[] content;
+
+    public EvidenceFile withContent(byte[] newContent) {
+        return new EvidenceFile(filename, newContent);
+    }
+
+    public EvidenceFile withFilename(String newFilename) {
+        return new EvidenceFile(newFilename, content);
+    }
+}
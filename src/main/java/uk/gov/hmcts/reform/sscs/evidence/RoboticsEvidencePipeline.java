@@ -0,0 +1,270 @@
+package uk.gov.hmcts.reform.sscs.evidence;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.exception.EvidenceRejectedException;
+import uk.gov.hmcts.reform.sscs.exception.EvidenceTimeoutException;
+
+/**
+ * Runs each additional evidence attachment through the {@link RoboticsEvidenceStage}s, in parallel across
+ * attachments, before it goes into the robotics email.
+ *
+ * <p>At most {@code robotics.evidence.parallelism} attachments are processed at once, across all cases, and
+ * at most {@code robotics.evidence.maxInFlightBytes} of input is being processed at once; a caller waits for
+ * room before handing over the next attachment. Attachments come out in the order they went in. A stage
+ * failure is confined to its attachment: one a stage rejects is left out, and one a stage throws on is sent
+ * unprocessed.
+ *
+ * <p>All of a case's attachments share one deadline, {@code robotics.evidence.timeoutSeconds} from the start
+ * of {@link #process(Map)}, covering both the wait for room and the stages. If it passes, the case fails with
+ * {@link EvidenceTimeoutException} rather than going out with evidence the stages have not seen; its
+ * unfinished stages are interrupted, and their attachments count towards the bytes in flight until they stop.
+ * With no stages the attachments pass straight through on the calling thread, as they did before.
+ */
+@Component
+@Slf4j
+public class RoboticsEvidencePipeline implements DisposableBean {
+
+    public enum Outcome {
+        PROCESSED, REJECTED, FAILED
+    }
+
+    private static final RoboticsEvidencePipeline PASS_THROUGH = new RoboticsEvidencePipeline(
+            Collections.emptyList(), 1, Long.MAX_VALUE, 0);
+
+    private static final int BYTES_PER_PERMIT = 1024;
+
+    private final List<RoboticsEvidenceStage> stages;
+    private final int maxPermits;
+    private final Semaphore inFlight;
+    private final long timeoutNanos;
+    private final ExecutorService executor;
+
+    @Autowired
+    public RoboticsEvidencePipeline(ObjectProvider<RoboticsEvidenceStage> stages,
+                                    @Value("${robotics.evidence.parallelism:4}") int parallelism,
+                                    @Value("${robotics.evidence.maxInFlightBytes:67108864}") long maxInFlightBytes,
+                                    @Value("${robotics.evidence.timeoutSeconds:30}") long timeoutSeconds) {
+        this(stages.orderedStream().collect(toList()), parallelism, maxInFlightBytes, timeoutSeconds);
+    }
+
+    public RoboticsEvidencePipeline(List<RoboticsEvidenceStage> stages, int parallelism, long maxInFlightBytes,
+                                    long timeoutSeconds) {
+        this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+        this.maxPermits = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxInFlightBytes / BYTES_PER_PERMIT));
+        this.inFlight = new Semaphore(maxPermits);
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        this.executor = stages.isEmpty() ? null : Executors.newFixedThreadPool(parallelism, threadFactory());
+    }
+
+    /**
+     * Attachments as they are, with no stages.
+     */
+    public static RoboticsEvidencePipeline passThrough() {
+        return PASS_THROUGH;
+    }
+
+    /**
+     * The attachments to send, in the order of {@code additionalEvidence}, skipping entries with no name or
+     * no content.
+     *
+     * @throws EvidenceTimeoutException if they cannot all be processed within the timeout
+     */
+    public Result process(Map<String, byte[]> additionalEvidence) {
+        List<EvidenceFile> evidence = new ArrayList<>(additionalEvidence.size());
+        for (Map.Entry<String, byte[]> entry : additionalEvidence.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                evidence.add(new EvidenceFile(entry.getKey(), entry.getValue()));
+            }
+        }
+        if (executor == null || evidence.isEmpty()) {
+            return new Result(evidence, Collections.emptyList());
+        }
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        List<Task> tasks = new ArrayList<>(evidence.size());
+        try {
+            for (EvidenceFile file : evidence) {
+                tasks.add(submit(file, deadline));
+            }
+            List<EvidenceFile> attachments = new ArrayList<>(tasks.size());
+            List<Report> reports = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                Report report = task.await(deadline);
+                reports.add(report);
+                if (report.getOutcome() != Outcome.REJECTED) {
+                    attachments.add(task.toSend);
+                }
+            }
+            return new Result(attachments, reports);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing additional evidence", e);
+        } finally {
+            tasks.forEach(Task::cancel);
+        }
+    }
+
+    public List<RoboticsEvidenceStage> getStages() {
+        return stages;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private Task submit(EvidenceFile file, long deadline) throws InterruptedException {
+        int permits = (int) Math.min(maxPermits, Math.max(1, file.getContent().length / BYTES_PER_PERMIT));
+        if (!inFlight.tryAcquire(permits, remaining(deadline), TimeUnit.NANOSECONDS)) {
+            throw timedOut("No room to process additional evidence " + file.getFilename());
+        }
+        Task task = new Task(file, permits);
+        task.future = executor.submit(task::run);
+        return task;
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private EvidenceTimeoutException timedOut(String what) {
+        EvidenceTimeoutException e = new EvidenceTimeoutException(
+                what + " within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms");
+        log.warn(e.getMessage());
+        return e;
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "robotics-evidence-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Task {
+        private final EvidenceFile original;
+        private final int permits;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private Future<?> future;
+        private EvidenceFile toSend;
+        private volatile EvidenceFile result;
+        private volatile Outcome outcome;
+        private volatile String reason;
+        private volatile long processingNanos;
+
+        private Task(EvidenceFile original, int permits) {
+            this.original = original;
+            this.permits = permits;
+        }
+
+        private void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                EvidenceFile file = original;
+                for (RoboticsEvidenceStage stage : stages) {
+                    file = stage.process(file);
+                }
+                result = file;
+                outcome = Outcome.PROCESSED;
+            } catch (EvidenceRejectedException e) {
+                reason = e.getMessage();
+                outcome = Outcome.REJECTED;
+            } catch (RuntimeException e) {
+                log.warn("Failed to process additional evidence {}, sending it unprocessed", original.getFilename(), e);
+                reason = e.toString();
+                outcome = Outcome.FAILED;
+            } finally {
+                processingNanos = System.nanoTime() - start;
+                inFlight.release(permits);
+            }
+        }
+
+        private Report await(long deadline) throws InterruptedException {
+            try {
+                future.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                throw timedOut("Could not process additional evidence " + original.getFilename());
+            } catch (ExecutionException e) {
+                return failed(e.getCause().toString());
+            }
+            if (outcome == Outcome.FAILED || outcome == Outcome.PROCESSED && result == null) {
+                return failed(reason == null ? "no attachment returned" : reason);
+            }
+            toSend = result;
+            Report report = new Report(original.getFilename(), outcome, reason, original.getContent().length,
+                    outcome == Outcome.PROCESSED ? toSend.getContent().length : 0,
+                    TimeUnit.NANOSECONDS.toMillis(processingNanos));
+            log.info("Additional evidence {}", report);
+            return report;
+        }
+
+        private Report failed(String failure) {
+            toSend = original;
+            Report report = new Report(original.getFilename(), Outcome.FAILED, failure, original.getContent().length,
+                    original.getContent().length, TimeUnit.NANOSECONDS.toMillis(processingNanos));
+            log.warn("Additional evidence {}", report);
+            return report;
+        }
+
+        /**
+         * Interrupts the stages if still running, whose permits go back once they have stopped, or keeps them
+         * from starting and gives the permits back now. Does nothing once they have finished.
+         */
+        private void cancel() {
+            future.cancel(true);
+            if (claimed.compareAndSet(false, true)) {
+                inFlight.release(permits);
+            }
+        }
+    }
+
+    @lombok.Value
+    public static class Report {
+        private String filename;
+        private Outcome outcome;
+        private String reason;
+        private long originalBytes;
+        private long processedBytes;
+        private long processingMillis;
+
+        @Override
+        public String toString() {
+            return filename + " " + outcome + (reason == null ? "" : " (" + reason + ")") + ": " + originalBytes
+                    + " -> " + processedBytes + " bytes in " + processingMillis + " ms";
+        }
+    }
+
+    @lombok.Value
+    public static class Result {
+        private List<EvidenceFile> attachments;
+        private List<Report> reports;
+    }
+}
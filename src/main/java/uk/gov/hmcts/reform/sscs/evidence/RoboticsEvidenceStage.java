@@ -0,0 +1,17 @@
+package uk.gov.hmcts.reform.sscs.evidence;
+
+import uk.gov.hmcts.reform.sscs.exception.EvidenceRejectedException;
+
+/**
+ * A step every additional evidence attachment goes through before it is added to the robotics email, such
+ * as checking its type or shrinking a large image. Stages are Spring beans, applied in
+ * {@link org.springframework.core.annotation.Order} order.
+ *
+ * <p>A stage returns the attachment to pass on, changed or not, or throws {@link EvidenceRejectedException}
+ * to leave it out of the email. Stages run concurrently for different attachments, so must be thread-safe.
+ */
+@FunctionalInterface
+public interface RoboticsEvidenceStage {
+
+    EvidenceFile process(EvidenceFile evidence);
+}
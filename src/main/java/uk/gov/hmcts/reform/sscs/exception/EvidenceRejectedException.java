@@ -0,0 +1,13 @@
+package uk.gov.hmcts.reform.sscs.exception;
+
+import uk.gov.hmcts.reform.sscs.evidence.RoboticsEvidenceStage;
+
+/**
+ * Thrown by a {@link RoboticsEvidenceStage} to leave an attachment out of the robotics email.
+ */
+public class EvidenceRejectedException extends RuntimeException {
+
+    public EvidenceRejectedException(String reason) {
+        super(reason);
+    }
+}
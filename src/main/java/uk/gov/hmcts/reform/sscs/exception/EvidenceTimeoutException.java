@@ -0,0 +1,15 @@
+package uk.gov.hmcts.reform.sscs.exception;
+
+import uk.gov.hmcts.reform.sscs.evidence.RoboticsEvidencePipeline;
+
+/**
+ * The {@link RoboticsEvidencePipeline} could not process a case's additional evidence in time, either because
+ * there was no room for it or because a stage ran too long. The case is failed rather than sent with evidence
+ * the stages have not seen.
+ */
+public class EvidenceTimeoutException extends RuntimeException {
+
+    public EvidenceTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.hmcts.reform.sscs.exception;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage;
+
+/**
+ * A case ran out of its latency budget, or was cancelled, before or during {@link #getStage()}. The stage
+ * timings show where the budget went.
+ */
+public class RoboticsDeadlineExceededException extends RuntimeException {
+
+    private final RoboticsSendStage stage;
+    private final boolean cancelled;
+    private final Duration elapsed;
+    private final Map<RoboticsSendStage, Duration> stageTimings;
+
+    public RoboticsDeadlineExceededException(RoboticsSendStage stage, boolean cancelled, Duration elapsed,
+                                             Map<RoboticsSendStage, Duration> stageTimings) {
+        super(message(stage, cancelled, elapsed, stageTimings));
+        this.stage = stage;
+        this.cancelled = cancelled;
+        this.elapsed = elapsed;
+        this.stageTimings = stageTimings.isEmpty() ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(stageTimings));
+    }
+
+    public RoboticsSendStage getStage() {
+        return stage;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public Map<RoboticsSendStage, Duration> getStageTimings() {
+        return stageTimings;
+    }
+
+    /**
+     * The stage that used the most of the budget, or null if none had started.
+     */
+    public RoboticsSendStage getSlowestStage() {
+        RoboticsSendStage slowest = null;
+        for (Map.Entry<RoboticsSendStage, Duration> timing : stageTimings.entrySet()) {
+            if (slowest == null || timing.getValue().compareTo(stageTimings.get(slowest)) > 0) {
+                slowest = timing.getKey();
+            }
+        }
+        return slowest;
+    }
+
+    private static String message(RoboticsSendStage stage, boolean cancelled, Duration elapsed,
+                                  Map<RoboticsSendStage, Duration> stageTimings) {
+        StringBuilder message = new StringBuilder(cancelled ? "Robotics case cancelled at " : "Robotics case deadline exceeded at ")
+                .append(stage).append(" after ").append(elapsed.toMillis()).append(" ms");
+        String separator = " (";
+        for (Map.Entry<RoboticsSendStage, Duration> timing : stageTimings.entrySet()) {
+            message.append(separator).append(timing.getKey()).append(' ').append(timing.getValue().toMillis()).append(" ms");
+            separator = ", ";
+        }
+        return stageTimings.isEmpty() ? message.toString() : message.append(')').toString();
+    }
+}
@@ -11,4 +11,8 @@ public class RoboticsValidationException extends RuntimeException {
         super(cause);
     }
 
+    protected RoboticsValidationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package uk.gov.hmcts.reform.sscs.exception;
+
+import uk.gov.hmcts.reform.sscs.json.RoboticsValidationResult;
+
+/**
+ * Carries every violation found in a robotics payload without the cost of capturing a stack trace.
+ */
+public class StacklessRoboticsValidationException extends RoboticsValidationException {
+
+    private final transient RoboticsValidationResult validationResult;
+
+    public StacklessRoboticsValidationException(RoboticsValidationResult validationResult) {
+        super(validationResult.getSummary(), false);
+        this.validationResult = validationResult;
+    }
+
+    public RoboticsValidationResult getValidationResult() {
+        return validationResult;
+    }
+}
@@ -0,0 +1,273 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates robotics json section by section, only re-checking sections whose content has changed.
+ *
+ * <p>The schema is split into a root sub-schema (top-level properties and dependencies) and one
+ * sub-schema per object-valued property (person, hearingArrangements). Results are cached by a
+ * 64-bit hash of each section's content, so an amended case only pays for the sections that differ.
+ * Failures are logged through the {@link RoboticsJsonValidator}'s error logger, so both validators share
+ * one rate limit.
+ *
+ * <p>The schema is the {@link RoboticsSchemaRegistry}'s current version. When the registry swaps in
+ * another version it is split again and the cached results are dropped.
+ */
+@Component
+public class IncrementalRoboticsJsonValidator {
+
+    static final String ROOT_SECTION = "root";
+
+    private static final String DEFINITIONS = "definitions";
+    private static final String PROPERTIES = "properties";
+    private static final String REF = "$ref";
+    private static final String DEFINITIONS_REF_PREFIX = "#/definitions/";
+
+    private final RoboticsSchemaRegistry schemaRegistry;
+    private final int cacheSize;
+    private final RoboticsValidationErrorLogger errorLogger;
+    private final AtomicLong sectionValidations = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private volatile SectionSchemas sectionSchemas;
+
+    @Autowired
+    public IncrementalRoboticsJsonValidator(
+            RoboticsSchemaRegistry schemaRegistry,
+            @Value("${robotics.schema.incremental.cacheSize:10000}") int cacheSize,
+            RoboticsJsonValidator roboticsJsonValidator) {
+        this.schemaRegistry = schemaRegistry;
+        this.cacheSize = cacheSize;
+        this.errorLogger = roboticsJsonValidator.getErrorLogger();
+    }
+
+    public void validate(JSONObject roboticsJson) {
+        SectionSchemas schemas = getSectionSchemas();
+
+        JSONObject root = new JSONObject();
+        List<String> sectionProperties = new ArrayList<>();
+        for (String key : roboticsJson.keySet()) {
+            Object value = roboticsJson.get(key);
+            if (schemas.propertySections.containsKey(key) && value instanceof JSONObject) {
+                root.put(key, new JSONObject());
+                sectionProperties.add(key);
+            } else {
+                root.put(key, value);
+            }
+        }
+
+        validateSection(schemas, ROOT_SECTION, root, null);
+
+        for (String property : sectionProperties) {
+            validateSection(schemas, schemas.propertySections.get(property), roboticsJson.getJSONObject(property),
+                    property);
+        }
+    }
+
+    public long getSectionValidations() {
+        return sectionValidations.get();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    private void validateSection(SectionSchemas schemas, String section, JSONObject content, String property) {
+        Schema schema = schemas.sections.get(section);
+        SectionContent key = new SectionContent(section, contentHash(content));
+
+        RoboticsValidationResult result = schemas.results.get(key);
+        if (result == null) {
+            sectionValidations.incrementAndGet();
+            result = validateSection(schema, content);
+            schemas.results.put(key, result);
+        } else {
+            cacheHits.incrementAndGet();
+        }
+
+        if (!result.isValid()) {
+            RoboticsValidationResult documentResult = property == null ? result : result.prepend(property);
+            errorLogger.logFailure(documentResult);
+            documentResult.throwIfInvalid();
+        }
+    }
+
+    private static RoboticsValidationResult validateSection(Schema schema, JSONObject content) {
+        try {
+            schema.validate(content);
+            return RoboticsValidationResult.valid();
+        } catch (ValidationException validationException) {
+            return RoboticsValidationResult.of(validationException);
+        }
+    }
+
+    private SectionSchemas getSectionSchemas() {
+        JSONObject schemaJson = schemaRegistry.getSchemaJson();
+        SectionSchemas schemas = sectionSchemas;
+        if (schemas == null || schemas.source != schemaJson) {
+            synchronized (this) {
+                schemas = sectionSchemas;
+                if (schemas == null || schemas.source != schemaJson) {
+                    schemas = splitSchema(schemaJson, cacheSize);
+                    sectionSchemas = schemas;
+                }
+            }
+        }
+        return schemas;
+    }
+
+    /**
+     * Hashes the content the way {@link JSONObject#similar} compares it: key order does not matter, array
+     * order and value types do.
+     */
+    static long contentHash(Object value) {
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            long hash = 5;
+            for (String key : object.keySet()) {
+                hash += mix(stringHash(key) * 31 + contentHash(object.get(key)));
+            }
+            return mix(hash);
+        }
+        if (value instanceof JSONArray) {
+            long hash = 6;
+            for (Object element : (JSONArray) value) {
+                hash = hash * 31 + contentHash(element);
+            }
+            return mix(hash);
+        }
+        if (value instanceof String) {
+            return mix(1 + stringHash((String) value));
+        }
+        if (value instanceof Number) {
+            return mix(2 + stringHash(value.toString()));
+        }
+        if (value instanceof Boolean) {
+            return mix((Boolean) value ? 3 : 4);
+        }
+        return mix(7 + stringHash(String.valueOf(value)));
+    }
+
+    private static long stringHash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        long hash = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    static SectionSchemas splitSchema(JSONObject schemaJson, int cacheSize) {
+        JSONObject definitions = schemaJson.optJSONObject(DEFINITIONS);
+        JSONObject properties = schemaJson.getJSONObject(PROPERTIES);
+
+        JSONObject rootSchemaJson = new JSONObject(schemaJson.toString());
+        JSONObject rootProperties = rootSchemaJson.getJSONObject(PROPERTIES);
+
+        Map<String, String> propertySections = new LinkedHashMap<>();
+        Map<String, Schema> sections = new LinkedHashMap<>();
+
+        for (String property : properties.keySet()) {
+            JSONObject propertySchema = properties.getJSONObject(property);
+            String section = property;
+            JSONObject sectionSchemaJson = propertySchema;
+
+            String ref = propertySchema.optString(REF, null);
+            if (ref != null && ref.startsWith(DEFINITIONS_REF_PREFIX) && definitions != null) {
+                section = ref.substring(DEFINITIONS_REF_PREFIX.length());
+                sectionSchemaJson = definitions.optJSONObject(section);
+            }
+
+            if (sectionSchemaJson == null || !"object".equals(sectionSchemaJson.optString("type"))) {
+                continue;
+            }
+
+            propertySections.put(property, section);
+            rootProperties.put(property, new JSONObject().put("type", "object"));
+
+            if (!sections.containsKey(section)) {
+                JSONObject sectionSchema = new JSONObject(sectionSchemaJson.toString());
+                if (schemaJson.has("$schema")) {
+                    sectionSchema.put("$schema", schemaJson.get("$schema"));
+                }
+                if (definitions != null) {
+                    sectionSchema.put(DEFINITIONS, new JSONObject(definitions.toString()));
+                }
+                sections.put(section, RoboticsSchemaLoader.load(sectionSchema));
+            }
+        }
+
+        sections.put(ROOT_SECTION, RoboticsSchemaLoader.load(rootSchemaJson));
+
+        return new SectionSchemas(schemaJson, propertySections, sections, cacheSize);
+    }
+
+    static final class SectionSchemas {
+        private final JSONObject source;
+        private final Map<String, String> propertySections;
+        private final Map<String, Schema> sections;
+        private final Map<SectionContent, RoboticsValidationResult> results;
+
+        private SectionSchemas(JSONObject source, Map<String, String> propertySections, Map<String, Schema> sections,
+                               int cacheSize) {
+            this.source = source;
+            this.propertySections = propertySections;
+            this.sections = sections;
+            this.results = Collections.synchronizedMap(new LinkedHashMap<SectionContent, RoboticsValidationResult>(
+                    16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<SectionContent, RoboticsValidationResult> eldest) {
+                        return size() > cacheSize;
+                    }
+                });
+        }
+
+        Map<String, String> getPropertySections() {
+            return propertySections;
+        }
+    }
+
+    private static final class SectionContent {
+        private final String section;
+        private final long contentHash;
+
+        private SectionContent(String section, long contentHash) {
+            this.section = section;
+            this.contentHash = contentHash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof SectionContent)) {
+                return false;
+            }
+            SectionContent that = (SectionContent) other;
+            return contentHash == that.contentHash && section.equals(that.section);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * section.hashCode() + Long.hashCode(contentHash);
+        }
+    }
+}
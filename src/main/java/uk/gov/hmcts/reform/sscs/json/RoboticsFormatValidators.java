@@ -0,0 +1,241 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.everit.json.schema.FormatValidator;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Hand-coded checks for the robotics schema's case code, postcode and phone number patterns and its
+ * {@code date} format, which otherwise go through a regex or a {@code DateTimeFormatter} parse on every
+ * validation.
+ *
+ * <p>{@link #rewrite(JSONObject)} swaps those exact patterns, and {@code "format": "date"}, for the formats
+ * here, so a schema that changes a pattern keeps the regex. The checks accept what the regexes and
+ * {@code ISO_LOCAL_DATE} accept, with the same messages, except that a trailing line terminator (which
+ * {@code $} lets through) and years beyond four digits are rejected.
+ */
+final class RoboticsFormatValidators {
+
+    static final String CASE_CODE_PATTERN = "^\\d{3}DD$";
+    static final String POST_CODE_PATTERN = "^((([A-Za-z][0-9]{1,2})|(([A-Za-z][A-Ha-hJ-Yj-y][0-9]{1,2})|(([A-Za-z][0-9][A-Za-z])"
+            + "|([A-Za-z][A-Ha-hJ-Yj-y][0-9]?[A-Za-z])|([Gg][Ii][Rr]))))\\s?([0-9][A-Za-z]{2})|(0[Aa]{2}))$";
+    static final String PHONE_NUMBER_PATTERN = "^[0-9\\-+ ]{10,17}$";
+    static final String DATE_FORMAT = "date";
+
+    static final FormatValidator CASE_CODE = new PatternFormat("robotics-case-code", CASE_CODE_PATTERN) {
+        @Override
+        boolean matches(String subject) {
+            return subject.length() == 5 && isDigit(subject.charAt(0)) && isDigit(subject.charAt(1))
+                    && isDigit(subject.charAt(2)) && subject.charAt(3) == 'D' && subject.charAt(4) == 'D';
+        }
+    };
+
+    static final FormatValidator POST_CODE = new PatternFormat("robotics-post-code", POST_CODE_PATTERN) {
+        @Override
+        boolean matches(String subject) {
+            return isPostCode(subject);
+        }
+    };
+
+    static final FormatValidator PHONE_NUMBER = new PatternFormat("robotics-phone-number", PHONE_NUMBER_PATTERN) {
+        @Override
+        boolean matches(String subject) {
+            if (subject.length() < 10 || subject.length() > 17) {
+                return false;
+            }
+            for (int i = 0; i < subject.length(); i++) {
+                char c = subject.charAt(i);
+                if (!isDigit(c) && c != '-' && c != '+' && c != ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    static final FormatValidator DATE = new FormatValidator() {
+        @Override
+        public Optional<String> validate(String subject) {
+            return isIsoLocalDate(subject) ? Optional.empty()
+                    : Optional.of(String.format("[%s] is not a valid date. Expected [yyyy-MM-dd]", subject));
+        }
+
+        @Override
+        public String formatName() {
+            return "robotics-date";
+        }
+    };
+
+    static final List<FormatValidator> ALL = Collections.unmodifiableList(
+            Arrays.asList(CASE_CODE, POST_CODE, PHONE_NUMBER, DATE));
+
+    private static final Map<String, String> FORMATS_BY_PATTERN = new HashMap<>();
+
+    static {
+        FORMATS_BY_PATTERN.put(CASE_CODE_PATTERN, CASE_CODE.formatName());
+        FORMATS_BY_PATTERN.put(POST_CODE_PATTERN, POST_CODE.formatName());
+        FORMATS_BY_PATTERN.put(PHONE_NUMBER_PATTERN, PHONE_NUMBER.formatName());
+    }
+
+    private RoboticsFormatValidators() {
+    }
+
+    /**
+     * A copy of the schema json using the formats here in place of the patterns and date format they check.
+     */
+    static JSONObject rewrite(JSONObject schemaJson) {
+        JSONObject copy = new JSONObject(schemaJson.toString());
+        rewriteObject(copy);
+        return copy;
+    }
+
+    private static void rewriteObject(JSONObject schema) {
+        Object pattern = schema.opt("pattern");
+        if (pattern instanceof String && FORMATS_BY_PATTERN.containsKey(pattern) && !schema.has("format")) {
+            schema.remove("pattern");
+            schema.put("format", FORMATS_BY_PATTERN.get(pattern));
+        }
+        if (DATE_FORMAT.equals(schema.opt("format"))) {
+            schema.put("format", DATE.formatName());
+        }
+        for (String key : schema.keySet()) {
+            rewriteValue(schema.get(key));
+        }
+    }
+
+    private static void rewriteValue(Object value) {
+        if (value instanceof JSONObject) {
+            rewriteObject((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            for (Object item : (JSONArray) value) {
+                rewriteValue(item);
+            }
+        }
+    }
+
+    static boolean isIsoLocalDate(String subject) {
+        if (subject.length() != 10 || subject.charAt(4) != '-' || subject.charAt(7) != '-') {
+            return false;
+        }
+        int year = digits(subject, 0, 4);
+        int month = digits(subject, 5, 2);
+        int day = digits(subject, 8, 2);
+        return year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth(year, month);
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int digits(String subject, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = subject.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    /**
+     * An outward code, optionally one whitespace character, then a digit and two letters; or 0AA.
+     */
+    static boolean isPostCode(String subject) {
+        int length = subject.length();
+        if (length == 3) {
+            return subject.charAt(0) == '0' && isA(subject.charAt(1)) && isA(subject.charAt(2));
+        }
+        if (length < 5 || !isDigit(subject.charAt(length - 3)) || !isLetter(subject.charAt(length - 2))
+                || !isLetter(subject.charAt(length - 1))) {
+            return false;
+        }
+        int outwardLength = isWhitespace(subject.charAt(length - 4)) ? length - 4 : length - 3;
+        return isOutwardCode(subject, outwardLength);
+    }
+
+    private static boolean isOutwardCode(String subject, int length) {
+        if (length < 2 || length > 4 || !isLetter(subject.charAt(0))) {
+            return false;
+        }
+        char second = subject.charAt(1);
+        if (length == 2) {
+            return isDigit(second);
+        }
+        char third = subject.charAt(2);
+        if (length == 3) {
+            return isDigit(second) && (isDigit(third) || isLetter(third))
+                    || isSecondLetter(second) && (isDigit(third) || isLetter(third))
+                    || isGir(subject);
+        }
+        char fourth = subject.charAt(3);
+        return isSecondLetter(second) && isDigit(third) && (isDigit(fourth) || isLetter(fourth));
+    }
+
+    private static boolean isGir(String subject) {
+        return (subject.charAt(0) | 0x20) == 'g' && (subject.charAt(1) | 0x20) == 'i' && (subject.charAt(2) | 0x20) == 'r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isA(char c) {
+        return c == 'A' || c == 'a';
+    }
+
+    // [A-Ha-hJ-Yj-y]: any letter but I and Z
+    private static boolean isSecondLetter(char c) {
+        char upper = (char) (c & ~0x20);
+        return isLetter(c) && upper != 'I' && upper != 'Z';
+    }
+
+    // \s in java.util.regex
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private abstract static class PatternFormat implements FormatValidator {
+        private final String formatName;
+        private final String pattern;
+
+        PatternFormat(String formatName, String pattern) {
+            this.formatName = formatName;
+            this.pattern = pattern;
+        }
+
+        abstract boolean matches(String subject);
+
+        @Override
+        public Optional<String> validate(String subject) {
+            return matches(subject) ? Optional.empty()
+                    : Optional.of(String.format("string [%s] does not match pattern %s", subject, pattern));
+        }
+
+        @Override
+        public String formatName() {
+            return formatName;
+        }
+    }
+}
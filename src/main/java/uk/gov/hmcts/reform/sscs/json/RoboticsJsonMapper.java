@@ -3,13 +3,20 @@ package uk.gov.hmcts.reform.sscs.json;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
-import org.apache.commons.lang.StringUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONArray;
 import org.json.JSONObject;
-import org.json.simple.JSONArray;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitMappingRule;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategy;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategyRegistry;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Address;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Appeal;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Appellant;
@@ -18,197 +25,400 @@ import uk.gov.hmcts.reform.sscs.ccd.domain.Contact;
 import uk.gov.hmcts.reform.sscs.ccd.domain.ExcludeDate;
 import uk.gov.hmcts.reform.sscs.ccd.domain.HearingOptions;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Identity;
+import uk.gov.hmcts.reform.sscs.ccd.domain.MrnDetails;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Name;
 import uk.gov.hmcts.reform.sscs.ccd.domain.RegionalProcessingCenter;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Representative;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsHearingArrangements;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPerson;
 import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
 
 @Component
 public class RoboticsJsonMapper {
 
     private static final String YES = "Yes";
-    private static final String ESA_CASE_CODE = "051DD";
-    private static final String PIP_CASE_CODE = "002DD";
+    private static final DateTimeFormatter EXCLUDE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final ThreadLocal<ScratchJsonObjects> SCRATCH = ThreadLocal.withInitial(ScratchJsonObjects::new);
+
+    private static volatile AppealDate appealDate = new AppealDate(LocalDate.now());
 
     private Boolean rpcEmailRoboticsFeature;
+    private final BenefitStrategyRegistry benefitStrategyRegistry;
+    private final RoboticsStringCanonicaliser canonicaliser;
+
+    public RoboticsJsonMapper(Boolean rpcEmailRoboticsFeature) {
+        this(rpcEmailRoboticsFeature, BenefitStrategyRegistry.defaultRegistry());
+    }
+
+    public RoboticsJsonMapper(Boolean rpcEmailRoboticsFeature, BenefitStrategyRegistry benefitStrategyRegistry) {
+        this(rpcEmailRoboticsFeature, benefitStrategyRegistry, RoboticsStringCanonicaliser.shared());
+    }
 
     @Autowired
-    public RoboticsJsonMapper(@Value("${feature.rpc_email_robotics}") Boolean rpcEmailRoboticsFeature) {
+    public RoboticsJsonMapper(@Value("${feature.rpc_email_robotics}") Boolean rpcEmailRoboticsFeature,
+                              BenefitStrategyRegistry benefitStrategyRegistry,
+                              RoboticsStringCanonicaliser canonicaliser) {
         this.rpcEmailRoboticsFeature = rpcEmailRoboticsFeature;
+        this.benefitStrategyRegistry = benefitStrategyRegistry;
+        this.canonicaliser = canonicaliser;
+    }
+
+    /**
+     * A mapper like this one but with a canonicaliser of its own, so that mapping synthetic cases does not
+     * fill the shared one.
+     */
+    public RoboticsJsonMapper withOwnCanonicaliser() {
+        return new RoboticsJsonMapper(rpcEmailRoboticsFeature, benefitStrategyRegistry, new RoboticsStringCanonicaliser(
+                RoboticsStringCanonicaliser.DEFAULT_MAX_ENTRIES, RoboticsStringCanonicaliser.DEFAULT_MAX_LENGTH));
     }
 
     public JSONObject map(RoboticsWrapper roboticsWrapper) {
+        return RoboticsPayloadWriter.toJsonObject(mapToPayload(roboticsWrapper));
+    }
+
+    /**
+     * Allocation-conscious variant of {@link #map(RoboticsWrapper)} for high-rate bulk processing.
+     *
+     * <p>The case is written straight into json objects that are scratch space owned by the calling
+     * thread, with no payload or builders in between. They are cleared and reused by its next call, so the
+     * result must be validated and serialised before the thread maps another case. A benefit with a
+     * {@link uk.gov.hmcts.reform.sscs.benefit.BenefitMappingRule} works on the payload builder, so its cases
+     * are mapped to a payload first.
+     */
+    public JSONObject mapIntoScratch(RoboticsWrapper roboticsWrapper) {
+        ScratchJsonObjects scratch = SCRATCH.get();
+
+        Appeal appeal = roboticsWrapper.getSscsCaseData().getAppeal();
+        BenefitStrategy benefitStrategy = benefitStrategyRegistry.get(appeal.getBenefitType().getCode());
+        if (benefitStrategy.getMappingRule() != BenefitMappingRule.NONE) {
+            scratch.clear();
+            return RoboticsPayloadWriter.toJsonObject(mapToPayload(roboticsWrapper), scratch);
+        }
+
+        JSONObject json = scratch.get(RoboticsPayloadWriter.Slot.ROOT);
+        writeAppealDetails(json, appeal, benefitStrategy, roboticsWrapper.getVenueName());
+        set(json, RoboticsPayloadWriter.CASE_ID, roboticsWrapper.getCcdCaseId());
+        set(json, RoboticsPayloadWriter.EVIDENCE_PRESENT,
+                canonicaliser.canonicalise(roboticsWrapper.getEvidencePresent()));
+
+        Appellant appellant = appeal.getAppellant();
+        Appointee appointee = appellant.getAppointee();
+        JSONObject appointeeJson = null;
+        if (!isAppointeeDetailsEmpty(appointee)) {
+            appointeeJson = scratch.get(RoboticsPayloadWriter.Slot.APPOINTEE);
+            writePerson(appointeeJson, appointee.getName().getTitle(), appointee.getName().getFirstName(),
+                    appointee.getName().getLastName(), null, appointee.getAddress(), appointee.getContact());
+            set(appointeeJson, RoboticsPayloadWriter.SAME_ADDRESS_AS_APPELLANT,
+                    "Yes".equalsIgnoreCase(appellant.getIsAddressSameAsAppointee()) ? "Yes" : "No");
+        }
+        set(json, RoboticsPayloadWriter.APPOINTEE, appointeeJson);
+
+        JSONObject appellantJson = scratch.get(RoboticsPayloadWriter.Slot.APPELLANT);
+        writePerson(appellantJson, appellant.getName().getTitle(), appellant.getName().getFirstName(),
+                appellant.getName().getLastName(), null, appellant.getAddress(), appellant.getContact());
+        set(appellantJson, RoboticsPayloadWriter.SAME_ADDRESS_AS_APPELLANT, null);
+        set(json, RoboticsPayloadWriter.APPELLANT, appellantJson);
+
+        Representative rep = appeal.getRep();
+        JSONObject representativeJson = null;
+        if (rep != null && rep.getHasRepresentative().equals("Yes")) {
+            representativeJson = scratch.get(RoboticsPayloadWriter.Slot.REPRESENTATIVE);
+            Name name = rep.getName();
+            writePerson(representativeJson, name.getTitle() != null ? name.getTitle() : "s/m",
+                    name.getFirstName() != null ? name.getFirstName() : ".",
+                    name.getLastName() != null ? name.getLastName() : ".", rep.getOrganisation(), rep.getAddress(),
+                    rep.getContact());
+            set(representativeJson, RoboticsPayloadWriter.SAME_ADDRESS_AS_APPELLANT, null);
+        }
+        set(json, RoboticsPayloadWriter.REPRESENTATIVE, representativeJson);
+
+        JSONObject hearingArrangements = null;
+        if (appeal.getHearingOptions() != null) {
+            hearingArrangements = scratch.get(RoboticsPayloadWriter.Slot.HEARING_ARRANGEMENTS);
+            if (!writeHearingOptions(hearingArrangements, scratch.getDatesCantAttend(), appeal.getHearingOptions())) {
+                hearingArrangements = null;
+            }
+        }
+        set(json, RoboticsPayloadWriter.HEARING_ARRANGEMENTS, hearingArrangements);
+
+        RegionalProcessingCenter rpc = roboticsWrapper.getSscsCaseData().getRegionalProcessingCenter();
+        set(json, RoboticsPayloadWriter.RPC_EMAIL,
+                rpcEmailRoboticsFeature != null && rpcEmailRoboticsFeature && rpc != null && rpc.getEmail() != null
+                        ? canonicaliser.canonicalise(rpc.getEmail()) : null);
+
+        return json;
+    }
+
+    public RoboticsPayload mapToPayload(RoboticsWrapper roboticsWrapper) {
 
         SscsCaseData sscsCaseData = roboticsWrapper.getSscsCaseData();
+        Appeal appeal = sscsCaseData.getAppeal();
+        BenefitStrategy benefitStrategy = benefitStrategyRegistry.get(appeal.getBenefitType().getCode());
 
-        JSONObject obj = buildAppealDetails(new JSONObject(), sscsCaseData.getAppeal(), roboticsWrapper.getVenueName());
+        RoboticsPayload.RoboticsPayloadBuilder payload = buildAppealDetails(appeal, benefitStrategy,
+                roboticsWrapper.getVenueName());
 
-        obj.put("caseId", roboticsWrapper.getCcdCaseId());
-        obj.put("evidencePresent", roboticsWrapper.getEvidencePresent());
+        payload.caseId(roboticsWrapper.getCcdCaseId());
+        payload.evidencePresent(canonicaliser.canonicalise(roboticsWrapper.getEvidencePresent()));
 
-        if (!isAppointeeDetailsEmpty(sscsCaseData.getAppeal().getAppellant().getAppointee())) {
-            Boolean sameAddressAsAppointee = "Yes".equalsIgnoreCase(sscsCaseData.getAppeal().getAppellant().getIsAddressSameAsAppointee());
-            obj.put("appointee", buildAppointeeDetails(sscsCaseData.getAppeal().getAppellant().getAppointee(), sameAddressAsAppointee));
+        if (!isAppointeeDetailsEmpty(appeal.getAppellant().getAppointee())) {
+            Boolean sameAddressAsAppointee = "Yes".equalsIgnoreCase(appeal.getAppellant().getIsAddressSameAsAppointee());
+            payload.appointee(buildAppointeeDetails(appeal.getAppellant().getAppointee(), sameAddressAsAppointee));
         }
 
-        obj.put("appellant", buildAppellantDetails(sscsCaseData.getAppeal().getAppellant()));
+        payload.appellant(buildAppellantDetails(appeal.getAppellant()));
 
-        if (sscsCaseData.getAppeal().getRep() != null && sscsCaseData.getAppeal().getRep().getHasRepresentative().equals("Yes")) {
-            obj.put("representative", buildRepresentativeDetails(sscsCaseData.getAppeal().getRep()));
+        if (appeal.getRep() != null && appeal.getRep().getHasRepresentative().equals("Yes")) {
+            payload.representative(buildRepresentativeDetails(appeal.getRep()));
         }
 
-        if (sscsCaseData.getAppeal().getHearingOptions() != null) {
-            JSONObject hearingArrangements = buildHearingOptions(sscsCaseData.getAppeal().getHearingOptions());
-            if (hearingArrangements.length() > 0) {
-                obj.put("hearingArrangements", hearingArrangements);
-            }
+        if (appeal.getHearingOptions() != null) {
+            payload.hearingArrangements(buildHearingOptions(appeal.getHearingOptions()));
         }
 
-        addRpcEmail(sscsCaseData.getRegionalProcessingCenter(), obj);
+        addRpcEmail(sscsCaseData.getRegionalProcessingCenter(), payload);
 
-        return obj;
+        benefitStrategy.getMappingRule().apply(appeal, payload);
+
+        return payload.build();
     }
 
-    private void addRpcEmail(RegionalProcessingCenter rpc, JSONObject obj) {
+    private void addRpcEmail(RegionalProcessingCenter rpc, RoboticsPayload.RoboticsPayloadBuilder payload) {
         if (rpcEmailRoboticsFeature != null && rpcEmailRoboticsFeature && rpc != null && rpc.getEmail() != null) {
-            obj.put("rpcEmail", rpc.getEmail());
+            payload.rpcEmail(canonicaliser.canonicalise(rpc.getEmail()));
         }
     }
 
-    private static JSONObject buildAppealDetails(JSONObject obj, Appeal appeal, String venueName) {
-        obj.put("caseCode", getCaseCode(appeal.getBenefitType().getCode()));
-        obj.put("appellantNino", appeal.getAppellant().getIdentity().getNino());
-        obj.put("appellantPostCode", venueName);
-        obj.put("appealDate", LocalDate.now().toString());
-        obj.put("receivedVia", appeal.getReceivedVia());
+    private RoboticsPayload.RoboticsPayloadBuilder buildAppealDetails(Appeal appeal, BenefitStrategy benefitStrategy,
+                                                                      String venueName) {
+        RoboticsPayload.RoboticsPayloadBuilder payload = RoboticsPayload.builder()
+                .caseCode(benefitStrategy.getCaseCode())
+                .appellantNino(appeal.getAppellant().getIdentity().getNino())
+                .appellantPostCode(canonicaliser.canonicalise(venueName))
+                .appealDate(getAppealDate())
+                .receivedVia(canonicaliser.canonicalise(appeal.getReceivedVia()));
 
         if (appeal.getMrnDetails() != null) {
-            if (appeal.getMrnDetails().getMrnDate() != null) {
-                obj.put("mrnDate", appeal.getMrnDetails().getMrnDate());
-            }
-            if (appeal.getMrnDetails().getMrnLateReason() != null) {
-                obj.put("mrnReasonForBeingLate", appeal.getMrnDetails().getMrnLateReason());
-            }
+            payload.mrnDate(appeal.getMrnDetails().getMrnDate());
+            payload.mrnReasonForBeingLate(appeal.getMrnDetails().getMrnLateReason());
         }
 
+        payload.pipNumber(canonicaliser.canonicalise(appeal.getMrnDetails().getDwpIssuingOffice()));
 
-        if (appeal.getMrnDetails().getDwpIssuingOffice() != null) {
-            obj.put("pipNumber", appeal.getMrnDetails().getDwpIssuingOffice());
-        }
-
-        obj.put("hearingType", convertBooleanToPaperOral(appeal.getHearingOptions().isWantsToAttendHearing()));
+        payload.hearingType(convertBooleanToPaperOral(appeal.getHearingOptions().isWantsToAttendHearing()));
 
         if (appeal.getHearingOptions().isWantsToAttendHearing()) {
-            obj.put("hearingRequestParty", appeal.getAppellant().getName().getFullName());
+            payload.hearingRequestParty(appeal.getAppellant().getName().getFullName());
         }
 
-        return obj;
+        return payload;
     }
 
-    private static String getCaseCode(String code) {
-        if (StringUtils.equalsIgnoreCase("esa", code)) {
-            return ESA_CASE_CODE;
+    private static String getAppealDate() {
+        LocalDate today = LocalDate.now();
+        AppealDate cached = appealDate;
+        if (!cached.date.equals(today)) {
+            cached = new AppealDate(today);
+            appealDate = cached;
         }
-        return PIP_CASE_CODE;
+        return cached.text;
     }
 
-    private static JSONObject buildAppellantDetails(Appellant appellant) {
-        JSONObject json = new JSONObject();
-
-        json.put("title", appellant.getName().getTitle());
-        json.put("firstName", appellant.getName().getFirstName());
-        json.put("lastName", appellant.getName().getLastName());
+    private RoboticsPerson buildAppellantDetails(Appellant appellant) {
+        RoboticsPerson.RoboticsPersonBuilder person = RoboticsPerson.builder()
+                .title(canonicaliser.canonicalise(appellant.getName().getTitle()))
+                .firstName(appellant.getName().getFirstName())
+                .lastName(appellant.getName().getLastName());
 
-        return buildContactDetails(json, appellant.getAddress(), appellant.getContact());
+        return buildContactDetails(person, appellant.getAddress(), appellant.getContact());
     }
 
-    private static JSONObject buildAppointeeDetails(Appointee appointee, Boolean sameAddressAsAppointee) {
-        JSONObject json = new JSONObject();
+    private RoboticsPerson buildAppointeeDetails(Appointee appointee, Boolean sameAddressAsAppointee) {
+        RoboticsPerson.RoboticsPersonBuilder person = RoboticsPerson.builder()
+                .title(canonicaliser.canonicalise(appointee.getName().getTitle()))
+                .firstName(appointee.getName().getFirstName())
+                .lastName(appointee.getName().getLastName())
+                .sameAddressAsAppellant(sameAddressAsAppointee ? "Yes" : "No");
 
-        json.put("title", appointee.getName().getTitle());
-        json.put("firstName", appointee.getName().getFirstName());
-        json.put("lastName", appointee.getName().getLastName());
-
-        json.put("sameAddressAsAppellant", sameAddressAsAppointee ? "Yes" : "No");
-
-        return buildContactDetails(json, appointee.getAddress(), appointee.getContact());
+        return buildContactDetails(person, appointee.getAddress(), appointee.getContact());
     }
 
-    private static JSONObject buildRepresentativeDetails(Representative rep) {
-        JSONObject json = new JSONObject();
-
+    private RoboticsPerson buildRepresentativeDetails(Representative rep) {
         String title = rep.getName().getTitle() != null ? rep.getName().getTitle() : "s/m";
         String firstName = rep.getName().getFirstName() != null ? rep.getName().getFirstName() : ".";
         String lastName = rep.getName().getLastName() != null ? rep.getName().getLastName() : ".";
 
-        json.put("title", title);
-        json.put("firstName", firstName);
-        json.put("lastName", lastName);
-
-        if (rep.getOrganisation() != null) {
-            json.put("organisation", rep.getOrganisation());
-        }
+        RoboticsPerson.RoboticsPersonBuilder person = RoboticsPerson.builder()
+                .title(canonicaliser.canonicalise(title))
+                .firstName(firstName)
+                .lastName(lastName)
+                .organisation(rep.getOrganisation());
 
-        return buildContactDetails(json, rep.getAddress(), rep.getContact());
+        return buildContactDetails(person, rep.getAddress(), rep.getContact());
     }
 
-    @SuppressWarnings("unchecked")
-    private static JSONObject buildHearingOptions(HearingOptions hearingOptions) {
-        JSONObject hearingArrangements = new JSONObject();
+    private RoboticsHearingArrangements buildHearingOptions(HearingOptions hearingOptions) {
+        RoboticsHearingArrangements.RoboticsHearingArrangementsBuilder hearingArrangements =
+                RoboticsHearingArrangements.builder();
+        boolean empty = true;
 
         if (hearingOptions.getArrangements() != null) {
 
             if (hearingOptions.getLanguageInterpreter() != null && hearingOptions.getLanguageInterpreter().equals(YES) && hearingOptions.getLanguages() != null) {
-                hearingArrangements.put("languageInterpreter", hearingOptions.getLanguages());
+                hearingArrangements.languageInterpreter(canonicaliser.canonicalise(hearingOptions.getLanguages()));
             }
 
             if (hearingOptions.wantsSignLanguageInterpreter() && hearingOptions.getSignLanguageType() != null) {
-                hearingArrangements.put("signLanguageInterpreter", hearingOptions.getSignLanguageType());
+                hearingArrangements.signLanguageInterpreter(canonicaliser.canonicalise(hearingOptions.getSignLanguageType()));
             }
 
-            hearingArrangements.put("hearingLoop", convertBooleanToYesNo(hearingOptions.wantsHearingLoop()));
-            hearingArrangements.put("accessibleHearingRoom", convertBooleanToYesNo(hearingOptions.wantsAccessibleHearingRoom()));
+            hearingArrangements.hearingLoop(convertBooleanToYesNo(hearingOptions.wantsHearingLoop()));
+            hearingArrangements.accessibleHearingRoom(convertBooleanToYesNo(hearingOptions.wantsAccessibleHearingRoom()));
+            empty = false;
         } else if (hearingOptions.getOther() != null || hearingOptions.getExcludeDates() != null) {
 
-            hearingArrangements.put("hearingLoop", convertBooleanToYesNo(false));
-            hearingArrangements.put("accessibleHearingRoom", convertBooleanToYesNo(false));
+            hearingArrangements.hearingLoop(convertBooleanToYesNo(false));
+            hearingArrangements.accessibleHearingRoom(convertBooleanToYesNo(false));
+            empty = false;
         }
 
         if (hearingOptions.getOther() != null) {
-            hearingArrangements.put("other", hearingOptions.getOther());
+            hearingArrangements.other(hearingOptions.getOther());
         }
 
         if (hearingOptions.getExcludeDates() != null
             && hearingOptions.getExcludeDates().size() > 0) {
-            JSONArray datesCantAttendArray = new JSONArray();
+            List<String> datesCantAttend = new ArrayList<>(hearingOptions.getExcludeDates().size());
             for (ExcludeDate a : hearingOptions.getExcludeDates()) {
                 if (!isBlank(a.getValue().getStart())) {
                     // Assume start and end date are always the same
-                    datesCantAttendArray.add(getLocalDate(a.getValue().getStart()));
+                    datesCantAttend.add(getLocalDate(a.getValue().getStart()));
                 }
             }
 
-            hearingArrangements.put("datesCantAttend", datesCantAttendArray);
+            hearingArrangements.datesCantAttend(Collections.unmodifiableList(datesCantAttend));
         }
 
-        return hearingArrangements;
+        return empty ? null : hearingArrangements.build();
     }
 
-    private static JSONObject buildContactDetails(JSONObject json, Address address, Contact contact) {
-        json.put("addressLine1", address.getLine1());
+    private static RoboticsPerson buildContactDetails(RoboticsPerson.RoboticsPersonBuilder person, Address address,
+                                                      Contact contact) {
+        return person
+                .addressLine1(address.getLine1())
+                .addressLine2(address.getLine2())
+                .townOrCity(address.getTown())
+                .county(address.getCounty())
+                .postCode(address.getPostcode())
+                .phoneNumber(contact.getMobile())
+                .email(contact.getEmail())
+                .build();
+    }
+
+    private void writeAppealDetails(JSONObject json, Appeal appeal, BenefitStrategy benefitStrategy,
+                                    String venueName) {
+        set(json, RoboticsPayloadWriter.CASE_CODE, benefitStrategy.getCaseCode());
+        set(json, RoboticsPayloadWriter.APPELLANT_NINO, appeal.getAppellant().getIdentity().getNino());
+        set(json, RoboticsPayloadWriter.APPELLANT_POST_CODE, canonicaliser.canonicalise(venueName));
+        set(json, RoboticsPayloadWriter.APPEAL_DATE, getAppealDate());
+        set(json, RoboticsPayloadWriter.RECEIVED_VIA, canonicaliser.canonicalise(appeal.getReceivedVia()));
+
+        MrnDetails mrnDetails = appeal.getMrnDetails();
+        set(json, RoboticsPayloadWriter.MRN_DATE, mrnDetails != null ? mrnDetails.getMrnDate() : null);
+        set(json, RoboticsPayloadWriter.MRN_REASON_FOR_BEING_LATE,
+                mrnDetails != null ? mrnDetails.getMrnLateReason() : null);
+
+        set(json, RoboticsPayloadWriter.PIP_NUMBER, canonicaliser.canonicalise(mrnDetails.getDwpIssuingOffice()));
+
+        boolean wantsToAttendHearing = appeal.getHearingOptions().isWantsToAttendHearing();
+        set(json, RoboticsPayloadWriter.HEARING_TYPE, convertBooleanToPaperOral(wantsToAttendHearing));
+        set(json, RoboticsPayloadWriter.HEARING_REQUEST_PARTY,
+                wantsToAttendHearing ? appeal.getAppellant().getName().getFullName() : null);
+    }
+
+    private void writePerson(JSONObject json, String title, String firstName, String lastName, String organisation,
+                             Address address, Contact contact) {
+        set(json, RoboticsPayloadWriter.TITLE, canonicaliser.canonicalise(title));
+        set(json, RoboticsPayloadWriter.FIRST_NAME, firstName);
+        set(json, RoboticsPayloadWriter.LAST_NAME, lastName);
+        set(json, RoboticsPayloadWriter.ORGANISATION, organisation);
+        set(json, RoboticsPayloadWriter.ADDRESS_LINE_1, address.getLine1());
+        set(json, RoboticsPayloadWriter.ADDRESS_LINE_2, address.getLine2());
+        set(json, RoboticsPayloadWriter.TOWN_OR_CITY, address.getTown());
+        set(json, RoboticsPayloadWriter.COUNTY, address.getCounty());
+        set(json, RoboticsPayloadWriter.POST_CODE, address.getPostcode());
+        set(json, RoboticsPayloadWriter.PHONE_NUMBER, contact.getMobile());
+        set(json, RoboticsPayloadWriter.EMAIL, contact.getEmail());
+    }
+
+    /**
+     * Writes the same hearing arrangements as {@link #buildHearingOptions}, returning false when there are
+     * none.
+     */
+    private boolean writeHearingOptions(JSONObject json, JSONArray datesCantAttend, HearingOptions hearingOptions) {
+        String languageInterpreter = null;
+        String signLanguageInterpreter = null;
+        String hearingLoop = null;
+        String accessibleHearingRoom = null;
+
+        if (hearingOptions.getArrangements() != null) {
+
+            if (hearingOptions.getLanguageInterpreter() != null && hearingOptions.getLanguageInterpreter().equals(YES) && hearingOptions.getLanguages() != null) {
+                languageInterpreter = canonicaliser.canonicalise(hearingOptions.getLanguages());
+            }
 
-        if (address.getLine2() != null) {
-            json.put("addressLine2", address.getLine2());
+            if (hearingOptions.wantsSignLanguageInterpreter() && hearingOptions.getSignLanguageType() != null) {
+                signLanguageInterpreter = canonicaliser.canonicalise(hearingOptions.getSignLanguageType());
+            }
+
+            hearingLoop = convertBooleanToYesNo(hearingOptions.wantsHearingLoop());
+            accessibleHearingRoom = convertBooleanToYesNo(hearingOptions.wantsAccessibleHearingRoom());
+        } else if (hearingOptions.getOther() != null || hearingOptions.getExcludeDates() != null) {
+
+            hearingLoop = convertBooleanToYesNo(false);
+            accessibleHearingRoom = convertBooleanToYesNo(false);
+        } else {
+            return false;
         }
 
-        json.put("townOrCity", address.getTown());
-        json.put("county", address.getCounty());
-        json.put("postCode", address.getPostcode());
-        json.put("phoneNumber", contact.getMobile());
-        json.put("email", contact.getEmail());
+        set(json, RoboticsPayloadWriter.LANGUAGE_INTERPRETER, languageInterpreter);
+        set(json, RoboticsPayloadWriter.SIGN_LANGUAGE_INTERPRETER, signLanguageInterpreter);
+        set(json, RoboticsPayloadWriter.HEARING_LOOP, hearingLoop);
+        set(json, RoboticsPayloadWriter.ACCESSIBLE_HEARING_ROOM, accessibleHearingRoom);
+        set(json, RoboticsPayloadWriter.OTHER, hearingOptions.getOther());
 
-        return json;
+        for (int i = datesCantAttend.length() - 1; i >= 0; i--) {
+            datesCantAttend.remove(i);
+        }
+        if (hearingOptions.getExcludeDates() != null
+            && hearingOptions.getExcludeDates().size() > 0) {
+            for (ExcludeDate a : hearingOptions.getExcludeDates()) {
+                if (!isBlank(a.getValue().getStart())) {
+                    // Assume start and end date are always the same
+                    datesCantAttend.put(getLocalDate(a.getValue().getStart()));
+                }
+            }
+            json.put(RoboticsPayloadWriter.DATES_CANT_ATTEND, datesCantAttend);
+        } else {
+            json.remove(RoboticsPayloadWriter.DATES_CANT_ATTEND);
+        }
+
+        return true;
+    }
+
+    /**
+     * Puts the value, or removes the key when it is null. Overwriting a key a scratch object already has
+     * allocates nothing, unlike clearing the object and adding the key again.
+     */
+    private static void set(JSONObject json, String key, Object value) {
+        if (value == null) {
+            json.remove(key);
+        } else {
+            json.put(key, value);
+        }
     }
 
     private Boolean isAppointeeDetailsEmpty(Appointee appointee) {
@@ -257,7 +467,77 @@ public class RoboticsJsonMapper {
     }
 
     private static String getLocalDate(String dateStr) {
-        LocalDate localDate = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        if (isIsoDate(dateStr)) {
+            return dateStr;
+        }
+        LocalDate localDate = LocalDate.parse(dateStr, EXCLUDE_DATE_FORMAT);
         return localDate.toString();
     }
+
+    /**
+     * Whether the text is already a real date written the way {@link LocalDate#toString} writes it, checked
+     * without the formatter's allocations.
+     */
+    private static boolean isIsoDate(String dateStr) {
+        if (dateStr.length() != 10 || dateStr.charAt(4) != '-' || dateStr.charAt(7) != '-') {
+            return false;
+        }
+        int year = digits(dateStr, 0, 4);
+        int month = digits(dateStr, 5, 7);
+        int day = digits(dateStr, 8, 10);
+        return year > 0 && month >= 1 && month <= 12 && day >= 1
+                && day <= Month.of(month).length(Year.isLeap(year));
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private static final class ScratchJsonObjects extends RoboticsPayloadWriter.JsonObjects {
+        private final JSONObject[] objects = new JSONObject[RoboticsPayloadWriter.Slot.values().length];
+        private final JSONArray datesCantAttend = new JSONArray();
+
+        private ScratchJsonObjects() {
+            for (int i = 0; i < objects.length; i++) {
+                objects[i] = new JSONObject();
+            }
+        }
+
+        @Override
+        JSONObject get(RoboticsPayloadWriter.Slot slot) {
+            return objects[slot.ordinal()];
+        }
+
+        @Override
+        JSONArray getDatesCantAttend() {
+            return datesCantAttend;
+        }
+
+        private void clear() {
+            for (JSONObject object : objects) {
+                object.keySet().clear();
+            }
+            for (int i = datesCantAttend.length() - 1; i >= 0; i--) {
+                datesCantAttend.remove(i);
+            }
+        }
+    }
+
+    private static final class AppealDate {
+        private final LocalDate date;
+        private final String text;
+
+        private AppealDate(LocalDate date) {
+            this.date = date;
+            this.text = date.toString();
+        }
+    }
 }
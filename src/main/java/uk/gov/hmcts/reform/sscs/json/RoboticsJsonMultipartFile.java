@@ -0,0 +1,144 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import org.json.JSONObject;
+import org.springframework.http.MediaType;
+import org.springframework.web.multipart.MultipartFile;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+
+/**
+ * Robotics json as a {@link MultipartFile} for the document upload, holding its UTF-8 bytes in one array of
+ * exactly the right size.
+ *
+ * <p>The json is written into a {@link StringBuilder} and encoded straight into that array, instead of going
+ * through a {@code String} copy of it first. The document upload client reads the file with
+ * {@link #getBytes()}, which returns the array itself, so that is the only copy of the bytes made. The bytes
+ * are those of {@code json.getBytes(UTF_8)}.
+ */
+public final class RoboticsJsonMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final MediaType contentType;
+    private final byte[] bytes;
+
+    private RoboticsJsonMultipartFile(String name, MediaType contentType, byte[] bytes) {
+        this.name = name;
+        this.contentType = contentType;
+        this.bytes = bytes;
+    }
+
+    public static RoboticsJsonMultipartFile of(RoboticsPayload payload, String name, MediaType contentType) {
+        StringBuilder json = new StringBuilder(4096);
+        RoboticsPayloadWriter.write(payload, json);
+        return new RoboticsJsonMultipartFile(name, contentType, encode(json));
+    }
+
+    public static RoboticsJsonMultipartFile of(JSONObject json, String name, MediaType contentType) {
+        StringWriter writer = new StringWriter(4096);
+        json.write(writer);
+        return new RoboticsJsonMultipartFile(name, contentType, encode(writer.getBuffer()));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return name;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType.toString();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bytes.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return bytes.length;
+    }
+
+    /**
+     * The bytes themselves, not a copy; callers must not modify them.
+     */
+    @Override
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        try (OutputStream out = new FileOutputStream(dest)) {
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Encodes {@code chars} into an array sized by {@link #utf8Length(CharSequence)}, replacing an unpaired
+     * surrogate with {@code ?} as {@code String.getBytes} does.
+     */
+    static byte[] encode(CharSequence chars) {
+        byte[] bytes = new byte[utf8Length(chars)];
+        ByteBuffer out = ByteBuffer.wrap(bytes);
+        CharsetEncoder encoder = UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CoderResult result = encoder.encode(CharBuffer.wrap(chars), out, true);
+        if (!result.isError() && !result.isOverflow()) {
+            result = encoder.flush(out);
+        }
+        if (result.isError() || result.isOverflow() || out.hasRemaining()) {
+            return chars.toString().getBytes(UTF_8);
+        }
+        return bytes;
+    }
+
+    static int utf8Length(CharSequence chars) {
+        int length = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars.length()
+                    && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
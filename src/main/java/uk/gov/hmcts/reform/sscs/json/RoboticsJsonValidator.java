@@ -1,48 +1,107 @@
 package uk.gov.hmcts.reform.sscs.json;
 
-import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
-import org.everit.json.schema.loader.SchemaLoader;
 import org.json.JSONObject;
-import org.json.JSONTokener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
 import uk.gov.hmcts.reform.sscs.exception.RoboticsValidationException;
+import uk.gov.hmcts.reform.sscs.json.format.RoboticsPayloadFormat;
 
 @Component
 @Slf4j
 public class RoboticsJsonValidator {
 
-    private final String schemaResourceLocation;
-    private Schema schema = null;
+    private static final int DEFAULT_ERROR_LOGS_PER_MINUTE = 10;
+
+    private final RoboticsSchemaRegistry schemaRegistry;
+    private final RoboticsValidationErrorLogger errorLogger;
+    private final RoboticsValidationPolicy validationPolicy;
+
+    public RoboticsJsonValidator(String schemaResourceLocation) {
+        this(new RoboticsSchemaRegistry(schemaResourceLocation), DEFAULT_ERROR_LOGS_PER_MINUTE);
+    }
+
+    public RoboticsJsonValidator(RoboticsSchemaRegistry schemaRegistry, int errorLogsPerMinute) {
+        this(schemaRegistry, errorLogsPerMinute, RoboticsValidationPolicy.alwaysFull());
+    }
 
     @Autowired
-    public RoboticsJsonValidator(@Value("${robotics.schema.resource.location}") String schemaResourceLocation) {
-        this.schemaResourceLocation = schemaResourceLocation;
+    public RoboticsJsonValidator(RoboticsSchemaRegistry schemaRegistry,
+                                 @Value("${robotics.validation.errorLogsPerMinute:10}") int errorLogsPerMinute,
+                                 RoboticsValidationPolicy validationPolicy) {
+        this.schemaRegistry = schemaRegistry;
+        this.errorLogger = new RoboticsValidationErrorLogger(errorLogsPerMinute, 1, TimeUnit.MINUTES);
+        this.validationPolicy = validationPolicy;
     }
 
+    /**
+     * Validates against the current schema as thoroughly as the {@link RoboticsValidationPolicy} asks for
+     * the json's {@code receivedVia}.
+     */
     public void validate(JSONObject roboticsJson) {
+        String receivedVia = roboticsJson.optString(RoboticsPayloadWriter.RECEIVED_VIA, null);
+        RoboticsValidationPolicy.Check check = validationPolicy.select(receivedVia);
+        try {
+            if (check == RoboticsValidationPolicy.Check.STRUCTURAL) {
+                validateStructure(roboticsJson, schemaRegistry.getSchema());
+            } else {
+                validate(roboticsJson, schemaRegistry.getSchema());
+            }
+        } catch (RoboticsValidationException e) {
+            validationPolicy.onFailure(receivedVia, check);
+            throw e;
+        }
+    }
+
+    public void validate(JSONObject roboticsJson, String schemaVersion) {
+        validate(roboticsJson, schemaRegistry.getSchema(schemaVersion));
+    }
 
-        tryLoadSchema();
+    public void validate(RoboticsPayload payload) {
+        validate(RoboticsPayloadWriter.toJsonObject(payload));
+    }
 
+    private void validate(JSONObject roboticsJson, Schema schema) {
         try {
             schema.validate(roboticsJson);
         } catch (ValidationException validationException) {
-            log.error("Robotics service failed to validate json", validationException);
-            throw new RoboticsValidationException(validationException);
+            RoboticsValidationResult validationResult = RoboticsValidationResult.of(validationException);
+            errorLogger.logFailure(validationResult);
+            validationResult.throwIfInvalid();
         }
     }
 
-    private synchronized void tryLoadSchema() {
+    public JSONObject validate(byte[] payload, RoboticsPayloadFormat format) {
+        JSONObject roboticsJson = format.read(payload);
+
+        validate(roboticsJson);
 
-        if (schema != null) {
-            return;
+        return roboticsJson;
+    }
+
+    public RoboticsValidationResult validateAll(JSONObject roboticsJson) {
+        try {
+            schemaRegistry.getSchema().validate(roboticsJson);
+            return RoboticsValidationResult.valid();
+        } catch (ValidationException validationException) {
+            return RoboticsValidationResult.of(validationException);
         }
+    }
 
-        InputStream inputStream = getClass().getResourceAsStream(schemaResourceLocation);
-        schema = SchemaLoader.load(new JSONObject(new JSONTokener(inputStream)));
+    RoboticsValidationErrorLogger getErrorLogger() {
+        return errorLogger;
+    }
+
+    private void validateStructure(JSONObject roboticsJson, Schema schema) {
+        RoboticsValidationResult validationResult = RoboticsStructuralValidator.validate(roboticsJson, schema);
+        if (!validationResult.isValid()) {
+            errorLogger.logFailure(validationResult);
+            validationResult.throwIfInvalid();
+        }
     }
 }
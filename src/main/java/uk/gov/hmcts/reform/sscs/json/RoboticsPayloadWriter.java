@@ -0,0 +1,268 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsHearingArrangements;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPerson;
+
+/**
+ * Writes a {@link RoboticsPayload} as robotics json, either straight to text or into a {@link JSONObject}
+ * for callers that still work with org.json. Every field is written explicitly, without reflection, and
+ * null fields are left out.
+ */
+public final class RoboticsPayloadWriter {
+
+    static final String CASE_CODE = "caseCode";
+    static final String CASE_ID = "caseId";
+    static final String APPELLANT_NINO = "appellantNino";
+    static final String APPELLANT_POST_CODE = "appellantPostCode";
+    static final String APPEAL_DATE = "appealDate";
+    static final String RECEIVED_VIA = "receivedVia";
+    static final String MRN_DATE = "mrnDate";
+    static final String MRN_REASON_FOR_BEING_LATE = "mrnReasonForBeingLate";
+    static final String PIP_NUMBER = "pipNumber";
+    static final String HEARING_TYPE = "hearingType";
+    static final String HEARING_REQUEST_PARTY = "hearingRequestParty";
+    static final String EVIDENCE_PRESENT = "evidencePresent";
+    static final String RPC_EMAIL = "rpcEmail";
+    static final String APPELLANT = "appellant";
+    static final String APPOINTEE = "appointee";
+    static final String REPRESENTATIVE = "representative";
+    static final String HEARING_ARRANGEMENTS = "hearingArrangements";
+
+    static final String TITLE = "title";
+    static final String FIRST_NAME = "firstName";
+    static final String LAST_NAME = "lastName";
+    static final String ORGANISATION = "organisation";
+    static final String SAME_ADDRESS_AS_APPELLANT = "sameAddressAsAppellant";
+    static final String ADDRESS_LINE_1 = "addressLine1";
+    static final String ADDRESS_LINE_2 = "addressLine2";
+    static final String TOWN_OR_CITY = "townOrCity";
+    static final String COUNTY = "county";
+    static final String POST_CODE = "postCode";
+    static final String PHONE_NUMBER = "phoneNumber";
+    static final String EMAIL = "email";
+
+    static final String LANGUAGE_INTERPRETER = "languageInterpreter";
+    static final String SIGN_LANGUAGE_INTERPRETER = "signLanguageInterpreter";
+    static final String HEARING_LOOP = "hearingLoop";
+    static final String ACCESSIBLE_HEARING_ROOM = "accessibleHearingRoom";
+    static final String OTHER = "other";
+    static final String DATES_CANT_ATTEND = "datesCantAttend";
+
+    private static final JsonObjects NEW_OBJECTS = new JsonObjects();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private RoboticsPayloadWriter() {
+        // static only
+    }
+
+    public static String write(RoboticsPayload payload) {
+        StringBuilder out = new StringBuilder(1024);
+        write(payload, out);
+        return out.toString();
+    }
+
+    public static void write(RoboticsPayload payload, StringBuilder out) {
+        out.append('{');
+        field(out, CASE_CODE, payload.getCaseCode());
+        if (payload.getCaseId() != null) {
+            name(out, CASE_ID);
+            out.append(payload.getCaseId().longValue());
+        }
+        field(out, APPELLANT_NINO, payload.getAppellantNino());
+        field(out, APPELLANT_POST_CODE, payload.getAppellantPostCode());
+        field(out, APPEAL_DATE, payload.getAppealDate());
+        field(out, RECEIVED_VIA, payload.getReceivedVia());
+        field(out, MRN_DATE, payload.getMrnDate());
+        field(out, MRN_REASON_FOR_BEING_LATE, payload.getMrnReasonForBeingLate());
+        field(out, PIP_NUMBER, payload.getPipNumber());
+        field(out, HEARING_TYPE, payload.getHearingType());
+        field(out, HEARING_REQUEST_PARTY, payload.getHearingRequestParty());
+        field(out, EVIDENCE_PRESENT, payload.getEvidencePresent());
+        field(out, RPC_EMAIL, payload.getRpcEmail());
+        person(out, APPELLANT, payload.getAppellant());
+        person(out, APPOINTEE, payload.getAppointee());
+        person(out, REPRESENTATIVE, payload.getRepresentative());
+        hearingArrangements(out, payload.getHearingArrangements());
+        out.append('}');
+    }
+
+    public static JSONObject toJsonObject(RoboticsPayload payload) {
+        return toJsonObject(payload, NEW_OBJECTS);
+    }
+
+    static JSONObject toJsonObject(RoboticsPayload payload, JsonObjects objects) {
+        JSONObject json = objects.get(Slot.ROOT);
+        json.putOpt(CASE_CODE, payload.getCaseCode());
+        json.putOpt(CASE_ID, payload.getCaseId());
+        json.putOpt(APPELLANT_NINO, payload.getAppellantNino());
+        json.putOpt(APPELLANT_POST_CODE, payload.getAppellantPostCode());
+        json.putOpt(APPEAL_DATE, payload.getAppealDate());
+        json.putOpt(RECEIVED_VIA, payload.getReceivedVia());
+        json.putOpt(MRN_DATE, payload.getMrnDate());
+        json.putOpt(MRN_REASON_FOR_BEING_LATE, payload.getMrnReasonForBeingLate());
+        json.putOpt(PIP_NUMBER, payload.getPipNumber());
+        json.putOpt(HEARING_TYPE, payload.getHearingType());
+        json.putOpt(HEARING_REQUEST_PARTY, payload.getHearingRequestParty());
+        json.putOpt(EVIDENCE_PRESENT, payload.getEvidencePresent());
+        json.putOpt(RPC_EMAIL, payload.getRpcEmail());
+        json.putOpt(APPELLANT, toJsonObject(payload.getAppellant(), objects.get(Slot.APPELLANT)));
+        json.putOpt(APPOINTEE, toJsonObject(payload.getAppointee(), objects.get(Slot.APPOINTEE)));
+        json.putOpt(REPRESENTATIVE, toJsonObject(payload.getRepresentative(), objects.get(Slot.REPRESENTATIVE)));
+        json.putOpt(HEARING_ARRANGEMENTS, toJsonObject(payload.getHearingArrangements(), objects));
+        return json;
+    }
+
+    private static JSONObject toJsonObject(RoboticsPerson person, JSONObject json) {
+        if (person == null) {
+            return null;
+        }
+        json.putOpt(TITLE, person.getTitle());
+        json.putOpt(FIRST_NAME, person.getFirstName());
+        json.putOpt(LAST_NAME, person.getLastName());
+        json.putOpt(ORGANISATION, person.getOrganisation());
+        json.putOpt(SAME_ADDRESS_AS_APPELLANT, person.getSameAddressAsAppellant());
+        json.putOpt(ADDRESS_LINE_1, person.getAddressLine1());
+        json.putOpt(ADDRESS_LINE_2, person.getAddressLine2());
+        json.putOpt(TOWN_OR_CITY, person.getTownOrCity());
+        json.putOpt(COUNTY, person.getCounty());
+        json.putOpt(POST_CODE, person.getPostCode());
+        json.putOpt(PHONE_NUMBER, person.getPhoneNumber());
+        json.putOpt(EMAIL, person.getEmail());
+        return json;
+    }
+
+    private static JSONObject toJsonObject(RoboticsHearingArrangements hearingArrangements, JsonObjects objects) {
+        if (hearingArrangements == null) {
+            return null;
+        }
+        JSONObject json = objects.get(Slot.HEARING_ARRANGEMENTS);
+        json.putOpt(LANGUAGE_INTERPRETER, hearingArrangements.getLanguageInterpreter());
+        json.putOpt(SIGN_LANGUAGE_INTERPRETER, hearingArrangements.getSignLanguageInterpreter());
+        json.putOpt(HEARING_LOOP, hearingArrangements.getHearingLoop());
+        json.putOpt(ACCESSIBLE_HEARING_ROOM, hearingArrangements.getAccessibleHearingRoom());
+        json.putOpt(OTHER, hearingArrangements.getOther());
+        if (hearingArrangements.getDatesCantAttend() != null) {
+            JSONArray datesCantAttend = objects.getDatesCantAttend();
+            for (String date : hearingArrangements.getDatesCantAttend()) {
+                datesCantAttend.put(date);
+            }
+            json.put(DATES_CANT_ATTEND, datesCantAttend);
+        }
+        return json;
+    }
+
+    private static void person(StringBuilder out, String name, RoboticsPerson person) {
+        if (person == null) {
+            return;
+        }
+        name(out, name);
+        out.append('{');
+        field(out, TITLE, person.getTitle());
+        field(out, FIRST_NAME, person.getFirstName());
+        field(out, LAST_NAME, person.getLastName());
+        field(out, ORGANISATION, person.getOrganisation());
+        field(out, SAME_ADDRESS_AS_APPELLANT, person.getSameAddressAsAppellant());
+        field(out, ADDRESS_LINE_1, person.getAddressLine1());
+        field(out, ADDRESS_LINE_2, person.getAddressLine2());
+        field(out, TOWN_OR_CITY, person.getTownOrCity());
+        field(out, COUNTY, person.getCounty());
+        field(out, POST_CODE, person.getPostCode());
+        field(out, PHONE_NUMBER, person.getPhoneNumber());
+        field(out, EMAIL, person.getEmail());
+        out.append('}');
+    }
+
+    private static void hearingArrangements(StringBuilder out, RoboticsHearingArrangements hearingArrangements) {
+        if (hearingArrangements == null) {
+            return;
+        }
+        name(out, HEARING_ARRANGEMENTS);
+        out.append('{');
+        field(out, LANGUAGE_INTERPRETER, hearingArrangements.getLanguageInterpreter());
+        field(out, SIGN_LANGUAGE_INTERPRETER, hearingArrangements.getSignLanguageInterpreter());
+        field(out, HEARING_LOOP, hearingArrangements.getHearingLoop());
+        field(out, ACCESSIBLE_HEARING_ROOM, hearingArrangements.getAccessibleHearingRoom());
+        field(out, OTHER, hearingArrangements.getOther());
+        List<String> datesCantAttend = hearingArrangements.getDatesCantAttend();
+        if (datesCantAttend != null) {
+            name(out, DATES_CANT_ATTEND);
+            out.append('[');
+            for (int i = 0; i < datesCantAttend.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                string(out, datesCantAttend.get(i));
+            }
+            out.append(']');
+        }
+        out.append('}');
+    }
+
+    private static void field(StringBuilder out, String name, String value) {
+        if (value != null) {
+            name(out, name);
+            string(out, value);
+        }
+    }
+
+    private static void name(StringBuilder out, String name) {
+        if (out.charAt(out.length() - 1) != '{') {
+            out.append(',');
+        }
+        out.append('"').append(name).append("\":");
+    }
+
+    private static void string(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        out.append("\\u")
+                                .append(HEX[(c >> 12) & 0xf]).append(HEX[(c >> 8) & 0xf])
+                                .append(HEX[(c >> 4) & 0xf]).append(HEX[c & 0xf]);
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    enum Slot {
+        ROOT, APPELLANT, APPOINTEE, REPRESENTATIVE, HEARING_ARRANGEMENTS
+    }
+
+    /**
+     * Supplies the json objects a payload is written into; fresh ones unless overridden.
+     */
+    static class JsonObjects {
+        JSONObject get(Slot slot) {
+            return new JSONObject();
+        }
+
+        JSONArray getDatesCantAttend() {
+            return new JSONArray();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import java.io.InputStream;
+import org.everit.json.schema.FormatValidator;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+final class RoboticsSchemaLoader {
+
+    private RoboticsSchemaLoader() {
+    }
+
+    static JSONObject readSchemaJson(String schemaResourceLocation) {
+        InputStream inputStream = RoboticsSchemaLoader.class.getResourceAsStream(schemaResourceLocation);
+        if (inputStream == null) {
+            throw new IllegalStateException("Robotics schema not found at " + schemaResourceLocation);
+        }
+        return new JSONObject(new JSONTokener(inputStream));
+    }
+
+    static Schema load(JSONObject schemaJson) {
+        SchemaLoader.SchemaLoaderBuilder builder = SchemaLoader.builder()
+                .schemaJson(RoboticsFormatValidators.rewrite(schemaJson));
+        for (FormatValidator formatValidator : RoboticsFormatValidators.ALL) {
+            builder.addFormatValidator(formatValidator);
+        }
+        return builder.build().load().build();
+    }
+}
@@ -0,0 +1,400 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.SchemaException;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds every known version of the robotics schema, compiled and ready to validate against.
+ *
+ * <p>The classpath schema is always available as {@link #CLASSPATH_VERSION}. When
+ * {@code robotics.schema.directory} is set, each {@code *.json} file in it is loaded as a version named
+ * after the file, and the directory is watched so new or changed files are compiled on a background
+ * thread and swapped in atomically. A deleted file's version is removed shortly afterwards unless the file
+ * is back by then, and if the watcher misses events the versions are reloaded from the files on disk.
+ *
+ * <p>The current version is {@code robotics.schema.currentVersion} when that version is loaded, otherwise
+ * the highest version, comparing runs of digits numerically ({@code v10} is after {@code v9}). Loading or
+ * touching an older file never changes which version is current.
+ */
+@Component
+@Slf4j
+public class RoboticsSchemaRegistry implements InitializingBean, DisposableBean {
+
+    public static final String CLASSPATH_VERSION = "classpath";
+
+    private static final String SCHEMA_FILE_SUFFIX = ".json";
+
+    private static final long REPLACE_GRACE_MILLIS = 250;
+
+    private final String schemaResourceLocation;
+    private final Path schemaDirectory;
+    private final String preferredVersion;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Set<String> directoryVersions = ConcurrentHashMap.newKeySet();
+    private WatchService watchService;
+    private Thread watcher;
+    private ScheduledExecutorService removals;
+
+    public RoboticsSchemaRegistry(String schemaResourceLocation) {
+        this(schemaResourceLocation, null, null);
+    }
+
+    @Autowired
+    public RoboticsSchemaRegistry(@Value("${robotics.schema.resource.location}") String schemaResourceLocation,
+                                  @Value("${robotics.schema.directory:}") String schemaDirectory,
+                                  @Value("${robotics.schema.currentVersion:}") String preferredVersion) {
+        this.schemaResourceLocation = schemaResourceLocation;
+        this.schemaDirectory = isBlank(schemaDirectory) ? null : Paths.get(schemaDirectory);
+        this.preferredVersion = isBlank(preferredVersion) ? null : preferredVersion;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        start();
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+    }
+
+    public synchronized void start() {
+        getSnapshot();
+
+        if (schemaDirectory == null || watcher != null) {
+            return;
+        }
+
+        loadDirectory();
+
+        try {
+            watchService = schemaDirectory.getFileSystem().newWatchService();
+            schemaDirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to watch robotics schema directory " + schemaDirectory, e);
+        }
+
+        removals = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "robotics-schema-removals");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher = new Thread(this::watch, "robotics-schema-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for robotics schema versions", schemaDirectory);
+    }
+
+    public synchronized void stop() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Failed to close robotics schema watcher", e);
+        }
+        watcher.interrupt();
+        watcher = null;
+        removals.shutdownNow();
+    }
+
+    public Schema getSchema() {
+        Snapshot current = getSnapshot();
+        return current.schemas.get(current.currentVersion);
+    }
+
+    public Schema getSchema(String version) {
+        Schema schema = getSnapshot().schemas.get(version);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown robotics schema version " + version);
+        }
+        return schema;
+    }
+
+    public String getCurrentVersion() {
+        return getSnapshot().currentVersion;
+    }
+
+    public Set<String> getVersions() {
+        return getSnapshot().schemas.keySet();
+    }
+
+    public void register(String version, JSONObject schemaJson) {
+        Schema schema = RoboticsSchemaLoader.load(schemaJson);
+        JSONObject source = new JSONObject(schemaJson.toString());
+        Snapshot updated = swap(current -> current.with(version, schema, source, preferredVersion));
+        log.info("Robotics schema version {} loaded, {} is current", version, updated.currentVersion);
+    }
+
+    public void unregister(String version) {
+        if (CLASSPATH_VERSION.equals(version)) {
+            throw new IllegalArgumentException("The classpath robotics schema cannot be removed");
+        }
+        Snapshot updated = swap(current -> current.without(version, preferredVersion));
+        log.info("Robotics schema version {} removed, {} is current", version, updated.currentVersion);
+    }
+
+    /**
+     * The source of the current version, the same instance until another version becomes current. Callers
+     * must not modify it.
+     */
+    JSONObject getSchemaJson() {
+        Snapshot current = getSnapshot();
+        return current.schemaJson.get(current.currentVersion);
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            JSONObject schemaJson = RoboticsSchemaLoader.readSchemaJson(schemaResourceLocation);
+            Schema schema = RoboticsSchemaLoader.load(schemaJson);
+            snapshot.compareAndSet(null, new Snapshot(Collections.singletonMap(CLASSPATH_VERSION, schema),
+                    Collections.singletonMap(CLASSPATH_VERSION, schemaJson), CLASSPATH_VERSION));
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private Snapshot swap(UnaryOperator<Snapshot> update) {
+        Snapshot current;
+        Snapshot updated;
+        do {
+            current = getSnapshot();
+            updated = update.apply(current);
+        } while (!snapshot.compareAndSet(current, updated));
+        return updated;
+    }
+
+    /**
+     * Loads every schema file in the directory and returns the versions found.
+     */
+    private Set<String> loadDirectory() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(schemaDirectory, "*" + SCHEMA_FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read robotics schema directory " + schemaDirectory, e);
+        }
+
+        files.sort(Comparator.comparing(RoboticsSchemaRegistry::versionOf, RoboticsSchemaRegistry::compareVersions));
+        files.forEach(this::loadFile);
+
+        Set<String> versions = new HashSet<>();
+        files.forEach(file -> versions.add(versionOf(file)));
+        return versions;
+    }
+
+    /**
+     * After the watcher has missed events: loads what is on disk and removes the versions whose files have
+     * gone. Versions registered directly are kept.
+     */
+    void reloadDirectory() {
+        Set<String> onDisk = loadDirectory();
+        for (String version : directoryVersions) {
+            if (!onDisk.contains(version)) {
+                removeDirectoryVersion(version);
+            }
+        }
+    }
+
+    private void loadFile(Path file) {
+        if (isReserved(file)) {
+            log.warn("Ignoring {}, the {} robotics schema version cannot be replaced", file, CLASSPATH_VERSION);
+            return;
+        }
+        String version = versionOf(file);
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            register(version, new JSONObject(new JSONTokener(inputStream)));
+            directoryVersions.add(version);
+        } catch (IOException | JSONException | SchemaException e) {
+            log.error("Unable to load robotics schema version {} from {}, keeping previous versions",
+                    version, file, e);
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    handle(event);
+                }
+                if (!key.reset()) {
+                    log.warn("Robotics schema directory {} is no longer watchable", schemaDirectory);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException | RejectedExecutionException e) {
+            log.debug("Robotics schema watcher closed");
+        }
+    }
+
+    private void handle(WatchEvent<?> event) {
+        if (event.kind() == OVERFLOW) {
+            log.warn("Missed changes to robotics schema directory {}, reloading it", schemaDirectory);
+            reloadDirectory();
+            return;
+        }
+
+        Path file = schemaDirectory.resolve((Path) event.context());
+        if (!file.getFileName().toString().endsWith(SCHEMA_FILE_SUFFIX) || isReserved(file)) {
+            return;
+        }
+
+        if (Files.isRegularFile(file)) {
+            loadFile(file);
+        } else if (event.kind() == ENTRY_DELETE) {
+            // replacing a file by renaming over it is reported as a delete followed by a create, and some tools
+            // delete the old file before renaming, so a version is only removed once it stays gone for a moment
+            removals.schedule(() -> removeIfGone(file), REPLACE_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void removeIfGone(Path file) {
+        if (!Files.isRegularFile(file)) {
+            removeDirectoryVersion(versionOf(file));
+        }
+    }
+
+    private void removeDirectoryVersion(String version) {
+        directoryVersions.remove(version);
+        unregister(version);
+    }
+
+    private static boolean isReserved(Path file) {
+        return CLASSPATH_VERSION.equals(versionOf(file));
+    }
+
+    private static String versionOf(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - SCHEMA_FILE_SUFFIX.length());
+    }
+
+    /**
+     * Orders versions with the classpath version first, then by comparing runs of digits as numbers and
+     * everything else as text.
+     */
+    static int compareVersions(String first, String second) {
+        if (first.equals(second)) {
+            return 0;
+        }
+        if (CLASSPATH_VERSION.equals(first) || CLASSPATH_VERSION.equals(second)) {
+            return CLASSPATH_VERSION.equals(first) ? -1 : 1;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < first.length() && j < second.length()) {
+            int firstEnd = runEnd(first, i);
+            int secondEnd = runEnd(second, j);
+            String firstRun = first.substring(i, firstEnd);
+            String secondRun = second.substring(j, secondEnd);
+            int compared;
+            if (Character.isDigit(firstRun.charAt(0)) && Character.isDigit(secondRun.charAt(0))) {
+                compared = new BigInteger(firstRun).compareTo(new BigInteger(secondRun));
+            } else {
+                compared = firstRun.compareTo(secondRun);
+            }
+            if (compared != 0) {
+                return compared;
+            }
+            i = firstEnd;
+            j = secondEnd;
+        }
+        int remaining = Integer.compare(first.length() - i, second.length() - j);
+        return remaining != 0 ? remaining : first.compareTo(second);
+    }
+
+    private static int runEnd(String version, int start) {
+        boolean digits = Character.isDigit(version.charAt(start));
+        int end = start + 1;
+        while (end < version.length() && Character.isDigit(version.charAt(end)) == digits) {
+            end++;
+        }
+        return end;
+    }
+
+    private static String currentOf(Set<String> versions, String preferredVersion) {
+        if (preferredVersion != null && versions.contains(preferredVersion)) {
+            return preferredVersion;
+        }
+        return versions.stream().max(RoboticsSchemaRegistry::compareVersions).orElse(CLASSPATH_VERSION);
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Schema> schemas;
+        private final Map<String, JSONObject> schemaJson;
+        private final String currentVersion;
+
+        private Snapshot(Map<String, Schema> schemas, Map<String, JSONObject> schemaJson, String currentVersion) {
+            this.schemas = schemas;
+            this.schemaJson = schemaJson;
+            this.currentVersion = currentVersion;
+        }
+
+        private Snapshot with(String version, Schema schema, JSONObject json, String preferredVersion) {
+            Map<String, Schema> updated = new LinkedHashMap<>(schemas);
+            updated.put(version, schema);
+            Map<String, JSONObject> updatedJson = new LinkedHashMap<>(schemaJson);
+            updatedJson.put(version, json);
+            return new Snapshot(Collections.unmodifiableMap(updated), Collections.unmodifiableMap(updatedJson),
+                    currentOf(updated.keySet(), preferredVersion));
+        }
+
+        private Snapshot without(String version, String preferredVersion) {
+            if (!schemas.containsKey(version)) {
+                return this;
+            }
+            Map<String, Schema> updated = new LinkedHashMap<>(schemas);
+            updated.remove(version);
+            Map<String, JSONObject> updatedJson = new LinkedHashMap<>(schemaJson);
+            updatedJson.remove(version);
+            return new Snapshot(Collections.unmodifiableMap(updated), Collections.unmodifiableMap(updatedJson),
+                    currentOf(updated.keySet(), preferredVersion));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps equal strings to one shared instance, so the few distinct venue names, {@code receivedVia} values,
+ * issuing offices and titles held by many resident payloads are each stored once.
+ *
+ * <p>Bounded: once {@code maxEntries} values are held, new values are returned as they are, and values
+ * longer than {@code maxLength} are never held. Unlike {@link String#intern()} the entries live on the
+ * heap and go when the canonicaliser does. A {@code maxEntries} of 0 turns it off.
+ */
+@Component
+public class RoboticsStringCanonicaliser {
+
+    static final int DEFAULT_MAX_ENTRIES = 4096;
+    static final int DEFAULT_MAX_LENGTH = 64;
+
+    private static final RoboticsStringCanonicaliser SHARED =
+            new RoboticsStringCanonicaliser(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_LENGTH);
+
+    private final ConcurrentMap<String, String> canonical = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final int maxLength;
+    private final LongAdder hits = new LongAdder();
+
+    @Autowired
+    public RoboticsStringCanonicaliser(
+            @Value("${robotics.mapper.canonicalStrings.maxEntries:4096}") int maxEntries,
+            @Value("${robotics.mapper.canonicalStrings.maxLength:64}") int maxLength) {
+        this.maxEntries = maxEntries;
+        this.maxLength = maxLength;
+        for (String constant : new String[] {"Yes", "No", "Paper", "Oral"}) {
+            canonicalise(constant);
+        }
+    }
+
+    /**
+     * The instance shared by mappers built without one.
+     */
+    public static RoboticsStringCanonicaliser shared() {
+        return SHARED;
+    }
+
+    public String canonicalise(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        String existing = canonical.get(value);
+        if (existing != null) {
+            hits.increment();
+            return existing;
+        }
+        if (canonical.size() >= maxEntries) {
+            return value;
+        }
+        existing = canonical.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
+    public int getSize() {
+        return canonical.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+}
@@ -0,0 +1,117 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.everit.json.schema.ArraySchema;
+import org.everit.json.schema.CombinedSchema;
+import org.everit.json.schema.EnumSchema;
+import org.everit.json.schema.NumberSchema;
+import org.everit.json.schema.ObjectSchema;
+import org.everit.json.schema.ReferenceSchema;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.StringSchema;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The fast subset of the robotics schema: required properties, types, enums and the formats in
+ * {@link RoboticsFormatValidators}, found by walking the compiled schema.
+ *
+ * <p>Regex patterns, {@code additionalProperties}, dependencies and {@code anyOf}/{@code oneOf} are left to
+ * full validation, so a payload that passes here may still fail against the schema, never the other way
+ * round.
+ */
+final class RoboticsStructuralValidator {
+
+    private RoboticsStructuralValidator() {
+    }
+
+    static RoboticsValidationResult validate(JSONObject roboticsJson, Schema schema) {
+        List<RoboticsValidationViolation> violations = new ArrayList<>();
+        check(schema, roboticsJson, "#", violations);
+        return RoboticsValidationResult.of(violations);
+    }
+
+    private static void check(Schema schema, Object subject, String pointer,
+                              List<RoboticsValidationViolation> violations) {
+        if (schema instanceof ReferenceSchema) {
+            check(((ReferenceSchema) schema).getReferredSchema(), subject, pointer, violations);
+        } else if (schema instanceof CombinedSchema) {
+            checkCombined((CombinedSchema) schema, subject, pointer, violations);
+        } else if (schema instanceof ObjectSchema) {
+            checkObject((ObjectSchema) schema, subject, pointer, violations);
+        } else if (schema instanceof ArraySchema) {
+            checkArray((ArraySchema) schema, subject, pointer, violations);
+        } else if (schema instanceof StringSchema) {
+            checkString((StringSchema) schema, subject, pointer, violations);
+        } else if (schema instanceof EnumSchema) {
+            if (!((EnumSchema) schema).getPossibleValues().contains(subject)) {
+                violations.add(new RoboticsValidationViolation(pointer, "enum",
+                        String.format("%s is not a valid enum value", subject)));
+            }
+        } else if (schema instanceof NumberSchema && !(subject instanceof Number)) {
+            violations.add(typeViolation("Number", subject, pointer));
+        }
+    }
+
+    private static void checkCombined(CombinedSchema schema, Object subject, String pointer,
+                                      List<RoboticsValidationViolation> violations) {
+        if (schema.getCriterion() == CombinedSchema.ALL_CRITERION) {
+            for (Schema subschema : schema.getSubschemas()) {
+                check(subschema, subject, pointer, violations);
+            }
+        }
+    }
+
+    private static void checkObject(ObjectSchema schema, Object subject, String pointer,
+                                    List<RoboticsValidationViolation> violations) {
+        if (!(subject instanceof JSONObject)) {
+            violations.add(typeViolation("JSONObject", subject, pointer));
+            return;
+        }
+        JSONObject object = (JSONObject) subject;
+        for (String required : schema.getRequiredProperties()) {
+            if (!object.has(required)) {
+                violations.add(new RoboticsValidationViolation(pointer, "required",
+                        String.format("required key [%s] not found", required)));
+            }
+        }
+        for (Map.Entry<String, Schema> property : schema.getPropertySchemas().entrySet()) {
+            Object value = object.opt(property.getKey());
+            if (value != null) {
+                check(property.getValue(), value, pointer + "/" + property.getKey(), violations);
+            }
+        }
+    }
+
+    private static void checkArray(ArraySchema schema, Object subject, String pointer,
+                                   List<RoboticsValidationViolation> violations) {
+        if (!(subject instanceof JSONArray)) {
+            violations.add(typeViolation("JSONArray", subject, pointer));
+            return;
+        }
+        Schema itemSchema = schema.getAllItemSchema();
+        if (itemSchema != null) {
+            JSONArray array = (JSONArray) subject;
+            for (int i = 0; i < array.length(); i++) {
+                check(itemSchema, array.get(i), pointer + "/" + i, violations);
+            }
+        }
+    }
+
+    private static void checkString(StringSchema schema, Object subject, String pointer,
+                                    List<RoboticsValidationViolation> violations) {
+        if (!(subject instanceof String)) {
+            violations.add(typeViolation("String", subject, pointer));
+            return;
+        }
+        schema.getFormatValidator().validate((String) subject)
+                .ifPresent(message -> violations.add(new RoboticsValidationViolation(pointer, "format", message)));
+    }
+
+    private static RoboticsValidationViolation typeViolation(String expected, Object subject, String pointer) {
+        return new RoboticsValidationViolation(pointer, "type",
+                String.format("expected type: %s, found: %s", expected, subject.getClass().getSimpleName()));
+    }
+}
@@ -0,0 +1,55 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs robotics validation failures at ERROR, at most {@code maxPerInterval} times per interval.
+ *
+ * <p>Only the violation summary is logged, never a stack trace. Failures over the limit are counted
+ * and reported with the next line that gets through.
+ */
+@Slf4j
+public class RoboticsValidationErrorLogger {
+
+    private final int maxPerInterval;
+    private final long intervalNanos;
+    private final AtomicLong intervalStart;
+    private final AtomicInteger loggedInInterval = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public RoboticsValidationErrorLogger(int maxPerInterval, long interval, TimeUnit unit) {
+        this.maxPerInterval = maxPerInterval;
+        this.intervalNanos = unit.toNanos(interval);
+        this.intervalStart = new AtomicLong(System.nanoTime());
+    }
+
+    public void logFailure(RoboticsValidationResult validationResult) {
+        if (tryAcquire()) {
+            long suppressedSinceLastLog = suppressed.getAndSet(0);
+            if (suppressedSinceLastLog > 0) {
+                log.error("Robotics service failed to validate json: {} ({} similar failures suppressed)",
+                        validationResult.getSummary(), suppressedSinceLastLog);
+            } else {
+                log.error("Robotics service failed to validate json: {}", validationResult.getSummary());
+            }
+        } else {
+            suppressed.incrementAndGet();
+        }
+    }
+
+    public long getSuppressed() {
+        return suppressed.get();
+    }
+
+    private boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = intervalStart.get();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            loggedInInterval.set(0);
+        }
+        return loggedInInterval.incrementAndGet() <= maxPerInterval;
+    }
+}
@@ -0,0 +1,180 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses how thoroughly to validate robotics json, per {@code receivedVia} source.
+ *
+ * <p>{@code robotics.validation.policy.sources} maps sources to a {@link Mode}, e.g.
+ * {@code Online=SAMPLED,Bulk Scan=STRUCTURAL}; any other source uses {@code robotics.validation.policy.default}.
+ * A SAMPLED source gets full validation for one payload in every {@code 1 / robotics.validation.sampleRate}
+ * and structural checks for the rest. When a sampled or structural check fails, the source is escalated to
+ * full validation for {@code robotics.validation.escalationMinutes}.
+ */
+@Component
+@Slf4j
+public class RoboticsValidationPolicy {
+
+    public enum Mode {
+        FULL, SAMPLED, STRUCTURAL
+    }
+
+    enum Check {
+        FULL, SAMPLE, STRUCTURAL
+    }
+
+    static final String DEFAULT_SOURCE = "default";
+
+    private static final RoboticsValidationPolicy ALWAYS_FULL = new RoboticsValidationPolicy(
+            Collections.emptyMap(), Mode.FULL, 1, Duration.ZERO, Clock.systemUTC());
+
+    private final Map<String, Source> sources;
+    private final Source defaultSource;
+    private final long samplePeriod;
+    private final Duration escalation;
+    private final Clock clock;
+
+    @Autowired
+    public RoboticsValidationPolicy(@Value("${robotics.validation.policy.sources:}") String sources,
+                                    @Value("${robotics.validation.policy.default:FULL}") Mode defaultMode,
+                                    @Value("${robotics.validation.sampleRate:0.1}") double sampleRate,
+                                    @Value("${robotics.validation.escalationMinutes:60}") long escalationMinutes) {
+        this(parse(sources), defaultMode, sampleRate, Duration.ofMinutes(escalationMinutes), Clock.systemUTC());
+    }
+
+    public RoboticsValidationPolicy(Map<String, Mode> sources, Mode defaultMode, double sampleRate,
+                                    Duration escalation, Clock clock) {
+        Map<String, Source> bySource = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        sources.forEach((source, mode) -> bySource.put(source, new Source(source, mode)));
+        this.sources = Collections.unmodifiableMap(bySource);
+        this.defaultSource = new Source(DEFAULT_SOURCE, defaultMode);
+        this.samplePeriod = sampleRate <= 0 ? 0 : Math.max(1, Math.round(1 / sampleRate));
+        this.escalation = escalation;
+        this.clock = clock;
+        if (!sources.isEmpty() || defaultMode != Mode.FULL) {
+            log.info("Robotics validation policy: {}, {} for any other receivedVia", sources, defaultMode);
+        }
+    }
+
+    public static RoboticsValidationPolicy alwaysFull() {
+        return ALWAYS_FULL;
+    }
+
+    Check select(String receivedVia) {
+        Source source = sourceOf(receivedVia);
+        Check check = source.select(clock.instant(), samplePeriod);
+        (check == Check.STRUCTURAL ? source.structural : source.full).incrementAndGet();
+        return check;
+    }
+
+    void onFailure(String receivedVia, Check check) {
+        Source source = sourceOf(receivedVia);
+        source.failures.incrementAndGet();
+        if (check != Check.FULL) {
+            source.escalatedUntil.set(clock.instant().plus(escalation));
+            source.escalations.incrementAndGet();
+            log.warn("Robotics {} validation failed for receivedVia {}, validating it in full for the next {}",
+                    check.name().toLowerCase(Locale.ROOT), source.name, escalation);
+        }
+    }
+
+    public Mode getEffectiveMode(String receivedVia) {
+        return sourceOf(receivedVia).effectiveMode(clock.instant());
+    }
+
+    /**
+     * Metrics for each configured source, and for {@link #DEFAULT_SOURCE} covering every other source.
+     */
+    public Map<String, SourceMetrics> getMetrics() {
+        Instant now = clock.instant();
+        Map<String, SourceMetrics> metrics = new LinkedHashMap<>();
+        for (Source source : sources.values()) {
+            metrics.put(source.name, source.metrics(now));
+        }
+        metrics.put(DEFAULT_SOURCE, defaultSource.metrics(now));
+        return metrics;
+    }
+
+    private Source sourceOf(String receivedVia) {
+        Source source = receivedVia == null ? null : sources.get(receivedVia.trim());
+        return source == null ? defaultSource : source;
+    }
+
+    static Map<String, Mode> parse(String sources) {
+        Map<String, Mode> modes = new LinkedHashMap<>();
+        if (isBlank(sources)) {
+            return modes;
+        }
+        for (String entry : sources.split(",")) {
+            String[] sourceAndMode = entry.split("=");
+            if (sourceAndMode.length != 2 || isBlank(sourceAndMode[0])) {
+                throw new IllegalArgumentException("Expected receivedVia=MODE in robotics validation policy, got ["
+                        + entry + "]");
+            }
+            modes.put(sourceAndMode[0].trim(), Mode.valueOf(sourceAndMode[1].trim().toUpperCase(Locale.ROOT)));
+        }
+        return modes;
+    }
+
+    private static final class Source {
+        private final String name;
+        private final Mode mode;
+        private final AtomicLong selections = new AtomicLong();
+        private final AtomicLong full = new AtomicLong();
+        private final AtomicLong structural = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong escalations = new AtomicLong();
+        private final AtomicReference<Instant> escalatedUntil = new AtomicReference<>(Instant.MIN);
+
+        private Source(String name, Mode mode) {
+            this.name = name;
+            this.mode = mode;
+        }
+
+        private Mode effectiveMode(Instant now) {
+            return now.isBefore(escalatedUntil.get()) ? Mode.FULL : mode;
+        }
+
+        private Check select(Instant now, long samplePeriod) {
+            switch (effectiveMode(now)) {
+                case SAMPLED:
+                    return samplePeriod > 0 && selections.getAndIncrement() % samplePeriod == 0
+                            ? Check.SAMPLE : Check.STRUCTURAL;
+                case STRUCTURAL:
+                    return Check.STRUCTURAL;
+                default:
+                    return Check.FULL;
+            }
+        }
+
+        private SourceMetrics metrics(Instant now) {
+            return new SourceMetrics(mode, effectiveMode(now), full.get(), structural.get(), failures.get(),
+                    escalations.get());
+        }
+    }
+
+    @lombok.Value
+    public static class SourceMetrics {
+        private Mode configuredMode;
+        private Mode effectiveMode;
+        private long fullValidations;
+        private long structuralValidations;
+        private long failures;
+        private long escalations;
+    }
+}
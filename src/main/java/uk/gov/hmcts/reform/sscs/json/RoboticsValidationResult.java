@@ -0,0 +1,102 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.everit.json.schema.ValidationException;
+import uk.gov.hmcts.reform.sscs.exception.StacklessRoboticsValidationException;
+
+public final class RoboticsValidationResult {
+
+    private static final RoboticsValidationResult VALID = new RoboticsValidationResult(emptyList());
+    private static final int SUMMARY_VIOLATIONS = 5;
+
+    private final List<RoboticsValidationViolation> violations;
+
+    private RoboticsValidationResult(List<RoboticsValidationViolation> violations) {
+        this.violations = violations;
+    }
+
+    public static RoboticsValidationResult valid() {
+        return VALID;
+    }
+
+    public static RoboticsValidationResult of(ValidationException validationException) {
+        List<RoboticsValidationViolation> violations = new ArrayList<>();
+        collectViolations(validationException, violations);
+        return new RoboticsValidationResult(unmodifiableList(violations));
+    }
+
+    static RoboticsValidationResult of(List<RoboticsValidationViolation> violations) {
+        if (violations.isEmpty()) {
+            return VALID;
+        }
+        return new RoboticsValidationResult(unmodifiableList(new ArrayList<>(violations)));
+    }
+
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    public List<RoboticsValidationViolation> getViolations() {
+        return violations;
+    }
+
+    public String getSummary() {
+        if (isValid()) {
+            return "Robotics json is valid";
+        }
+        StringBuilder summary = new StringBuilder()
+                .append("Robotics json has ").append(violations.size()).append(" violation(s): ");
+        for (int i = 0; i < violations.size() && i < SUMMARY_VIOLATIONS; i++) {
+            if (i > 0) {
+                summary.append("; ");
+            }
+            summary.append(violations.get(i));
+        }
+        if (violations.size() > SUMMARY_VIOLATIONS) {
+            summary.append("; ...");
+        }
+        return summary.toString();
+    }
+
+    /**
+     * This result with each pointer made relative to the document containing it under {@code property}.
+     */
+    RoboticsValidationResult prepend(String property) {
+        List<RoboticsValidationViolation> prepended = new ArrayList<>(violations.size());
+        for (RoboticsValidationViolation violation : violations) {
+            String pointer = violation.getPointer();
+            prepended.add(new RoboticsValidationViolation("#/" + property + pointer.substring(1),
+                    violation.getKeyword(), violation.getMessage()));
+        }
+        return of(prepended);
+    }
+
+    public void throwIfInvalid() {
+        if (!isValid()) {
+            throw new StacklessRoboticsValidationException(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+
+    private static void collectViolations(ValidationException validationException,
+                                          List<RoboticsValidationViolation> violations) {
+        if (validationException.getCausingExceptions().isEmpty()) {
+            violations.add(new RoboticsValidationViolation(
+                    validationException.getPointerToViolation(),
+                    validationException.getKeyword(),
+                    validationException.getErrorMessage()));
+        } else {
+            for (ValidationException cause : validationException.getCausingExceptions()) {
+                collectViolations(cause, violations);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import lombok.Value;
+
+@Value
+public class RoboticsValidationViolation {
+
+    private String pointer;
+
+    private String keyword;
+
+    private String message;
+
+    @Override
+    public String toString() {
+        return pointer + ": " + message;
+    }
+}
@@ -0,0 +1,38 @@
+package uk.gov.hmcts.reform.sscs.json.format;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import org.json.JSONObject;
+
+abstract class JacksonRoboticsPayloadFormat implements RoboticsPayloadFormat {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {};
+
+    private final ObjectMapper objectMapper;
+
+    JacksonRoboticsPayloadFormat(JsonFactory jsonFactory) {
+        this.objectMapper = new ObjectMapper(jsonFactory);
+    }
+
+    @Override
+    public byte[] write(JSONObject roboticsJson) {
+        try {
+            return objectMapper.writeValueAsBytes(roboticsJson.toMap());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write robotics payload as " + getName(), e);
+        }
+    }
+
+    @Override
+    public JSONObject read(byte[] payload) {
+        try {
+            return new JSONObject(objectMapper.<Map<String, Object>>readValue(payload, MAP_TYPE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read robotics payload as " + getName(), e);
+        }
+    }
+}
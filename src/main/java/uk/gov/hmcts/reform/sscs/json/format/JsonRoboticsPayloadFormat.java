@@ -0,0 +1,33 @@
+package uk.gov.hmcts.reform.sscs.json.format;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JsonRoboticsPayloadFormat implements RoboticsPayloadFormat {
+
+    public static final String NAME = "json";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "txt";
+    }
+
+    @Override
+    public byte[] write(JSONObject roboticsJson) {
+        return roboticsJson.toString().getBytes(UTF_8);
+    }
+
+    @Override
+    public JSONObject read(byte[] payload) {
+        return new JSONObject(new JSONTokener(new String(payload, UTF_8)));
+    }
+}
@@ -0,0 +1,17 @@
+package uk.gov.hmcts.reform.sscs.json.format;
+
+import org.json.JSONObject;
+
+/**
+ * Encodes the logical robotics payload to, and decodes it from, a wire format.
+ */
+public interface RoboticsPayloadFormat {
+
+    String getName();
+
+    String getFileExtension();
+
+    byte[] write(JSONObject roboticsJson);
+
+    JSONObject read(byte[] payload);
+}
@@ -0,0 +1,56 @@
+package uk.gov.hmcts.reform.sscs.json.format;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+@Component
+public class RoboticsPayloadFormats {
+
+    private final Map<String, RoboticsPayloadFormat> formats;
+
+    @Autowired
+    public RoboticsPayloadFormats(List<RoboticsPayloadFormat> formats) {
+        Map<String, RoboticsPayloadFormat> byName = new LinkedHashMap<>();
+        for (RoboticsPayloadFormat format : formats) {
+            byName.put(format.getName().toLowerCase(Locale.ENGLISH), format);
+        }
+        this.formats = Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * Json, plus cbor and smile when their optional jackson dataformats are on the classpath. The factory class
+     * names are constants, so checking them does not load the formats.
+     */
+    public static RoboticsPayloadFormats defaultFormats() {
+        ClassLoader classLoader = RoboticsPayloadFormats.class.getClassLoader();
+        List<RoboticsPayloadFormat> formats = new ArrayList<>();
+        formats.add(new JsonRoboticsPayloadFormat());
+        if (ClassUtils.isPresent(CborRoboticsPayloadFormat.FACTORY_CLASS, classLoader)) {
+            formats.add(new CborRoboticsPayloadFormat());
+        }
+        if (ClassUtils.isPresent(SmileRoboticsPayloadFormat.FACTORY_CLASS, classLoader)) {
+            formats.add(new SmileRoboticsPayloadFormat());
+        }
+        return new RoboticsPayloadFormats(formats);
+    }
+
+    public RoboticsPayloadFormat get(String name) {
+        RoboticsPayloadFormat format = name == null ? null : formats.get(name.toLowerCase(Locale.ENGLISH));
+        if (format == null) {
+            throw new IllegalArgumentException("Unknown robotics payload format " + name);
+        }
+        return format;
+    }
+
+    public Set<String> getNames() {
+        return formats.keySet();
+    }
+}
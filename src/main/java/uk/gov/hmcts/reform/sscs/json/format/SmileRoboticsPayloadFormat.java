@@ -0,0 +1,46 @@
+package uk.gov.hmcts.reform.sscs.json.format;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Smile robotics payloads. jackson-dataformat-smile is an optional dependency, so the format is only available
+ * when it is on the classpath.
+ */
+@Component
+@Conditional(SmileRoboticsPayloadFormat.FactoryPresent.class)
+public class SmileRoboticsPayloadFormat extends JacksonRoboticsPayloadFormat {
+
+    public static final String NAME = "smile";
+
+    static final String FACTORY_CLASS = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+
+    public SmileRoboticsPayloadFormat() {
+        super(new SmileFactory());
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "sml";
+    }
+
+    /**
+     * Only refers to the factory by name, so that it can be loaded without it.
+     */
+    static class FactoryPresent implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return ClassUtils.isPresent(FACTORY_CLASS, context.getClassLoader());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package uk.gov.hmcts.reform.sscs.limiter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opt-in ({@code robotics.email.limiter.enabled}) adaptive limit on the number of robotics emails sent to
+ * the relay at once.
+ *
+ * <p>The limit moves by additive increase, multiplicative decrease on observed latency. It is compared with
+ * a baseline, the lowest latency over the last {@link #BASELINE_WINDOW} sends and those since, so a relay that
+ * is slower all afternoon is not treated as congested all afternoon. Each send taking no more than
+ * {@code tolerance} times the baseline, while the limit is being used, raises the limit by one over the limit,
+ * so by one for every limit's worth of such sends; a slower or failed send cuts it by {@code backoffRatio}.
+ * Sends beyond the limit wait for a slot.
+ *
+ * <p>{@link #getMetrics()} reports the current limit alongside counts of sends, failures, back-offs and sends
+ * that had to wait.
+ */
+@Component
+@Slf4j
+public class RoboticsEmailLimiter {
+
+    static final int BASELINE_WINDOW = 1000;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private double limit;
+    private int inFlight;
+    private long baselineNanos = Long.MAX_VALUE;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private long samples;
+    private long sends;
+    private long failures;
+    private long backoffs;
+    private long queued;
+
+    @Autowired
+    public RoboticsEmailLimiter(@Value("${robotics.email.limiter.enabled:false}") boolean enabled,
+                                @Value("${robotics.email.limiter.initialLimit:4}") int initialLimit,
+                                @Value("${robotics.email.limiter.minLimit:1}") int minLimit,
+                                @Value("${robotics.email.limiter.maxLimit:64}") int maxLimit,
+                                @Value("${robotics.email.limiter.tolerance:2.0}") double tolerance,
+                                @Value("${robotics.email.limiter.backoffRatio:0.9}") double backoffRatio) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * A limiter that lets every send straight through, as before the limiter existed.
+     */
+    public static RoboticsEmailLimiter unlimited() {
+        return new RoboticsEmailLimiter(false, 1, 1, 1, 1, 1);
+    }
+
+    /**
+     * Runs the send once there is a slot for it, and feeds its latency, or failure, back into the limit.
+     */
+    public void run(Runnable send) {
+        if (!enabled) {
+            send.run();
+            return;
+        }
+        acquire();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            send.run();
+            failed = false;
+        } finally {
+            release(System.nanoTime() - start, failed);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized Metrics getMetrics() {
+        return new Metrics((int) limit, inFlight, sends, failures, backoffs, queued);
+    }
+
+    private synchronized void acquire() {
+        if (inFlight >= (int) limit) {
+            queued++;
+        }
+        try {
+            while (inFlight >= (int) limit) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting to send a robotics email", e);
+        }
+        inFlight++;
+    }
+
+    private synchronized void release(long latencyNanos, boolean failed) {
+        boolean limitUsed = inFlight * 2 >= (int) limit;
+        inFlight--;
+        onSample(latencyNanos, failed, limitUsed);
+        notifyAll();
+    }
+
+    synchronized void onSample(long latencyNanos, boolean failed, boolean limitUsed) {
+        int before = (int) limit;
+        sends++;
+        if (failed) {
+            failures++;
+            backoffs++;
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else {
+            if (++samples % BASELINE_WINDOW == 0) {
+                baselineNanos = windowMinNanos;
+                windowMinNanos = Long.MAX_VALUE;
+            }
+            windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+            baselineNanos = Math.min(baselineNanos, latencyNanos);
+            if (latencyNanos > baselineNanos * tolerance) {
+                backoffs++;
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (limitUsed) {
+                limit = Math.min(maxLimit, limit + 1.0 / (int) limit);
+            }
+        }
+        if ((int) limit != before) {
+            log.debug("Robotics email limit {} -> {} (latency {} us, baseline {} us{})", before, (int) limit,
+                    latencyNanos / 1000, baselineNanos / 1000, failed ? ", failed" : "");
+        }
+    }
+
+    @lombok.Value
+    public static class Metrics {
+        private int limit;
+        private int inFlight;
+        private long sends;
+        private long failures;
+        private long backoffs;
+        private long queued;
+    }
+}
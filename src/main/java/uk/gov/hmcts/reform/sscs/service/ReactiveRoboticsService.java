@@ -0,0 +1,196 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.AIR_LOOKUP;
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.CCD_ATTACH;
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.EMAIL;
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.MAP_AND_VALIDATE;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendRequest;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendResult;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.exception.RoboticsDeadlineExceededException;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+/**
+ * Sends a stream of cases to robotics through the same stages as {@link RoboticsService}, each with its
+ * own concurrency limit.
+ *
+ * <p>A stage only asks for another case when one of its slots is free, and the results are only produced
+ * as fast as the subscriber requests them, so a slow email relay or a slow subscriber stops intake rather
+ * than queueing cases. At most the sum of the stage limits is in flight, and the pdf and evidence are
+ * let go of once the email has been sent. A failure in a stage ends that case, not the stream; results are
+ * emitted as cases finish, not in request order.
+ *
+ * <p>Each case runs under its own {@link RoboticsDeadline}, from the request's budget, so a case that has
+ * waited too long for a slot stops at the next stage as it would in {@link RoboticsService}.
+ *
+ * <p>Reactor is an optional dependency: the bean is only created when it is on the classpath and
+ * {@code robotics.reactive.enabled} is set.
+ */
+@Service
+@Conditional(ReactiveRoboticsService.ReactorEnabled.class)
+@Slf4j
+public class ReactiveRoboticsService implements DisposableBean {
+
+    private final RoboticsService roboticsService;
+    private final int airLookupConcurrency;
+    private final int mapConcurrency;
+    private final int emailConcurrency;
+    private final int ccdConcurrency;
+    private final Scheduler blockingScheduler;
+
+    @Autowired
+    public ReactiveRoboticsService(RoboticsService roboticsService,
+                                   @Value("${robotics.reactive.airLookupConcurrency:8}") int airLookupConcurrency,
+                                   @Value("${robotics.reactive.mapConcurrency:2}") int mapConcurrency,
+                                   @Value("${robotics.reactive.emailConcurrency:4}") int emailConcurrency,
+                                   @Value("${robotics.reactive.ccdConcurrency:4}") int ccdConcurrency) {
+        this.roboticsService = roboticsService;
+        this.airLookupConcurrency = airLookupConcurrency;
+        this.mapConcurrency = mapConcurrency;
+        this.emailConcurrency = emailConcurrency;
+        this.ccdConcurrency = ccdConcurrency;
+        this.blockingScheduler = Schedulers.newElastic("robotics-send", 60, true);
+    }
+
+    public Flux<RoboticsSendResult> sendCases(Publisher<RoboticsSendRequest> requests) {
+        return Flux.from(requests)
+                .map(CaseInFlight::new)
+                .flatMap(c -> stage(c, AIR_LOOKUP, blockingScheduler, this::lookupVenue), airLookupConcurrency, 1)
+                .flatMap(c -> stage(c, MAP_AND_VALIDATE, Schedulers.parallel(), this::createPayload), mapConcurrency, 1)
+                .flatMap(c -> stage(c, EMAIL, blockingScheduler, this::sendEmail), emailConcurrency, 1)
+                .flatMap(c -> stage(c, CCD_ATTACH, blockingScheduler, this::attachToCcd), ccdConcurrency, 1)
+                .map(CaseInFlight::toResult);
+    }
+
+    @Override
+    public void destroy() {
+        blockingScheduler.dispose();
+    }
+
+    private Mono<CaseInFlight> stage(CaseInFlight caseInFlight, RoboticsSendStage stage, Scheduler scheduler,
+                                     Consumer<CaseInFlight> work) {
+        if (caseInFlight.failedStage != null) {
+            return Mono.just(caseInFlight);
+        }
+        return Mono.fromCallable(() -> {
+            work.accept(caseInFlight);
+            return caseInFlight;
+        })
+                .subscribeOn(scheduler)
+                .onErrorResume(e -> {
+                    RoboticsSendStage failedStage = e instanceof RoboticsDeadlineExceededException
+                            ? ((RoboticsDeadlineExceededException) e).getStage() : stage;
+                    log.error("Case {} failed to send to robotics at stage {}", caseInFlight.caseId, failedStage, e);
+                    caseInFlight.fail(failedStage, e);
+                    return Mono.just(caseInFlight);
+                });
+    }
+
+    private void lookupVenue(CaseInFlight caseInFlight) {
+        caseInFlight.venueName = caseInFlight.deadline.run(AIR_LOOKUP,
+            () -> roboticsService.lookupVenueName(caseInFlight.caseData, caseInFlight.postcode));
+    }
+
+    private void createPayload(CaseInFlight caseInFlight) {
+        caseInFlight.payload = caseInFlight.deadline.run(MAP_AND_VALIDATE,
+            () -> roboticsService.createRoboticsPayload(RoboticsWrapper.builder()
+                .sscsCaseData(caseInFlight.caseData).ccdCaseId(caseInFlight.caseId)
+                .venueName(caseInFlight.venueName).evidencePresent(caseInFlight.caseData.getEvidencePresent())
+                .build()));
+    }
+
+    private void sendEmail(CaseInFlight caseInFlight) {
+        caseInFlight.deadline.call(EMAIL, () -> {
+            roboticsService.sendPayloadByEmail(caseInFlight.caseData, caseInFlight.caseId, caseInFlight.payload,
+                    caseInFlight.pdf, caseInFlight.additionalEvidence);
+            return null;
+        });
+        caseInFlight.pdf = null;
+        caseInFlight.additionalEvidence = null;
+    }
+
+    private void attachToCcd(CaseInFlight caseInFlight) {
+        if (caseInFlight.idamTokens != null && caseInFlight.caseDetails != null) {
+            roboticsService.attachRoboticsJsonToCaseInCcd(caseInFlight.payload, caseInFlight.caseData,
+                    caseInFlight.idamTokens, caseInFlight.caseDetails, caseInFlight.deadline);
+        }
+    }
+
+    /**
+     * Matches when reactor is on the classpath and {@code robotics.reactive.enabled} is set. Kept free of
+     * reactor types so that it can be loaded without it.
+     */
+    static class ReactorEnabled implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return ClassUtils.isPresent("reactor.core.publisher.Flux", context.getClassLoader())
+                    && context.getEnvironment().getProperty("robotics.reactive.enabled", Boolean.class, false);
+        }
+    }
+
+    /**
+     * A case's progress through the stages; only ever handled by one stage at a time.
+     */
+    private static final class CaseInFlight {
+        private final SscsCaseData caseData;
+        private final Long caseId;
+        private final String postcode;
+        private final IdamTokens idamTokens;
+        private final SscsCaseDetails caseDetails;
+        private final RoboticsDeadline deadline;
+        private byte[] pdf;
+        private Map<String, byte[]> additionalEvidence;
+        private String venueName;
+        private RoboticsPayload payload;
+        private RoboticsSendStage failedStage;
+        private Throwable error;
+
+        private CaseInFlight(RoboticsSendRequest request) {
+            this.caseData = request.getSscsCaseData();
+            this.caseId = request.getCaseId();
+            this.postcode = request.getPostcode();
+            this.idamTokens = request.getIdamTokens();
+            this.caseDetails = request.getCaseDetails();
+            this.deadline = request.getBudget() == null
+                    ? RoboticsDeadline.none() : RoboticsDeadline.after(request.getBudget());
+            this.pdf = request.getPdf();
+            this.additionalEvidence = request.getAdditionalEvidence() == null
+                    ? Collections.emptyMap() : request.getAdditionalEvidence();
+        }
+
+        private void fail(RoboticsSendStage stage, Throwable e) {
+            failedStage = stage;
+            error = e;
+            pdf = null;
+            additionalEvidence = null;
+        }
+
+        private RoboticsSendResult toResult() {
+            return failedStage == null ? RoboticsSendResult.success(caseId, payload)
+                    : RoboticsSendResult.failure(caseId, payload, failedStage, error);
+        }
+    }
+}
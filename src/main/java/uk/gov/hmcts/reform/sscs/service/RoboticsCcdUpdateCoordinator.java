@@ -0,0 +1,251 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsDocument;
+
+/**
+ * Serialises and merges concurrent robotics json attaches to the same CCD case, so they do not race each
+ * other into optimistic-lock failures.
+ *
+ * <p>The first attach for a case runs its own update. Attaches for that case arriving meanwhile queue up,
+ * and when the update finishes all of them go to CCD as one update: the newest case data, plus any queued
+ * robotics document it does not already carry. Queued case data was read before the earlier updates
+ * landed, so every document those updates attached is carried into the later ones too. The merged update
+ * is handed to the thread of the newest queued attach, so no caller runs more than one update however long
+ * the case stays busy. Cases are locked in stripes, so different cases run in parallel.
+ */
+@Component
+@Slf4j
+public class RoboticsCcdUpdateCoordinator {
+
+    static final int STRIPES = 64;
+
+    private final Stripe[] stripes;
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    public RoboticsCcdUpdateCoordinator() {
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Runs {@code updateCase} with case data carrying {@code document}, either for this attach alone or
+     * merged with other attaches to the same case, and returns once that update has finished.
+     *
+     * @param caseData case data already carrying {@code document}
+     */
+    public void attach(Long caseId, SscsCaseData caseData, SscsDocument document,
+                       Consumer<SscsCaseData> updateCase) {
+        if (caseId == null) {
+            updates.incrementAndGet();
+            updateCase.accept(caseData);
+            return;
+        }
+
+        Pending pending = new Pending(caseData, document, updateCase);
+        Stripe stripe = stripes[Math.floorMod(Long.hashCode(caseId), STRIPES)];
+        boolean leader;
+        synchronized (stripe) {
+            Deque<Pending> queue = stripe.inFlight.get(caseId);
+            leader = queue == null;
+            if (leader) {
+                stripe.inFlight.put(caseId, new ArrayDeque<>());
+            } else {
+                queue.add(pending);
+            }
+        }
+
+        if (leader) {
+            List<Pending> batch = new ArrayList<>();
+            batch.add(pending);
+            lead(caseId, stripe, pending, new Turn(batch, new ArrayList<>()));
+        } else {
+            conflicts.incrementAndGet();
+            log.info("CCD update for case {} already in flight, queueing robotics json attach", caseId);
+            await(caseId, stripe, pending);
+        }
+    }
+
+    public long getUpdates() {
+        return updates.get();
+    }
+
+    /**
+     * Attaches that went to CCD as part of another attach's update.
+     */
+    public long getMerged() {
+        return merged.get();
+    }
+
+    /**
+     * Attaches that found an update to the same case already in flight.
+     */
+    public long getConflicts() {
+        return conflicts.get();
+    }
+
+    /**
+     * Runs the update for {@code turn}'s batch, which {@code own} is the newest of, completes the other
+     * attaches in it, and hands the attaches queued meanwhile to the newest of them.
+     */
+    private void lead(Long caseId, Stripe stripe, Pending own, Turn turn) {
+        List<SscsDocument> attached = turn.attached;
+        RuntimeException failure = update(caseId, turn.batch, attached);
+        for (Pending pending : turn.batch) {
+            if (failure == null && pending.document != null) {
+                attached.add(pending.document);
+            }
+            if (pending == own) {
+                continue;
+            }
+            if (failure == null) {
+                pending.turn.complete(null);
+            } else {
+                pending.turn.completeExceptionally(failure);
+            }
+        }
+        List<Pending> next = drain(caseId, stripe);
+        if (!next.isEmpty()) {
+            next.get(next.size() - 1).turn.complete(new Turn(next, attached));
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private RuntimeException update(Long caseId, List<Pending> batch, List<SscsDocument> attached) {
+        Pending newest = batch.get(batch.size() - 1);
+        try {
+            updates.incrementAndGet();
+            if (batch.size() > 1) {
+                merged.addAndGet(batch.size() - 1L);
+                log.info("Merging {} robotics json attaches into one CCD update for case {}", batch.size(), caseId);
+            }
+            newest.updateCase.accept(merge(batch, attached));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static SscsCaseData merge(List<Pending> batch, List<SscsDocument> attached) {
+        SscsCaseData caseData = batch.get(batch.size() - 1).caseData;
+        if (batch.size() == 1 && attached.isEmpty()) {
+            return caseData;
+        }
+        List<SscsDocument> documents = caseData.getSscsDocument() == null ? new ArrayList<>()
+                : new ArrayList<>(caseData.getSscsDocument());
+        List<SscsDocument> carried = new ArrayList<>(attached);
+        batch.forEach(pending -> carried.add(pending.document));
+        for (SscsDocument document : carried) {
+            if (document != null && documents.stream().noneMatch(existing -> sameLink(existing, document))) {
+                documents.add(document);
+            }
+        }
+        caseData.setSscsDocument(documents);
+        return caseData;
+    }
+
+    private static boolean sameLink(SscsDocument document, SscsDocument other) {
+        return document == other || document.getValue() != null && other.getValue() != null
+                && document.getValue().getDocumentLink() != null && other.getValue().getDocumentLink() != null
+                && Objects.equals(document.getValue().getDocumentLink().getDocumentUrl(),
+                other.getValue().getDocumentLink().getDocumentUrl());
+    }
+
+    private static List<Pending> drain(Long caseId, Stripe stripe) {
+        synchronized (stripe) {
+            Deque<Pending> queue = stripe.inFlight.get(caseId);
+            if (queue.isEmpty()) {
+                stripe.inFlight.remove(caseId);
+                return new ArrayList<>();
+            }
+            List<Pending> batch = new ArrayList<>(queue);
+            queue.clear();
+            return batch;
+        }
+    }
+
+    private void await(Long caseId, Stripe stripe, Pending pending) {
+        Turn turn;
+        try {
+            turn = pending.turn.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (withdraw(caseId, stripe, pending)) {
+                throw new IllegalStateException("Interrupted waiting for CCD update of case " + caseId, e);
+            }
+            // already taken into an update, which may be handed to this thread to run, so see it through
+            try {
+                turn = pending.turn.join();
+            } catch (CompletionException failure) {
+                throw rethrow(failure.getCause());
+            }
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+        if (turn != null) {
+            lead(caseId, stripe, pending, turn);
+        }
+    }
+
+    private static boolean withdraw(Long caseId, Stripe stripe, Pending pending) {
+        synchronized (stripe) {
+            Deque<Pending> queue = stripe.inFlight.get(caseId);
+            return queue != null && queue.remove(pending);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+        return new IllegalStateException(failure);
+    }
+
+    private static final class Stripe {
+        private final Map<Long, Deque<Pending>> inFlight = new HashMap<>();
+    }
+
+    private static final class Pending {
+        private final SscsCaseData caseData;
+        private final SscsDocument document;
+        private final Consumer<SscsCaseData> updateCase;
+        // completed with null once an update carrying it has landed, or with the next update for it to run
+        private final CompletableFuture<Turn> turn = new CompletableFuture<>();
+
+        private Pending(SscsCaseData caseData, SscsDocument document, Consumer<SscsCaseData> updateCase) {
+            this.caseData = caseData;
+            this.document = document;
+            this.updateCase = updateCase;
+        }
+    }
+
+    private static final class Turn {
+        private final List<Pending> batch;
+        private final List<SscsDocument> attached;
+
+        private Turn(List<Pending> batch, List<SscsDocument> attached) {
+            this.batch = batch;
+            this.attached = attached;
+        }
+    }
+}
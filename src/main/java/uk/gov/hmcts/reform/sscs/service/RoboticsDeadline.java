@@ -0,0 +1,137 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage;
+import uk.gov.hmcts.reform.sscs.exception.RoboticsDeadlineExceededException;
+
+/**
+ * The latency budget for sending one case to robotics, passed through {@link RoboticsService} and
+ * {@link RoboticsJsonUploadService}.
+ *
+ * <p>Every stage checks the budget before it starts and adds its time to the stage timings. Remote calls
+ * (email, DM upload, CCD update) have side effects, so one that has started runs to the end on the calling
+ * thread, under the timeouts of its own client, rather than being abandoned half way and sent again on a
+ * retry; a call that overruns the budget stops the case at the next check. {@link #cancel()} does the same.
+ */
+public final class RoboticsDeadline {
+
+    private static final RoboticsDeadline NONE = new RoboticsDeadline(Long.MAX_VALUE);
+
+    private final long startNanos;
+    private final long budgetNanos;
+    private final Map<RoboticsSendStage, Long> stageNanos = new EnumMap<>(RoboticsSendStage.class);
+    private volatile boolean cancelled;
+
+    private RoboticsDeadline(long budgetNanos) {
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = budgetNanos;
+    }
+
+    public static RoboticsDeadline after(Duration budget) {
+        return new RoboticsDeadline(budget.toNanos());
+    }
+
+    /**
+     * No budget, but with stage timings, to find out how far a case got.
+     */
+    public static RoboticsDeadline unlimited() {
+        return new RoboticsDeadline(Long.MAX_VALUE);
+    }
+
+    /**
+     * No budget and no timings, as for the methods that take no deadline.
+     */
+    public static RoboticsDeadline none() {
+        return NONE;
+    }
+
+    public boolean isBounded() {
+        return this != NONE;
+    }
+
+    public void cancel() {
+        if (isBounded()) {
+            cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public Duration remaining() {
+        return isBounded() ? Duration.ofNanos(Math.max(0, remainingNanos())) : Duration.ofNanos(Long.MAX_VALUE);
+    }
+
+    public synchronized Map<RoboticsSendStage, Duration> getStageTimings() {
+        Map<RoboticsSendStage, Duration> timings = new EnumMap<>(RoboticsSendStage.class);
+        stageNanos.forEach((stage, nanos) -> timings.put(stage, Duration.ofNanos(nanos)));
+        return timings;
+    }
+
+    public void check(RoboticsSendStage stage) {
+        if (isBounded() && (cancelled || remainingNanos() <= 0)) {
+            throw exceeded(stage);
+        }
+    }
+
+    public <T> T run(RoboticsSendStage stage, Supplier<T> work) {
+        if (!isBounded()) {
+            return work.get();
+        }
+        check(stage);
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void run(RoboticsSendStage stage, Runnable work) {
+        run(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a remote call on the calling thread once the budget allows it to start. The call is never cut
+     * short: if it overruns, the next stage is stopped instead.
+     */
+    public <T> T call(RoboticsSendStage stage, Callable<T> call) {
+        return run(stage, () -> callDirectly(call));
+    }
+
+    private long remainingNanos() {
+        return budgetNanos - (System.nanoTime() - startNanos);
+    }
+
+    private synchronized void record(RoboticsSendStage stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+    }
+
+    private RoboticsDeadlineExceededException exceeded(RoboticsSendStage stage) {
+        return new RoboticsDeadlineExceededException(stage, cancelled,
+                Duration.ofNanos(System.nanoTime() - startNanos), getStageTimings());
+    }
+
+    private static <T> T callDirectly(Callable<T> call) {
+        try {
+            return call.call();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Exception cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
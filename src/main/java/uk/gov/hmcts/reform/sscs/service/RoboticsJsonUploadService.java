@@ -2,6 +2,8 @@ package uk.gov.hmcts.reform.sscs.service;
 
 import static java.util.Collections.singletonList;
 import static org.springframework.http.MediaType.TEXT_PLAIN;
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.CCD_ATTACH;
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.DM_UPLOAD;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -22,7 +24,12 @@ import uk.gov.hmcts.reform.sscs.ccd.domain.SscsDocument;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsDocumentDetails;
 import uk.gov.hmcts.reform.sscs.ccd.service.CcdService;
 import uk.gov.hmcts.reform.sscs.domain.pdf.ByteArrayMultipartFile;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMultipartFile;
+import uk.gov.hmcts.reform.sscs.spool.RoboticsUploadSpool;
+import uk.gov.hmcts.reform.sscs.spool.RoboticsUploadSpool.Replay;
+import uk.gov.hmcts.reform.sscs.spool.SpooledUpload;
 
 @Service
 @Slf4j
@@ -34,16 +41,40 @@ public class RoboticsJsonUploadService {
     private final CcdService ccdService;
     private final DocumentUploadClientApi documentUploadClientApi;
     private final AuthTokenGenerator authTokenGenerator;
+    private final RoboticsCcdUpdateCoordinator ccdUpdateCoordinator;
+    private final RoboticsUploadSpool uploadSpool;
 
-    @Autowired
-    RoboticsJsonUploadService(
+    public RoboticsJsonUploadService(
             DocumentUploadClientApi documentUploadClientApi,
             AuthTokenGenerator authTokenGenerator,
             CcdService ccdService) {
 
+        this(documentUploadClientApi, authTokenGenerator, ccdService, new RoboticsCcdUpdateCoordinator());
+    }
+
+    public RoboticsJsonUploadService(
+            DocumentUploadClientApi documentUploadClientApi,
+            AuthTokenGenerator authTokenGenerator,
+            CcdService ccdService,
+            RoboticsCcdUpdateCoordinator ccdUpdateCoordinator) {
+
+        this(documentUploadClientApi, authTokenGenerator, ccdService, ccdUpdateCoordinator,
+                RoboticsUploadSpool.disabled());
+    }
+
+    @Autowired
+    public RoboticsJsonUploadService(
+            DocumentUploadClientApi documentUploadClientApi,
+            AuthTokenGenerator authTokenGenerator,
+            CcdService ccdService,
+            RoboticsCcdUpdateCoordinator ccdUpdateCoordinator,
+            RoboticsUploadSpool uploadSpool) {
+
         this.documentUploadClientApi = documentUploadClientApi;
         this.authTokenGenerator = authTokenGenerator;
         this.ccdService = ccdService;
+        this.ccdUpdateCoordinator = ccdUpdateCoordinator;
+        this.uploadSpool = uploadSpool;
     }
 
     public void updateCaseWithRoboticsJson(
@@ -52,28 +83,134 @@ public class RoboticsJsonUploadService {
             SscsCaseDetails caseDetails,
             IdamTokens idamTokens) {
 
-        ByteArrayMultipartFile file = ByteArrayMultipartFile.builder()
-                .content(roboticsJson.toString().getBytes())
-                .name(ROBOTICS_JSON_FILENAME)
-                .contentType(TEXT_PLAIN)
-                .build();
+        updateCaseWithRoboticsJson(roboticsJson, caseData, caseDetails, idamTokens, RoboticsDeadline.none());
+    }
+
+    public void updateCaseWithRoboticsJson(
+            JSONObject roboticsJson,
+            SscsCaseData caseData,
+            SscsCaseDetails caseDetails,
+            IdamTokens idamTokens,
+            RoboticsDeadline deadline) {
+
+        updateCaseWithRoboticsJson(RoboticsJsonMultipartFile.of(roboticsJson, ROBOTICS_JSON_FILENAME, TEXT_PLAIN),
+                caseData, caseDetails, idamTokens, deadline);
+    }
+
+    public void updateCaseWithRoboticsJson(
+            RoboticsPayload roboticsPayload,
+            SscsCaseData caseData,
+            SscsCaseDetails caseDetails,
+            IdamTokens idamTokens) {
+
+        updateCaseWithRoboticsJson(roboticsPayload, caseData, caseDetails, idamTokens, RoboticsDeadline.none());
+    }
+
+    public void updateCaseWithRoboticsJson(
+            RoboticsPayload roboticsPayload,
+            SscsCaseData caseData,
+            SscsCaseDetails caseDetails,
+            IdamTokens idamTokens,
+            RoboticsDeadline deadline) {
+
+        updateCaseWithRoboticsJson(RoboticsJsonMultipartFile.of(roboticsPayload, ROBOTICS_JSON_FILENAME, TEXT_PLAIN),
+                caseData, caseDetails, idamTokens, deadline);
+    }
+
+    private void updateCaseWithRoboticsJson(
+            RoboticsJsonMultipartFile file,
+            SscsCaseData caseData,
+            SscsCaseDetails caseDetails,
+            IdamTokens idamTokens,
+            RoboticsDeadline deadline) {
 
         log.info("Uploading Robotics JSON for case {}", caseDetails.getId());
-        UploadResponse uploadResponse = uploadRoboticsJson(singletonList(file));
+        UploadResponse uploadResponse = deadline.call(DM_UPLOAD,
+            () -> uploadOrSpool(file, caseDetails.getId(), idamTokens));
 
         log.info("Attaching Robotics JSON to case {}", caseDetails.getId());
-        SscsCaseData updatedCaseData = attachRoboticsJsonToCaseData(caseData, uploadResponse);
+        SscsDocument roboticsJsonDocument = attachRoboticsJsonToCaseData(caseData, uploadResponse);
 
-        if (null == updatedCaseData) {
+        if (null == roboticsJsonDocument) {
             log.info("Case data for case {} was not updated with Robotics JSON document", caseDetails.getId());
         } else {
-            ccdService.updateCase(updatedCaseData, caseDetails.getId(),
-                    "attachRoboticsJson", "", "", idamTokens);
+            deadline.call(CCD_ATTACH, () -> {
+                attachToCase(caseDetails.getId(), caseData, roboticsJsonDocument, idamTokens);
+                return null;
+            });
         }
 
     }
 
-    private SscsCaseData attachRoboticsJsonToCaseData(SscsCaseData caseData, UploadResponse uploadResponse) {
+    /**
+     * Uploads the robotics json, or with the spool enabled spools it if the document store returns nothing or
+     * the upload fails.
+     */
+    private UploadResponse uploadOrSpool(RoboticsJsonMultipartFile file, Long caseId, IdamTokens idamTokens) {
+        UploadResponse response;
+        try {
+            response = uploadRoboticsJson(singletonList(file));
+        } catch (RuntimeException e) {
+            if (!uploadSpool.isEnabled()) {
+                throw e;
+            }
+            log.warn("Failed to upload Robotics JSON for case {}, spooling it", caseId, e);
+            response = null;
+        }
+        if (null == response && uploadSpool.isEnabled()) {
+            uploadSpool.spool(caseId, file.getBytes(), idamTokens);
+        }
+        return response;
+    }
+
+    /**
+     * Whether an upload the document store does not take is spooled for later rather than dropped.
+     */
+    public boolean isSpooling() {
+        return uploadSpool.isEnabled();
+    }
+
+    /**
+     * Uploads a spooled robotics json and attaches it to the case as it is in CCD now.
+     *
+     * @return {@link Replay#RETRY_LATER} if the document store is still unavailable or the upload fails, and
+     *     {@link Replay#DEAD_LETTER} if the case is not in CCD
+     */
+    public Replay replaySpooledUpload(SpooledUpload upload, IdamTokens idamTokens) {
+        SscsCaseDetails caseDetails = ccdService.getByCaseId(upload.getCaseId(), idamTokens);
+        if (null == caseDetails) {
+            log.warn("Spooled Robotics JSON for case {} cannot be replayed, the case is not in CCD",
+                    upload.getCaseId());
+            return Replay.DEAD_LETTER;
+        }
+
+        log.info("Uploading spooled Robotics JSON for case {}", upload.getCaseId());
+        UploadResponse uploadResponse;
+        try {
+            uploadResponse = uploadRoboticsJson(singletonList(ByteArrayMultipartFile.builder()
+                    .content(upload.getJson())
+                    .name(ROBOTICS_JSON_FILENAME)
+                    .contentType(TEXT_PLAIN)
+                    .build()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to upload spooled Robotics JSON for case {}, will retry", upload.getCaseId(), e);
+            return Replay.RETRY_LATER;
+        }
+        SscsDocument roboticsJsonDocument = attachRoboticsJsonToCaseData(caseDetails.getData(), uploadResponse);
+        if (null == roboticsJsonDocument) {
+            return Replay.RETRY_LATER;
+        }
+        attachToCase(upload.getCaseId(), caseDetails.getData(), roboticsJsonDocument, idamTokens);
+        return Replay.REPLAYED;
+    }
+
+    private void attachToCase(Long caseId, SscsCaseData caseData, SscsDocument roboticsJsonDocument,
+                              IdamTokens idamTokens) {
+        ccdUpdateCoordinator.attach(caseId, caseData, roboticsJsonDocument,
+            updatedCaseData -> ccdService.updateCase(updatedCaseData, caseId, "attachRoboticsJson", "", "", idamTokens));
+    }
+
+    private SscsDocument attachRoboticsJsonToCaseData(SscsCaseData caseData, UploadResponse uploadResponse) {
         DocumentLink documentLink = getDocumentLink(uploadResponse);
 
         if (null != documentLink) {
@@ -86,7 +223,7 @@ public class RoboticsJsonUploadService {
             List<SscsDocument> sscsDocumentList = updateCaseDataDocuments(caseData, roboticsJsonDocument);
             caseData.setSscsDocument(sscsDocumentList);
 
-            return caseData;
+            return roboticsJsonDocument;
         }
 
         return null;
@@ -1,7 +1,11 @@
 package uk.gov.hmcts.reform.sscs.service;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.lang3.StringUtils.*;
 import static uk.gov.hmcts.reform.sscs.domain.email.EmailAttachment.*;
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.AIR_LOOKUP;
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.EMAIL;
+import static uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage.MAP_AND_VALIDATE;
 
 import java.util.*;
 
@@ -9,15 +13,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategyRegistry;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Appellant;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.domain.email.Email;
 import uk.gov.hmcts.reform.sscs.domain.email.EmailAttachment;
 import uk.gov.hmcts.reform.sscs.domain.email.RoboticsEmailTemplate;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
 import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.emailid.RoboticsEmailIdAllocator;
+import uk.gov.hmcts.reform.sscs.evidence.EvidenceFile;
+import uk.gov.hmcts.reform.sscs.evidence.RoboticsEvidencePipeline;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
 import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
 import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.json.RoboticsPayloadWriter;
+import uk.gov.hmcts.reform.sscs.limiter.RoboticsEmailLimiter;
 import uk.gov.hmcts.reform.sscs.model.AirlookupBenefitToVenue;
 
 @Service
@@ -31,8 +43,11 @@ public class RoboticsService {
     private final RoboticsJsonValidator roboticsJsonValidator;
     private final RoboticsEmailTemplate roboticsEmailTemplate;
     private final RoboticsJsonUploadService roboticsJsonUploadService;
+    private final BenefitStrategyRegistry benefitStrategyRegistry;
+    private final RoboticsEmailIdAllocator roboticsEmailIdAllocator;
+    private final RoboticsEmailLimiter roboticsEmailLimiter;
+    private final RoboticsEvidencePipeline roboticsEvidencePipeline;
 
-    @Autowired
     public RoboticsService(
             AirLookupService airLookupService,
             EmailService emailService,
@@ -40,6 +55,25 @@ public class RoboticsService {
             RoboticsJsonValidator roboticsJsonValidator,
             RoboticsEmailTemplate roboticsEmailTemplate,
             RoboticsJsonUploadService roboticsJsonUploadService
+    ) {
+        this(airLookupService, emailService, roboticsJsonMapper, roboticsJsonValidator, roboticsEmailTemplate,
+                roboticsJsonUploadService, BenefitStrategyRegistry.defaultRegistry(),
+                RoboticsEmailIdAllocator.legacy(emailService), RoboticsEmailLimiter.unlimited(),
+                RoboticsEvidencePipeline.passThrough());
+    }
+
+    @Autowired
+    public RoboticsService(
+            AirLookupService airLookupService,
+            EmailService emailService,
+            RoboticsJsonMapper roboticsJsonMapper,
+            RoboticsJsonValidator roboticsJsonValidator,
+            RoboticsEmailTemplate roboticsEmailTemplate,
+            RoboticsJsonUploadService roboticsJsonUploadService,
+            BenefitStrategyRegistry benefitStrategyRegistry,
+            RoboticsEmailIdAllocator roboticsEmailIdAllocator,
+            RoboticsEmailLimiter roboticsEmailLimiter,
+            RoboticsEvidencePipeline roboticsEvidencePipeline
     ) {
         this.airLookupService = airLookupService;
         this.emailService = emailService;
@@ -47,6 +81,10 @@ public class RoboticsService {
         this.roboticsJsonValidator = roboticsJsonValidator;
         this.roboticsEmailTemplate = roboticsEmailTemplate;
         this.roboticsJsonUploadService = roboticsJsonUploadService;
+        this.benefitStrategyRegistry = benefitStrategyRegistry;
+        this.roboticsEmailIdAllocator = roboticsEmailIdAllocator;
+        this.roboticsEmailLimiter = roboticsEmailLimiter;
+        this.roboticsEvidencePipeline = roboticsEvidencePipeline;
     }
 
     public JSONObject sendCaseToRobotics(SscsCaseData caseData, Long caseId, String postcode, byte[] pdf) {
@@ -54,22 +92,53 @@ public class RoboticsService {
     }
 
     public JSONObject sendCaseToRobotics(SscsCaseData caseData, Long caseId, String postcode, byte[] pdf, Map<String, byte[]> additionalEvidence) {
-        AirlookupBenefitToVenue venue = airLookupService.lookupAirVenueNameByPostCode(postcode);
+        return sendCaseToRobotics(caseData, caseId, postcode, pdf, additionalEvidence, RoboticsDeadline.none());
+    }
+
+    public JSONObject sendCaseToRobotics(SscsCaseData caseData, Long caseId, String postcode, byte[] pdf, Map<String, byte[]> additionalEvidence,
+                                         RoboticsDeadline deadline) {
+        return RoboticsPayloadWriter.toJsonObject(sendPayloadToRobotics(caseData, caseId, postcode, pdf, additionalEvidence, deadline));
+    }
 
-        String venueName = caseData.getAppeal().getBenefitType().getCode().equalsIgnoreCase("esa") ? venue.getEsaVenue() : venue.getPipVenue();
+    public RoboticsPayload sendPayloadToRobotics(SscsCaseData caseData, Long caseId, String postcode, byte[] pdf, Map<String, byte[]> additionalEvidence) {
+        return sendPayloadToRobotics(caseData, caseId, postcode, pdf, additionalEvidence, RoboticsDeadline.none());
+    }
+
+    /**
+     * Stops with a {@link uk.gov.hmcts.reform.sscs.exception.RoboticsDeadlineExceededException} once the
+     * deadline has passed or been cancelled, without starting the remaining stages.
+     */
+    public RoboticsPayload sendPayloadToRobotics(SscsCaseData caseData, Long caseId, String postcode, byte[] pdf, Map<String, byte[]> additionalEvidence,
+                                                 RoboticsDeadline deadline) {
+        String venueName = deadline.run(AIR_LOOKUP, () -> lookupVenueName(caseData, postcode));
 
-        JSONObject roboticsJson = createRobotics(RoboticsWrapper.builder().sscsCaseData(caseData)
-                .ccdCaseId(caseId).venueName(venueName).evidencePresent(caseData.getEvidencePresent()).build());
+        RoboticsWrapper roboticsWrapper = RoboticsWrapper.builder().sscsCaseData(caseData)
+                .ccdCaseId(caseId).venueName(venueName).evidencePresent(caseData.getEvidencePresent()).build();
+        RoboticsPayload roboticsPayload = deadline.run(MAP_AND_VALIDATE, () -> roboticsJsonMapper.mapToPayload(roboticsWrapper));
+        deadline.run(MAP_AND_VALIDATE, () -> roboticsJsonValidator.validate(roboticsPayload));
 
         log.info("Case {} Robotics JSON successfully created for benefit type {}", caseId,
                 caseData.getAppeal().getBenefitType().getCode());
 
+        deadline.call(EMAIL, () -> {
+            sendPayloadByEmail(caseData, caseId, roboticsPayload, pdf, additionalEvidence);
+            return null;
+        });
+
+        return roboticsPayload;
+    }
+
+    public String lookupVenueName(SscsCaseData caseData, String postcode) {
+        AirlookupBenefitToVenue venue = airLookupService.lookupAirVenueNameByPostCode(postcode);
+
+        return benefitStrategyRegistry.get(caseData.getAppeal().getBenefitType().getCode()).getVenue().select(venue);
+    }
+
+    public void sendPayloadByEmail(SscsCaseData caseData, Long caseId, RoboticsPayload roboticsPayload, byte[] pdf, Map<String, byte[]> additionalEvidence) {
         boolean isScottish = Optional.ofNullable(caseData.getRegionalProcessingCenter()).map(f -> equalsIgnoreCase(f.getName(), GLASGOW)).orElse(false);
-        sendJsonByEmail(caseData.getAppeal().getAppellant(), roboticsJson, pdf, additionalEvidence, isScottish);
+        sendJsonByEmail(caseData.getAppeal().getAppellant(), roboticsPayload, pdf, additionalEvidence, isScottish);
         log.info("Case {} Robotics JSON email sent successfully for benefit type {} isScottish {}", caseId,
                 caseData.getAppeal().getBenefitType().getCode(), isScottish);
-
-        return roboticsJson;
     }
 
     public JSONObject createRobotics(RoboticsWrapper appeal) {
@@ -81,6 +150,15 @@ public class RoboticsService {
         return roboticsAppeal;
     }
 
+    public RoboticsPayload createRoboticsPayload(RoboticsWrapper appeal) {
+
+        RoboticsPayload roboticsPayload = roboticsJsonMapper.mapToPayload(appeal);
+
+        roboticsJsonValidator.validate(roboticsPayload);
+
+        return roboticsPayload;
+    }
+
     public void attachRoboticsJsonToCaseInCcd(JSONObject roboticsJson, SscsCaseData caseData,
                                               IdamTokens idamTokens, SscsCaseDetails caseDetails) {
 
@@ -96,38 +174,53 @@ public class RoboticsService {
         }
     }
 
-    private void sendJsonByEmail(Appellant appellant, JSONObject json, byte[] pdf, Map<String, byte[]> additionalEvidence, boolean isScottish) {
+    public void attachRoboticsJsonToCaseInCcd(RoboticsPayload roboticsPayload, SscsCaseData caseData,
+                                              IdamTokens idamTokens, SscsCaseDetails caseDetails) {
+        attachRoboticsJsonToCaseInCcd(roboticsPayload, caseData, idamTokens, caseDetails, RoboticsDeadline.none());
+    }
+
+    public void attachRoboticsJsonToCaseInCcd(RoboticsPayload roboticsPayload, SscsCaseData caseData,
+                                              IdamTokens idamTokens, SscsCaseDetails caseDetails,
+                                              RoboticsDeadline deadline) {
+
+        log.info("Sending case {} to Robotics", caseDetails.getId());
+
+        if (caseDetails.getId() == null) {
+            log.info("CCD caseId is empty - skipping step to update CCD with Robotics JSON");
+        } else {
+            log.info("CCD caseId is {}, proceeding to update case with Robotics JSON", caseDetails.getId());
+            caseData.setCcdCaseId(caseDetails.getId().toString());
+            roboticsJsonUploadService
+                    .updateCaseWithRoboticsJson(roboticsPayload, caseData, caseDetails, idamTokens, deadline);
+        }
+    }
+
+    private void sendJsonByEmail(Appellant appellant, RoboticsPayload roboticsPayload, byte[] pdf, Map<String, byte[]> additionalEvidence, boolean isScottish) {
         log.info("Generating unique email id");
-        String appellantUniqueId = emailService.generateUniqueEmailId(appellant);
+        String appellantUniqueId = roboticsEmailIdAllocator.nextId(appellant);
         log.info("Add default attachments");
-        List<EmailAttachment> attachments = addDefaultAttachment(json, pdf, appellantUniqueId);
+        List<EmailAttachment> attachments = addDefaultAttachment(roboticsPayload, pdf, appellantUniqueId);
         log.info("Add additional evidence");
         addAdditionalEvidenceAttachments(additionalEvidence, attachments);
-        log.info("Send email");
-        emailService.sendEmail(
-                roboticsEmailTemplate.generateEmail(
-                        appellantUniqueId,
-                        attachments,
-                        isScottish
-                )
+        Email email = roboticsEmailTemplate.generateEmail(
+                appellantUniqueId,
+                attachments,
+                isScottish
         );
+        log.info("Send email");
+        roboticsEmailLimiter.run(() -> emailService.sendEmail(email));
     }
 
     private void addAdditionalEvidenceAttachments(Map<String, byte[]> additionalEvidence, List<EmailAttachment> attachments) {
-        for (String filename : additionalEvidence.keySet()) {
-            if (filename != null) {
-                byte[] content = additionalEvidence.get(filename);
-                if (content != null) {
-                    attachments.add(file(content, filename));
-                }
-            }
+        for (EvidenceFile evidence : roboticsEvidencePipeline.process(additionalEvidence).getAttachments()) {
+            attachments.add(file(evidence.getContent(), evidence.getFilename()));
         }
     }
 
-    private List<EmailAttachment> addDefaultAttachment(JSONObject json, byte[] pdf, String appellantUniqueId) {
+    private List<EmailAttachment> addDefaultAttachment(RoboticsPayload roboticsPayload, byte[] pdf, String appellantUniqueId) {
         List<EmailAttachment> emailAttachments = new ArrayList<>();
 
-        emailAttachments.add(json(json.toString().getBytes(), appellantUniqueId + ".txt"));
+        emailAttachments.add(json(RoboticsPayloadWriter.write(roboticsPayload).getBytes(UTF_8), appellantUniqueId + ".txt"));
 
         if (pdf != null) {
             emailAttachments.add(pdf(pdf, appellantUniqueId + ".pdf"));
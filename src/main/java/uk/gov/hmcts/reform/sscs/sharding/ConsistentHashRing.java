@@ -0,0 +1,69 @@
+package uk.gov.hmcts.reform.sscs.sharding;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring of node ids. Each node is placed at {@code virtualNodes} points, so when
+ * a node joins or leaves only the cases between its points and their neighbours change owner.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points;
+    private final Set<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("A node needs at least one point on the ring");
+        }
+        NavigableMap<Long, String> ring = new TreeMap<>();
+        for (String node : new TreeSet<>(nodes)) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // ties go to the lowest node id, so every member builds the same ring
+                ring.putIfAbsent(hash(node + "#" + i), node);
+            }
+        }
+        this.points = ring;
+        this.nodes = Collections.unmodifiableSet(new TreeSet<>(nodes));
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * The node owning the key, or null when the ring is empty.
+     */
+    public String owner(long key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(mix(key));
+        return point == null ? points.firstEntry().getValue() : point.getValue();
+    }
+
+    static long hash(String value) {
+        // FNV-1a, then mixed so that similar node ids spread over the ring
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // SplitMix64 finaliser
+    static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
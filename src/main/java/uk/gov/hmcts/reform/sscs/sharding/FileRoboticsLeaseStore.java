@@ -0,0 +1,183 @@
+package uk.gov.hmcts.reform.sscs.sharding;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Leases kept as one file per key in a directory, changed under a lock file so that every process using
+ * the directory (on this host, or on a shared volume that supports file locks) sees the same leases. A
+ * lease file that cannot be read counts as expired.
+ *
+ * <p>A lease's expiry is written by the node that took it and compared against the reading node's own wall
+ * clock, so the nodes' clocks must be kept in sync, e.g. with NTP. Another owner's lease is honoured for
+ * {@code maxClockSkew} beyond its expiry, so clocks that are out by less than that cannot hand the same
+ * lease to two nodes; they only delay a takeover.
+ */
+@Slf4j
+public class FileRoboticsLeaseStore implements RoboticsLeaseStore {
+
+    private static final String LEASE_SUFFIX = ".lease";
+    private static final String LOCK_FILE = ".lock";
+
+    // a JVM may hold only one lock on a file, so threads and stores in this JVM queue on one monitor first
+    private static final ConcurrentMap<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final Clock clock;
+    private final long maxClockSkewMillis;
+    private final Object monitor;
+
+    public FileRoboticsLeaseStore(Path directory, Duration maxClockSkew) {
+        this(directory, Clock.systemUTC(), maxClockSkew);
+    }
+
+    public FileRoboticsLeaseStore(Path directory, Clock clock) {
+        this(directory, clock, Duration.ZERO);
+    }
+
+    public FileRoboticsLeaseStore(Path directory, Clock clock, Duration maxClockSkew) {
+        if (maxClockSkew.isNegative()) {
+            throw new IllegalArgumentException("Robotics lease clock skew must not be negative");
+        }
+        try {
+            this.directory = Files.createDirectories(directory).toRealPath();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create robotics lease directory " + directory, e);
+        }
+        this.clock = clock;
+        this.maxClockSkewMillis = maxClockSkew.toMillis();
+        this.monitor = MONITORS.computeIfAbsent(this.directory, path -> new Object());
+    }
+
+    @Override
+    public boolean tryAcquire(String key, String owner, Duration ttl) {
+        return locked(() -> {
+            Path file = leaseFile(key);
+            Lease lease = read(file);
+            long now = clock.millis();
+            if (lease != null && isLive(lease, now) && !lease.owner.equals(owner)) {
+                return false;
+            }
+            write(file, new Lease(owner, now + ttl.toMillis()));
+            return true;
+        });
+    }
+
+    @Override
+    public void release(String key, String owner) {
+        locked(() -> {
+            Path file = leaseFile(key);
+            Lease lease = read(file);
+            if (lease != null && lease.owner.equals(owner)) {
+                delete(file);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Set<String> owners(String prefix) {
+        return locked(() -> {
+            Set<String> owners = new TreeSet<>();
+            long now = clock.millis();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                    fileName(prefix) + "*" + LEASE_SUFFIX)) {
+                for (Path file : files) {
+                    Lease lease = read(file);
+                    if (lease != null && isLive(lease, now)) {
+                        owners.add(lease.owner);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to list robotics leases in " + directory, e);
+            }
+            return owners;
+        });
+    }
+
+    private boolean isLive(Lease lease, long now) {
+        return lease.expiresAt + maxClockSkewMillis > now;
+    }
+
+    private <T> T locked(Supplier<T> action) {
+        synchronized (monitor) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.get();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to lock robotics lease directory " + directory, e);
+            }
+        }
+    }
+
+    private Path leaseFile(String key) {
+        return directory.resolve(fileName(key) + LEASE_SUFFIX);
+    }
+
+    private static String fileName(String key) {
+        StringBuilder name = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            boolean safe = c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_';
+            name.append(safe ? c : '_');
+        }
+        return name.toString();
+    }
+
+    private static Lease read(Path file) {
+        try {
+            List<String> lines = Files.readAllLines(file, UTF_8);
+            return lines.size() < 2 ? null : new Lease(lines.get(0), Long.parseLong(lines.get(1).trim()));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable robotics lease {}", file, e);
+            return null;
+        }
+    }
+
+    private static void write(Path file, Lease lease) {
+        try {
+            Files.write(file, (lease.owner + "\n" + lease.expiresAt + "\n").getBytes(UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write robotics lease " + file, e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to delete robotics lease " + file, e);
+        }
+    }
+
+    private static final class Lease {
+        private final String owner;
+        private final long expiresAt;
+
+        private Lease(String owner, long expiresAt) {
+            this.owner = owner;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package uk.gov.hmcts.reform.sscs.sharding;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+
+/**
+ * Decides which of the nodes running robotics processing owns a case, by consistent hashing of its
+ * ccdCaseId over the live members.
+ *
+ * <p>With {@code robotics.sharding.enabled} each node renews a membership lease every third of
+ * {@code robotics.sharding.memberTtlSeconds} and rebuilds the ring when the set of members changes. As
+ * members can briefly disagree while that happens, the case itself is claimed with a lease too:
+ *
+ * <pre>
+ * Optional&lt;CaseClaim&gt; claim = sharding.tryClaim(wrapper);
+ * if (claim.isPresent()) {
+ *     try (CaseClaim ignored = claim.get()) {
+ *         roboticsService.sendCaseToRobotics(...);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>A case lease lasts {@code robotics.sharding.caseLeaseTtlSeconds} and is renewed with the membership
+ * lease for as long as the claim is open, so a slow case is not claimed by a second node part way through.
+ *
+ * <p>Leases are files in {@code robotics.sharding.leaseDirectory}, which must be shared by every node.
+ * Their expiry is checked against each node's own clock, so the nodes' clocks must be kept in sync; a
+ * lease is honoured for {@code robotics.sharding.maxClockSkewMillis} beyond its expiry to allow for the
+ * difference that remains.
+ *
+ * <p>When sharding is disabled every case is owned and claimed locally, as before. A case without a
+ * ccdCaseId cannot be sharded and is always owned, but its claim is not exclusive.
+ */
+@Component
+@Slf4j
+public class RoboticsCaseSharding implements InitializingBean, DisposableBean {
+
+    static final String MEMBER_PREFIX = "member-";
+    static final String CASE_PREFIX = "case-";
+
+    private static final CaseClaim UNSHARDED = new CaseClaim(null, null);
+
+    private final boolean enabled;
+    private final String nodeId;
+    private final RoboticsLeaseStore leaseStore;
+    private final Duration memberTtl;
+    private final Duration caseLeaseTtl;
+    private final int virtualNodes;
+    private final Set<CaseClaim> claims = ConcurrentHashMap.newKeySet();
+    private volatile ConsistentHashRing ring;
+    private ScheduledExecutorService heartbeats;
+
+    @Autowired
+    public RoboticsCaseSharding(@Value("${robotics.sharding.enabled:false}") boolean enabled,
+                                @Value("${robotics.sharding.nodeId:}") String nodeId,
+                                @Value("${robotics.sharding.leaseDirectory:}") String leaseDirectory,
+                                @Value("${robotics.sharding.memberTtlSeconds:30}") long memberTtlSeconds,
+                                @Value("${robotics.sharding.caseLeaseTtlSeconds:300}") long caseLeaseTtlSeconds,
+                                @Value("${robotics.sharding.virtualNodes:128}") int virtualNodes,
+                                @Value("${robotics.sharding.maxClockSkewMillis:2000}") long maxClockSkewMillis) {
+        this(enabled, StringUtils.isBlank(nodeId) ? ManagementFactory.getRuntimeMXBean().getName() : nodeId,
+                enabled ? new FileRoboticsLeaseStore(Paths.get(requireLeaseDirectory(leaseDirectory)),
+                        Duration.ofMillis(maxClockSkewMillis)) : null,
+                Duration.ofSeconds(memberTtlSeconds), Duration.ofSeconds(caseLeaseTtlSeconds), virtualNodes);
+    }
+
+    public RoboticsCaseSharding(boolean enabled, String nodeId, RoboticsLeaseStore leaseStore, Duration memberTtl,
+                                Duration caseLeaseTtl, int virtualNodes) {
+        this.enabled = enabled;
+        this.nodeId = nodeId;
+        this.leaseStore = leaseStore;
+        this.memberTtl = memberTtl;
+        this.caseLeaseTtl = caseLeaseTtl;
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing(Collections.singleton(nodeId), virtualNodes);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        heartbeat();
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "robotics-sharding-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, Math.min(memberTtl.toMillis(), caseLeaseTtl.toMillis()) / 3);
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        if (enabled) {
+            leaseStore.release(MEMBER_PREFIX + nodeId, nodeId);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Set<String> getMembers() {
+        return ring.getNodes();
+    }
+
+    public boolean owns(RoboticsWrapper roboticsWrapper) {
+        return owns(roboticsWrapper.getCcdCaseId());
+    }
+
+    public boolean owns(Long caseId) {
+        return !enabled || caseId == null || nodeId.equals(ring.owner(caseId));
+    }
+
+    public Optional<CaseClaim> tryClaim(RoboticsWrapper roboticsWrapper) {
+        return tryClaim(roboticsWrapper.getCcdCaseId());
+    }
+
+    /**
+     * A claim on the case if this node owns it and no other node is processing it; close it when done.
+     */
+    public Optional<CaseClaim> tryClaim(Long caseId) {
+        if (!enabled || caseId == null) {
+            return Optional.of(UNSHARDED);
+        }
+        if (!owns(caseId)) {
+            return Optional.empty();
+        }
+        String key = CASE_PREFIX + caseId;
+        if (!leaseStore.tryAcquire(key, nodeId, caseLeaseTtl)) {
+            log.info("Case {} is owned by node {} but still claimed by another node", caseId, nodeId);
+            return Optional.empty();
+        }
+        CaseClaim claim = new CaseClaim(this, key);
+        claims.add(claim);
+        return Optional.of(claim);
+    }
+
+    void heartbeat() {
+        renewClaims();
+        try {
+            if (!leaseStore.tryAcquire(MEMBER_PREFIX + nodeId, nodeId, memberTtl)) {
+                log.warn("Robotics sharding node id {} is held by another process", nodeId);
+            }
+            Set<String> members = new TreeSet<>(leaseStore.owners(MEMBER_PREFIX));
+            members.add(nodeId);
+            if (!members.equals(ring.getNodes())) {
+                ring = new ConsistentHashRing(members, virtualNodes);
+                log.info("Robotics sharding rebalanced for node {}: members {}", nodeId, members);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Robotics sharding heartbeat failed for node {}, keeping members {}", nodeId,
+                    ring.getNodes(), e);
+        }
+    }
+
+    private void renewClaims() {
+        for (CaseClaim claim : claims) {
+            try {
+                if (!leaseStore.tryAcquire(claim.key, nodeId, caseLeaseTtl)) {
+                    claims.remove(claim);
+                    claim.held = false;
+                    log.warn("Lost the claim on {} to another node while still processing it", claim.key);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Unable to renew the claim on {}, will retry", claim.key, e);
+            }
+        }
+    }
+
+    private void release(CaseClaim claim) {
+        if (claims.remove(claim)) {
+            leaseStore.release(claim.key, nodeId);
+        }
+    }
+
+    private static String requireLeaseDirectory(String leaseDirectory) {
+        if (StringUtils.isBlank(leaseDirectory)) {
+            throw new IllegalArgumentException(
+                    "robotics.sharding.enabled needs robotics.sharding.leaseDirectory, shared by every node");
+        }
+        return leaseDirectory;
+    }
+
+    public static final class CaseClaim implements AutoCloseable {
+        private final RoboticsCaseSharding sharding;
+        private final String key;
+        private volatile boolean held = true;
+
+        private CaseClaim(RoboticsCaseSharding sharding, String key) {
+            this.sharding = sharding;
+            this.key = key;
+        }
+
+        /**
+         * False once the lease could not be renewed and another node may have claimed the case.
+         */
+        public boolean isHeld() {
+            return held;
+        }
+
+        @Override
+        public void close() {
+            if (sharding != null) {
+                sharding.release(this);
+            }
+        }
+    }
+}
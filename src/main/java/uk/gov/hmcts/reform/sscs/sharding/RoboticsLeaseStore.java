@@ -0,0 +1,25 @@
+package uk.gov.hmcts.reform.sscs.sharding;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Time-limited, exclusive leases shared by every node processing robotics cases.
+ */
+public interface RoboticsLeaseStore {
+
+    /**
+     * Takes or renews the lease if it is free, expired or already held by {@code owner}.
+     */
+    boolean tryAcquire(String key, String owner, Duration ttl);
+
+    /**
+     * Gives the lease up if {@code owner} holds it.
+     */
+    void release(String key, String owner);
+
+    /**
+     * The owners of unexpired leases whose keys start with {@code prefix}.
+     */
+    Set<String> owners(String prefix);
+}
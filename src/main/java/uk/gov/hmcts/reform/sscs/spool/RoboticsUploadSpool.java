@@ -0,0 +1,318 @@
+package uk.gov.hmcts.reform.sscs.spool;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+
+/**
+ * Opt-in ({@code robotics.upload.spool.enabled}) spool of robotics json uploads that found the document store
+ * down, so the case still gets its robotics document once the store recovers.
+ *
+ * <p>Uploads are appended, one json line each, to segment files in {@code robotics.upload.spool.directory},
+ * starting a new segment after {@code robotics.upload.spool.maxSegmentBytes}. {@link #drain(int, Function)}
+ * seals the segment being written and replays the sealed ones oldest first, stopping at the first upload
+ * that cannot be replayed yet; segments are deleted once replayed, or rewritten with what is left. An upload
+ * that can never be replayed, such as one for a case no longer in CCD or an unreadable line, is moved to
+ * {@value #DEAD_LETTER_FILE} for someone to look at rather than dropped.
+ *
+ * <p>Tokens are never written to disk, only the user id of the tokens the upload was spooled with; replay
+ * gets fresh tokens when it runs.
+ */
+@Component
+@Slf4j
+public class RoboticsUploadSpool {
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".spool";
+    static final String DEAD_LETTER_FILE = "dead-letter.spool";
+
+    public enum Replay {
+        REPLAYED, RETRY_LATER, DEAD_LETTER
+    }
+
+    private static final String CASE_ID = "caseId";
+    private static final String USER_ID = "userId";
+    private static final String SPOOLED_AT = "spooledAt";
+    private static final String JSON = "json";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final Clock clock;
+    private final Object drainLock = new Object();
+    private long nextSegment;
+    private Path head;
+    private long headBytes;
+    private int depth;
+    private int deadLettered;
+    private Instant oldest;
+
+    @Autowired
+    public RoboticsUploadSpool(@Value("${robotics.upload.spool.enabled:false}") boolean enabled,
+                               @Value("${robotics.upload.spool.directory:}") String directory,
+                               @Value("${robotics.upload.spool.maxSegmentBytes:1048576}") long maxSegmentBytes) {
+        this(enabled, StringUtils.isBlank(directory)
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "robotics-upload-spool") : Paths.get(directory),
+                maxSegmentBytes, Clock.systemUTC());
+    }
+
+    public RoboticsUploadSpool(boolean enabled, Path directory, long maxSegmentBytes, Clock clock) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.clock = clock;
+        if (enabled) {
+            recover();
+        }
+    }
+
+    public static RoboticsUploadSpool disabled() {
+        return new RoboticsUploadSpool(false, null, 0, Clock.systemUTC());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void spool(Long caseId, byte[] json, IdamTokens idamTokens) {
+        SpooledUpload upload = SpooledUpload.builder()
+                .caseId(caseId)
+                .userId(idamTokens == null ? null : idamTokens.getUserId())
+                .spooledAt(clock.instant())
+                .json(json)
+                .build();
+        byte[] line = (toLine(upload) + "\n").getBytes(UTF_8);
+        try {
+            if (head == null || headBytes >= maxSegmentBytes) {
+                head = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegment++, SEGMENT_SUFFIX));
+                headBytes = 0;
+            }
+            Files.write(head, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+            headBytes += line.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to spool robotics json for case " + caseId + " to " + head, e);
+        }
+        if (depth++ == 0) {
+            oldest = upload.getSpooledAt();
+        }
+        log.warn("Document store unavailable, spooled robotics json for case {} ({} uploads pending)", caseId, depth);
+    }
+
+    public synchronized int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Uploads in {@value #DEAD_LETTER_FILE}, which will not be replayed.
+     */
+    public synchronized int getDeadLettered() {
+        return deadLettered;
+    }
+
+    /**
+     * How long the oldest pending upload has been waiting, or zero when none is.
+     */
+    public synchronized Duration getOldestAge() {
+        return oldest == null ? Duration.ZERO : Duration.between(oldest, clock.instant());
+    }
+
+    /**
+     * Replays up to {@code max} pending uploads, oldest first, until {@code replay} returns
+     * {@link Replay#RETRY_LATER} or throws.
+     *
+     * @return the number replayed or moved to the dead letters
+     */
+    public int drain(int max, Function<SpooledUpload, Replay> replay) {
+        if (!enabled) {
+            return 0;
+        }
+        synchronized (drainLock) {
+            List<Path> segments;
+            synchronized (this) {
+                head = null;
+                segments = segments();
+            }
+            int replayed = 0;
+            for (Path segment : segments) {
+                List<String> lines = readLines(segment);
+                int done = 0;
+                while (done < lines.size() && replayed < max && replay(lines.get(done), replay)) {
+                    done++;
+                    replayed++;
+                }
+                rewrite(segment, lines.subList(done, lines.size()));
+                synchronized (this) {
+                    depth -= done;
+                }
+                if (done < lines.size()) {
+                    break;
+                }
+            }
+            Instant first = firstSpooledAt();
+            synchronized (this) {
+                oldest = depth == 0 ? null : first;
+            }
+            return replayed;
+        }
+    }
+
+    private boolean replay(String line, Function<SpooledUpload, Replay> replay) {
+        SpooledUpload upload;
+        try {
+            upload = fromLine(line);
+        } catch (JSONException | DateTimeException e) {
+            log.error("Unable to read spooled robotics upload, moving it to the dead letters", e);
+            return deadLetter(line);
+        }
+        Replay outcome;
+        try {
+            outcome = replay.apply(upload);
+        } catch (RuntimeException e) {
+            log.warn("Replay of spooled robotics json for case {} failed, will retry", upload.getCaseId(), e);
+            return false;
+        }
+        if (outcome == Replay.DEAD_LETTER) {
+            log.error("Spooled robotics json for case {} cannot be replayed, moving it to the dead letters",
+                    upload.getCaseId());
+            return deadLetter(line);
+        }
+        return outcome == Replay.REPLAYED;
+    }
+
+    private boolean deadLetter(String line) {
+        Path deadLetters = directory.resolve(DEAD_LETTER_FILE);
+        try {
+            Files.write(deadLetters, (line + "\n").getBytes(UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            log.error("Unable to write to {}, keeping the upload in the spool", deadLetters, e);
+            return false;
+        }
+        synchronized (this) {
+            deadLettered++;
+        }
+        return true;
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create robotics upload spool directory " + directory, e);
+        }
+        for (Path segment : segments()) {
+            depth += readLines(segment).size();
+            nextSegment = Math.max(nextSegment, sequence(segment) + 1);
+        }
+        Path deadLetters = directory.resolve(DEAD_LETTER_FILE);
+        if (Files.exists(deadLetters)) {
+            deadLettered = readLines(deadLetters).size();
+            log.warn("{} robotics json uploads in {} will not be replayed", deadLettered, deadLetters);
+        }
+        oldest = depth == 0 ? null : firstSpooledAt();
+        if (depth > 0) {
+            log.warn("Recovered {} spooled robotics json uploads from {}", depth, directory);
+        }
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to list robotics upload spool " + directory, e);
+        }
+    }
+
+    private Instant firstSpooledAt() {
+        for (Path segment : segments()) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, UTF_8)) {
+                String line = reader.readLine();
+                if (line != null) {
+                    return fromLine(line).getSpooledAt();
+                }
+            } catch (IOException | JSONException | DateTimeException e) {
+                log.warn("Unable to read the first spooled robotics upload in {}", segment, e);
+            }
+        }
+        return null;
+    }
+
+    private static List<String> readLines(Path segment) {
+        try {
+            return Files.readAllLines(segment, UTF_8).stream()
+                    .filter(StringUtils::isNotBlank)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read robotics upload spool segment " + segment, e);
+        }
+    }
+
+    private static void rewrite(Path segment, List<String> remaining) {
+        try {
+            if (remaining.isEmpty()) {
+                Files.deleteIfExists(segment);
+            } else {
+                Path temp = segment.resolveSibling(segment.getFileName() + ".tmp");
+                Files.write(temp, remaining, UTF_8);
+                Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to rewrite robotics upload spool segment " + segment, e);
+        }
+    }
+
+    private static long sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String toLine(SpooledUpload upload) {
+        return new JSONObject()
+                .put(CASE_ID, upload.getCaseId())
+                .putOpt(USER_ID, upload.getUserId())
+                .put(SPOOLED_AT, upload.getSpooledAt().toString())
+                .put(JSON, new String(upload.getJson(), UTF_8))
+                .toString();
+    }
+
+    private static SpooledUpload fromLine(String line) {
+        JSONObject json = new JSONObject(line);
+        return SpooledUpload.builder()
+                .caseId(json.has(CASE_ID) ? json.getLong(CASE_ID) : null)
+                .userId(json.optString(USER_ID, null))
+                .spooledAt(Instant.parse(json.getString(SPOOLED_AT)))
+                .json(json.getString(JSON).getBytes(UTF_8))
+                .build();
+    }
+}
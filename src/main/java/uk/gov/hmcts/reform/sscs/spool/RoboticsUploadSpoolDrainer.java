@@ -0,0 +1,124 @@
+package uk.gov.hmcts.reform.sscs.spool;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.idam.IdamService;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.service.RoboticsJsonUploadService;
+import uk.gov.hmcts.reform.sscs.spool.RoboticsUploadSpool.Replay;
+
+/**
+ * Replays the {@link RoboticsUploadSpool} every {@code robotics.upload.spool.drainIntervalSeconds}, at no more
+ * than {@code robotics.upload.spool.ratePerSecond} uploads a second and {@code robotics.upload.spool.batchSize}
+ * a round, so a recovering document store is not hit with the whole backlog at once. A round stops at the
+ * first upload the store still refuses. Each round gets fresh tokens from {@link IdamService}, as the ones
+ * the uploads were spooled with may have expired by then.
+ *
+ * <p>The drainer is only created with {@code robotics.upload.spool.enabled}, so consumers that leave the spool
+ * off need no {@link IdamService} bean.
+ */
+@Component
+@Conditional(RoboticsUploadSpoolDrainer.SpoolEnabled.class)
+@Slf4j
+public class RoboticsUploadSpoolDrainer implements InitializingBean, DisposableBean {
+
+    private final RoboticsUploadSpool spool;
+    private final RoboticsJsonUploadService roboticsJsonUploadService;
+    private final IdamService idamService;
+    private final long drainIntervalSeconds;
+    private final long pauseNanos;
+    private final int batchSize;
+    private ScheduledExecutorService drainer;
+
+    @Autowired
+    public RoboticsUploadSpoolDrainer(RoboticsUploadSpool spool,
+                                      RoboticsJsonUploadService roboticsJsonUploadService,
+                                      IdamService idamService,
+                                      @Value("${robotics.upload.spool.drainIntervalSeconds:30}") long drainIntervalSeconds,
+                                      @Value("${robotics.upload.spool.ratePerSecond:2}") double ratePerSecond,
+                                      @Value("${robotics.upload.spool.batchSize:100}") int batchSize) {
+        this.spool = spool;
+        this.roboticsJsonUploadService = roboticsJsonUploadService;
+        this.idamService = idamService;
+        this.drainIntervalSeconds = drainIntervalSeconds;
+        this.pauseNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!spool.isEnabled()) {
+            return;
+        }
+        drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "robotics-upload-spool-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drainSafely, drainIntervalSeconds, drainIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (drainer != null) {
+            drainer.shutdownNow();
+        }
+    }
+
+    int drain() {
+        if (spool.getDepth() == 0) {
+            return 0;
+        }
+        log.warn("{} robotics json uploads spooled, oldest waiting {} s", spool.getDepth(),
+                spool.getOldestAge().getSeconds());
+
+        IdamTokens idamTokens = idamService.getIdamTokens();
+        long[] nextReplay = {System.nanoTime()};
+        int replayed = spool.drain(batchSize, upload -> pace(nextReplay)
+                ? roboticsJsonUploadService.replaySpooledUpload(upload, idamTokens) : Replay.RETRY_LATER);
+
+        log.info("Replayed {} spooled robotics json uploads, {} still pending, {} dead letters", replayed,
+                spool.getDepth(), spool.getDeadLettered());
+        return replayed;
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Robotics upload spool drain failed", e);
+        }
+    }
+
+    private boolean pace(long[] nextReplay) {
+        long wait = nextReplay[0] - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        nextReplay[0] = Math.max(nextReplay[0], System.nanoTime()) + pauseNanos;
+        return true;
+    }
+
+    static class SpoolEnabled implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return context.getEnvironment().getProperty("robotics.upload.spool.enabled", Boolean.class, false);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package uk.gov.hmcts.reform.sscs.spool;
+
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A robotics json upload waiting in the {@link RoboticsUploadSpool}. Only the user id of the tokens is kept.
+ */
+@Value
+@Builder
+public class SpooledUpload {
+
+    private Long caseId;
+
+    private String userId;
+
+    private Instant spooledAt;
+
+    private byte[] json;
+}
@@ -0,0 +1,170 @@
+package uk.gov.hmcts.reform.sscs.warmup;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.json.RoboticsPayloadWriter;
+
+/**
+ * Opt-in ({@code robotics.warmup.enabled}) warm-up of the robotics pipeline at application start.
+ *
+ * <p>Runs {@link RoboticsWarmupFixtures} through map, validate and serialise in rounds until the mean time
+ * per case is stable, so the schema is loaded, the validator's patterns are compiled and the mapper is
+ * JIT-compiled before the first real case. It runs on its own thread, so startup does not wait for it.
+ * {@link #isReady()} is true once it has finished, or straight away when warm-up is disabled.
+ *
+ * <p>The fixtures are mapped with a canonicaliser of their own and validated with
+ * {@link RoboticsJsonValidator#validateAll}, so they leave no strings in the shared canonicaliser and are
+ * not counted by the validation policy.
+ */
+@Component
+@Slf4j
+public class RoboticsWarmup implements ApplicationListener<ContextRefreshedEvent> {
+
+    static final int CASES_PER_FIXTURE_PER_ROUND = 20;
+    static final int STABLE_ROUNDS = 3;
+    static final double SETTLE_TOLERANCE = 0.1;
+
+    private final RoboticsJsonMapper roboticsJsonMapper;
+    private final RoboticsJsonValidator roboticsJsonValidator;
+    private final boolean enabled;
+    private final int maxRounds;
+    private final long maxMillis;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean ready;
+    private volatile Result result;
+    private long sink;
+
+    @Autowired
+    public RoboticsWarmup(RoboticsJsonMapper roboticsJsonMapper,
+                          RoboticsJsonValidator roboticsJsonValidator,
+                          @Value("${robotics.warmup.enabled:false}") boolean enabled,
+                          @Value("${robotics.warmup.maxRounds:200}") int maxRounds,
+                          @Value("${robotics.warmup.maxMillis:10000}") long maxMillis) {
+        this.roboticsJsonMapper = roboticsJsonMapper;
+        this.roboticsJsonValidator = roboticsJsonValidator;
+        this.enabled = enabled;
+        this.maxRounds = maxRounds;
+        this.maxMillis = maxMillis;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        if (!enabled) {
+            markReady();
+            return;
+        }
+        Thread thread = new Thread(this::runWarmUp, "robotics-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Waits up to the timeout for warm-up to finish, returning whether it has.
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    private void runWarmUp() {
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            log.warn("Robotics warm-up failed, the first cases may be slow", e);
+        } finally {
+            markReady();
+        }
+    }
+
+    private void markReady() {
+        ready = true;
+        finished.countDown();
+    }
+
+    public Result getResult() {
+        return result;
+    }
+
+    Result warmUp() {
+        List<RoboticsWrapper> fixtures = RoboticsWarmupFixtures.fixtures();
+        RoboticsJsonMapper mapper = roboticsJsonMapper.withOwnCanonicaliser();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+
+        long firstRoundNanos = -1;
+        long previousRoundNanos = -1;
+        int stableRounds = 0;
+        int rounds = 0;
+        while (rounds < maxRounds && System.nanoTime() < deadline && stableRounds < STABLE_ROUNDS) {
+            long roundNanos = runRound(mapper, fixtures);
+            rounds++;
+            if (firstRoundNanos < 0) {
+                firstRoundNanos = roundNanos;
+            }
+            if (previousRoundNanos > 0 && Math.abs(roundNanos - previousRoundNanos) <= previousRoundNanos * SETTLE_TOLERANCE) {
+                stableRounds++;
+            } else {
+                stableRounds = 0;
+            }
+            previousRoundNanos = roundNanos;
+        }
+
+        Result warmupResult = new Result(rounds, rounds * fixtures.size() * CASES_PER_FIXTURE_PER_ROUND,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.NANOSECONDS.toMicros(firstRoundNanos), TimeUnit.NANOSECONDS.toMicros(previousRoundNanos),
+                stableRounds >= STABLE_ROUNDS);
+        result = warmupResult;
+
+        log.info("Robotics warm-up {} in {} ms: {} rounds, {} cases, {} us per case at start, {} us per case now",
+                warmupResult.isSettled() ? "settled" : "stopped before settling", warmupResult.getElapsedMillis(),
+                warmupResult.getRounds(), warmupResult.getCases(), warmupResult.getFirstRoundMicrosPerCase(),
+                warmupResult.getLastRoundMicrosPerCase());
+
+        return warmupResult;
+    }
+
+    /**
+     * Mean nanoseconds per case over one round.
+     */
+    private long runRound(RoboticsJsonMapper mapper, List<RoboticsWrapper> fixtures) {
+        long start = System.nanoTime();
+        for (int i = 0; i < CASES_PER_FIXTURE_PER_ROUND; i++) {
+            for (RoboticsWrapper fixture : fixtures) {
+                JSONObject roboticsJson = mapper.map(fixture);
+                roboticsJsonValidator.validateAll(roboticsJson).throwIfInvalid();
+                sink += roboticsJson.toString().length();
+                sink += RoboticsPayloadWriter.write(mapper.mapToPayload(fixture)).length();
+            }
+        }
+        return (System.nanoTime() - start) / (CASES_PER_FIXTURE_PER_ROUND * fixtures.size());
+    }
+
+    @lombok.Value
+    public static class Result {
+        private int rounds;
+        private int cases;
+        private long elapsedMillis;
+        private long firstRoundMicrosPerCase;
+        private long lastRoundMicrosPerCase;
+        private boolean settled;
+    }
+}
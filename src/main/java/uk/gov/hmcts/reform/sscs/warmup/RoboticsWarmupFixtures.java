@@ -0,0 +1,144 @@
+package uk.gov.hmcts.reform.sscs.warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Address;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appeal;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appellant;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appointee;
+import uk.gov.hmcts.reform.sscs.ccd.domain.BenefitType;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Contact;
+import uk.gov.hmcts.reform.sscs.ccd.domain.DateRange;
+import uk.gov.hmcts.reform.sscs.ccd.domain.ExcludeDate;
+import uk.gov.hmcts.reform.sscs.ccd.domain.HearingOptions;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Identity;
+import uk.gov.hmcts.reform.sscs.ccd.domain.MrnDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Name;
+import uk.gov.hmcts.reform.sscs.ccd.domain.RegionalProcessingCenter;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Representative;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+
+/**
+ * Synthetic, valid robotics cases covering the main mapping branches (oral and paper hearings, appointee,
+ * representative, hearing arrangements and excluded dates) for warming up the pipeline.
+ */
+public final class RoboticsWarmupFixtures {
+
+    private RoboticsWarmupFixtures() {
+        // static only
+    }
+
+    public static List<RoboticsWrapper> fixtures() {
+        return Collections.unmodifiableList(Arrays.asList(
+                wrapper(oralPipCase(), 1000000000000001L),
+                wrapper(paperEsaCase(), 1000000000000002L),
+                wrapper(excludedDatesOnlyCase(), 1000000000000003L)));
+    }
+
+    private static RoboticsWrapper wrapper(SscsCaseData caseData, long caseId) {
+        return RoboticsWrapper.builder()
+                .sscsCaseData(caseData)
+                .ccdCaseId(caseId)
+                .venueName("Warmup")
+                .evidencePresent("No")
+                .build();
+    }
+
+    private static SscsCaseData oralPipCase() {
+        Appointee appointee = Appointee.builder()
+                .name(name("Mrs", "Wanda", "Warmup"))
+                .address(address("2 Warmup Street"))
+                .contact(contact())
+                .identity(Identity.builder().dob("1980-01-01").nino("AA000002A").build())
+                .build();
+        HearingOptions hearingOptions = HearingOptions.builder()
+                .wantsToAttend("Yes")
+                .languageInterpreter("Yes").languages("Welsh")
+                .signLanguageType("British Sign Language")
+                .arrangements(Arrays.asList("hearingLoop", "signLanguageInterpreter", "disabledAccess"))
+                .excludeDates(Collections.singletonList(excludeDate("2030-01-02")))
+                .other("None")
+                .build();
+        Representative rep = Representative.builder()
+                .hasRepresentative("Yes")
+                .name(name("Mr", "Walter", "Warmup"))
+                .organisation("Warmup Advice")
+                .address(address("3 Warmup Street"))
+                .contact(contact())
+                .build();
+        return caseData(appeal("PIP", appellant("AA000001A", appointee), hearingOptions, rep));
+    }
+
+    private static SscsCaseData paperEsaCase() {
+        HearingOptions hearingOptions = HearingOptions.builder().wantsToAttend("No").build();
+
+        return caseData(appeal("ESA", appellant("AA000003A", null), hearingOptions,
+                Representative.builder().hasRepresentative("No").build()));
+    }
+
+    private static SscsCaseData excludedDatesOnlyCase() {
+        HearingOptions hearingOptions = HearingOptions.builder()
+                .wantsToAttend("Yes")
+                .excludeDates(Arrays.asList(excludeDate("2030-02-03"), excludeDate("2030-03-04")))
+                .build();
+        Representative rep = Representative.builder()
+                .hasRepresentative("Yes")
+                .name(Name.builder().build())
+                .address(address("4 Warmup Street"))
+                .contact(contact())
+                .build();
+
+        return caseData(appeal("PIP", appellant("AA000004A", null), hearingOptions, rep));
+    }
+
+    private static SscsCaseData caseData(Appeal appeal) {
+        return SscsCaseData.builder()
+                .appeal(appeal)
+                .regionalProcessingCenter(RegionalProcessingCenter.builder()
+                        .name("WARMUP").email("warmup@example.com").build())
+                .evidencePresent("No")
+                .build();
+    }
+
+    private static Appeal appeal(String benefitCode, Appellant appellant, HearingOptions hearingOptions,
+                                 Representative rep) {
+        return Appeal.builder()
+                .benefitType(BenefitType.builder().code(benefitCode).build())
+                .mrnDetails(MrnDetails.builder().mrnDate("2030-01-01").dwpIssuingOffice("1")
+                        .mrnLateReason("Warmup").build())
+                .appellant(appellant)
+                .hearingOptions(hearingOptions)
+                .rep(rep)
+                .receivedVia("Online")
+                .build();
+    }
+
+    private static Appellant appellant(String nino, Appointee appointee) {
+        return Appellant.builder()
+                .name(name("Mr", "William", "Warmup"))
+                .address(address("1 Warmup Street"))
+                .contact(contact())
+                .identity(Identity.builder().dob("1970-01-01").nino(nino).build())
+                .appointee(appointee)
+                .isAddressSameAsAppointee(appointee == null ? null : "Yes")
+                .build();
+    }
+
+    private static Name name(String title, String firstName, String lastName) {
+        return Name.builder().title(title).firstName(firstName).lastName(lastName).build();
+    }
+
+    private static Address address(String line1) {
+        return Address.builder().line1(line1).town("Warmup Town").county("Warmupshire").postcode("WA1 1RM").build();
+    }
+
+    private static Contact contact() {
+        return Contact.builder().email("warmup@example.com").mobile("07000000000").build();
+    }
+
+    private static ExcludeDate excludeDate(String date) {
+        return ExcludeDate.builder().value(DateRange.builder().start(date).end(date).build()).build();
+    }
+}
@@ -0,0 +1,198 @@
+package uk.gov.hmcts.reform.sscs.backfill;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.hmcts.reform.sscs.backfill.RoboticsBackfill.Outcome;
+import uk.gov.hmcts.reform.sscs.backfill.RoboticsBackfill.Result;
+import uk.gov.hmcts.reform.sscs.ccd.domain.DocumentLink;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsDocument;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsDocumentDetails;
+import uk.gov.hmcts.reform.sscs.ccd.service.CcdService;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.service.RoboticsCcdUpdateCoordinator;
+import uk.gov.hmcts.reform.sscs.service.RoboticsJsonUploadService;
+import uk.gov.hmcts.reform.sscs.spool.RoboticsUploadSpool;
+import uk.gov.hmcts.reform.sscs.stub.LatencyDistribution;
+import uk.gov.hmcts.reform.sscs.stub.RoboticsStubs;
+import uk.gov.hmcts.reform.sscs.stub.StubEndpoint;
+
+public class RoboticsBackfillTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RoboticsJsonMapper mapper = new RoboticsJsonMapper(true);
+    private final RoboticsJsonValidator validator = new RoboticsJsonValidator("/schema/sscs-robotics.json");
+    private Path checkpoint;
+
+    @Before
+    public void setUp() {
+        checkpoint = folder.getRoot().toPath().resolve("backfill.checkpoint");
+    }
+
+    @Test
+    public void attachesRoboticsJsonToCasesWithoutIt() throws Exception {
+        RoboticsStubs stubs = RoboticsStubs.instant();
+        stubs.removeCase(3L);
+        stubs.putCase(4L, caseWithRoboticsJson());
+
+        Result result = backfill(stubs, 4, 1000).run(caseIds(1, 20), checkpoint, RoboticsStubs.idamTokens());
+
+        assertEquals(20, result.getCases());
+        assertEquals(18, result.count(Outcome.ATTACHED));
+        assertEquals(1, result.count(Outcome.NOT_FOUND));
+        assertEquals(1, result.count(Outcome.ALREADY_ATTACHED));
+        assertEquals(0, result.count(Outcome.FAILED));
+        assertEquals(18, documentUploadCalls(stubs));
+        assertEquals(20, Files.readAllLines(checkpoint, UTF_8).size());
+        assertTrue(result.summary().contains("ATTACHED=18"));
+    }
+
+    @Test
+    public void givenRerun_thenAttachedCasesAreNotAttachedAgain() throws Exception {
+        RoboticsStubs stubs = RoboticsStubs.instant();
+        backfill(stubs, 2, 1000).run(caseIds(1, 5), checkpoint, RoboticsStubs.idamTokens());
+        Files.delete(checkpoint);
+
+        Result rerun = backfill(stubs, 2, 1000).run(caseIds(1, 5), checkpoint, RoboticsStubs.idamTokens());
+
+        assertEquals(5, rerun.count(Outcome.ALREADY_ATTACHED));
+        assertEquals(5, documentUploadCalls(stubs));
+    }
+
+    @Test
+    public void givenDocumentStoreFailing_thenReportsFailuresByStageAndLeavesThemOutOfTheCheckpoint() throws Exception {
+        StubEndpoint documentUpload = new StubEndpoint("documentUpload", LatencyDistribution.none(), 1);
+        RoboticsStubs stubs = new RoboticsStubs(StubEndpoint.instant("email"), documentUpload,
+                StubEndpoint.instant("ccd"), StubEndpoint.instant("airLookup"));
+
+        Result result = backfill(stubs, 4, 1000).run(caseIds(1, 8), checkpoint, RoboticsStubs.idamTokens());
+
+        assertEquals(8, result.count(Outcome.FAILED));
+        assertEquals(Collections.singletonMap("DM_UPLOAD StubFailureException", 8), result.getFailures());
+        assertEquals(0, Files.readAllLines(checkpoint, UTF_8).size());
+    }
+
+    @Test
+    public void givenCcdUpdateFailing_thenReportsTheFailuresAtCcdAttach() throws Exception {
+        RoboticsStubs stubs = RoboticsStubs.instant();
+        CcdService failingUpdates = new CcdService(null, null) {
+            @Override
+            public SscsCaseDetails getByCaseId(Long caseId, IdamTokens idamTokens) {
+                return stubs.getCcdService().getByCaseId(caseId, idamTokens);
+            }
+
+            @Override
+            public SscsCaseDetails updateCase(SscsCaseData caseData, Long caseId, String eventType, String summary,
+                                              String description, IdamTokens idamTokens) {
+                throw new IllegalStateException("CCD unavailable");
+            }
+        };
+        RoboticsBackfill backfill = new RoboticsBackfill(stubs.roboticsService(mapper, validator),
+                new RoboticsJsonUploadService(stubs.getDocumentUploadClientApi(), () -> "stub-s2s-token",
+                        failingUpdates), failingUpdates, 2, 1000);
+
+        Result result = backfill.run(caseIds(1, 4), checkpoint, RoboticsStubs.idamTokens());
+
+        assertEquals(Collections.singletonMap("CCD_ATTACH IllegalStateException", 4), result.getFailures());
+    }
+
+    @Test
+    public void givenDocumentStoreFailingWithTheSpoolOn_thenCheckpointsTheSpooledCases() throws Exception {
+        StubEndpoint documentUpload = new StubEndpoint("documentUpload", LatencyDistribution.none(), 1);
+        RoboticsStubs stubs = new RoboticsStubs(StubEndpoint.instant("email"), documentUpload,
+                StubEndpoint.instant("ccd"), StubEndpoint.instant("airLookup"));
+        RoboticsUploadSpool spool = new RoboticsUploadSpool(true, folder.newFolder("spool").toPath(), 1024 * 1024,
+                Clock.systemUTC());
+        RoboticsBackfill backfill = new RoboticsBackfill(stubs.roboticsService(mapper, validator),
+                new RoboticsJsonUploadService(stubs.getDocumentUploadClientApi(), () -> "stub-s2s-token",
+                        stubs.getCcdService(), new RoboticsCcdUpdateCoordinator(), spool),
+                stubs.getCcdService(), 4, 1000);
+
+        Result result = backfill.run(caseIds(1, 8), checkpoint, RoboticsStubs.idamTokens());
+        final Result rerun = backfill.run(caseIds(1, 8), checkpoint, RoboticsStubs.idamTokens());
+
+        assertEquals(8, result.count(Outcome.SPOOLED));
+        assertEquals(0, result.count(Outcome.FAILED));
+        assertEquals(8, spool.getDepth());
+        assertEquals(8, Files.readAllLines(checkpoint, UTF_8).size());
+        assertEquals(8, rerun.count(Outcome.CHECKPOINTED));
+        assertEquals(8, documentUpload.getCalls());
+    }
+
+    @Test
+    public void resumesFromTheCheckpoint() throws Exception {
+        Files.write(checkpoint, Arrays.asList("1 ATTACHED", "2 NOT_FOUND", "3 ALREADY_ATTACHED"), UTF_8);
+        RoboticsStubs stubs = RoboticsStubs.instant();
+
+        Result result = backfill(stubs, 4, 1000).run(caseIds(1, 10), checkpoint, RoboticsStubs.idamTokens());
+
+        assertEquals(3, result.count(Outcome.CHECKPOINTED));
+        assertEquals(7, result.count(Outcome.ATTACHED));
+        assertEquals(7, documentUploadCalls(stubs));
+        assertEquals(10, Files.readAllLines(checkpoint, UTF_8).size());
+    }
+
+    @Test
+    public void startsCasesNoFasterThanTheRateLimit() throws Exception {
+        long start = System.nanoTime();
+
+        Result result = backfill(RoboticsStubs.instant(), 8, 100).run(caseIds(1, 11), checkpoint,
+                RoboticsStubs.idamTokens());
+
+        assertEquals(11, result.count(Outcome.ATTACHED));
+        // eleven starts at 100 a second are ten 10 ms pauses apart, whatever the concurrency
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(result.throughputPerSecond() <= 110);
+    }
+
+    private RoboticsBackfill backfill(RoboticsStubs stubs, int concurrency, double ratePerSecond) {
+        return new RoboticsBackfill(stubs.roboticsService(mapper, validator), stubs.roboticsJsonUploadService(),
+                stubs.getCcdService(), concurrency, ratePerSecond);
+    }
+
+    private static long documentUploadCalls(RoboticsStubs stubs) {
+        return stubs.getEndpoints().stream()
+                .filter(endpoint -> endpoint.getName().equals("documentUpload"))
+                .mapToLong(StubEndpoint::getCalls)
+                .sum();
+    }
+
+    private static SscsCaseData caseWithRoboticsJson() {
+        SscsCaseData caseData = buildCaseData();
+        List<SscsDocument> documents = new ArrayList<>();
+        documents.add(new SscsDocument(SscsDocumentDetails.builder()
+                .documentFileName("robotics_json.txt")
+                .documentLink(DocumentLink.builder().documentUrl("http://dm-store.local/documents/old").build())
+                .build()));
+        caseData.setSscsDocument(documents);
+        return caseData;
+    }
+
+    private static List<Long> caseIds(long first, long last) {
+        List<Long> caseIds = new ArrayList<>();
+        for (long caseId = first; caseId <= last; caseId++) {
+            caseIds.add(caseId);
+        }
+        return caseIds;
+    }
+}
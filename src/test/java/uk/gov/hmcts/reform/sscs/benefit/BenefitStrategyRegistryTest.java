@@ -0,0 +1,66 @@
+package uk.gov.hmcts.reform.sscs.benefit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.converters.Nullable;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import uk.gov.hmcts.reform.sscs.model.AirlookupBenefitToVenue;
+
+@RunWith(JUnitParamsRunner.class)
+public class BenefitStrategyRegistryTest {
+
+    private final BenefitStrategyRegistry registry = BenefitStrategyRegistry.defaultRegistry();
+
+    @Test
+    @Parameters({"PIP, 002DD, PIP", "pip, 002DD, PIP", "ESA, 051DD, ESA", "esa, 051DD, ESA", "Esa, 051DD, ESA",
+        "UC, 002DD, PIP", "null, 002DD, PIP"})
+    public void givenBenefitCode_thenReturnsItsStrategy(@Nullable String benefitCode, String caseCode,
+                                                        BenefitVenue venue) {
+        BenefitStrategy strategy = registry.get(benefitCode);
+
+        assertEquals(caseCode, strategy.getCaseCode());
+        assertEquals(venue, strategy.getVenue());
+    }
+
+    @Test
+    public void givenConfiguredBenefit_thenNoCodeChangeIsNeeded() {
+        BenefitStrategyRegistry configured = new BenefitStrategyRegistry(" PIP:002DD:PIP, ESA:051DD:esa, DLA:037DD:PIP ");
+
+        assertEquals("037DD", configured.get("dla").getCaseCode());
+        assertEquals(3, configured.getCodes().size());
+    }
+
+    @Test
+    public void givenFirstEntry_thenItIsTheFallback() {
+        BenefitStrategyRegistry configured = new BenefitStrategyRegistry("ESA:051DD:ESA,PIP:002DD:PIP");
+
+        assertEquals("051DD", configured.get("unknown").getCaseCode());
+    }
+
+    @Test
+    public void givenRegisteredStrategy_thenReplacesTheConfiguredOne() {
+        BenefitMappingRule rule = (appeal, payload) -> payload.pipNumber("ESA office");
+        registry.register(BenefitStrategy.builder().code("esa").caseCode("051DD").venue(BenefitVenue.ESA)
+                .mappingRule(rule).build());
+
+        assertSame(rule, registry.get("ESA").getMappingRule());
+    }
+
+    @Test
+    public void venueSelectsTheBenefitVenue() {
+        AirlookupBenefitToVenue venue = AirlookupBenefitToVenue.builder().pipVenue("Bristol").esaVenue("Cardiff").build();
+
+        assertEquals("Bristol", BenefitVenue.PIP.select(venue));
+        assertEquals("Cardiff", BenefitVenue.ESA.select(venue));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @Parameters({"PIP:002DD", "PIP:002DD:DLA", ""})
+    public void givenInvalidConfiguration_thenFailsAtStartup(String benefits) {
+        new BenefitStrategyRegistry(benefits);
+    }
+}
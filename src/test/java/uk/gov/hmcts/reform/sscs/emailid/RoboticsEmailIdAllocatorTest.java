@@ -0,0 +1,158 @@
+package uk.gov.hmcts.reform.sscs.emailid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appellant;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Identity;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Name;
+import uk.gov.hmcts.reform.sscs.service.EmailService;
+
+public class RoboticsEmailIdAllocatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final EmailService emailService = mock(EmailService.class);
+    private final Appellant appellant = Appellant.builder().build();
+
+    @Test
+    public void legacyAllocatorReturnsTheEmailServiceId() {
+        given(emailService.generateUniqueEmailId(appellant)).willReturn("Bloggs_123");
+
+        assertEquals("Bloggs_123", RoboticsEmailIdAllocator.legacy(emailService).nextId(appellant));
+    }
+
+    @Test
+    public void uniqueIdsAppendABase36NumberToTheCleanedSurnameAndNinoEnding() {
+        Appellant named = Appellant.builder().name(Name.builder().lastName("O'Brien Smith").build())
+                .identity(Identity.builder().nino("AB877123C").build()).build();
+        RoboticsEmailIdAllocator allocator = new RoboticsEmailIdAllocator(emailService,
+                new InMemoryEmailIdBlockSource(36), 10);
+
+        assertEquals("O-Brien-Smith_23C_10", allocator.nextId(named));
+        assertEquals("O-Brien-Smith_23C_11", allocator.nextId(named));
+        verifyNoMoreInteractions(emailService);
+        allocator.destroy();
+    }
+
+    @Test
+    public void givenNoNameOrNino_thenUniqueIdsStillHaveAPrefix() {
+        RoboticsEmailIdAllocator allocator = new RoboticsEmailIdAllocator(emailService,
+                new InMemoryEmailIdBlockSource(36), 10);
+
+        assertEquals("__10", allocator.nextId(appellant));
+        allocator.destroy();
+    }
+
+    @Test
+    public void nextBlockIsReservedOnTheAllocatorsOwnThread() {
+        List<String> reservingThreads = new ArrayList<>();
+        RoboticsEmailIdAllocator allocator = new RoboticsEmailIdAllocator(emailService, size -> {
+            synchronized (reservingThreads) {
+                reservingThreads.add(Thread.currentThread().getName());
+            }
+            return reservingThreads.size() * 100L;
+        }, 4);
+
+        for (int i = 0; i < 5; i++) {
+            allocator.nextNumber();
+        }
+        allocator.destroy();
+
+        assertEquals(Thread.currentThread().getName(), reservingThreads.get(0));
+        assertEquals("robotics-email-id-reserver", reservingThreads.get(1));
+    }
+
+    @Test
+    public void cleanNeverReturnsAnEmptyPrefix() {
+        assertEquals("robotics", RoboticsEmailIdAllocator.clean(null));
+        assertEquals("robotics", RoboticsEmailIdAllocator.clean(""));
+        assertEquals("a-b_c-1", RoboticsEmailIdAllocator.clean("a/b_c 1"));
+    }
+
+    @Test
+    public void numbersAreUniqueAcrossThreadsAndBlocks() throws Exception {
+        AtomicInteger reservations = new AtomicInteger();
+        InMemoryEmailIdBlockSource counter = new InMemoryEmailIdBlockSource(0);
+        RoboticsEmailIdAllocator allocator = new RoboticsEmailIdAllocator(emailService, size -> {
+            reservations.incrementAndGet();
+            return counter.reserve(size);
+        }, 100);
+
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    numbers.add(allocator.nextNumber());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(80_000, numbers.size());
+        // one reservation per block, plus at most one prefetched block not yet used
+        assertTrue("reservations " + reservations.get(), reservations.get() <= 80_000 / 100 + 1);
+    }
+
+    @Test
+    public void givenPrefetchFails_thenReservesAgainWhenTheBlockRunsOut() {
+        AtomicInteger calls = new AtomicInteger();
+        RoboticsEmailIdAllocator allocator = new RoboticsEmailIdAllocator(emailService, size -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalStateException("unavailable");
+            }
+            return calls.get() * 100L;
+        }, 4);
+
+        List<Long> numbers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            numbers.add(allocator.nextNumber());
+        }
+
+        assertEquals(100L, (long) numbers.get(0));
+        assertEquals(103L, (long) numbers.get(3));
+        assertEquals(300L, (long) numbers.get(4));
+    }
+
+    @Test
+    public void fileSourcesSharingAFileReserveDisjointRangesAndPersist() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("robotics-email-ids");
+
+        assertEquals(0, new FileEmailIdBlockSource(file).reserve(1000));
+        assertEquals(1000, new FileEmailIdBlockSource(file).reserve(500));
+        assertEquals(1500, new FileEmailIdBlockSource(file).reserve(1000));
+    }
+
+    @Test
+    public void fileSourceLeavesOnlyTheNewMarkInTheFile() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("robotics-email-ids");
+        Files.write(file, "998  \n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(998, new FileEmailIdBlockSource(file).reserve(2));
+
+        assertEquals("1000", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+}
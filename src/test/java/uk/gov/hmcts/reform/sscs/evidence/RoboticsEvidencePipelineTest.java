@@ -0,0 +1,307 @@
+package uk.gov.hmcts.reform.sscs.evidence;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import uk.gov.hmcts.reform.sscs.evidence.RoboticsEvidencePipeline.Outcome;
+import uk.gov.hmcts.reform.sscs.evidence.RoboticsEvidencePipeline.Report;
+import uk.gov.hmcts.reform.sscs.evidence.RoboticsEvidencePipeline.Result;
+import uk.gov.hmcts.reform.sscs.exception.EvidenceRejectedException;
+import uk.gov.hmcts.reform.sscs.exception.EvidenceTimeoutException;
+
+public class RoboticsEvidencePipelineTest {
+
+    private final List<RoboticsEvidencePipeline> pipelines = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        pipelines.forEach(RoboticsEvidencePipeline::destroy);
+    }
+
+    @Test
+    public void givenNoStages_thenPassesAttachmentsThroughInOrderSkippingEmptyEntries() {
+        Map<String, byte[]> evidence = new LinkedHashMap<>();
+        evidence.put("b.doc", new byte[] {2});
+        evidence.put(null, new byte[] {3});
+        evidence.put("empty.doc", null);
+        evidence.put("a.doc", new byte[] {1});
+
+        Result result = RoboticsEvidencePipeline.passThrough().process(evidence);
+
+        assertEquals(asList("b.doc", "a.doc"), filenames(result));
+        assertSame(evidence.get("a.doc"), result.getAttachments().get(1).getContent());
+        assertEquals(Collections.emptyList(), result.getReports());
+    }
+
+    @Test
+    public void givenShrinkingStage_thenSendsTheShrunkAttachmentAndReportsBothSizes() {
+        RoboticsEvidenceStage shrink = evidence -> evidence.withContent(Arrays.copyOf(evidence.getContent(), 10));
+        RoboticsEvidencePipeline pipeline = pipeline(4, 1 << 20, 10, shrink);
+
+        Result result = pipeline.process(Collections.singletonMap("scan.png", new byte[5000]));
+
+        assertEquals(10, result.getAttachments().get(0).getContent().length);
+        Report report = result.getReports().get(0);
+        assertEquals("scan.png", report.getFilename());
+        assertEquals(Outcome.PROCESSED, report.getOutcome());
+        assertEquals(5000, report.getOriginalBytes());
+        assertEquals(10, report.getProcessedBytes());
+        assertNull(report.getReason());
+    }
+
+    @Test
+    public void appliesStagesInOrder() {
+        RoboticsEvidenceStage check = evidence -> evidence.withFilename(evidence.getFilename() + ".checked");
+        RoboticsEvidenceStage shrink = evidence -> evidence.withFilename(evidence.getFilename() + ".shrunk");
+        RoboticsEvidencePipeline pipeline = pipeline(2, 1 << 20, 10, check, shrink);
+
+        Result result = pipeline.process(Collections.singletonMap("scan.png", new byte[] {1}));
+
+        assertEquals(singletonList("scan.png.checked.shrunk"), filenames(result));
+    }
+
+    @Test
+    public void givenRejectedAndFailingAttachments_thenOnlyThoseAreAffected() {
+        RoboticsEvidencePipeline pipeline = pipeline(4, 1 << 20, 10, evidence -> {
+            if (evidence.getFilename().endsWith(".exe")) {
+                throw new EvidenceRejectedException("not a document");
+            }
+            if (evidence.getFilename().startsWith("corrupt")) {
+                throw new IllegalStateException("cannot decode image");
+            }
+            return evidence.withContent(new byte[] {9});
+        });
+        Map<String, byte[]> evidence = new LinkedHashMap<>();
+        evidence.put("letter.pdf", new byte[] {1, 1});
+        evidence.put("virus.exe", new byte[] {2, 2});
+        evidence.put("corrupt.png", new byte[] {3, 3});
+
+        Result result = pipeline.process(evidence);
+
+        assertEquals(asList("letter.pdf", "corrupt.png"), filenames(result));
+        assertArrayEquals(new byte[] {9}, result.getAttachments().get(0).getContent());
+        assertArrayEquals(new byte[] {3, 3}, result.getAttachments().get(1).getContent());
+        assertEquals(asList(Outcome.PROCESSED, Outcome.REJECTED, Outcome.FAILED), outcomes(result));
+        assertEquals("not a document", result.getReports().get(1).getReason());
+        assertTrue(result.getReports().get(2).getReason().contains("cannot decode image"));
+    }
+
+    @Test
+    public void processesAttachmentsInParallelAndKeepsTheirOrder() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        RoboticsEvidencePipeline pipeline = pipeline(3, 1 << 20, 10, evidence -> {
+            allStarted.countDown();
+            try {
+                assertTrue("attachments were not processed together", allStarted.await(5, TimeUnit.SECONDS));
+                Thread.sleep(evidence.getContent()[0]);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return evidence;
+        });
+        Map<String, byte[]> evidence = new LinkedHashMap<>();
+        evidence.put("slow.pdf", new byte[] {60});
+        evidence.put("medium.pdf", new byte[] {30});
+        evidence.put("fast.pdf", new byte[] {1});
+
+        Result result = pipeline.process(evidence);
+
+        assertEquals(asList("slow.pdf", "medium.pdf", "fast.pdf"), filenames(result));
+        assertEquals(asList(Outcome.PROCESSED, Outcome.PROCESSED, Outcome.PROCESSED), outcomes(result));
+    }
+
+    @Test
+    public void givenByteBudget_thenLimitsHowMuchIsProcessedAtOnce() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        RoboticsEvidencePipeline pipeline = pipeline(8, 3 * 1024, 10, evidence -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return evidence;
+        });
+        Map<String, byte[]> evidence = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            evidence.put(i + ".pdf", new byte[1024]);
+        }
+
+        Result result = pipeline.process(evidence);
+
+        assertEquals(8, result.getAttachments().size());
+        assertTrue("peak " + peak.get(), peak.get() <= 3);
+    }
+
+    @Test
+    public void givenStageSlowerThanTheTimeout_thenFailsTheCase() {
+        CountDownLatch never = new CountDownLatch(1);
+        RoboticsEvidencePipeline pipeline = pipeline(1, 1024, 1, evidence -> {
+            if (evidence.getFilename().startsWith("huge")) {
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return evidence.withContent(new byte[0]);
+        });
+
+        String failure = failure(pipeline, Collections.singletonMap("huge.tiff", new byte[] {1, 2, 3}));
+
+        assertEquals("Could not process additional evidence huge.tiff within 1000 ms", failure);
+        assertEquals(singletonList(Outcome.PROCESSED),
+                outcomes(pipeline.process(Collections.singletonMap("next.pdf", new byte[] {1}))));
+    }
+
+    @Test
+    public void givenAttachmentsThatTogetherTakeLongerThanTheTimeout_thenFailsTheCase() {
+        RoboticsEvidencePipeline pipeline = pipeline(1, 1 << 20, 1, evidence -> {
+            sleep(600);
+            return evidence;
+        });
+        Map<String, byte[]> evidence = new LinkedHashMap<>();
+        evidence.put("first.pdf", new byte[] {1});
+        evidence.put("second.pdf", new byte[] {2});
+
+        assertEquals("Could not process additional evidence second.pdf within 1000 ms", failure(pipeline, evidence));
+    }
+
+    @Test
+    public void givenNoRoomBeforeTheDeadline_thenFailsTheCaseWithoutWaitingPerAttachment() {
+        RoboticsEvidencePipeline pipeline = pipeline(2, 1024, 1, evidence -> {
+            sleep(600);
+            return evidence;
+        });
+        Map<String, byte[]> evidence = new LinkedHashMap<>();
+        evidence.put("first.pdf", new byte[1024]);
+        evidence.put("second.pdf", new byte[1024]);
+        evidence.put("third.pdf", new byte[1024]);
+        long start = System.nanoTime();
+
+        String failure = failure(pipeline, evidence);
+
+        assertEquals("No room to process additional evidence third.pdf within 1000 ms", failure);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1500);
+    }
+
+    @Test
+    public void givenStageStillRunningAfterItsTimeout_thenItsBytesStayInFlightUntilItStops() {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        RoboticsEvidencePipeline pipeline = pipeline(2, 1024, 1, evidence -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                if (evidence.getFilename().startsWith("stuck")) {
+                    awaitIgnoringInterrupts(release);
+                }
+                return evidence;
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        assertTrue(failure(pipeline, Collections.singletonMap("stuck.tiff", new byte[1024])).startsWith("Could not"));
+        String whileStuck = failure(pipeline, Collections.singletonMap("next.pdf", new byte[1024]));
+        release.countDown();
+
+        assertTrue(whileStuck.startsWith("No room"));
+        assertEquals(1, peak.get());
+        assertEquals(singletonList(Outcome.PROCESSED),
+                outcomes(pipeline.process(Collections.singletonMap("after.pdf", new byte[1024]))));
+    }
+
+    @Test
+    public void givenTaskCancelledBeforeItStarted_thenItsBytesAreFreedAndItNeverRuns() {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        RoboticsEvidencePipeline pipeline = pipeline(1, 2048, 1, evidence -> {
+            ran.add(evidence.getFilename());
+            if (evidence.getFilename().startsWith("stuck")) {
+                awaitIgnoringInterrupts(release);
+            }
+            return evidence;
+        });
+        Map<String, byte[]> evidence = new LinkedHashMap<>();
+        evidence.put("stuck.tiff", new byte[1024]);
+        evidence.put("queued.pdf", new byte[1024]);
+
+        assertTrue(failure(pipeline, evidence).startsWith("Could not process additional evidence stuck.tiff"));
+        release.countDown();
+
+        assertEquals(singletonList(Outcome.PROCESSED),
+                outcomes(pipeline.process(Collections.singletonMap("both.pdf", new byte[2048]))));
+        assertEquals(asList("stuck.tiff", "both.pdf"), ran);
+    }
+
+    private RoboticsEvidencePipeline pipeline(int parallelism, long maxInFlightBytes, long timeoutSeconds,
+                                              RoboticsEvidenceStage... stages) {
+        RoboticsEvidencePipeline pipeline = new RoboticsEvidencePipeline(asList(stages), parallelism,
+                maxInFlightBytes, timeoutSeconds);
+        pipelines.add(pipeline);
+        return pipeline;
+    }
+
+    private static String failure(RoboticsEvidencePipeline pipeline, Map<String, byte[]> evidence) {
+        try {
+            pipeline.process(evidence);
+        } catch (EvidenceTimeoutException e) {
+            return e.getMessage();
+        }
+        throw new AssertionError("expected the case to fail");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<String> filenames(Result result) {
+        List<String> filenames = new ArrayList<>();
+        result.getAttachments().forEach(evidence -> filenames.add(evidence.getFilename()));
+        return filenames;
+    }
+
+    private static List<Outcome> outcomes(Result result) {
+        List<Outcome> outcomes = new ArrayList<>();
+        result.getReports().forEach(report -> outcomes.add(report.getOutcome()));
+        return outcomes;
+    }
+}
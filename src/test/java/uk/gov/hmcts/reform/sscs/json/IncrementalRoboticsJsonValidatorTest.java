@@ -0,0 +1,198 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import uk.gov.hmcts.reform.sscs.exception.RoboticsValidationException;
+import uk.gov.hmcts.reform.sscs.exception.StacklessRoboticsValidationException;
+
+@RunWith(JUnitParamsRunner.class)
+public class IncrementalRoboticsJsonValidatorTest {
+
+    private static final String SCHEMA = "/schema/sscs-robotics.json";
+
+    private JSONObject jsonData = new JSONObject(
+            new JSONTokener(getClass().getResourceAsStream("/schema/valid_robotics_agreed.json")));
+
+    private final RoboticsSchemaRegistry registry = new RoboticsSchemaRegistry(SCHEMA);
+
+    private final RoboticsJsonValidator fullValidator = new RoboticsJsonValidator(SCHEMA);
+
+    private final IncrementalRoboticsJsonValidator incrementalValidator = new IncrementalRoboticsJsonValidator(
+            registry, 100, fullValidator);
+
+    @Test
+    public void splitsSchemaIntoPersonAndHearingArrangementsSections() {
+        Map<String, String> expected = new HashMap<>();
+        expected.put("appellant", "person");
+        expected.put("appointee", "person");
+        expected.put("representative", "person");
+        expected.put("hearingArrangements", "hearingArrangements");
+
+        assertEquals(expected, IncrementalRoboticsJsonValidator
+                .splitSchema(RoboticsSchemaLoader.readSchemaJson(SCHEMA), 100).getPropertySections());
+    }
+
+    @Test
+    public void givenRegistrySwapsVersion_thenValidatesAgainstItWithoutCachedResults() {
+        incrementalValidator.validate(jsonData);
+
+        JSONObject esaOnly = RoboticsSchemaLoader.readSchemaJson(SCHEMA);
+        esaOnly.getJSONObject("properties").getJSONObject("caseCode").put("pattern", "^051DD$");
+        registry.register("esa-only", esaOnly);
+
+        assertInvalid(incrementalValidator, jsonData);
+        assertEquals(6, incrementalValidator.getSectionValidations());
+        assertEquals(0, incrementalValidator.getCacheHits());
+    }
+
+    @Test
+    public void contentHashIgnoresKeyOrderButNotValueTypes() {
+        JSONObject first = new JSONObject().put("a", "1").put("b", new JSONObject().put("c", true));
+        JSONObject second = new JSONObject().put("b", new JSONObject().put("c", true)).put("a", "1");
+
+        assertEquals(IncrementalRoboticsJsonValidator.contentHash(first),
+                IncrementalRoboticsJsonValidator.contentHash(second));
+        assertNotEquals(IncrementalRoboticsJsonValidator.contentHash(first),
+                IncrementalRoboticsJsonValidator.contentHash(new JSONObject(first.toString()).put("a", 1)));
+        assertNotEquals(IncrementalRoboticsJsonValidator.contentHash(new JSONObject().put("a", "b")),
+                IncrementalRoboticsJsonValidator.contentHash(new JSONObject().put("b", "a")));
+    }
+
+    @Test
+    public void givenValidInput_thenValidatesEverySectionOnce() {
+        incrementalValidator.validate(jsonData);
+
+        assertEquals(5, incrementalValidator.getSectionValidations());
+        assertEquals(0, incrementalValidator.getCacheHits());
+    }
+
+    @Test
+    public void givenUnchangedInput_thenReusesCachedSectionResults() {
+        incrementalValidator.validate(jsonData);
+        incrementalValidator.validate(new JSONObject(jsonData.toString()));
+
+        assertEquals(5, incrementalValidator.getSectionValidations());
+        assertEquals(5, incrementalValidator.getCacheHits());
+    }
+
+    @Test
+    public void givenOnlyHearingArrangementsChanged_thenOnlyRevalidatesThatSection() {
+        incrementalValidator.validate(jsonData);
+
+        jsonData.getJSONObject("hearingArrangements").put("other", "Something else");
+        incrementalValidator.validate(jsonData);
+
+        assertEquals(6, incrementalValidator.getSectionValidations());
+        assertEquals(4, incrementalValidator.getCacheHits());
+    }
+
+    @Test
+    public void givenOnlyRepresentativeChanged_thenOnlyRevalidatesThatSection() {
+        incrementalValidator.validate(jsonData);
+
+        jsonData.getJSONObject("representative").put("lastName", "Smith");
+        incrementalValidator.validate(jsonData);
+
+        assertEquals(6, incrementalValidator.getSectionValidations());
+        assertEquals(4, incrementalValidator.getCacheHits());
+    }
+
+    @Test
+    @Parameters(method = "invalidMutations")
+    public void givenInvalidInput_thenFailsLikeFullValidation(String section, String key, String value) {
+        JSONObject target = section.isEmpty() ? jsonData : jsonData.getJSONObject(section);
+        if (value == null) {
+            target.remove(key);
+        } else {
+            target.put(key, value);
+        }
+
+        assertInvalid(fullValidator, jsonData);
+        assertInvalid(incrementalValidator, jsonData);
+        // and again from the cache
+        assertInvalid(incrementalValidator, jsonData);
+    }
+
+    @Test
+    public void givenInvalidSection_thenPointerIsRelativeToTheWholeDocument() {
+        jsonData.getJSONObject("appellant").put("postCode", "B231ABXXX");
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                incrementalValidator.validate(jsonData);
+                fail("Expected RoboticsValidationException");
+            } catch (StacklessRoboticsValidationException e) {
+                assertEquals("#/appellant/postCode",
+                        e.getValidationResult().getViolations().get(0).getPointer());
+            }
+        }
+    }
+
+    @Test
+    public void givenCachedInvalidSection_thenFailsWithoutValidatingItAgain() {
+        jsonData.getJSONObject("hearingArrangements").put("hearingLoop", "Bla");
+        assertInvalid(incrementalValidator, jsonData);
+        long validations = incrementalValidator.getSectionValidations();
+
+        try {
+            incrementalValidator.validate(jsonData);
+            fail("Expected RoboticsValidationException");
+        } catch (StacklessRoboticsValidationException e) {
+            assertEquals(0, e.getStackTrace().length);
+            assertEquals("#/hearingArrangements/hearingLoop",
+                    e.getValidationResult().getViolations().get(0).getPointer());
+        }
+        assertEquals(validations, incrementalValidator.getSectionValidations());
+    }
+
+    @Test
+    public void givenSectionWithWrongType_thenFailsInRootSection() {
+        jsonData.put("appellant", "not a person");
+
+        assertInvalid(incrementalValidator, jsonData);
+    }
+
+    private Object[] invalidMutations() {
+        return new Object[]{
+            new Object[]{"", "caseCode", "002CC"},
+            new Object[]{"", "appealDate", "2018/06/03"},
+            new Object[]{"", "hearingType", "Computer"},
+            new Object[]{"", "hearingRequestParty", null},
+            new Object[]{"", "unknownProperty", "Bla"},
+            new Object[]{"appellant", "postCode", "B231ABXXX"},
+            new Object[]{"appellant", "firstName", null},
+            new Object[]{"appointee", "phoneNumber", "0798"},
+            new Object[]{"representative", "sameAddressAsAppellant", "Bla"},
+            new Object[]{"hearingArrangements", "hearingLoop", "Bla"},
+            new Object[]{"hearingArrangements", "disabilityAccess", "Bla"},
+        };
+    }
+
+    private static void assertInvalid(RoboticsJsonValidator validator, JSONObject json) {
+        try {
+            validator.validate(json);
+            fail("Expected RoboticsValidationException");
+        } catch (RoboticsValidationException expected) {
+            // expected
+        }
+    }
+
+    private static void assertInvalid(IncrementalRoboticsJsonValidator validator, JSONObject json) {
+        try {
+            validator.validate(json);
+            fail("Expected RoboticsValidationException");
+        } catch (RoboticsValidationException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.everit.json.schema.FormatValidator;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitParamsRunner.class)
+public class RoboticsFormatValidatorsTest {
+
+    private static final String SCHEMA = "/schema/sscs-robotics.json";
+
+    @Test
+    @Parameters({"002DD", "051DD", "999DD", "02DD", "0022DD", "002dd", "002DC", "A02DD", "", "002DD ", " 002DD"})
+    public void caseCodeAgreesWithThePattern(String caseCode) {
+        assertAgreesWithPattern(RoboticsFormatValidators.CASE_CODE, RoboticsFormatValidators.CASE_CODE_PATTERN,
+                caseCode);
+    }
+
+    @Test
+    @Parameters({"SW1A 1AA", "SW1A1AA", "sw1a 1aa", "B23 1AB", "B231AB", "M1 1AE", "CR2 6XH", "DN55 1PT",
+            "W1A 0AX", "EC1A 1BB", "GIR 0AA", "gir0aa", "0AA", "0aa", "B231ABXXX", "BB", "Z1 1AA", "AI1 1AA",
+            "AZ1 1AA", "A1  1AA", "A1\t1AA", "12 1AA", "AB123 1AA", "ABC 1AA", "A1 AAA", "A1 1A1", "", "0AB",
+            "A9A 9AA", "AA9A 9AA", "A9 9A"})
+    public void postCodeAgreesWithThePattern(String postCode) {
+        assertAgreesWithPattern(RoboticsFormatValidators.POST_CODE, RoboticsFormatValidators.POST_CODE_PATTERN,
+                postCode);
+    }
+
+    @Test
+    @Parameters({"07411222222", "+44 7411 222222", "0208-123-4567", "123456789", "123456789012345678",
+            "0741122222a", "(0)7411222222", "1234567890", "12345678901234567"})
+    public void phoneNumberAgreesWithThePattern(String phoneNumber) {
+        assertAgreesWithPattern(RoboticsFormatValidators.PHONE_NUMBER,
+                RoboticsFormatValidators.PHONE_NUMBER_PATTERN, phoneNumber);
+    }
+
+    @Test
+    @Parameters({"2018-06-01", "2018-12-31", "2018-02-28", "2018-02-29", "2016-02-29", "2000-02-29",
+            "1900-02-29", "0000-02-29", "2018-04-31", "2018-13-01", "2018-00-10", "2018-01-00", "2018-1-01",
+            "2018/01/01", "18-01-01", "2018-01-01T00:00", "2018-0a-01", ""})
+    public void dateAgreesWithIsoLocalDate(String date) {
+        boolean parses;
+        try {
+            LocalDate.parse(date, DateTimeFormatter.ISO_LOCAL_DATE);
+            parses = true;
+        } catch (DateTimeParseException e) {
+            parses = false;
+        }
+
+        assertEquals(parses, RoboticsFormatValidators.isIsoLocalDate(date));
+        assertEquals(parses ? Optional.empty()
+                : Optional.of("[" + date + "] is not a valid date. Expected [yyyy-MM-dd]"),
+                RoboticsFormatValidators.DATE.validate(date));
+    }
+
+    @Test
+    public void rewriteReplacesOnlyTheKnownPatternsAndDateFormat() {
+        JSONObject schemaJson = RoboticsSchemaLoader.readSchemaJson(SCHEMA);
+        schemaJson.getJSONObject("definitions").getJSONObject("person").getJSONObject("properties")
+                .getJSONObject("phoneNumber").put("pattern", "^[0-9]{11}$");
+
+        JSONObject rewritten = RoboticsFormatValidators.rewrite(schemaJson);
+
+        JSONObject caseCode = rewritten.getJSONObject("properties").getJSONObject("caseCode");
+        assertFalse(caseCode.has("pattern"));
+        assertEquals("robotics-case-code", caseCode.getString("format"));
+        JSONObject person = rewritten.getJSONObject("definitions").getJSONObject("person").getJSONObject("properties");
+        assertEquals("robotics-post-code", person.getJSONObject("postCode").getString("format"));
+        assertEquals("^[0-9]{11}$", person.getJSONObject("phoneNumber").getString("pattern"));
+        assertEquals("robotics-date", rewritten.getJSONObject("definitions").getJSONObject("dateType")
+                .getString("format"));
+        assertTrue(schemaJson.getJSONObject("properties").getJSONObject("caseCode").has("pattern"));
+    }
+
+    @Test
+    public void loadedSchemaReportsFormatFailuresLikeThePattern() {
+        JSONObject roboticsJson = new JSONObject(new JSONTokener(
+                getClass().getResourceAsStream("/schema/valid_robotics_agreed.json")));
+        roboticsJson.put("caseCode", "002CC");
+        roboticsJson.put("mrnDate", "2018-02-30");
+
+        try {
+            RoboticsSchemaLoader.load(RoboticsSchemaLoader.readSchemaJson(SCHEMA)).validate(roboticsJson);
+        } catch (ValidationException e) {
+            assertTrue(e.getAllMessages().contains("#/caseCode: string [002CC] does not match pattern ^\\d{3}DD$"));
+            assertTrue(e.getAllMessages().contains("#/mrnDate: [2018-02-30] is not a valid date. Expected [yyyy-MM-dd]"));
+            return;
+        }
+        throw new AssertionError("Expected a ValidationException");
+    }
+
+    private static void assertAgreesWithPattern(FormatValidator formatValidator, String pattern, String subject) {
+        boolean matches = Pattern.compile(pattern).matcher(subject).find();
+
+        assertEquals(matches ? Optional.empty()
+                : Optional.of("string [" + subject + "] does not match pattern " + pattern),
+                formatValidator.validate(subject));
+    }
+}
@@ -3,6 +3,8 @@ package uk.gov.hmcts.reform.sscs.json;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
@@ -17,13 +19,19 @@ import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategy;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategyRegistry;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitVenue;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Address;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appeal;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Appointee;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Contact;
 import uk.gov.hmcts.reform.sscs.ccd.domain.DateRange;
 import uk.gov.hmcts.reform.sscs.ccd.domain.ExcludeDate;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Identity;
 import uk.gov.hmcts.reform.sscs.ccd.domain.Name;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
 import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
 
 @RunWith(JUnitParamsRunner.class)
@@ -379,4 +387,145 @@ public class RoboticsJsonMapperTest {
         assertFalse(roboticsJson.has("appointee"));
     }
 
+    @Test
+    @Parameters({"true", "false"})
+    public void givenScratchMode_thenMapsTheSameJsonAsMap(Boolean rpcEmailFeature) {
+        roboticsJsonMapper = new RoboticsJsonMapper(rpcEmailFeature);
+
+        JSONObject expected = roboticsJsonMapper.map(appeal);
+        roboticsJson = roboticsJsonMapper.mapIntoScratch(appeal);
+
+        roboticsJsonValidator.validate(roboticsJson);
+        assertTrue(new JSONObject(expected.toString()).similar(new JSONObject(roboticsJson.toString())));
+    }
+
+    @Test
+    public void givenScratchMode_thenReusesAndResetsScratchBetweenCases() {
+        JSONObject first = roboticsJsonMapper.mapIntoScratch(appeal);
+        assertTrue(first.has("representative"));
+        assertTrue(first.has("appointee"));
+        assertEquals(3, first.getJSONObject("hearingArrangements").getJSONArray("datesCantAttend").length());
+
+        appeal.getSscsCaseData().getAppeal().getRep().setHasRepresentative("No");
+        appeal.getSscsCaseData().getAppeal().getAppellant().setAppointee(null);
+        appeal.getSscsCaseData().getAppeal().getHearingOptions().setExcludeDates(new ArrayList<>());
+        JSONObject second = roboticsJsonMapper.mapIntoScratch(appeal);
+
+        assertSame(first, second);
+        assertFalse(second.has("representative"));
+        assertFalse(second.has("appointee"));
+        assertFalse(second.getJSONObject("hearingArrangements").has("datesCantAttend"));
+        assertTrue(new JSONObject(roboticsJsonMapper.map(appeal).toString())
+            .similar(new JSONObject(second.toString())));
+    }
+
+    @Test
+    @Parameters({"noRepresentative", "noAppointee", "noHearingArrangements", "excludeDatesOnly",
+        "unnamedRepresentative", "notAttending", "noMrnDate"})
+    public void givenCaseShape_thenScratchModeMapsTheSameJsonAsMapAfterAFullCase(String shape) {
+        roboticsJsonMapper.mapIntoScratch(appeal);
+        Appeal details = appeal.getSscsCaseData().getAppeal();
+        switch (shape) {
+            case "noRepresentative":
+                details.getRep().setHasRepresentative("No");
+                break;
+            case "noAppointee":
+                details.getAppellant().setAppointee(null);
+                break;
+            case "noHearingArrangements":
+                details.getHearingOptions().setArrangements(null);
+                details.getHearingOptions().setOther(null);
+                details.getHearingOptions().setExcludeDates(null);
+                break;
+            case "excludeDatesOnly":
+                details.getHearingOptions().setArrangements(null);
+                details.getHearingOptions().setOther(null);
+                break;
+            case "unnamedRepresentative":
+                details.getRep().setName(Name.builder().build());
+                details.getRep().setOrganisation(null);
+                break;
+            case "notAttending":
+                details.getHearingOptions().setWantsToAttend("No");
+                break;
+            default:
+                details.getMrnDetails().setMrnDate(null);
+                details.getMrnDetails().setMrnLateReason(null);
+        }
+
+        JSONObject expected = roboticsJsonMapper.map(appeal);
+        roboticsJson = roboticsJsonMapper.mapIntoScratch(appeal);
+
+        assertTrue(expected.toString() + " but was " + roboticsJson,
+            new JSONObject(expected.toString()).similar(new JSONObject(roboticsJson.toString())));
+    }
+
+    @Test
+    public void givenExcludeDatePastTheEndOfTheMonth_thenBothModesMapItToTheLastDay() {
+        DateRange dateRange = DateRange.builder().start("2018-02-30").end("2018-02-30").build();
+        List<ExcludeDate> excludeDates = new ArrayList<>();
+        excludeDates.add(ExcludeDate.builder().value(dateRange).build());
+        appeal.getSscsCaseData().getAppeal().getHearingOptions().setExcludeDates(excludeDates);
+
+        assertEquals("2018-02-28", roboticsJsonMapper.map(appeal).getJSONObject("hearingArrangements")
+            .getJSONArray("datesCantAttend").get(0));
+        assertEquals("2018-02-28", roboticsJsonMapper.mapIntoScratch(appeal).getJSONObject("hearingArrangements")
+            .getJSONArray("datesCantAttend").get(0));
+    }
+
+    @Test
+    public void givenConfiguredBenefit_thenUsesItsCaseCodeAndMappingRule() {
+        BenefitStrategyRegistry registry = new BenefitStrategyRegistry("PIP:002DD:PIP,DLA:037DD:PIP");
+        registry.register(BenefitStrategy.builder().code("DLA").caseCode("037DD").venue(BenefitVenue.PIP)
+                .mappingRule((appeal, payload) -> payload.pipNumber("DLA office")).build());
+        appeal.getSscsCaseData().getAppeal().getBenefitType().setCode("dla");
+
+        roboticsJson = new RoboticsJsonMapper(false, registry).map(appeal);
+
+        roboticsJsonValidator.validate(roboticsJson);
+        assertEquals("037DD", roboticsJson.get("caseCode"));
+        assertEquals("DLA office", roboticsJson.get("pipNumber"));
+        assertEquals("DLA office", new RoboticsJsonMapper(false, registry).mapIntoScratch(appeal).get("pipNumber"));
+    }
+
+    @Test
+    public void givenCopiesOfTheSameLowCardinalityValues_thenPayloadsShareOneInstanceOfEach() {
+        roboticsJsonMapper = new RoboticsJsonMapper(false, BenefitStrategyRegistry.defaultRegistry(),
+                new RoboticsStringCanonicaliser(100, 64));
+        RoboticsWrapper first = wrapperWithFreshCopies(1L);
+        RoboticsWrapper second = wrapperWithFreshCopies(2L);
+        assertNotSame(first.getVenueName(), second.getVenueName());
+        assertNotSame("Yes", second.getEvidencePresent());
+
+        RoboticsPayload firstPayload = roboticsJsonMapper.mapToPayload(first);
+        RoboticsPayload secondPayload = roboticsJsonMapper.mapToPayload(second);
+
+        assertEquals("Venue 0", secondPayload.getAppellantPostCode());
+        assertSame(firstPayload.getAppellantPostCode(), secondPayload.getAppellantPostCode());
+        assertSame(firstPayload.getReceivedVia(), secondPayload.getReceivedVia());
+        assertSame(firstPayload.getPipNumber(), secondPayload.getPipNumber());
+        assertSame(firstPayload.getAppellant().getTitle(), secondPayload.getAppellant().getTitle());
+        assertSame("Yes", secondPayload.getEvidencePresent());
+    }
+
+    /**
+     * A case whose low-cardinality strings are fresh copies rather than shared literals, as case data read
+     * from CCD has.
+     */
+    private static RoboticsWrapper wrapperWithFreshCopies(long caseId) {
+        SscsCaseData caseData = buildCaseData();
+        caseData.getAppeal().setReceivedVia(copy("Online"));
+        caseData.getAppeal().getMrnDetails().setDwpIssuingOffice(copy("1"));
+        caseData.getAppeal().getAppellant().getName().setTitle(copy("Mr"));
+        return RoboticsWrapper.builder()
+                .sscsCaseData(caseData)
+                .ccdCaseId(caseId)
+                .venueName(copy("Venue 0"))
+                .evidencePresent(copy("Yes"))
+                .build();
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
 }
@@ -0,0 +1,127 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.springframework.http.MediaType.TEXT_PLAIN;
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.StreamUtils;
+import uk.gov.hmcts.reform.sscs.domain.pdf.ByteArrayMultipartFile;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsHearingArrangements;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+
+public class RoboticsJsonMultipartFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RoboticsJsonMapper mapper = new RoboticsJsonMapper(true);
+
+    @Test
+    public void givenMappedPayload_thenBytesMatchTheByteArrayUpload() throws IOException {
+        RoboticsPayload payload = mapper.mapToPayload(RoboticsWrapper.builder()
+                .sscsCaseData(buildCaseData())
+                .ccdCaseId(123L).venueName("Bromley").evidencePresent("Yes")
+                .build());
+        ByteArrayMultipartFile expected = byteArrayFile(RoboticsPayloadWriter.write(payload));
+
+        RoboticsJsonMultipartFile file = RoboticsJsonMultipartFile.of(payload, "robotics_json.txt", TEXT_PLAIN);
+
+        assertSameUpload(expected, file);
+    }
+
+    @Test
+    public void givenJsonObject_thenBytesMatchTheByteArrayUpload() throws IOException {
+        JSONObject json = mapper.map(RoboticsWrapper.builder()
+                .sscsCaseData(buildCaseData())
+                .ccdCaseId(123L).venueName("Bromley").evidencePresent("No")
+                .build());
+        ByteArrayMultipartFile expected = byteArrayFile(json.toString());
+
+        RoboticsJsonMultipartFile file = RoboticsJsonMultipartFile.of(json, "robotics_json.txt", TEXT_PLAIN);
+
+        assertSameUpload(expected, file);
+    }
+
+    @Test
+    public void givenMultiByteAndUnpairedSurrogateCharacters_thenEncodesThemLikeString() throws IOException {
+        String other = "Caf" + (char) 0xe9 + " " + (char) 0x20ac + " " + new String(Character.toChars(0x1f600))
+                + " " + (char) 0xd800 + " end";
+        RoboticsPayload payload = RoboticsPayload.builder()
+                .hearingArrangements(RoboticsHearingArrangements.builder().other(other).build())
+                .build();
+
+        RoboticsJsonMultipartFile file = RoboticsJsonMultipartFile.of(payload, "robotics_json.txt", TEXT_PLAIN);
+
+        assertSameUpload(byteArrayFile(RoboticsPayloadWriter.write(payload)), file);
+    }
+
+    @Test
+    public void givenLargeMultiBytePayload_thenEncodesAllOfIt() throws IOException {
+        StringBuilder other = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            other.append((char) 0x20ac);
+        }
+        RoboticsPayload payload = RoboticsPayload.builder()
+                .hearingArrangements(RoboticsHearingArrangements.builder().other(other.toString()).build())
+                .build();
+
+        RoboticsJsonMultipartFile file = RoboticsJsonMultipartFile.of(payload, "robotics_json.txt", TEXT_PLAIN);
+
+        assertSameUpload(byteArrayFile(RoboticsPayloadWriter.write(payload)), file);
+    }
+
+    @Test
+    public void uploadReadsTheEncodedBytesWithoutCopyingThem() {
+        RoboticsJsonMultipartFile file = RoboticsJsonMultipartFile.of(RoboticsPayload.builder().caseCode("002DD").build(),
+                "robotics_json.txt", TEXT_PLAIN);
+
+        assertSame(file.getBytes(), file.getBytes());
+        assertEquals("{\"caseCode\":\"002DD\"}", new String(file.getBytes(), UTF_8));
+    }
+
+    @Test
+    public void givenAnyCharacters_thenUtf8LengthMatchesString() {
+        String chars = "a" + (char) 0xe9 + (char) 0x20ac + new String(Character.toChars(0x1f600)) + (char) 0xd800
+                + (char) 0xdc00 + "z" + (char) 0xdbff;
+
+        assertEquals(chars.getBytes(UTF_8).length, RoboticsJsonMultipartFile.utf8Length(chars));
+        assertArrayEquals(chars.getBytes(UTF_8), RoboticsJsonMultipartFile.encode(chars));
+    }
+
+    private void assertSameUpload(ByteArrayMultipartFile expected, RoboticsJsonMultipartFile file)
+            throws IOException {
+        assertEquals(expected.getSize(), file.getSize());
+        assertEquals(expected.getOriginalFilename(), file.getOriginalFilename());
+        assertEquals(expected.getContentType(), file.getContentType());
+        assertArrayEquals(expected.getBytes(), file.getBytes());
+        assertArrayEquals(expected.getBytes(), StreamUtils.copyToByteArray(file.getInputStream()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        file.writeTo(out);
+        assertArrayEquals(expected.getBytes(), out.toByteArray());
+
+        File transferred = folder.newFile();
+        file.transferTo(transferred);
+        assertArrayEquals(expected.getBytes(), Files.readAllBytes(transferred.toPath()));
+    }
+
+    private static ByteArrayMultipartFile byteArrayFile(String json) {
+        return ByteArrayMultipartFile.builder()
+                .content(json.getBytes(UTF_8))
+                .name("robotics_json.txt")
+                .contentType(TEXT_PLAIN)
+                .build();
+    }
+}
@@ -1,8 +1,18 @@
 package uk.gov.hmcts.reform.sscs.json;
 
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
 import org.everit.json.schema.ValidationException;
@@ -11,6 +21,7 @@ import org.json.JSONTokener;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import uk.gov.hmcts.reform.sscs.exception.RoboticsValidationException;
+import uk.gov.hmcts.reform.sscs.exception.StacklessRoboticsValidationException;
 
 @RunWith(JUnitParamsRunner.class)
 public class RoboticsJsonValidatorTest {
@@ -139,6 +150,73 @@ public class RoboticsJsonValidatorTest {
         roboticsJsonValidator.validate(jsonData);
     }
 
+    @Test
+    public void givenValidInput_thenValidateAllReturnsNoViolations() {
+        RoboticsValidationResult result = roboticsJsonValidator.validateAll(jsonData);
+
+        assertTrue(result.isValid());
+        assertTrue(result.getViolations().isEmpty());
+        result.throwIfInvalid();
+    }
+
+    @Test
+    public void givenSeveralInvalidFields_thenValidateAllCollectsEveryViolationWithPointers() {
+        jsonData.put("caseCode", "002CC");
+        jsonData.getJSONObject("appellant").put("postCode", "B231ABXXX");
+        jsonData.getJSONObject("appointee").put("phoneNumber", "0798");
+        jsonData.getJSONObject("hearingArrangements").put("disabilityAccess", "Bla");
+
+        RoboticsValidationResult result = roboticsJsonValidator.validateAll(jsonData);
+
+        List<String> pointers = result.getViolations().stream()
+                .map(RoboticsValidationViolation::getPointer)
+                .collect(Collectors.toList());
+        assertFalse(result.isValid());
+        assertEquals(4, pointers.size());
+        assertThat(pointers, hasItems("#/caseCode", "#/appellant/postCode", "#/appointee/phoneNumber",
+                "#/hearingArrangements"));
+    }
+
+    @Test
+    public void givenInvalidInput_thenThrowIfInvalidThrowsStacklessException() {
+        jsonData.put("caseCode", "002CC");
+        RoboticsValidationResult result = roboticsJsonValidator.validateAll(jsonData);
+
+        try {
+            result.throwIfInvalid();
+            fail("Expected StacklessRoboticsValidationException");
+        } catch (StacklessRoboticsValidationException e) {
+            assertThat(e.getStackTrace().length, is(0));
+            assertThat(e.getValidationResult(), is(result));
+            assertTrue(e.getMessage().startsWith("Robotics json has 1 violation(s): #/caseCode: "));
+        }
+    }
+
+    @Test
+    public void givenInvalidInput_thenValidateThrowsStacklessExceptionWithTheViolations() {
+        jsonData.put("caseCode", "002CC");
+
+        try {
+            roboticsJsonValidator.validate(jsonData);
+            fail("Expected StacklessRoboticsValidationException");
+        } catch (StacklessRoboticsValidationException e) {
+            assertThat(e.getStackTrace().length, is(0));
+            assertEquals("#/caseCode", e.getValidationResult().getViolations().get(0).getPointer());
+        }
+    }
+
+    @Test
+    public void givenInvalidInput_thenStacklessExceptionIsStillARoboticsValidationException() {
+        jsonData.put("caseCode", "002CC");
+
+        try {
+            roboticsJsonValidator.validateAll(jsonData).throwIfInvalid();
+            fail("Expected RoboticsValidationException");
+        } catch (RoboticsValidationException expected) {
+            // expected
+        }
+    }
+
     private static JSONObject updateEmbeddedProperty(String json, String value, String... keys) throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
 
@@ -0,0 +1,100 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsHearingArrangements;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPerson;
+
+/**
+ * Keeps the typed robotics model and the robotics schema in step. A new schema property must either be
+ * added to the model or listed as not mapped here.
+ */
+public class RoboticsPayloadSchemaTest {
+
+    private static final Set<String> PERSON_PROPERTIES_NOT_MAPPED = Collections.singleton("dob");
+
+    private final JSONObject schema = RoboticsSchemaLoader.readSchemaJson("/schema/sscs-robotics.json");
+
+    @Test
+    public void payloadFieldsMatchSchemaProperties() {
+        JSONObject properties = schema.getJSONObject("properties");
+
+        assertEquals(properties.keySet(), fieldNames(RoboticsPayload.class));
+        assertTrue(fieldNames(RoboticsPayload.class).containsAll(toSet(schema.getJSONArray("required"))));
+    }
+
+    @Test
+    public void personFieldsMatchSchemaProperties() {
+        Set<String> properties = new TreeSet<>(
+                schema.getJSONObject("definitions").getJSONObject("person").getJSONObject("properties").keySet());
+        properties.removeAll(PERSON_PROPERTIES_NOT_MAPPED);
+
+        assertEquals(properties, fieldNames(RoboticsPerson.class));
+    }
+
+    @Test
+    public void hearingArrangementsFieldsMatchSchemaProperties() {
+        JSONObject properties = schema.getJSONObject("properties").getJSONObject("hearingArrangements")
+                .getJSONObject("properties");
+
+        assertEquals(properties.keySet(), fieldNames(RoboticsHearingArrangements.class));
+    }
+
+    @Test
+    public void writerWritesEveryFieldUnderItsSchemaName() {
+        RoboticsPerson person = RoboticsPerson.builder()
+                .title("Mr").firstName("Joe").lastName("Bloggs").organisation("Org").sameAddressAsAppellant("Yes")
+                .addressLine1("1 The Road").addressLine2("Off The Street").townOrCity("Town").county("County")
+                .postCode("AB1 2CD").phoneNumber("07411222222").email("joe@example.com")
+                .build();
+        RoboticsPayload payload = RoboticsPayload.builder()
+                .caseCode("002DD").caseId(123L).appellantNino("AB 22 55 66 B").appellantPostCode("Bromley")
+                .appealDate("2018-06-01").receivedVia("Online").mrnDate("2018-05-01")
+                .mrnReasonForBeingLate("Lost").pipNumber("1").hearingType("Oral").hearingRequestParty("Mr Joe Bloggs")
+                .evidencePresent("Yes").rpcEmail("rpc@example.com")
+                .appellant(person).appointee(person).representative(person)
+                .hearingArrangements(RoboticsHearingArrangements.builder()
+                        .languageInterpreter("French").signLanguageInterpreter("BSL").hearingLoop("Yes")
+                        .accessibleHearingRoom("No").other("Other").datesCantAttend(Arrays.asList("2018-07-01"))
+                        .build())
+                .build();
+
+        JSONObject written = new JSONObject(RoboticsPayloadWriter.write(payload));
+
+        assertEquals(fieldNames(RoboticsPayload.class), written.keySet());
+        assertEquals(fieldNames(RoboticsPerson.class), written.getJSONObject("appellant").keySet());
+        assertEquals(fieldNames(RoboticsHearingArrangements.class),
+                written.getJSONObject("hearingArrangements").keySet());
+        assertTrue(written.similar(new JSONObject(RoboticsPayloadWriter.toJsonObject(payload).toString())));
+    }
+
+    private static Set<String> fieldNames(Class<?> type) {
+        Set<String> names = new TreeSet<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                names.add(field.getName());
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> toSet(JSONArray array) {
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < array.length(); i++) {
+            values.add(array.getString(i));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,67 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.util.Arrays;
+import org.json.JSONObject;
+import org.junit.Test;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsHearingArrangements;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPerson;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+
+public class RoboticsPayloadWriterTest {
+
+    private final RoboticsJsonMapper mapper = new RoboticsJsonMapper(true);
+
+    private final RoboticsJsonValidator validator = new RoboticsJsonValidator("/schema/sscs-robotics.json");
+
+    @Test
+    public void givenMappedCase_thenWrittenTextMatchesJsonObject() {
+        RoboticsPayload payload = mapper.mapToPayload(RoboticsWrapper.builder()
+                .sscsCaseData(buildCaseData())
+                .ccdCaseId(123L).venueName("Bromley").evidencePresent("Yes")
+                .build());
+
+        JSONObject written = new JSONObject(RoboticsPayloadWriter.write(payload));
+
+        validator.validate(written);
+        assertTrue(written.similar(new JSONObject(RoboticsPayloadWriter.toJsonObject(payload).toString())));
+        assertEquals(123L, written.getLong("caseId"));
+    }
+
+    @Test
+    public void givenNullFields_thenTheyAreLeftOut() {
+        RoboticsPayload payload = RoboticsPayload.builder()
+                .caseCode("002DD")
+                .appellant(RoboticsPerson.builder().firstName("Joe").build())
+                .build();
+
+        assertEquals("{\"caseCode\":\"002DD\",\"appellant\":{\"firstName\":\"Joe\"}}",
+                RoboticsPayloadWriter.write(payload));
+        JSONObject json = RoboticsPayloadWriter.toJsonObject(payload);
+        assertFalse(json.has("caseId"));
+        assertFalse(json.has("hearingArrangements"));
+    }
+
+    @Test
+    public void givenSpecialCharacters_thenEscapesThem() {
+        String other = "Say \"hi\"\\ on\nnew line\t" + (char) 1 + (char) 0x2028;
+        RoboticsPayload payload = RoboticsPayload.builder()
+                .hearingArrangements(RoboticsHearingArrangements.builder()
+                        .other(other)
+                        .datesCantAttend(Arrays.asList("2018-06-30", "2018-07-30"))
+                        .build())
+                .build();
+
+        String written = RoboticsPayloadWriter.write(payload);
+
+        assertFalse(written.contains("\n"));
+        JSONObject hearingArrangements = new JSONObject(written).getJSONObject("hearingArrangements");
+        assertEquals(other, hearingArrangements.getString("other"));
+        assertEquals(2, hearingArrangements.getJSONArray("datesCantAttend").length());
+    }
+}
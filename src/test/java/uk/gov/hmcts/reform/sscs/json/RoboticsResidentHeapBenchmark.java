@@ -0,0 +1,112 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategyRegistry;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appeal;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+
+/**
+ * Measures the heap held by many resident mapped payloads, with and without {@link RoboticsStringCanonicaliser}.
+ *
+ * <p>Usage: {@code ./gradlew heapBenchmarkRobotics -PheapArgs="--payloads 200000 --venues 40"}. Each case
+ * carries its own copies of its venue name, {@code receivedVia}, issuing office, title and evidence flag, as
+ * case data read from CCD does. Give the JVM a fixed heap ({@code -Xms} equal to {@code -Xmx}) for steadier
+ * numbers.
+ */
+public final class RoboticsResidentHeapBenchmark {
+
+    private static final String[] RECEIVED_VIA = {"Online", "Paper", "Email"};
+    private static final String[] TITLES = {"Mr", "Mrs", "Ms", "Miss"};
+
+    private RoboticsResidentHeapBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        int payloads = Integer.parseInt(options.getOrDefault("payloads", "100000"));
+        int venues = Integer.parseInt(options.getOrDefault("venues", "40"));
+
+        long plain = bytesPerPayload(new RoboticsStringCanonicaliser(0, 0), payloads, venues);
+        RoboticsStringCanonicaliser canonicaliser = new RoboticsStringCanonicaliser(
+                RoboticsStringCanonicaliser.DEFAULT_MAX_ENTRIES, RoboticsStringCanonicaliser.DEFAULT_MAX_LENGTH);
+        long canonical = bytesPerPayload(canonicaliser, payloads, venues);
+
+        System.out.printf("%d resident payloads, %d venues%n", payloads, venues);
+        System.out.printf("Without canonical strings %d bytes per payload%n", plain);
+        System.out.printf("With canonical strings    %d bytes per payload (%d strings held, %d hits)%n",
+                canonical, canonicaliser.getSize(), canonicaliser.getHits());
+        System.out.printf("%.1f%% less heap for resident payloads%n", 100.0 * (plain - canonical) / plain);
+    }
+
+    /**
+     * Heap retained by {@code payloads} mapped payloads, divided by {@code payloads}.
+     */
+    static long bytesPerPayload(RoboticsStringCanonicaliser canonicaliser, int payloads, int venues)
+            throws InterruptedException {
+        RoboticsJsonMapper mapper = new RoboticsJsonMapper(false, BenefitStrategyRegistry.defaultRegistry(),
+                canonicaliser);
+        mapper.mapToPayload(wrapper(0, venues));
+
+        long before = usedHeapAfterGc();
+        List<RoboticsPayload> resident = new ArrayList<>(payloads);
+        for (int i = 0; i < payloads; i++) {
+            resident.add(mapper.mapToPayload(wrapper(i, venues)));
+        }
+        long after = usedHeapAfterGc();
+
+        if (resident.size() != payloads) {
+            throw new IllegalStateException("Lost resident payloads");
+        }
+        return (after - before) / payloads;
+    }
+
+    /**
+     * A case whose low-cardinality strings are fresh copies rather than shared literals.
+     */
+    private static RoboticsWrapper wrapper(int index, int venues) {
+        SscsCaseData caseData = buildCaseData();
+        Appeal appeal = caseData.getAppeal();
+        appeal.setReceivedVia(copy(RECEIVED_VIA[index % RECEIVED_VIA.length]));
+        appeal.getMrnDetails().setDwpIssuingOffice(String.valueOf(1 + index % 10));
+        appeal.getAppellant().getName().setTitle(copy(TITLES[index % TITLES.length]));
+        return RoboticsWrapper.builder()
+                .sscsCaseData(caseData)
+                .ccdCaseId(1_000_000L + index)
+                .venueName("Venue " + index % venues)
+                .evidencePresent(copy(index % 2 == 0 ? "Yes" : "No"))
+                .build();
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(StringUtils.removeStart(args[i], "--"), args[i + 1]);
+        }
+        return options;
+    }
+}
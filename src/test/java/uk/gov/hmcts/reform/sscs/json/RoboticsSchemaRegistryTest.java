@@ -0,0 +1,259 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.everit.json.schema.Schema;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.hmcts.reform.sscs.exception.RoboticsValidationException;
+
+public class RoboticsSchemaRegistryTest {
+
+    private static final String SCHEMA = "/schema/sscs-robotics.json";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final JSONObject jsonData = new JSONObject(
+            new JSONTokener(getClass().getResourceAsStream("/schema/valid_robotics_agreed.json")));
+
+    private RoboticsSchemaRegistry registry;
+
+    @After
+    public void tearDown() {
+        if (registry != null) {
+            registry.stop();
+        }
+    }
+
+    @Test
+    public void givenNoDirectory_thenOnlyTheClasspathVersionIsAvailable() {
+        registry = new RoboticsSchemaRegistry(SCHEMA);
+        registry.start();
+
+        assertEquals(RoboticsSchemaRegistry.CLASSPATH_VERSION, registry.getCurrentVersion());
+        assertEquals(1, registry.getVersions().size());
+    }
+
+    @Test
+    public void givenSchemasInDirectory_thenLoadsEachAsAVersion() throws IOException {
+        writeSchema("v1", pipOnlySchema());
+        registry = new RoboticsSchemaRegistry(SCHEMA, folder.getRoot().getPath(), null);
+        registry.start();
+
+        assertThat(registry.getVersions(), hasItems(RoboticsSchemaRegistry.CLASSPATH_VERSION, "v1"));
+        assertEquals("v1", registry.getCurrentVersion());
+    }
+
+    @Test
+    public void givenExplicitVersion_thenValidatesAgainstThatVersion() {
+        registry = new RoboticsSchemaRegistry(SCHEMA);
+        registry.register("esa-only", esaOnlySchema());
+        RoboticsJsonValidator validator = new RoboticsJsonValidator(registry, 10);
+
+        validator.validate(jsonData, RoboticsSchemaRegistry.CLASSPATH_VERSION);
+        try {
+            validator.validate(jsonData, "esa-only");
+            fail("Expected RoboticsValidationException");
+        } catch (RoboticsValidationException expected) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenUnknownVersion_thenThrowsException() {
+        registry = new RoboticsSchemaRegistry(SCHEMA);
+
+        new RoboticsJsonValidator(registry, 10).validate(jsonData, "v99");
+    }
+
+    @Test
+    public void givenNewSchemaFileInWatchedDirectory_thenSwapsItIn() throws Exception {
+        registry = new RoboticsSchemaRegistry(SCHEMA, folder.getRoot().getPath(), null);
+        registry.start();
+
+        writeSchema("v2", esaOnlySchema());
+
+        awaitUntil(() -> "v2".equals(registry.getCurrentVersion()));
+        assertTrue(registry.getVersions().contains("v2"));
+    }
+
+    @Test
+    public void givenSchemaFileDeleted_thenRemovesVersionAndFallsBack() throws Exception {
+        Path file = writeSchema("v3", pipOnlySchema());
+        registry = new RoboticsSchemaRegistry(SCHEMA, folder.getRoot().getPath(), null);
+        registry.start();
+
+        Files.delete(file);
+
+        awaitUntil(() -> !registry.getVersions().contains("v3"));
+        assertEquals(RoboticsSchemaRegistry.CLASSPATH_VERSION, registry.getCurrentVersion());
+    }
+
+    @Test
+    public void givenMissedChanges_whenReloaded_thenMatchesTheDirectoryAndKeepsRegisteredVersions()
+            throws Exception {
+        writeSchema("v1", pipOnlySchema());
+        final Path deleted = writeSchema("v2", pipOnlySchema());
+        registry = new RoboticsSchemaRegistry(SCHEMA, folder.getRoot().getPath(), null);
+        registry.start();
+        registry.register("esa-only", esaOnlySchema());
+        registry.stop();
+
+        Files.delete(deleted);
+        writeSchema("v3", esaOnlySchema());
+        registry.reloadDirectory();
+
+        assertEquals(new HashSet<>(Arrays.asList(RoboticsSchemaRegistry.CLASSPATH_VERSION, "v1", "v3", "esa-only")),
+                registry.getVersions());
+        assertEquals("v3", registry.getCurrentVersion());
+    }
+
+    @Test
+    public void givenOlderSchemaFileModified_thenCurrentVersionIsUnchanged() throws Exception {
+        writeSchema("v1", pipOnlySchema());
+        writeSchema("v2", esaOnlySchema());
+        registry = new RoboticsSchemaRegistry(SCHEMA, folder.getRoot().getPath(), null);
+        registry.start();
+        Schema before = registry.getSchema("v1");
+
+        writeSchema("v1", esaOnlySchema());
+
+        awaitUntil(() -> registry.getSchema("v1") != before);
+        assertEquals("v2", registry.getCurrentVersion());
+    }
+
+    @Test
+    public void givenConfiguredVersion_thenItStaysCurrentWhileLoaded() throws Exception {
+        writeSchema("v1", pipOnlySchema());
+        writeSchema("v2", esaOnlySchema());
+        registry = new RoboticsSchemaRegistry(SCHEMA, folder.getRoot().getPath(), "v1");
+        registry.start();
+
+        assertEquals("v1", registry.getCurrentVersion());
+        registry.register("v3", pipOnlySchema());
+        assertEquals("v1", registry.getCurrentVersion());
+        registry.unregister("v1");
+        assertEquals("v3", registry.getCurrentVersion());
+    }
+
+    @Test
+    public void comparesVersionsByTheirNumbers() {
+        List<String> versions = new ArrayList<>(Arrays.asList("v10", "v2", RoboticsSchemaRegistry.CLASSPATH_VERSION,
+                "v2.1", "a1", "v9"));
+
+        versions.sort(RoboticsSchemaRegistry::compareVersions);
+
+        assertEquals(Arrays.asList(RoboticsSchemaRegistry.CLASSPATH_VERSION, "a1", "v2", "v2.1", "v9", "v10"),
+                versions);
+    }
+
+    @Test
+    public void givenBrokenSchemaFile_thenKeepsPreviousVersions() throws Exception {
+        registry = new RoboticsSchemaRegistry(SCHEMA, folder.getRoot().getPath(), null);
+        registry.start();
+
+        Files.write(folder.getRoot().toPath().resolve("broken.json"), "{ not json".getBytes(UTF_8));
+        writeSchema("v4", pipOnlySchema());
+
+        awaitUntil(() -> "v4".equals(registry.getCurrentVersion()));
+        assertFalse(registry.getVersions().contains("broken"));
+    }
+
+    @Test
+    public void givenConcurrentValidations_whenSchemasAreSwapped_thenNoValidationFails() throws Exception {
+        registry = new RoboticsSchemaRegistry(SCHEMA);
+        RoboticsJsonValidator validator = new RoboticsJsonValidator(registry, 10);
+        JSONObject pipOnlySchema = pipOnlySchema();
+
+        int threads = 8;
+        AtomicBoolean swapping = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                JSONObject json = new JSONObject(jsonData.toString());
+                int validations = 0;
+                started.countDown();
+                while (swapping.get()) {
+                    validator.validate(json);
+                    validations++;
+                }
+                return validations;
+            }));
+        }
+
+        started.await(10, TimeUnit.SECONDS);
+        for (int i = 0; i < 50; i++) {
+            registry.register("v" + i, pipOnlySchema);
+        }
+        swapping.set(false);
+
+        int validations = 0;
+        for (Future<Integer> result : results) {
+            validations += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals("v49", registry.getCurrentVersion());
+        assertEquals(51, registry.getVersions().size());
+        assertTrue(validations > 0);
+    }
+
+    private Path writeSchema(String version, JSONObject schema) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(version + ".json");
+        Path tmp = folder.getRoot().toPath().resolve(version + ".tmp");
+        Files.write(tmp, schema.toString().getBytes(UTF_8));
+        return Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static JSONObject pipOnlySchema() {
+        return schemaWithCaseCodePattern("^002DD$");
+    }
+
+    private static JSONObject esaOnlySchema() {
+        return schemaWithCaseCodePattern("^051DD$");
+    }
+
+    private static JSONObject schemaWithCaseCodePattern(String pattern) {
+        JSONObject schema = RoboticsSchemaLoader.readSchemaJson(SCHEMA);
+        schema.getJSONObject("properties").getJSONObject("caseCode").put("pattern", pattern);
+        return schema;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 30 seconds");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class RoboticsStringCanonicaliserTest {
+
+    @Test
+    public void givenEqualStrings_thenReturnsTheFirstInstance() {
+        RoboticsStringCanonicaliser canonicaliser = new RoboticsStringCanonicaliser(100, 64);
+        String first = copy("Bromley");
+
+        assertSame(first, canonicaliser.canonicalise(first));
+        assertSame(first, canonicaliser.canonicalise(copy("Bromley")));
+        assertEquals(1, canonicaliser.getHits());
+    }
+
+    @Test
+    public void mapsCopiesOfTheMapperConstantsToTheLiterals() {
+        RoboticsStringCanonicaliser canonicaliser = new RoboticsStringCanonicaliser(100, 64);
+
+        assertSame("Yes", canonicaliser.canonicalise(copy("Yes")));
+        assertSame("Oral", canonicaliser.canonicalise(copy("Oral")));
+    }
+
+    @Test
+    public void givenFullCanonicaliser_thenReturnsNewValuesAsTheyAre() {
+        RoboticsStringCanonicaliser canonicaliser = new RoboticsStringCanonicaliser(5, 64);
+        String held = canonicaliser.canonicalise(copy("Online"));
+        String notHeld = copy("Paper post");
+
+        assertSame(notHeld, canonicaliser.canonicalise(notHeld));
+        assertNotSame(notHeld, canonicaliser.canonicalise(copy("Paper post")));
+        assertSame(held, canonicaliser.canonicalise(copy("Online")));
+        assertEquals(5, canonicaliser.getSize());
+    }
+
+    @Test
+    public void givenLongValue_thenNeverHoldsIt() {
+        RoboticsStringCanonicaliser canonicaliser = new RoboticsStringCanonicaliser(100, 5);
+        String reason = copy("Lost my paperwork");
+
+        assertSame(reason, canonicaliser.canonicalise(reason));
+        assertNotSame(reason, canonicaliser.canonicalise(copy("Lost my paperwork")));
+        assertNull(canonicaliser.canonicalise(null));
+    }
+
+    @Test
+    public void givenNoEntries_thenIsOff() {
+        RoboticsStringCanonicaliser canonicaliser = new RoboticsStringCanonicaliser(0, 0);
+        String yes = copy("Yes");
+
+        assertSame(yes, canonicaliser.canonicalise(yes));
+        assertEquals(0, canonicaliser.getSize());
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+}
@@ -0,0 +1,73 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.everit.json.schema.Schema;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+
+public class RoboticsStructuralValidatorTest {
+
+    private final Schema schema = new RoboticsSchemaRegistry("/schema/sscs-robotics.json").getSchema();
+
+    private final JSONObject jsonData = new JSONObject(
+            new JSONTokener(getClass().getResourceAsStream("/schema/valid_robotics_agreed.json")));
+
+    @Test
+    public void givenValidJson_thenIsValid() {
+        assertTrue(RoboticsStructuralValidator.validate(jsonData, schema).isValid());
+    }
+
+    @Test
+    public void givenMissingRequiredField_thenReportsRequired() {
+        jsonData.remove("caseCode");
+
+        assertViolation("#", "required", "required key [caseCode] not found");
+    }
+
+    @Test
+    public void givenBadCaseCode_thenReportsTheFormat() {
+        jsonData.put("caseCode", "002CC");
+
+        assertViolation("#/caseCode", "format", "string [002CC] does not match pattern ^\\d{3}DD$");
+    }
+
+    @Test
+    public void givenValueOutsideEnum_thenReportsEnum() {
+        jsonData.put("hearingType", "Video");
+
+        assertViolation("#/hearingType", "enum", "Video is not a valid enum value");
+    }
+
+    @Test
+    public void givenWrongType_thenReportsType() {
+        jsonData.put("appellant", "Mr Smith");
+
+        assertViolation("#/appellant", "type", "expected type: JSONObject, found: String");
+    }
+
+    @Test
+    public void givenBadNestedDate_thenReportsTheNestedPointer() {
+        jsonData.getJSONObject("appellant").put("dob", "2018-02-30");
+
+        assertViolation("#/appellant/dob", "format", "[2018-02-30] is not a valid date. Expected [yyyy-MM-dd]");
+    }
+
+    @Test
+    public void givenUnknownProperty_thenLeavesItToFullValidation() {
+        jsonData.put("notInTheSchema", "value");
+
+        assertTrue(RoboticsStructuralValidator.validate(jsonData, schema).isValid());
+        assertFalse(new RoboticsJsonValidator("/schema/sscs-robotics.json").validateAll(jsonData).isValid());
+    }
+
+    private void assertViolation(String pointer, String keyword, String message) {
+        RoboticsValidationResult result = RoboticsStructuralValidator.validate(jsonData, schema);
+
+        assertEquals(1, result.getViolations().size());
+        assertEquals(new RoboticsValidationViolation(pointer, keyword, message), result.getViolations().get(0));
+    }
+}
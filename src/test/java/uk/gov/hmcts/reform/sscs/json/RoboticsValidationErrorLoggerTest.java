@@ -0,0 +1,38 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import org.everit.json.schema.ValidationException;
+import org.junit.Test;
+
+public class RoboticsValidationErrorLoggerTest {
+
+    private final RoboticsValidationResult result = RoboticsValidationResult.of(
+            new ValidationException("#/caseCode: string [002CC] does not match pattern"));
+
+    @Test
+    public void givenFailuresOverTheLimit_thenTheyAreSuppressed() {
+        RoboticsValidationErrorLogger logger = new RoboticsValidationErrorLogger(2, 1, TimeUnit.HOURS);
+
+        for (int i = 0; i < 10; i++) {
+            logger.logFailure(result);
+        }
+
+        assertEquals(8, logger.getSuppressed());
+    }
+
+    @Test
+    public void givenTheIntervalHasPassed_thenLogsAgainAndResetsSuppressedCount() throws InterruptedException {
+        RoboticsValidationErrorLogger logger = new RoboticsValidationErrorLogger(1, 10, TimeUnit.MILLISECONDS);
+
+        logger.logFailure(result);
+        logger.logFailure(result);
+        assertEquals(1, logger.getSuppressed());
+
+        Thread.sleep(20);
+        logger.logFailure(result);
+
+        assertEquals(0, logger.getSuppressed());
+    }
+}
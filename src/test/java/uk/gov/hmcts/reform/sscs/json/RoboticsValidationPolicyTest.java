@@ -0,0 +1,181 @@
+package uk.gov.hmcts.reform.sscs.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+import uk.gov.hmcts.reform.sscs.exception.RoboticsValidationException;
+import uk.gov.hmcts.reform.sscs.json.RoboticsValidationPolicy.Check;
+import uk.gov.hmcts.reform.sscs.json.RoboticsValidationPolicy.Mode;
+import uk.gov.hmcts.reform.sscs.json.RoboticsValidationPolicy.SourceMetrics;
+
+public class RoboticsValidationPolicyTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private final JSONObject jsonData = new JSONObject(
+            new JSONTokener(getClass().getResourceAsStream("/schema/valid_robotics_agreed.json")));
+
+    @Test
+    public void parsesSourcesIgnoringCaseAndSpaces() {
+        Map<String, Mode> expected = new LinkedHashMap<>();
+        expected.put("Online", Mode.SAMPLED);
+        expected.put("Bulk Scan", Mode.STRUCTURAL);
+
+        assertEquals(expected, RoboticsValidationPolicy.parse(" Online=sampled, Bulk Scan = STRUCTURAL"));
+        assertEquals(Collections.emptyMap(), RoboticsValidationPolicy.parse(""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenEntryWithoutMode_thenThrowsException() {
+        RoboticsValidationPolicy.parse("Online");
+    }
+
+    @Test
+    public void givenSourcesWithDifferentModes_thenSelectsPerReceivedVia() {
+        RoboticsValidationPolicy policy = policy("Online=STRUCTURAL,Paper=FULL", Mode.FULL, 0);
+
+        assertEquals(Check.STRUCTURAL, policy.select("online"));
+        assertEquals(Check.FULL, policy.select("Paper"));
+        assertEquals(Check.FULL, policy.select("Email"));
+        assertEquals(Check.FULL, policy.select(null));
+    }
+
+    @Test
+    public void givenSampledSource_thenFullyValidatesOneInEveryPeriod() {
+        RoboticsValidationPolicy policy = policy("Online=SAMPLED", Mode.FULL, 0.25);
+
+        int sampled = 0;
+        for (int i = 0; i < 100; i++) {
+            if (policy.select("Online") == Check.SAMPLE) {
+                sampled++;
+            }
+        }
+
+        assertEquals(25, sampled);
+        SourceMetrics metrics = policy.getMetrics().get("Online");
+        assertEquals(25, metrics.getFullValidations());
+        assertEquals(75, metrics.getStructuralValidations());
+    }
+
+    @Test
+    public void givenSampleRateOfZero_thenOnlyRunsStructuralChecks() {
+        RoboticsValidationPolicy policy = policy("", Mode.SAMPLED, 0);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Check.STRUCTURAL, policy.select("Online"));
+        }
+    }
+
+    @Test
+    public void givenSampledFailure_thenEscalatesToFullUntilTheEscalationPeriodEnds() {
+        RoboticsValidationPolicy policy = policy("Online=STRUCTURAL", Mode.FULL, 0);
+
+        policy.onFailure("Online", Check.STRUCTURAL);
+
+        assertEquals(Mode.FULL, policy.getEffectiveMode("Online"));
+        assertEquals(Check.FULL, policy.select("Online"));
+        clock.advance(Duration.ofMinutes(60));
+        assertEquals(Mode.STRUCTURAL, policy.getEffectiveMode("Online"));
+        assertEquals(Check.STRUCTURAL, policy.select("Online"));
+        SourceMetrics metrics = policy.getMetrics().get("Online");
+        assertEquals(1, metrics.getFailures());
+        assertEquals(1, metrics.getEscalations());
+    }
+
+    @Test
+    public void givenFullValidationFailure_thenDoesNotEscalate() {
+        RoboticsValidationPolicy policy = policy("Online=SAMPLED", Mode.FULL, 0);
+
+        policy.onFailure("Paper", Check.FULL);
+
+        assertEquals(Mode.SAMPLED, policy.getEffectiveMode("Online"));
+        SourceMetrics metrics = policy.getMetrics().get(RoboticsValidationPolicy.DEFAULT_SOURCE);
+        assertEquals(1, metrics.getFailures());
+        assertEquals(0, metrics.getEscalations());
+    }
+
+    @Test
+    public void givenStructuralSource_thenValidatorSkipsChecksOnlyTheSchemaCanMake() {
+        RoboticsValidationPolicy policy = policy("Online=STRUCTURAL", Mode.FULL, 0);
+        RoboticsJsonValidator validator = validator(policy);
+        jsonData.put("notInTheSchema", "value");
+
+        validator.validate(jsonData);
+
+        jsonData.put("receivedVia", "Paper");
+        assertInvalid(validator);
+    }
+
+    @Test
+    public void givenStructuralFailure_thenValidatorEscalatesTheSource() {
+        RoboticsValidationPolicy policy = policy("Online=STRUCTURAL", Mode.FULL, 0);
+        RoboticsJsonValidator validator = validator(policy);
+        jsonData.remove("caseCode");
+
+        assertInvalid(validator);
+
+        assertEquals(Mode.FULL, policy.getEffectiveMode("Online"));
+        jsonData.put("caseCode", "002DD");
+        jsonData.put("notInTheSchema", "value");
+        assertInvalid(validator);
+        SourceMetrics metrics = policy.getMetrics().get("Online");
+        assertEquals(Mode.STRUCTURAL, metrics.getConfiguredMode());
+        assertEquals(Mode.FULL, metrics.getEffectiveMode());
+        assertEquals(1, metrics.getStructuralValidations());
+        assertEquals(1, metrics.getFullValidations());
+        assertEquals(2, metrics.getFailures());
+        assertEquals(1, metrics.getEscalations());
+    }
+
+    private RoboticsValidationPolicy policy(String sources, Mode defaultMode, double sampleRate) {
+        return new RoboticsValidationPolicy(RoboticsValidationPolicy.parse(sources), defaultMode, sampleRate,
+                Duration.ofMinutes(60), clock);
+    }
+
+    private RoboticsJsonValidator validator(RoboticsValidationPolicy policy) {
+        return new RoboticsJsonValidator(new RoboticsSchemaRegistry("/schema/sscs-robotics.json"), 10, policy);
+    }
+
+    private void assertInvalid(RoboticsJsonValidator validator) {
+        try {
+            validator.validate(jsonData);
+            fail("Expected RoboticsValidationException");
+        } catch (RoboticsValidationException expected) {
+            // expected
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2019-06-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package uk.gov.hmcts.reform.sscs.json.format;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.exception.RoboticsValidationException;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+
+@RunWith(JUnitParamsRunner.class)
+public class RoboticsPayloadFormatTest {
+
+    private final RoboticsPayloadFormats formats = RoboticsPayloadFormats.defaultFormats();
+
+    private final RoboticsJsonValidator roboticsJsonValidator = new RoboticsJsonValidator(
+            "/schema/sscs-robotics.json");
+
+    private final JSONObject agreedJson = new JSONObject(
+            new JSONTokener(getClass().getResourceAsStream("/schema/valid_robotics_agreed.json")));
+
+    @Test
+    @Parameters({"json", "cbor", "smile"})
+    public void givenAgreedRoboticsJson_thenRoundTripsThroughFormat(String formatName) {
+        RoboticsPayloadFormat format = formats.get(formatName);
+
+        JSONObject roundTripped = format.read(format.write(agreedJson));
+
+        assertSameLogicalPayload(agreedJson, roundTripped);
+    }
+
+    @Test
+    @Parameters({"json", "cbor", "smile"})
+    public void givenMappedRoboticsJson_thenRoundTripsAndValidatesInFormat(String formatName) {
+        RoboticsPayloadFormat format = formats.get(formatName);
+        JSONObject mappedJson = new RoboticsJsonMapper(false).map(RoboticsWrapper.builder()
+                .sscsCaseData(buildCaseData())
+                .ccdCaseId(123L).venueName("Bromley").evidencePresent("Yes")
+                .build());
+
+        JSONObject validated = roboticsJsonValidator.validate(format.write(mappedJson), format);
+
+        assertSameLogicalPayload(mappedJson, validated);
+    }
+
+    @Test
+    @Parameters({"cbor", "smile"})
+    public void givenBinaryFormat_thenPayloadIsSmallerThanJson(String formatName) {
+        byte[] json = formats.get(JsonRoboticsPayloadFormat.NAME).write(agreedJson);
+        byte[] binary = formats.get(formatName).write(agreedJson);
+
+        assertTrue(formatName + " should be smaller than json", binary.length < json.length);
+    }
+
+    @Test(expected = RoboticsValidationException.class)
+    @Parameters({"json", "cbor", "smile"})
+    public void givenInvalidPayloadInFormat_thenThrowExceptionWhenValidating(String formatName) {
+        RoboticsPayloadFormat format = formats.get(formatName);
+        agreedJson.put("caseCode", "002CC");
+
+        roboticsJsonValidator.validate(format.write(agreedJson), format);
+    }
+
+    @Test
+    public void givenJsonFormat_thenWritesSameBytesAsToString() {
+        assertArrayEquals(agreedJson.toString().getBytes(),
+                formats.get(JsonRoboticsPayloadFormat.NAME).write(agreedJson));
+    }
+
+    @Test
+    public void formatNamesAreCaseInsensitive() {
+        assertEquals(CborRoboticsPayloadFormat.NAME, formats.get("CBOR").getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenUnknownFormat_thenThrowException() {
+        formats.get("xml");
+    }
+
+    private static void assertSameLogicalPayload(JSONObject expected, JSONObject actual) {
+        JSONObject expectedFromText = new JSONObject(expected.toString());
+        JSONObject actualFromText = new JSONObject(actual.toString());
+
+        assertTrue("expected " + expectedFromText + " but was " + actualFromText,
+                expectedFromText.similar(actualFromText));
+    }
+}
@@ -0,0 +1,206 @@
+package uk.gov.hmcts.reform.sscs.limiter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class RoboticsEmailLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void givenFlatLatencyWhileTheLimitIsUsed_thenRaisesTheLimitByOnePerLimitOfSends() {
+        RoboticsEmailLimiter limiter = limiter(4, 1, 8);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.onSample(10 * MILLI, false, true);
+        }
+        assertEquals(5, limiter.getLimit());
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(11 * MILLI, false, true);
+        }
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    public void givenTheLimitIsNotUsed_thenKeepsIt() {
+        RoboticsEmailLimiter limiter = limiter(4, 1, 8);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(10 * MILLI, false, false);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void givenLatencyRisesPastTheTolerance_thenBacksOffMultiplicatively() {
+        RoboticsEmailLimiter limiter = limiter(20, 2, 64);
+        limiter.onSample(10 * MILLI, false, false);
+
+        limiter.onSample(25 * MILLI, false, true);
+        assertEquals(18, limiter.getLimit());
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(25 * MILLI, false, true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void givenFailedSend_thenBacksOff() {
+        RoboticsEmailLimiter limiter = limiter(10, 1, 64);
+
+        limiter.onSample(10 * MILLI, true, true);
+
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    public void givenRelaySlowerAllDay_thenBaselineCatchesUpAndTheLimitGrowsAgain() {
+        RoboticsEmailLimiter limiter = limiter(4, 1, 64);
+        limiter.onSample(10 * MILLI, false, false);
+
+        for (int i = 0; i < 3 * RoboticsEmailLimiter.BASELINE_WINDOW; i++) {
+            limiter.onSample(30 * MILLI, false, true);
+        }
+
+        assertTrue("limit " + limiter.getLimit(), limiter.getLimit() > 4);
+    }
+
+    @Test
+    public void givenSaturatingRelay_thenKeepsConcurrencyNearWhatItCanTake() {
+        SaturatingRelay relay = new SaturatingRelay(4, 20);
+        RoboticsEmailLimiter limiter = limiter(1, 1, 64);
+
+        relay.send(limiter, 24, 200);
+
+        // latency doubles past 8 at once; unlimited, all 24 senders would be on the relay together
+        assertTrue("limit " + limiter.getLimit(), limiter.getLimit() >= 2 && limiter.getLimit() <= 9);
+        assertTrue("peak " + relay.peak, relay.peak <= 9);
+        assertTrue(limiter.getMetrics().getBackoffs() > 0);
+    }
+
+    @Test
+    public void givenRelayThatNeverSaturates_thenRaisesTheLimitToTheLoad() {
+        SaturatingRelay relay = new SaturatingRelay(1000, 20);
+        RoboticsEmailLimiter limiter = limiter(1, 1, 64);
+
+        relay.send(limiter, 16, 50);
+
+        assertTrue("limit " + limiter.getLimit(), limiter.getLimit() >= 16);
+        assertEquals(16, relay.peak);
+        assertEquals(0, limiter.getMetrics().getBackoffs());
+    }
+
+    @Test
+    public void neverHasMoreSendsInFlightThanTheLimit() throws Exception {
+        RoboticsEmailLimiter limiter = limiter(3, 1, 3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> senders = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                senders.add(executor.submit(() -> {
+                    for (int j = 0; j < 10; j++) {
+                        limiter.run(() -> {
+                            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                            Thread.yield();
+                            inFlight.decrementAndGet();
+                        });
+                    }
+                }));
+            }
+            for (Future<?> sender : senders) {
+                sender.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue("peak " + peak.get(), peak.get() <= 3);
+        assertEquals(80, limiter.getMetrics().getSends());
+        assertEquals(0, limiter.getMetrics().getInFlight());
+    }
+
+    @Test
+    public void metricsReportTheLimitAndWhatHappenedToIt() {
+        RoboticsEmailLimiter limiter = limiter(10, 1, 64);
+
+        limiter.onSample(10 * MILLI, false, true);
+        limiter.onSample(10 * MILLI, true, true);
+        RoboticsEmailLimiter.Metrics metrics = limiter.getMetrics();
+
+        assertEquals(9, metrics.getLimit());
+        assertEquals(2, metrics.getSends());
+        assertEquals(1, metrics.getFailures());
+        assertEquals(1, metrics.getBackoffs());
+    }
+
+    @Test
+    public void givenFailingSend_thenRethrowsAndFreesTheSlot() {
+        RoboticsEmailLimiter limiter = limiter(1, 1, 1);
+
+        try {
+            limiter.run(() -> {
+                throw new IllegalStateException("relay down");
+            });
+            fail("Expected the send to fail");
+        } catch (IllegalStateException expected) {
+            assertEquals(0, limiter.getInFlight());
+        }
+        limiter.run(() -> { });
+    }
+
+    @Test
+    public void unlimitedRunsStraightThrough() {
+        AtomicInteger sent = new AtomicInteger();
+
+        RoboticsEmailLimiter.unlimited().run(sent::incrementAndGet);
+
+        assertEquals(1, sent.get());
+    }
+
+    private static RoboticsEmailLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        return new RoboticsEmailLimiter(true, initialLimit, minLimit, maxLimit, 2.0, 0.9);
+    }
+
+    /**
+     * A relay that takes {@code baseMillis} per email up to {@code capacity} emails at once, and queues beyond
+     * that, so latency grows with concurrency. Every round, each sender with a slot sends one email, and their
+     * latencies are fed to the limiter, without waiting on a real clock.
+     */
+    private static final class SaturatingRelay {
+        private final int capacity;
+        private final long baseMillis;
+        private int peak;
+
+        private SaturatingRelay(int capacity, long baseMillis) {
+            this.capacity = capacity;
+            this.baseMillis = baseMillis;
+        }
+
+        private void send(RoboticsEmailLimiter limiter, int senders, int rounds) {
+            for (int round = 0; round < rounds; round++) {
+                int limit = limiter.getLimit();
+                int concurrent = Math.min(senders, limit);
+                peak = Math.max(peak, concurrent);
+                long latencyNanos = baseMillis * MILLI * Math.max(capacity, concurrent) / capacity;
+                for (int i = 0; i < concurrent; i++) {
+                    limiter.onSample(latencyNanos, false, concurrent * 2 >= limit);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package uk.gov.hmcts.reform.sscs.replay;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.apache.commons.lang3.StringUtils;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+
+/**
+ * Streams serialised {@link SscsCaseData} snapshots from either a directory of {@code *.json} files or a
+ * single NDJSON file with one case per line. Each snapshot is keyed by its ccdCaseId, falling back to the
+ * file name or line number, and that key names its baseline payload. A snapshot that cannot be parsed is
+ * handed to {@code malformed} under its file name or line number, and reading carries on with the next one.
+ */
+class CaseSnapshotReader {
+
+    private static final String JSON_SUFFIX = ".json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    void read(Path input, Consumer<CaseSnapshot> consumer, BiConsumer<String, Exception> malformed)
+            throws IOException {
+        if (Files.isDirectory(input)) {
+            readDirectory(input, consumer, malformed);
+        } else {
+            readNdjson(input, consumer, malformed);
+        }
+    }
+
+    private void readDirectory(Path directory, Consumer<CaseSnapshot> consumer,
+                               BiConsumer<String, Exception> malformed) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + JSON_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            String name = fileName.substring(0, fileName.length() - JSON_SUFFIX.length());
+            SscsCaseData caseData;
+            try {
+                caseData = objectMapper.readValue(file.toFile(), SscsCaseData.class);
+            } catch (JsonProcessingException e) {
+                malformed.accept(name, e);
+                continue;
+            }
+            consumer.accept(new CaseSnapshot(keyOf(caseData, name), caseData));
+        }
+    }
+
+    private void readNdjson(Path file, Consumer<CaseSnapshot> consumer, BiConsumer<String, Exception> malformed)
+            throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                String name = "line-" + lineNumber;
+                try {
+                    SscsCaseData caseData = objectMapper.readValue(line, SscsCaseData.class);
+                    consumer.accept(new CaseSnapshot(keyOf(caseData, name), caseData));
+                } catch (JsonProcessingException e) {
+                    malformed.accept(name, e);
+                }
+            }
+        }
+    }
+
+    private static String keyOf(SscsCaseData caseData, String fallback) {
+        return StringUtils.isNotBlank(caseData.getCcdCaseId()) ? caseData.getCcdCaseId() : fallback;
+    }
+
+    static final class CaseSnapshot {
+        private final String key;
+        private final SscsCaseData caseData;
+
+        CaseSnapshot(String key, SscsCaseData caseData) {
+            this.key = key;
+            this.caseData = caseData;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        SscsCaseData getCaseData() {
+            return caseData;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package uk.gov.hmcts.reform.sscs.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe tally of a replay run: per-case latency, mismatches against baselines and failures.
+ */
+class ReplayReport {
+
+    private static final int MAX_LISTED = 20;
+
+    private long[] latencies = new long[1024];
+    private int cases;
+    private int matched;
+    private int recorded;
+    private int missingBaselines;
+    private final List<String> mismatches = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+    private long startNanos;
+    private long endNanos;
+
+    synchronized void start() {
+        startNanos = System.nanoTime();
+    }
+
+    synchronized void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    synchronized void matched(long latencyNanos) {
+        addLatency(latencyNanos);
+        matched++;
+    }
+
+    synchronized void mismatched(String key, List<String> differences, long latencyNanos) {
+        addLatency(latencyNanos);
+        mismatches.add(key + " " + differences);
+    }
+
+    synchronized void recorded(long latencyNanos) {
+        addLatency(latencyNanos);
+        recorded++;
+    }
+
+    synchronized void missingBaseline(long latencyNanos) {
+        addLatency(latencyNanos);
+        missingBaselines++;
+    }
+
+    synchronized void failed(String key, Exception exception) {
+        cases++;
+        failures.add(key + " " + exception);
+    }
+
+    synchronized int getCases() {
+        return cases;
+    }
+
+    synchronized int getMatched() {
+        return matched;
+    }
+
+    synchronized List<String> getMismatches() {
+        return Collections.unmodifiableList(new ArrayList<>(mismatches));
+    }
+
+    synchronized List<String> getFailures() {
+        return Collections.unmodifiableList(new ArrayList<>(failures));
+    }
+
+    synchronized int getMissingBaselines() {
+        return missingBaselines;
+    }
+
+    synchronized int getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Latency percentile in microseconds over the cases that produced a payload.
+     */
+    synchronized long percentileMicros(double percentile) {
+        int timed = cases - failures.size();
+        if (timed == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, timed);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * timed) - 1;
+        return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, index)]);
+    }
+
+    synchronized double throughputPerSecond() {
+        long elapsed = endNanos - startNanos;
+        return elapsed <= 0 ? 0 : cases * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    synchronized String summary() {
+        StringBuilder summary = new StringBuilder()
+                .append(String.format("Replayed %d cases in %d ms (%.1f cases/s)%n", cases,
+                        TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos), throughputPerSecond()))
+                .append(String.format("Latency p50 %d us, p99 %d us%n", percentileMicros(50), percentileMicros(99)))
+                .append(String.format("Matched %d, mismatched %d, missing baseline %d, recorded %d, failed %d%n",
+                        matched, mismatches.size(), missingBaselines, recorded, failures.size()));
+        appendListed(summary, "Mismatch", mismatches);
+        appendListed(summary, "Failure", failures);
+        return summary.toString();
+    }
+
+    private static void appendListed(StringBuilder summary, String label, List<String> entries) {
+        for (int i = 0; i < Math.min(MAX_LISTED, entries.size()); i++) {
+            summary.append(label).append(": ").append(entries.get(i)).append(System.lineSeparator());
+        }
+        if (entries.size() > MAX_LISTED) {
+            summary.append("... and ").append(entries.size() - MAX_LISTED).append(" more")
+                    .append(System.lineSeparator());
+        }
+    }
+
+    private void addLatency(long latencyNanos) {
+        int timed = cases - failures.size();
+        if (timed == latencies.length) {
+            latencies = Arrays.copyOf(latencies, timed * 2);
+        }
+        latencies[timed] = latencyNanos;
+        cases++;
+    }
+}
@@ -0,0 +1,215 @@
+package uk.gov.hmcts.reform.sscs.replay;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.replay.CaseSnapshotReader.CaseSnapshot;
+import uk.gov.hmcts.reform.sscs.service.RoboticsService;
+import uk.gov.hmcts.reform.sscs.stub.RoboticsStubs;
+
+/**
+ * Replays a corpus of {@link SscsCaseData} snapshots through {@link RoboticsService#createRobotics} and
+ * diffs each payload against a stored baseline, so a mapper or schema change can be checked against
+ * production traffic without running the full service.
+ *
+ * <p>Usage: {@code ./gradlew replayRobotics -PreplayArgs="--input cases.ndjson --baselines baselines"}
+ * with optional {@code --threads N}, {@code --record} (write baselines instead of comparing),
+ * {@code --schema /schema/sscs-robotics.json} and {@code --rpcEmail true}.
+ *
+ * <p>The venue is not part of a case snapshot, so it is taken from the baseline's appellantPostCode; that
+ * field is therefore not compared, and neither is appealDate, which is always the day of the run. A snapshot
+ * that cannot be parsed is counted as a failure and the replay carries on.
+ */
+public final class RoboticsReplay {
+
+    static final Set<String> IGNORED_FIELDS =
+            Collections.unmodifiableSet(new TreeSet<>(Arrays.asList("appealDate", "appellantPostCode")));
+
+    private static final String DEFAULT_VENUE = "Replay";
+    private static final String BASELINE_SUFFIX = ".json";
+
+    private final RoboticsService roboticsService;
+    private final Path baselineDirectory;
+    private final int threads;
+    private final boolean record;
+
+    RoboticsReplay(RoboticsService roboticsService, Path baselineDirectory, int threads, boolean record) {
+        this.roboticsService = roboticsService;
+        this.baselineDirectory = baselineDirectory;
+        this.threads = threads;
+        this.record = record;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (!options.containsKey("input") || !options.containsKey("baselines")) {
+            System.err.println("Usage: RoboticsReplay --input <dir|file.ndjson> --baselines <dir> "
+                    + "[--threads N] [--record] [--schema resource] [--rpcEmail true|false]");
+            System.exit(2);
+        }
+
+        RoboticsService roboticsService = offlineRoboticsService(
+                new RoboticsJsonMapper(Boolean.valueOf(options.getOrDefault("rpcEmail", "false"))),
+                new RoboticsJsonValidator(options.getOrDefault("schema", "/schema/sscs-robotics.json")));
+
+        RoboticsReplay replay = new RoboticsReplay(roboticsService, Paths.get(options.get("baselines")),
+                Integer.parseInt(options.getOrDefault("threads",
+                        String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                options.containsKey("record"));
+
+        ReplayReport report = replay.replay(Paths.get(options.get("input")));
+        System.out.print(report.summary());
+
+        System.exit(report.getMismatches().isEmpty() && report.getFailures().isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * createRobotics only maps and validates; the email, DM and CCD collaborators are local stubs.
+     */
+    static RoboticsService offlineRoboticsService(RoboticsJsonMapper mapper, RoboticsJsonValidator validator) {
+        return RoboticsStubs.instant().roboticsService(mapper, validator);
+    }
+
+    ReplayReport replay(Path input) throws IOException, InterruptedException {
+        if (record) {
+            Files.createDirectories(baselineDirectory);
+        }
+
+        ReplayReport report = new ReplayReport();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        report.start();
+        try {
+            new CaseSnapshotReader().read(input, snapshot -> executor.execute(() -> replay(snapshot, report)),
+                    report::failed);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        report.finish();
+
+        return report;
+    }
+
+    private void replay(CaseSnapshot snapshot, ReplayReport report) {
+        try {
+            JSONObject baseline = readBaseline(snapshot.getKey());
+            SscsCaseData caseData = snapshot.getCaseData();
+
+            RoboticsWrapper wrapper = RoboticsWrapper.builder()
+                    .sscsCaseData(caseData)
+                    .ccdCaseId(StringUtils.isNumeric(caseData.getCcdCaseId())
+                            ? Long.valueOf(caseData.getCcdCaseId()) : null)
+                    .venueName(baseline == null ? DEFAULT_VENUE : baseline.optString("appellantPostCode", null))
+                    .evidencePresent(caseData.getEvidencePresent())
+                    .build();
+
+            long start = System.nanoTime();
+            JSONObject actual = roboticsService.createRobotics(wrapper);
+            long latency = System.nanoTime() - start;
+
+            if (record) {
+                Files.write(baselinePath(snapshot.getKey()), actual.toString(2).getBytes(UTF_8));
+                report.recorded(latency);
+            } else if (baseline == null) {
+                report.missingBaseline(latency);
+            } else {
+                List<String> differences = diff(baseline, actual);
+                if (differences.isEmpty()) {
+                    report.matched(latency);
+                } else {
+                    report.mismatched(snapshot.getKey(), differences, latency);
+                }
+            }
+        } catch (Exception e) {
+            report.failed(snapshot.getKey(), e);
+        }
+    }
+
+    private JSONObject readBaseline(String key) throws IOException {
+        Path baseline = baselinePath(key);
+        if (record || !Files.isRegularFile(baseline)) {
+            return null;
+        }
+        return new JSONObject(new JSONTokener(new String(Files.readAllBytes(baseline), UTF_8)));
+    }
+
+    private Path baselinePath(String key) {
+        return baselineDirectory.resolve(key + BASELINE_SUFFIX);
+    }
+
+    /**
+     * Json pointers of every property that differs, ignoring {@link #IGNORED_FIELDS} at the top level.
+     */
+    static List<String> diff(JSONObject expected, JSONObject actual) {
+        List<String> differences = new ArrayList<>();
+        diff("", expected, actual, differences);
+        return differences;
+    }
+
+    private static void diff(String path, JSONObject expected, JSONObject actual, List<String> differences) {
+        Set<String> keys = new TreeSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+
+        for (String key : keys) {
+            if (path.isEmpty() && IGNORED_FIELDS.contains(key)) {
+                continue;
+            }
+            String pointer = path + "/" + key;
+            Object expectedValue = expected.opt(key);
+            Object actualValue = actual.opt(key);
+            if (expectedValue instanceof JSONObject && actualValue instanceof JSONObject) {
+                diff(pointer, (JSONObject) expectedValue, (JSONObject) actualValue, differences);
+            } else if (!sameValue(expectedValue, actualValue)) {
+                differences.add(pointer);
+            }
+        }
+    }
+
+    private static boolean sameValue(Object expected, Object actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        if (expected instanceof JSONArray && actual instanceof JSONArray) {
+            return ((JSONArray) expected).similar(actual);
+        }
+        // numbers read back from a baseline may be Integer where the mapper produced Long
+        return String.valueOf(expected).equals(String.valueOf(actual));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String name = StringUtils.removeStart(args[i], "--");
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+}
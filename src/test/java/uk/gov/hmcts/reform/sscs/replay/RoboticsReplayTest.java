@@ -0,0 +1,125 @@
+package uk.gov.hmcts.reform.sscs.replay;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.service.RoboticsService;
+
+public class RoboticsReplayTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RoboticsService roboticsService = RoboticsReplay.offlineRoboticsService(
+            new RoboticsJsonMapper(false), new RoboticsJsonValidator("/schema/sscs-robotics.json"));
+
+    private Path baselines;
+
+    @Before
+    public void setup() throws IOException {
+        baselines = folder.getRoot().toPath().resolve("baselines");
+    }
+
+    @Test
+    public void givenRecordedBaselines_thenReplayMatchesThem() throws Exception {
+        Path input = writeNdjson(caseData("1001"), caseData("1002"), caseData("1003"));
+
+        ReplayReport recorded = new RoboticsReplay(roboticsService, baselines, 2, true).replay(input);
+        ReplayReport replayed = new RoboticsReplay(roboticsService, baselines, 2, false).replay(input);
+
+        assertEquals(3, recorded.getRecorded());
+        assertEquals(3, replayed.getMatched());
+        assertTrue(replayed.getMismatches().isEmpty());
+        assertTrue(replayed.getFailures().isEmpty());
+        assertTrue(replayed.percentileMicros(99) >= replayed.percentileMicros(50));
+    }
+
+    @Test
+    public void givenChangedBaseline_thenReportsTheDifferingProperty() throws Exception {
+        Path input = folder.newFolder("cases").toPath();
+        Files.write(input.resolve("first.json"), objectMapper.writeValueAsBytes(caseData("2001")));
+        new RoboticsReplay(roboticsService, baselines, 1, true).replay(input);
+
+        Path baselineFile = baselines.resolve("2001.json");
+        JSONObject baseline = new JSONObject(new JSONTokener(new String(Files.readAllBytes(baselineFile), UTF_8)));
+        baseline.getJSONObject("appellant").put("lastName", "Changed");
+        baseline.put("appealDate", "2000-01-01");
+        Files.write(baselineFile, baseline.toString().getBytes(UTF_8));
+
+        ReplayReport replayed = new RoboticsReplay(roboticsService, baselines, 1, false).replay(input);
+
+        assertEquals(Collections.singletonList("2001 [/appellant/lastName]"), replayed.getMismatches());
+    }
+
+    @Test
+    public void givenNoBaseline_thenCountsItAsMissing() throws Exception {
+        ReplayReport replayed = new RoboticsReplay(roboticsService, baselines, 1, false)
+                .replay(writeNdjson(caseData("3001")));
+
+        assertEquals(1, replayed.getMissingBaselines());
+    }
+
+    @Test
+    public void givenMalformedSnapshot_thenCountsItAsFailedAndReplaysTheRest() throws Exception {
+        Path input = folder.newFile().toPath();
+        Files.write(input, (objectMapper.writeValueAsString(caseData("4001")) + "\n{not json\n"
+                + objectMapper.writeValueAsString(caseData("4002")) + "\n").getBytes(UTF_8));
+
+        ReplayReport replayed = new RoboticsReplay(roboticsService, baselines, 1, false).replay(input);
+
+        assertEquals(3, replayed.getCases());
+        assertEquals(2, replayed.getMissingBaselines());
+        assertEquals(1, replayed.getFailures().size());
+        assertTrue(replayed.getFailures().get(0).startsWith("line-2 "));
+    }
+
+    @Test
+    public void diffIgnoresVenueTakenFromBaseline() {
+        JSONObject expected = new JSONObject().put("appellantPostCode", "Bromley");
+        JSONObject actual = new JSONObject().put("appellantPostCode", "Replay");
+
+        assertTrue(RoboticsReplay.diff(expected, actual).isEmpty());
+    }
+
+    @Test
+    public void diffIgnoresAppealDateAndNumericTypes() {
+        JSONObject expected = new JSONObject("{\"caseId\":1,\"appealDate\":\"2018-01-01\"}");
+        JSONObject actual = new JSONObject().put("caseId", 1L).put("appealDate", "2019-01-01");
+
+        assertTrue(RoboticsReplay.diff(expected, actual).isEmpty());
+    }
+
+    private SscsCaseData caseData(String ccdCaseId) {
+        SscsCaseData caseData = buildCaseData();
+        caseData.setCcdCaseId(ccdCaseId);
+        return caseData;
+    }
+
+    private Path writeNdjson(SscsCaseData... cases) throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (SscsCaseData caseData : cases) {
+            ndjson.append(objectMapper.writeValueAsString(caseData)).append('\n');
+        }
+        Path input = folder.newFile().toPath();
+        Files.write(input, ndjson.toString().getBytes(UTF_8));
+        return input;
+    }
+}
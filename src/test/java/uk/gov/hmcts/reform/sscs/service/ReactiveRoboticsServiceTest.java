@@ -0,0 +1,205 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendRequest;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendResult;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage;
+import uk.gov.hmcts.reform.sscs.exception.RoboticsDeadlineExceededException;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.stub.LatencyDistribution;
+import uk.gov.hmcts.reform.sscs.stub.RoboticsStubs;
+import uk.gov.hmcts.reform.sscs.stub.StubEndpoint;
+
+public class ReactiveRoboticsServiceTest {
+
+    private ReactiveRoboticsService service;
+
+    @After
+    public void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    public void givenCases_thenEmailsAndAttachesEachOne() {
+        StubEndpoint email = StubEndpoint.instant("email");
+        StubEndpoint ccd = StubEndpoint.instant("ccd");
+        service = service(new RoboticsStubs(email, StubEndpoint.instant("documentUpload"), ccd,
+                StubEndpoint.instant("airLookup")), 4);
+
+        List<RoboticsSendResult> results = service.sendCases(requests(20)).collectList().block();
+
+        assertEquals(20, results.size());
+        for (RoboticsSendResult result : results) {
+            assertTrue(result.isSuccess());
+            assertNotNull(result.getPayload());
+        }
+        assertEquals(20, email.getCalls());
+        assertEquals(20, ccd.getCalls());
+    }
+
+    @Test
+    public void givenEmailFails_thenEachCaseReportsTheStageAndTheStreamCarriesOn() {
+        StubEndpoint ccd = StubEndpoint.instant("ccd");
+        service = service(new RoboticsStubs(new StubEndpoint("email", LatencyDistribution.none(), 1),
+                StubEndpoint.instant("documentUpload"), ccd, StubEndpoint.instant("airLookup")), 4);
+
+        List<RoboticsSendResult> results = service.sendCases(requests(5)).collectList().block();
+
+        assertEquals(5, results.size());
+        for (RoboticsSendResult result : results) {
+            assertEquals(RoboticsSendStage.EMAIL, result.getFailedStage());
+            assertNotNull(result.getPayload());
+        }
+        assertEquals(0, ccd.getCalls());
+    }
+
+    @Test
+    public void givenSlowEmail_thenIntakeIsLimitedByTheStageConcurrency() {
+        StubEndpoint email = new StubEndpoint("email", LatencyDistribution.fixed(Duration.ofMillis(10)), 0);
+        service = service(new RoboticsStubs(email, StubEndpoint.instant("documentUpload"),
+                StubEndpoint.instant("ccd"), StubEndpoint.instant("airLookup")), 2);
+        AtomicInteger requested = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        service.sendCases(requests(40).doOnNext(r -> {
+            int inFlight = requested.incrementAndGet() - finished.get();
+            maxInFlight.accumulateAndGet(inFlight, Math::max);
+        })).doOnNext(r -> finished.incrementAndGet()).blockLast();
+
+        assertEquals(40, finished.get());
+        // four stages of two, each holding at most one finished case waiting for the next stage
+        assertTrue("max in flight " + maxInFlight.get(), maxInFlight.get() <= 16);
+    }
+
+    @Test
+    public void givenSubscriberStopsRequesting_thenNoMoreCasesAreTaken() throws InterruptedException {
+        service = service(RoboticsStubs.instant(), 2);
+        AtomicInteger requested = new AtomicInteger();
+        AtomicInteger received = new AtomicInteger();
+
+        service.sendCases(requests(100).doOnNext(r -> requested.incrementAndGet()))
+                .subscribe(new BaseSubscriber<RoboticsSendResult>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        subscription.request(3);
+                    }
+
+                    @Override
+                    protected void hookOnNext(RoboticsSendResult value) {
+                        received.incrementAndGet();
+                    }
+                });
+        Thread.sleep(500);
+
+        assertEquals(3, received.get());
+        assertTrue("requested " + requested.get(), requested.get() <= 3 + 16);
+    }
+
+    @Test
+    public void givenBudgetHasRunOut_thenNoStageIsStarted() {
+        StubEndpoint airLookup = StubEndpoint.instant("airLookup");
+        StubEndpoint email = StubEndpoint.instant("email");
+        service = service(new RoboticsStubs(email, StubEndpoint.instant("documentUpload"),
+                StubEndpoint.instant("ccd"), airLookup), 2);
+
+        List<RoboticsSendResult> results = service.sendCases(requests(3, Duration.ZERO)).collectList().block();
+
+        for (RoboticsSendResult result : results) {
+            assertEquals(RoboticsSendStage.AIR_LOOKUP, result.getFailedStage());
+            assertTrue(result.getError() instanceof RoboticsDeadlineExceededException);
+        }
+        assertEquals(0, airLookup.getCalls());
+        assertEquals(0, email.getCalls());
+    }
+
+    @Test
+    public void givenEmailOverrunsTheBudget_thenTheCaseIsNotAttachedInCcd() {
+        StubEndpoint documentUpload = StubEndpoint.instant("documentUpload");
+        StubEndpoint ccd = StubEndpoint.instant("ccd");
+        service = service(new RoboticsStubs(
+                new StubEndpoint("email", LatencyDistribution.fixed(Duration.ofMillis(100)), 0),
+                documentUpload, ccd, StubEndpoint.instant("airLookup")), 2);
+
+        List<RoboticsSendResult> results = service.sendCases(requests(2, Duration.ofMillis(50))).collectList()
+                .block();
+
+        for (RoboticsSendResult result : results) {
+            assertFalse(result.isSuccess());
+            assertTrue(result.getError() instanceof RoboticsDeadlineExceededException);
+            assertNotNull(result.getPayload());
+        }
+        assertEquals(0, documentUpload.getCalls());
+        assertEquals(0, ccd.getCalls());
+    }
+
+    @Test
+    public void givenReactiveSendingIsNotEnabled_thenNoServiceIsCreated() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(ReactiveRoboticsService.class);
+            context.refresh();
+
+            assertEquals(0, context.getBeanNamesForType(ReactiveRoboticsService.class).length);
+        }
+    }
+
+    @Test
+    public void givenReactiveSendingIsEnabled_thenIsCreated() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test",
+                singletonMap("robotics.reactive.enabled", "true")));
+        ConditionContext context = mock(ConditionContext.class);
+        given(context.getEnvironment()).willReturn(environment);
+        given(context.getClassLoader()).willReturn(getClass().getClassLoader());
+
+        assertTrue(new ReactiveRoboticsService.ReactorEnabled().matches(context, null));
+    }
+
+    private static ReactiveRoboticsService service(RoboticsStubs stubs, int concurrency) {
+        return new ReactiveRoboticsService(stubs.roboticsService(new RoboticsJsonMapper(false),
+                new RoboticsJsonValidator("/schema/sscs-robotics.json")),
+                concurrency, concurrency, concurrency, concurrency);
+    }
+
+    private static Flux<RoboticsSendRequest> requests(int count) {
+        return requests(count, null);
+    }
+
+    private static Flux<RoboticsSendRequest> requests(int count, Duration budget) {
+        return Flux.range(0, count).map(i -> {
+            SscsCaseData caseData = buildCaseData();
+            long caseId = 1_000_000L + i;
+            return RoboticsSendRequest.builder()
+                    .sscsCaseData(caseData).caseId(caseId).postcode("AB12 XYZ").pdf(new byte[1024])
+                    .idamTokens(RoboticsStubs.idamTokens())
+                    .caseDetails(SscsCaseDetails.builder().id(caseId).data(caseData).build())
+                    .budget(budget)
+                    .build();
+        });
+    }
+}
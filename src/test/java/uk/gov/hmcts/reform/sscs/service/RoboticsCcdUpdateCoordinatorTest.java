@@ -0,0 +1,237 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+import uk.gov.hmcts.reform.sscs.ccd.domain.DocumentLink;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsDocument;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsDocumentDetails;
+
+public class RoboticsCcdUpdateCoordinatorTest {
+
+    private final RoboticsCcdUpdateCoordinator coordinator = new RoboticsCcdUpdateCoordinator();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void givenNoConcurrentAttach_thenUpdatesTheCaseDataAsGiven() {
+        SscsCaseData caseData = caseDataWith("doc-1");
+        List<SscsCaseData> updated = new ArrayList<>();
+
+        coordinator.attach(1L, caseData, caseData.getSscsDocument().get(0), updated::add);
+
+        assertEquals(1, updated.size());
+        assertSame(caseData, updated.get(0));
+        assertEquals(1, coordinator.getUpdates());
+        assertEquals(0, coordinator.getConflicts());
+    }
+
+    @Test
+    public void givenAttachesWhileAnUpdateIsInFlight_thenMergesThemIntoOneUpdate() throws Exception {
+        CountDownLatch firstUpdateStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstUpdate = new CountDownLatch(1);
+        AtomicInteger concurrentUpdates = new AtomicInteger();
+        List<SscsCaseData> updated = new ArrayList<>();
+        Consumer<SscsCaseData> updateCase = caseData -> {
+            assertEquals(1, concurrentUpdates.incrementAndGet());
+            if (updated.isEmpty()) {
+                firstUpdateStarted.countDown();
+                await(releaseFirstUpdate);
+            }
+            updated.add(caseData);
+            concurrentUpdates.decrementAndGet();
+        };
+
+        List<Future<?>> attaches = new ArrayList<>();
+        attaches.add(attachAsync(1L, "doc-1", updateCase));
+        firstUpdateStarted.await(5, TimeUnit.SECONDS);
+        for (int i = 2; i <= 4; i++) {
+            attaches.add(attachAsync(1L, "doc-" + i, updateCase));
+        }
+        awaitConflicts(3);
+        releaseFirstUpdate.countDown();
+        for (Future<?> attach : attaches) {
+            attach.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(2, updated.size());
+        assertEquals(2, coordinator.getUpdates());
+        assertEquals(2, coordinator.getMerged());
+        assertEquals(3, coordinator.getConflicts());
+        List<String> mergedLinks = updated.get(1).getSscsDocument().stream()
+                .map(document -> document.getValue().getDocumentLink().getDocumentUrl())
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("doc-1", "doc-2", "doc-3", "doc-4"), mergedLinks);
+    }
+
+    @Test
+    public void givenOneAttachQueuedBehindAnother_thenTheFinalUpdateCarriesBothDocuments() throws Exception {
+        CountDownLatch firstUpdateStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstUpdate = new CountDownLatch(1);
+        List<SscsCaseData> updated = new ArrayList<>();
+        Consumer<SscsCaseData> updateCase = caseData -> {
+            if (updated.isEmpty()) {
+                firstUpdateStarted.countDown();
+                await(releaseFirstUpdate);
+            }
+            updated.add(caseData);
+        };
+
+        final Future<?> first = attachAsync(1L, "doc-1", updateCase);
+        firstUpdateStarted.await(5, TimeUnit.SECONDS);
+        final Future<?> second = attachAsync(1L, "doc-2", updateCase);
+        awaitConflicts(1);
+        releaseFirstUpdate.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, updated.size());
+        assertEquals(Arrays.asList("doc-2", "doc-1"), updated.get(1).getSscsDocument().stream()
+                .map(document -> document.getValue().getDocumentLink().getDocumentUrl())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void givenAttachesKeepArriving_thenEachCallerRunsAtMostOneUpdate() throws Exception {
+        CountDownLatch firstUpdateStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstUpdate = new CountDownLatch(1);
+        CountDownLatch secondUpdateStarted = new CountDownLatch(1);
+        CountDownLatch releaseSecondUpdate = new CountDownLatch(1);
+        List<String> updatingThreads = new ArrayList<>();
+        Consumer<SscsCaseData> updateCase = caseData -> {
+            updatingThreads.add(Thread.currentThread().getName());
+            if (updatingThreads.size() == 1) {
+                firstUpdateStarted.countDown();
+                await(releaseFirstUpdate);
+            } else if (updatingThreads.size() == 2) {
+                secondUpdateStarted.countDown();
+                await(releaseSecondUpdate);
+            }
+        };
+
+        final Future<?> first = attachAsync(1L, "doc-1", updateCase);
+        firstUpdateStarted.await(5, TimeUnit.SECONDS);
+        final Future<?> second = attachAsync(1L, "doc-2", updateCase);
+        awaitConflicts(1);
+        releaseFirstUpdate.countDown();
+        secondUpdateStarted.await(5, TimeUnit.SECONDS);
+        final Future<?> third = attachAsync(1L, "doc-3", updateCase);
+        awaitConflicts(2);
+
+        first.get(5, TimeUnit.SECONDS);
+        releaseSecondUpdate.countDown();
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, updatingThreads.size());
+        assertNotEquals(updatingThreads.get(0), updatingThreads.get(1));
+    }
+
+    @Test
+    public void differentCasesUpdateInParallel() throws Exception {
+        CyclicBarrier bothInFlight = new CyclicBarrier(2);
+        Consumer<SscsCaseData> updateCase = caseData -> {
+            try {
+                bothInFlight.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        Future<?> first = attachAsync(1L, "doc-1", updateCase);
+        Future<?> second = attachAsync(2L, "doc-2", updateCase);
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, coordinator.getConflicts());
+    }
+
+    @Test
+    public void givenTheMergedUpdateFails_thenEveryMergedAttachFails() throws Exception {
+        CountDownLatch firstUpdateStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstUpdate = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Consumer<SscsCaseData> updateCase = caseData -> {
+            if (calls.incrementAndGet() == 1) {
+                firstUpdateStarted.countDown();
+                await(releaseFirstUpdate);
+            } else {
+                throw new IllegalStateException("CCD conflict");
+            }
+        };
+
+        final Future<?> first = attachAsync(1L, "doc-1", updateCase);
+        firstUpdateStarted.await(5, TimeUnit.SECONDS);
+        final Future<?> second = attachAsync(1L, "doc-2", updateCase);
+        final Future<?> third = attachAsync(1L, "doc-3", updateCase);
+        awaitConflicts(2);
+        releaseFirstUpdate.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        for (Future<?> failed : Arrays.asList(second, third)) {
+            try {
+                failed.get(5, TimeUnit.SECONDS);
+                fail("Expected the merged update to fail");
+            } catch (ExecutionException e) {
+                assertEquals("CCD conflict", e.getCause().getMessage());
+            }
+        }
+
+        coordinator.attach(1L, caseDataWith("doc-4"), null, caseData -> { });
+        assertEquals(3, coordinator.getUpdates());
+    }
+
+    private Future<?> attachAsync(Long caseId, String documentUrl, Consumer<SscsCaseData> updateCase) {
+        SscsCaseData caseData = caseDataWith(documentUrl);
+        return executor.submit(() -> coordinator.attach(caseId, caseData, caseData.getSscsDocument().get(0),
+                updateCase));
+    }
+
+    private void awaitConflicts(int conflicts) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coordinator.getConflicts() < conflicts && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(conflicts, coordinator.getConflicts());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SscsCaseData caseDataWith(String documentUrl) {
+        List<SscsDocument> documents = new ArrayList<>();
+        documents.add(new SscsDocument(SscsDocumentDetails.builder()
+                .documentFileName("robotics_json.txt")
+                .documentLink(DocumentLink.builder().documentUrl(documentUrl).build())
+                .build()));
+        return SscsCaseData.builder().sscsDocument(documents).build();
+    }
+}
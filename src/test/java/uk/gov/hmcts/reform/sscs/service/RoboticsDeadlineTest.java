@@ -0,0 +1,162 @@
+package uk.gov.hmcts.reform.sscs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsSendStage;
+import uk.gov.hmcts.reform.sscs.exception.RoboticsDeadlineExceededException;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.stub.LatencyDistribution;
+import uk.gov.hmcts.reform.sscs.stub.RoboticsStubs;
+import uk.gov.hmcts.reform.sscs.stub.StubEndpoint;
+import uk.gov.hmcts.reform.sscs.stub.StubFailureException;
+
+public class RoboticsDeadlineTest {
+
+    private final SscsCaseData caseData = buildCaseData();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final StubEndpoint email = StubEndpoint.instant("email");
+    private final StubEndpoint ccd = StubEndpoint.instant("ccd");
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void givenEnoughBudget_thenRecordsTimePerStage() {
+        RoboticsService service = service(StubEndpoint.instant("airLookup"), email);
+        RoboticsDeadline deadline = RoboticsDeadline.after(Duration.ofSeconds(30));
+
+        RoboticsPayload payload = service.sendPayloadToRobotics(caseData, 123L, "AB12 XYZ", null,
+                Collections.emptyMap(), deadline);
+        service.attachRoboticsJsonToCaseInCcd(payload, caseData, RoboticsStubs.idamTokens(),
+                SscsCaseDetails.builder().id(123L).data(caseData).build(), deadline);
+
+        assertEquals(1, email.getCalls());
+        assertEquals(1, ccd.getCalls());
+        assertEquals(5, deadline.getStageTimings().size());
+    }
+
+    @Test
+    public void givenSlowLookup_thenStopsBeforeMappingAndBlamesTheLookup() {
+        RoboticsService service = service(
+                new StubEndpoint("airLookup", LatencyDistribution.fixed(Duration.ofMillis(80)), 0), email);
+
+        try {
+            service.sendPayloadToRobotics(caseData, 123L, "AB12 XYZ", null, Collections.emptyMap(),
+                    RoboticsDeadline.after(Duration.ofMillis(40)));
+            fail("Expected RoboticsDeadlineExceededException");
+        } catch (RoboticsDeadlineExceededException e) {
+            assertEquals(RoboticsSendStage.MAP_AND_VALIDATE, e.getStage());
+            assertEquals(RoboticsSendStage.AIR_LOOKUP, e.getSlowestStage());
+            assertFalse(e.isCancelled());
+        }
+        assertEquals(0, email.getCalls());
+    }
+
+    @Test
+    public void givenSlowEmail_thenSendsItOnceAndStopsBeforeTheUpload() {
+        StubEndpoint slowEmail = new StubEndpoint("email", LatencyDistribution.fixed(Duration.ofMillis(200)), 0);
+        StubEndpoint documentUpload = StubEndpoint.instant("documentUpload");
+        RoboticsService service = service(StubEndpoint.instant("airLookup"), slowEmail, documentUpload);
+        RoboticsDeadline deadline = RoboticsDeadline.after(Duration.ofMillis(100));
+
+        RoboticsPayload payload = service.sendPayloadToRobotics(caseData, 123L, "AB12 XYZ", null,
+                Collections.emptyMap(), deadline);
+        try {
+            service.attachRoboticsJsonToCaseInCcd(payload, caseData, RoboticsStubs.idamTokens(),
+                    SscsCaseDetails.builder().id(123L).data(caseData).build(), deadline);
+            fail("Expected RoboticsDeadlineExceededException");
+        } catch (RoboticsDeadlineExceededException e) {
+            assertEquals(RoboticsSendStage.DM_UPLOAD, e.getStage());
+            assertEquals(RoboticsSendStage.EMAIL, e.getSlowestStage());
+            assertFalse(e.isCancelled());
+        }
+        assertEquals(1, slowEmail.getCalls());
+        assertEquals(0, documentUpload.getCalls());
+    }
+
+    @Test
+    public void givenCancelledDuringEmail_thenFinishesTheEmailAndStopsAfterIt() {
+        StubEndpoint slowEmail = new StubEndpoint("email", LatencyDistribution.fixed(Duration.ofMillis(200)), 0);
+        StubEndpoint documentUpload = StubEndpoint.instant("documentUpload");
+        RoboticsService service = service(StubEndpoint.instant("airLookup"), slowEmail, documentUpload);
+        RoboticsDeadline deadline = RoboticsDeadline.after(Duration.ofSeconds(30));
+        scheduler.schedule(deadline::cancel, 50, TimeUnit.MILLISECONDS);
+
+        RoboticsPayload payload = service.sendPayloadToRobotics(caseData, 123L, "AB12 XYZ", null,
+                Collections.emptyMap(), deadline);
+        try {
+            service.attachRoboticsJsonToCaseInCcd(payload, caseData, RoboticsStubs.idamTokens(),
+                    SscsCaseDetails.builder().id(123L).data(caseData).build(), deadline);
+            fail("Expected RoboticsDeadlineExceededException");
+        } catch (RoboticsDeadlineExceededException e) {
+            assertEquals(RoboticsSendStage.DM_UPLOAD, e.getStage());
+            assertTrue(e.isCancelled());
+            assertTrue(e.getMessage().startsWith("Robotics case cancelled at DM_UPLOAD"));
+        }
+        assertEquals(1, slowEmail.getCalls());
+        assertEquals(0, documentUpload.getCalls());
+    }
+
+    @Test
+    public void givenCancelledBeforeStarting_thenNothingRuns() {
+        StubEndpoint airLookup = StubEndpoint.instant("airLookup");
+        RoboticsService service = service(airLookup, email);
+        RoboticsDeadline deadline = RoboticsDeadline.after(Duration.ofSeconds(30));
+        deadline.cancel();
+
+        try {
+            service.sendCaseToRobotics(caseData, 123L, "AB12 XYZ", null, Collections.emptyMap(), deadline);
+            fail("Expected RoboticsDeadlineExceededException");
+        } catch (RoboticsDeadlineExceededException e) {
+            assertEquals(RoboticsSendStage.AIR_LOOKUP, e.getStage());
+            assertTrue(e.getStageTimings().isEmpty());
+        }
+        assertEquals(0, airLookup.getCalls());
+    }
+
+    @Test(expected = StubFailureException.class)
+    public void remoteCallFailuresArePassedOnUnchanged() {
+        RoboticsService service = service(StubEndpoint.instant("airLookup"),
+                new StubEndpoint("email", LatencyDistribution.none(), 1));
+
+        service.sendPayloadToRobotics(caseData, 123L, "AB12 XYZ", null, Collections.emptyMap(),
+                RoboticsDeadline.after(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    public void noDeadlineNeverExpiresAndKeepsNoTimings() {
+        RoboticsDeadline none = RoboticsDeadline.none();
+        none.cancel();
+
+        assertEquals("done", none.run(RoboticsSendStage.AIR_LOOKUP, () -> "done"));
+        assertFalse(none.isBounded());
+        assertFalse(none.isCancelled());
+        assertTrue(none.getStageTimings().isEmpty());
+    }
+
+    private RoboticsService service(StubEndpoint airLookup, StubEndpoint email) {
+        return service(airLookup, email, StubEndpoint.instant("documentUpload"));
+    }
+
+    private RoboticsService service(StubEndpoint airLookup, StubEndpoint email, StubEndpoint documentUpload) {
+        return new RoboticsStubs(email, documentUpload, ccd, airLookup)
+                .roboticsService(new RoboticsJsonMapper(false), new RoboticsJsonValidator("/schema/sscs-robotics.json"));
+    }
+}
@@ -1,5 +1,8 @@
 package uk.gov.hmcts.reform.sscs.service;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
@@ -7,11 +10,17 @@ import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.*;
 
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import org.json.JSONObject;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
+import org.springframework.web.multipart.MultipartFile;
 import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
 import uk.gov.hmcts.reform.document.DocumentUploadClientApi;
 import uk.gov.hmcts.reform.document.domain.Document;
@@ -19,7 +28,12 @@ import uk.gov.hmcts.reform.document.domain.UploadResponse;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
 import uk.gov.hmcts.reform.sscs.ccd.service.CcdService;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
 import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.json.RoboticsPayloadWriter;
+import uk.gov.hmcts.reform.sscs.spool.RoboticsUploadSpool;
+import uk.gov.hmcts.reform.sscs.spool.RoboticsUploadSpool.Replay;
+import uk.gov.hmcts.reform.sscs.spool.SpooledUpload;
 
 public class RoboticsJsonUploadServiceTest {
 
@@ -43,6 +57,9 @@ public class RoboticsJsonUploadServiceTest {
 
     private RoboticsJsonUploadService service;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void setup() {
         initMocks(this);
@@ -77,6 +94,132 @@ public class RoboticsJsonUploadServiceTest {
         verify(ccdService, times(1)).updateCase(any(), any(), any(), any(), any(), any());
     }
 
+    @Test
+    public void willUpdateCaseWithRoboticsPayload() {
+
+        UploadResponse uploadResponse = createUploadResponse();
+        given(documentUploadClientApi.upload(
+                eq(DUMMY_OAUTH_2_TOKEN),
+                eq(DUMMY_SERVICE_AUTHORIZATION_TOKEN),
+                anyString(),
+                any())).willReturn(uploadResponse);
+
+        SscsCaseData caseData = buildCaseData();
+        SscsCaseDetails caseDetails = convertCaseDetailsToSscsCaseDetails(buildCaseDetails());
+        service
+                .updateCaseWithRoboticsJson(
+                        RoboticsPayload.builder().caseCode("002DD").build(),
+                        caseData,
+                        caseDetails,
+                        idamTokens);
+
+        verify(ccdService, times(1)).updateCase(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void uploadsTheSameBytesAsTheWrittenPayload() {
+        RoboticsPayload payload = RoboticsPayload.builder().caseCode("002DD").caseId(123L).appealDate("2019-01-01")
+                .build();
+        List<byte[]> uploaded = new ArrayList<>();
+        UploadResponse uploadResponse = createUploadResponse();
+        given(documentUploadClientApi.upload(
+                eq(DUMMY_OAUTH_2_TOKEN),
+                eq(DUMMY_SERVICE_AUTHORIZATION_TOKEN),
+                anyString(),
+                any())).willAnswer(invocation -> {
+                    List<MultipartFile> files = invocation.getArgument(3);
+                    uploaded.add(files.get(0).getBytes());
+                    return uploadResponse;
+                });
+
+        service.updateCaseWithRoboticsJson(payload, buildCaseData(),
+                convertCaseDetailsToSscsCaseDetails(buildCaseDetails()), idamTokens);
+
+        assertEquals(1, uploaded.size());
+        assertArrayEquals(RoboticsPayloadWriter.write(payload).getBytes(UTF_8), uploaded.get(0));
+    }
+
+    @Test
+    public void givenDocumentStoreDown_thenSpoolsTheUploadAndReplaysItLater() throws Exception {
+        RoboticsUploadSpool spool = new RoboticsUploadSpool(true, folder.getRoot().toPath(), 1024 * 1024,
+                Clock.systemUTC());
+        service = new RoboticsJsonUploadService(documentUploadClientApi, authTokenGenerator, ccdService,
+                new RoboticsCcdUpdateCoordinator(), spool);
+        RoboticsPayload payload = RoboticsPayload.builder().caseCode("002DD").build();
+        SscsCaseDetails caseDetails = convertCaseDetailsToSscsCaseDetails(buildCaseDetails());
+        given(documentUploadClientApi.upload(any(), any(), any(), any())).willReturn(null);
+
+        service.updateCaseWithRoboticsJson(payload, buildCaseData(), caseDetails, idamTokens);
+
+        verify(ccdService, never()).updateCase(any(), any(), any(), any(), any(), any());
+        assertEquals(1, spool.getDepth());
+
+        List<byte[]> uploaded = new ArrayList<>();
+        UploadResponse uploadResponse = createUploadResponse();
+        given(documentUploadClientApi.upload(any(), any(), any(), any())).willAnswer(invocation -> {
+            List<MultipartFile> files = invocation.getArgument(3);
+            uploaded.add(files.get(0).getBytes());
+            return uploadResponse;
+        });
+        given(ccdService.getByCaseId(eq(caseDetails.getId()), any())).willReturn(caseDetails);
+
+        assertEquals(1, spool.drain(10, upload -> service.replaySpooledUpload(upload, idamTokens)));
+
+        assertArrayEquals(RoboticsPayloadWriter.write(payload).getBytes(UTF_8), uploaded.get(0));
+        verify(ccdService).updateCase(eq(caseDetails.getData()), eq(caseDetails.getId()), eq("attachRoboticsJson"),
+                any(), any(), eq(idamTokens));
+        assertEquals(0, spool.getDepth());
+    }
+
+    @Test
+    public void givenUploadThrows_thenSpoolsTheUpload() {
+        RoboticsUploadSpool spool = new RoboticsUploadSpool(true, folder.getRoot().toPath(), 1024 * 1024,
+                Clock.systemUTC());
+        service = new RoboticsJsonUploadService(documentUploadClientApi, authTokenGenerator, ccdService,
+                new RoboticsCcdUpdateCoordinator(), spool);
+        given(documentUploadClientApi.upload(any(), any(), any(), any()))
+                .willThrow(new IllegalStateException("dm-store unavailable"));
+
+        service.updateCaseWithRoboticsJson(RoboticsPayload.builder().caseCode("002DD").build(), buildCaseData(),
+                convertCaseDetailsToSscsCaseDetails(buildCaseDetails()), idamTokens);
+
+        verify(ccdService, never()).updateCase(any(), any(), any(), any(), any(), any());
+        assertEquals(1, spool.getDepth());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenUploadThrowsWithSpoolDisabled_thenFails() {
+        given(documentUploadClientApi.upload(any(), any(), any(), any()))
+                .willThrow(new IllegalStateException("dm-store unavailable"));
+
+        service.updateCaseWithRoboticsJson(RoboticsPayload.builder().caseCode("002DD").build(), buildCaseData(),
+                convertCaseDetailsToSscsCaseDetails(buildCaseDetails()), idamTokens);
+    }
+
+    @Test
+    public void givenSpooledUploadThrows_thenReplayRetriesLater() {
+        SscsCaseDetails caseDetails = convertCaseDetailsToSscsCaseDetails(buildCaseDetails());
+        given(ccdService.getByCaseId(eq(caseDetails.getId()), any())).willReturn(caseDetails);
+        given(documentUploadClientApi.upload(any(), any(), any(), any()))
+                .willThrow(new IllegalStateException("dm-store unavailable"));
+        SpooledUpload upload = SpooledUpload.builder().caseId(caseDetails.getId()).json("{}".getBytes(UTF_8))
+                .build();
+
+        assertEquals(Replay.RETRY_LATER, service.replaySpooledUpload(upload, idamTokens));
+
+        verify(ccdService, never()).updateCase(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void givenSpooledCaseNoLongerInCcd_thenReplayMovesItToTheDeadLetters() {
+        SpooledUpload upload = SpooledUpload.builder().caseId(404L).json("{}".getBytes(UTF_8)).build();
+        given(ccdService.getByCaseId(eq(404L), any())).willReturn(null);
+
+        assertEquals(Replay.DEAD_LETTER, service.replaySpooledUpload(upload, idamTokens));
+
+        verify(documentUploadClientApi, never()).upload(any(), any(), any(), any());
+    }
+
     private UploadResponse createUploadResponse() {
         UploadResponse response = mock(UploadResponse.class);
         UploadResponse.Embedded embedded = mock(UploadResponse.Embedded.class);
@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.sscs.service;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
@@ -11,8 +12,13 @@ import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
@@ -24,12 +30,20 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
+import org.springframework.util.StreamUtils;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategyRegistry;
 import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
 import uk.gov.hmcts.reform.sscs.domain.email.EmailAttachment;
 import uk.gov.hmcts.reform.sscs.domain.email.RoboticsEmailTemplate;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
 import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.emailid.RoboticsEmailIdAllocator;
+import uk.gov.hmcts.reform.sscs.evidence.RoboticsEvidencePipeline;
+import uk.gov.hmcts.reform.sscs.exception.EvidenceRejectedException;
 import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
 import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.json.RoboticsPayloadWriter;
+import uk.gov.hmcts.reform.sscs.limiter.RoboticsEmailLimiter;
 import uk.gov.hmcts.reform.sscs.model.AirlookupBenefitToVenue;
 
 @RunWith(JUnitParamsRunner.class)
@@ -58,6 +72,9 @@ public class RoboticsServiceTest {
 
     private RoboticsService service;
 
+    private final RoboticsPayload mappedPayload = RoboticsPayload.builder()
+            .caseCode("002DD").caseId(123L).hearingType("Paper").build();
+
     @Captor
     private ArgumentCaptor<List<EmailAttachment>> captor;
 
@@ -104,9 +121,7 @@ public class RoboticsServiceTest {
                 buildCaseData().getRegionalProcessingCenter().toBuilder().name(rpcName.equals("null") ? null : rpcName).build()
         ).build();
 
-        JSONObject mappedJson = mock(JSONObject.class);
-
-        given(roboticsJsonMapper.map(any())).willReturn(mappedJson);
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
 
         given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
 
@@ -124,8 +139,8 @@ public class RoboticsServiceTest {
         assertThat(attachmentResult.get(0).getFilename(), is("Bloggs_123.txt"));
         assertThat(attachmentResult.get(1).getFilename(), is("Bloggs_123.pdf"));
 
-        verify(roboticsJsonMapper).map(any());
-        verify(roboticsJsonValidator).validate(mappedJson);
+        verify(roboticsJsonMapper).mapToPayload(any());
+        verify(roboticsJsonValidator).validate(mappedPayload);
         verify(emailService).sendEmail(any());
     }
 
@@ -134,9 +149,7 @@ public class RoboticsServiceTest {
 
         SscsCaseData appeal = buildCaseData();
 
-        JSONObject mappedJson = mock(JSONObject.class);
-
-        given(roboticsJsonMapper.map(any())).willReturn(mappedJson);
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
 
         given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
 
@@ -149,8 +162,8 @@ public class RoboticsServiceTest {
 
         assertThat(attachmentResult.size(), is(1));
         assertThat(attachmentResult.get(0).getFilename(), is("Bloggs_123.txt"));
-        verify(roboticsJsonMapper).map(any());
-        verify(roboticsJsonValidator).validate(mappedJson);
+        verify(roboticsJsonMapper).mapToPayload(any());
+        verify(roboticsJsonValidator).validate(mappedPayload);
         verify(emailService).sendEmail(any());
     }
 
@@ -159,9 +172,7 @@ public class RoboticsServiceTest {
 
         SscsCaseData appeal = buildCaseData();
 
-        JSONObject mappedJson = mock(JSONObject.class);
-
-        given(roboticsJsonMapper.map(any())).willReturn(mappedJson);
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
 
         given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
 
@@ -180,8 +191,8 @@ public class RoboticsServiceTest {
         assertThat(attachmentResult.get(1).getFilename(), is("Bloggs_123.pdf"));
         assertThat(attachmentResult.get(2).getFilename(), is("Some Evidence.doc"));
 
-        verify(roboticsJsonMapper).map(any());
-        verify(roboticsJsonValidator).validate(mappedJson);
+        verify(roboticsJsonMapper).mapToPayload(any());
+        verify(roboticsJsonValidator).validate(mappedPayload);
         verify(emailService).sendEmail(any());
     }
 
@@ -190,9 +201,7 @@ public class RoboticsServiceTest {
 
         SscsCaseData appeal = buildCaseData();
 
-        JSONObject mappedJson = mock(JSONObject.class);
-
-        given(roboticsJsonMapper.map(any())).willReturn(mappedJson);
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
 
         given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
 
@@ -210,8 +219,8 @@ public class RoboticsServiceTest {
         assertThat(attachmentResult.get(0).getFilename(), is("Bloggs_123.txt"));
         assertThat(attachmentResult.get(1).getFilename(), is("Bloggs_123.pdf"));
 
-        verify(roboticsJsonMapper).map(any());
-        verify(roboticsJsonValidator).validate(mappedJson);
+        verify(roboticsJsonMapper).mapToPayload(any());
+        verify(roboticsJsonValidator).validate(mappedPayload);
         verify(emailService).sendEmail(any());
     }
 
@@ -220,9 +229,7 @@ public class RoboticsServiceTest {
 
         SscsCaseData appeal = buildCaseData();
 
-        JSONObject mappedJson = mock(JSONObject.class);
-
-        given(roboticsJsonMapper.map(any())).willReturn(mappedJson);
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
 
         given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
 
@@ -239,8 +246,8 @@ public class RoboticsServiceTest {
         assertThat(attachmentResult.get(0).getFilename(), is("Bloggs_123.txt"));
         assertThat(attachmentResult.get(1).getFilename(), is("Bloggs_123.pdf"));
 
-        verify(roboticsJsonMapper).map(any());
-        verify(roboticsJsonValidator).validate(mappedJson);
+        verify(roboticsJsonMapper).mapToPayload(any());
+        verify(roboticsJsonValidator).validate(mappedPayload);
         verify(emailService).sendEmail(any());
     }
 
@@ -249,9 +256,7 @@ public class RoboticsServiceTest {
 
         SscsCaseData appeal = buildCaseData();
 
-        JSONObject mappedJson = mock(JSONObject.class);
-
-        given(roboticsJsonMapper.map(any())).willReturn(mappedJson);
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
 
         given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
 
@@ -259,6 +264,93 @@ public class RoboticsServiceTest {
 
         JSONObject roboticsJson = service.sendCaseToRobotics(appeal, 123L, "AB12 XYZ", null);
 
-        assertThat(roboticsJson, is(mappedJson));
+        assertTrue(roboticsJson.similar(RoboticsPayloadWriter.toJsonObject(mappedPayload)));
+    }
+
+    @Test
+    public void generatingRoboticsAttachesTheWrittenPayload() throws IOException {
+
+        SscsCaseData appeal = buildCaseData();
+
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
+
+        given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
+
+        given(emailService.generateUniqueEmailId(appeal.getAppeal().getAppellant())).willReturn("Bloggs_123");
+
+        RoboticsPayload roboticsPayload = service.sendPayloadToRobotics(appeal, 123L, "AB12 XYZ", null, Collections.emptyMap());
+
+        verify(roboticsEmailTemplate).generateEmail(eq("Bloggs_123"), captor.capture(), eq(NOT_SCOTTISH));
+        assertThat(roboticsPayload, is(mappedPayload));
+        assertEquals(RoboticsPayloadWriter.write(mappedPayload),
+                StreamUtils.copyToString(captor.getValue().get(0).getData().getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void createValidRoboticsPayload() {
+
+        RoboticsWrapper appeal =
+            RoboticsWrapper
+                .builder()
+                .sscsCaseData(buildCaseData())
+                .ccdCaseId(123L).venueName("Bromley")
+                .build();
+
+        given(roboticsJsonMapper.mapToPayload(appeal)).willReturn(mappedPayload);
+
+        RoboticsPayload actualRoboticsPayload = service.createRoboticsPayload(appeal);
+
+        then(roboticsJsonValidator).should(times(1)).validate(mappedPayload);
+
+        assertEquals(mappedPayload, actualRoboticsPayload);
+    }
+
+    @Test
+    public void givenEmailLimiter_thenSendsTheEmailThroughIt() {
+        RoboticsEmailLimiter limiter = new RoboticsEmailLimiter(true, 1, 1, 4, 2.0, 0.9);
+        service = new RoboticsService(airlookupService, emailService, roboticsJsonMapper, roboticsJsonValidator,
+                roboticsEmailTemplate, roboticsJsonUploadService, BenefitStrategyRegistry.defaultRegistry(),
+                RoboticsEmailIdAllocator.legacy(emailService), limiter, RoboticsEvidencePipeline.passThrough());
+        final SscsCaseData appeal = buildCaseData();
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
+        given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
+        List<Integer> inFlightWhileSending = new ArrayList<>();
+        doAnswer(invocation -> inFlightWhileSending.add(limiter.getInFlight())).when(emailService).sendEmail(any());
+
+        service.sendPayloadToRobotics(appeal, 123L, "AB12 XYZ", null, Collections.emptyMap());
+
+        assertEquals(Collections.singletonList(1), inFlightWhileSending);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void givenEvidencePipeline_thenAttachesTheEvidenceItPassesOn() {
+        RoboticsEvidencePipeline pipeline = new RoboticsEvidencePipeline(Collections.singletonList(evidence -> {
+            if (evidence.getFilename().endsWith(".exe")) {
+                throw new EvidenceRejectedException("not a document");
+            }
+            return evidence.withFilename("checked " + evidence.getFilename());
+        }), 2, 1 << 20, 10);
+        service = new RoboticsService(airlookupService, emailService, roboticsJsonMapper, roboticsJsonValidator,
+                roboticsEmailTemplate, roboticsJsonUploadService, BenefitStrategyRegistry.defaultRegistry(),
+                RoboticsEmailIdAllocator.legacy(emailService), RoboticsEmailLimiter.unlimited(), pipeline);
+        final SscsCaseData appeal = buildCaseData();
+        given(roboticsJsonMapper.mapToPayload(any())).willReturn(mappedPayload);
+        given(airlookupService.lookupAirVenueNameByPostCode("AB12 XYZ")).willReturn(AirlookupBenefitToVenue.builder().pipVenue("Bristol").build());
+        given(emailService.generateUniqueEmailId(appeal.getAppeal().getAppellant())).willReturn("Bloggs_123");
+        Map<String, byte[]> evidence = new LinkedHashMap<>();
+        evidence.put("Some Evidence.doc", new byte[] {1});
+        evidence.put("virus.exe", new byte[] {2});
+
+        try {
+            service.sendCaseToRobotics(appeal, 123L, "AB12 XYZ", null, evidence);
+        } finally {
+            pipeline.destroy();
+        }
+
+        verify(roboticsEmailTemplate).generateEmail(eq("Bloggs_123"), captor.capture(), eq(NOT_SCOTTISH));
+        List<EmailAttachment> attachmentResult = captor.getValue();
+        assertThat(attachmentResult.size(), is(2));
+        assertThat(attachmentResult.get(1).getFilename(), is("checked Some Evidence.doc"));
     }
 }
@@ -0,0 +1,75 @@
+package uk.gov.hmcts.reform.sscs.sharding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class ConsistentHashRingTest {
+
+    private static final int CASES = 30_000;
+
+    @Test
+    public void spreadsCasesEvenlyOverNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("node-a", "node-b", "node-c"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (long caseId = 1_500_000_000_000_000L; caseId < 1_500_000_000_000_000L + CASES; caseId++) {
+            counts.merge(ring.owner(caseId), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue("count " + count, count > CASES / 4 && count < CASES / 2);
+        }
+    }
+
+    @Test
+    public void addingANodeOnlyMovesCasesToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(Arrays.asList("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(Arrays.asList("node-a", "node-b", "node-c", "node-d"), 128);
+
+        int moved = 0;
+        for (long caseId = 0; caseId < CASES; caseId++) {
+            String owner = after.owner(caseId);
+            if (!owner.equals(before.owner(caseId))) {
+                assertEquals("node-d", owner);
+                moved++;
+            }
+        }
+
+        assertTrue("moved " + moved, moved > CASES / 8 && moved < CASES * 3 / 8);
+    }
+
+    @Test
+    public void removingANodeOnlyMovesItsCases() {
+        ConsistentHashRing before = new ConsistentHashRing(Arrays.asList("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(Arrays.asList("node-a", "node-c"), 128);
+
+        for (long caseId = 0; caseId < CASES; caseId++) {
+            if (!"node-b".equals(before.owner(caseId))) {
+                assertEquals(before.owner(caseId), after.owner(caseId));
+            }
+        }
+    }
+
+    @Test
+    public void sameMembersInAnyOrderGiveTheSameOwners() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("node-a", "node-b"), 16);
+        ConsistentHashRing reordered = new ConsistentHashRing(Arrays.asList("node-b", "node-a"), 16);
+
+        for (long caseId = 0; caseId < 1000; caseId++) {
+            assertEquals(ring.owner(caseId), reordered.owner(caseId));
+        }
+    }
+
+    @Test
+    public void emptyRingHasNoOwner() {
+        assertNull(new ConsistentHashRing(Collections.emptyList(), 16).owner(1L));
+    }
+}
@@ -0,0 +1,207 @@
+package uk.gov.hmcts.reform.sscs.sharding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.hmcts.reform.sscs.sharding.RoboticsCaseSharding.CaseClaim;
+
+public class RoboticsCaseShardingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MutableClock clock = new MutableClock();
+    private Path leases;
+
+    @Before
+    public void setUp() {
+        leases = folder.getRoot().toPath().resolve("leases");
+    }
+
+    @Test
+    public void leaseIsExclusiveUntilReleasedOrExpired() {
+        FileRoboticsLeaseStore store = new FileRoboticsLeaseStore(leases, clock);
+
+        assertTrue(store.tryAcquire("case-1", "node-a", Duration.ofSeconds(10)));
+        assertFalse(store.tryAcquire("case-1", "node-b", Duration.ofSeconds(10)));
+        assertTrue(store.tryAcquire("case-1", "node-a", Duration.ofSeconds(10)));
+
+        store.release("case-1", "node-b");
+        assertFalse(store.tryAcquire("case-1", "node-b", Duration.ofSeconds(10)));
+
+        clock.advance(Duration.ofSeconds(11));
+        assertTrue(store.tryAcquire("case-1", "node-b", Duration.ofSeconds(10)));
+
+        store.release("case-1", "node-b");
+        assertTrue(store.tryAcquire("case-1", "node-a", Duration.ofSeconds(10)));
+    }
+
+    @Test
+    public void givenClockSkewMargin_thenAnotherOwnersLeaseOutlivesItsExpiryByTheMargin() {
+        FileRoboticsLeaseStore store = new FileRoboticsLeaseStore(leases, clock, Duration.ofSeconds(2));
+        store.tryAcquire("case-1", "node-a", Duration.ofSeconds(10));
+
+        clock.advance(Duration.ofSeconds(11));
+        assertFalse(store.tryAcquire("case-1", "node-b", Duration.ofSeconds(10)));
+        assertEquals(new HashSet<>(Arrays.asList("node-a")), store.owners("case-"));
+        assertTrue(store.tryAcquire("case-1", "node-a", Duration.ofSeconds(10)));
+
+        clock.advance(Duration.ofSeconds(13));
+        assertTrue(store.tryAcquire("case-1", "node-b", Duration.ofSeconds(10)));
+    }
+
+    @Test
+    public void ownersListsUnexpiredLeasesWithThePrefix() {
+        FileRoboticsLeaseStore store = new FileRoboticsLeaseStore(leases, clock);
+        store.tryAcquire("member-node-a", "node-a", Duration.ofSeconds(30));
+        store.tryAcquire("member-node-b", "node-b", Duration.ofSeconds(5));
+        store.tryAcquire("case-7", "node-c", Duration.ofSeconds(30));
+
+        assertEquals(new HashSet<>(Arrays.asList("node-a", "node-b")), store.owners("member-"));
+
+        clock.advance(Duration.ofSeconds(10));
+        assertEquals(new HashSet<>(Arrays.asList("node-a")), store.owners("member-"));
+    }
+
+    @Test
+    public void nodesSharingALeaseDirectorySplitCasesBetweenThem() {
+        RoboticsCaseSharding nodeA = node("node-a");
+        RoboticsCaseSharding nodeB = node("node-b");
+        nodeA.heartbeat();
+        nodeB.heartbeat();
+        nodeA.heartbeat();
+
+        assertEquals(new HashSet<>(Arrays.asList("node-a", "node-b")), nodeA.getMembers());
+        int ownedByA = 0;
+        for (long caseId = 0; caseId < 1000; caseId++) {
+            assertTrue(nodeA.owns(caseId) ^ nodeB.owns(caseId));
+            if (nodeA.owns(caseId)) {
+                ownedByA++;
+            }
+        }
+        assertTrue("owned by a " + ownedByA, ownedByA > 300 && ownedByA < 700);
+    }
+
+    @Test
+    public void whenAMemberStopsHeartbeating_thenTheOthersTakeOverItsCases() {
+        RoboticsCaseSharding nodeA = node("node-a");
+        RoboticsCaseSharding nodeB = node("node-b");
+        nodeA.heartbeat();
+        nodeB.heartbeat();
+        nodeA.heartbeat();
+
+        clock.advance(Duration.ofSeconds(31));
+        nodeA.heartbeat();
+
+        assertEquals(new HashSet<>(Arrays.asList("node-a")), nodeA.getMembers());
+        for (long caseId = 0; caseId < 100; caseId++) {
+            assertTrue(nodeA.owns(caseId));
+        }
+    }
+
+    @Test
+    public void claimIsExclusiveWhileMembersDisagree() {
+        RoboticsCaseSharding nodeA = node("node-a");
+        RoboticsCaseSharding nodeB = node("node-b");
+        // neither has seen the other yet, so both think they own every case
+        Optional<CaseClaim> claimA = nodeA.tryClaim(42L);
+
+        assertTrue(claimA.isPresent());
+        assertFalse(nodeB.tryClaim(42L).isPresent());
+
+        claimA.get().close();
+        assertTrue(nodeB.tryClaim(42L).isPresent());
+    }
+
+    @Test
+    public void claimIsRenewedForAsLongAsItIsOpen() {
+        RoboticsCaseSharding nodeA = node("node-a");
+        RoboticsCaseSharding nodeB = node("node-b");
+        Optional<CaseClaim> claimA = nodeA.tryClaim(42L);
+
+        for (int minute = 0; minute < 12; minute++) {
+            clock.advance(Duration.ofMinutes(1));
+            nodeA.heartbeat();
+        }
+
+        assertTrue(claimA.get().isHeld());
+        assertFalse(nodeB.tryClaim(42L).isPresent());
+
+        claimA.get().close();
+        clock.advance(Duration.ofMinutes(10));
+        nodeA.heartbeat();
+        assertTrue(nodeB.tryClaim(42L).isPresent());
+    }
+
+    @Test
+    public void givenClaimExpiredBeforeRenewal_thenItIsNoLongerHeld() {
+        RoboticsCaseSharding nodeA = node("node-a");
+        RoboticsCaseSharding nodeB = node("node-b");
+        final Optional<CaseClaim> claimA = nodeA.tryClaim(42L);
+
+        clock.advance(Duration.ofMinutes(6));
+        assertTrue(nodeB.tryClaim(42L).isPresent());
+        nodeA.heartbeat();
+
+        assertFalse(claimA.get().isHeld());
+        claimA.get().close();
+        assertFalse(nodeA.tryClaim(42L).isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenEnabledWithoutALeaseDirectory_thenFailsToStart() {
+        new RoboticsCaseSharding(true, "node-a", "", 30, 300, 128, 2000);
+    }
+
+    @Test
+    public void whenDisabled_thenEveryCaseIsOwnedAndClaimed() {
+        RoboticsCaseSharding sharding = new RoboticsCaseSharding(false, "", "", 30, 300, 128, 2000);
+        sharding.afterPropertiesSet();
+
+        assertTrue(sharding.owns(42L));
+        assertTrue(sharding.tryClaim(42L).isPresent());
+        assertTrue(sharding.tryClaim(42L).isPresent());
+        sharding.destroy();
+    }
+
+    private RoboticsCaseSharding node(String nodeId) {
+        return new RoboticsCaseSharding(true, nodeId, new FileRoboticsLeaseStore(leases, clock),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), 64);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2019-06-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
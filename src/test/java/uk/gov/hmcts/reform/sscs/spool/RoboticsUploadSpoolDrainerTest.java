@@ -0,0 +1,117 @@
+package uk.gov.hmcts.reform.sscs.spool;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import uk.gov.hmcts.reform.sscs.idam.IdamService;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.service.RoboticsJsonUploadService;
+import uk.gov.hmcts.reform.sscs.spool.RoboticsUploadSpool.Replay;
+
+public class RoboticsUploadSpoolDrainerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RoboticsJsonUploadService uploadService = mock(RoboticsJsonUploadService.class);
+    private final IdamService idamService = mock(IdamService.class);
+    private final IdamTokens idamTokens = IdamTokens.builder().userId("16").build();
+
+    @Test
+    public void givenSpoolDisabled_thenIsNotCreatedAndNeedsNoIdamService() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(RoboticsUploadSpoolDrainer.class);
+            context.refresh();
+
+            assertEquals(0, context.getBeanNamesForType(RoboticsUploadSpoolDrainer.class).length);
+        }
+    }
+
+    @Test
+    public void givenSpoolEnabled_thenIsCreated() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test",
+                singletonMap("robotics.upload.spool.enabled", "true")));
+        ConditionContext context = mock(ConditionContext.class);
+        given(context.getEnvironment()).willReturn(environment);
+
+        assertTrue(new RoboticsUploadSpoolDrainer.SpoolEnabled().matches(context, null));
+    }
+
+    @Test
+    public void replaysAtTheConfiguredRate() {
+        RoboticsUploadSpool spool = spool();
+        for (long caseId = 1; caseId <= 5; caseId++) {
+            spool.spool(caseId, "{}".getBytes(UTF_8), idamTokens);
+        }
+        given(uploadService.replaySpooledUpload(any(), any())).willReturn(Replay.REPLAYED);
+
+        long start = System.nanoTime();
+        int replayed = new RoboticsUploadSpoolDrainer(spool, uploadService, idamService, 30, 50, 100).drain();
+
+        assertEquals(5, replayed);
+        assertEquals(0, spool.getDepth());
+        // five replays at 50 a second are four 20 ms pauses apart
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(80));
+    }
+
+    @Test
+    public void givenDocumentStoreStillDown_thenStopsAtTheFirstUpload() {
+        RoboticsUploadSpool spool = spool();
+        spool.spool(1L, "{}".getBytes(UTF_8), idamTokens);
+        spool.spool(2L, "{}".getBytes(UTF_8), idamTokens);
+        given(uploadService.replaySpooledUpload(any(), any())).willReturn(Replay.RETRY_LATER);
+
+        assertEquals(0, new RoboticsUploadSpoolDrainer(spool, uploadService, idamService, 30, 1000, 100).drain());
+
+        assertEquals(2, spool.getDepth());
+    }
+
+    @Test
+    public void replaysWithFreshTokensRatherThanTheSpooledOnes() {
+        RoboticsUploadSpool spool = spool();
+        spool.spool(1L, "{}".getBytes(UTF_8), idamTokens);
+        spool.spool(2L, "{}".getBytes(UTF_8), idamTokens);
+        IdamTokens fresh = IdamTokens.builder().userId("16").idamOauth2Token("fresh").build();
+        given(idamService.getIdamTokens()).willReturn(fresh);
+        given(uploadService.replaySpooledUpload(any(), any())).willReturn(Replay.REPLAYED);
+
+        assertEquals(2, new RoboticsUploadSpoolDrainer(spool, uploadService, idamService, 30, 1000, 100).drain());
+
+        verify(uploadService, times(2)).replaySpooledUpload(any(), eq(fresh));
+    }
+
+    @Test
+    public void givenCaseNoLongerInCcd_thenCountsItAsADeadLetterAndCarriesOn() {
+        RoboticsUploadSpool spool = spool();
+        spool.spool(1L, "{}".getBytes(UTF_8), idamTokens);
+        spool.spool(2L, "{}".getBytes(UTF_8), idamTokens);
+        given(uploadService.replaySpooledUpload(any(), any())).willReturn(Replay.DEAD_LETTER, Replay.REPLAYED);
+
+        assertEquals(2, new RoboticsUploadSpoolDrainer(spool, uploadService, idamService, 30, 1000, 100).drain());
+
+        assertEquals(0, spool.getDepth());
+        assertEquals(1, spool.getDeadLettered());
+    }
+
+    private RoboticsUploadSpool spool() {
+        return new RoboticsUploadSpool(true, folder.getRoot().toPath(), 1024 * 1024, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,238 @@
+package uk.gov.hmcts.reform.sscs.spool;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.spool.RoboticsUploadSpool.Replay;
+
+public class RoboticsUploadSpoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MutableClock clock = new MutableClock();
+    private final IdamTokens idamTokens = IdamTokens.builder().userId("16").idamOauth2Token("secret").build();
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath().resolve("spool");
+    }
+
+    @Test
+    public void spooledUploadsAreReplayedInOrderAndRemoved() {
+        RoboticsUploadSpool spool = spool(1024 * 1024);
+        spool.spool(1L, json(1), idamTokens);
+        spool.spool(2L, json(2), idamTokens);
+
+        List<SpooledUpload> replayed = new ArrayList<>();
+        assertEquals(2, spool.drain(10, upload -> {
+            replayed.add(upload);
+            return Replay.REPLAYED;
+        }));
+
+        assertEquals(2, replayed.size());
+        assertEquals(Long.valueOf(1L), replayed.get(0).getCaseId());
+        assertEquals("{\"caseId\":2}", new String(replayed.get(1).getJson(), UTF_8));
+        assertEquals("16", replayed.get(1).getUserId());
+        assertEquals(0, spool.getDepth());
+        assertEquals(0, segments().size());
+    }
+
+    @Test
+    public void tokensAreNotWrittenToDisk() throws IOException {
+        spool(1024 * 1024).spool(1L, json(1), idamTokens);
+
+        for (Path segment : segments()) {
+            assertFalse(new String(Files.readAllBytes(segment), UTF_8).contains("secret"));
+        }
+    }
+
+    @Test
+    public void givenReplayRefused_thenStopsAndKeepsTheRest() {
+        RoboticsUploadSpool spool = spool(1024 * 1024);
+        for (long caseId = 1; caseId <= 3; caseId++) {
+            spool.spool(caseId, json(caseId), idamTokens);
+        }
+
+        List<Long> attempted = new ArrayList<>();
+        int replayed = spool.drain(10, upload -> {
+            attempted.add(upload.getCaseId());
+            return upload.getCaseId() != 2L ? Replay.REPLAYED : Replay.RETRY_LATER;
+        });
+
+        assertEquals(1, replayed);
+        assertEquals(2, attempted.size());
+        assertEquals(2, spool.getDepth());
+
+        List<Long> retried = new ArrayList<>();
+        spool.drain(10, upload -> {
+            retried.add(upload.getCaseId());
+            return Replay.REPLAYED;
+        });
+        assertEquals(2, retried.size());
+        assertEquals(Long.valueOf(2L), retried.get(0));
+    }
+
+    @Test
+    public void givenReplayThrows_thenKeepsTheUpload() {
+        RoboticsUploadSpool spool = spool(1024 * 1024);
+        spool.spool(1L, json(1), idamTokens);
+
+        assertEquals(0, spool.drain(10, upload -> {
+            throw new IllegalStateException("document store down");
+        }));
+
+        assertEquals(1, spool.getDepth());
+    }
+
+    @Test
+    public void drainReplaysAtMostTheBatch() {
+        RoboticsUploadSpool spool = spool(1024 * 1024);
+        for (long caseId = 1; caseId <= 5; caseId++) {
+            spool.spool(caseId, json(caseId), idamTokens);
+        }
+
+        assertEquals(2, spool.drain(2, upload -> Replay.REPLAYED));
+
+        assertEquals(3, spool.getDepth());
+    }
+
+    @Test
+    public void rollsOverToNewSegmentsAndRecoversThemOnRestart() {
+        RoboticsUploadSpool spool = spool(40);
+        for (long caseId = 1; caseId <= 4; caseId++) {
+            spool.spool(caseId, json(caseId), idamTokens);
+            clock.advance(Duration.ofMinutes(1));
+        }
+        assertEquals(4, segments().size());
+
+        RoboticsUploadSpool restarted = spool(40);
+        assertEquals(4, restarted.getDepth());
+        assertEquals(Duration.ofMinutes(4), restarted.getOldestAge());
+        restarted.spool(5L, json(5), idamTokens);
+
+        List<Long> replayed = new ArrayList<>();
+        restarted.drain(10, upload -> {
+            replayed.add(upload.getCaseId());
+            return Replay.REPLAYED;
+        });
+        assertEquals(5, replayed.size());
+        for (int i = 0; i < replayed.size(); i++) {
+            assertEquals(Long.valueOf(i + 1), replayed.get(i));
+        }
+    }
+
+    @Test
+    public void oldestAgeFollowsTheOldestPendingUpload() {
+        RoboticsUploadSpool spool = spool(1024 * 1024);
+        assertEquals(Duration.ZERO, spool.getOldestAge());
+
+        spool.spool(1L, json(1), idamTokens);
+        clock.advance(Duration.ofMinutes(5));
+        spool.spool(2L, json(2), idamTokens);
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(Duration.ofMinutes(6), spool.getOldestAge());
+
+        spool.drain(1, upload -> Replay.REPLAYED);
+        assertEquals(Duration.ofMinutes(1), spool.getOldestAge());
+    }
+
+    @Test
+    public void givenUploadThatCanNeverBeReplayed_thenMovesItToTheDeadLettersAndCarriesOn() throws IOException {
+        RoboticsUploadSpool spool = spool(1024 * 1024);
+        for (long caseId = 1; caseId <= 3; caseId++) {
+            spool.spool(caseId, json(caseId), idamTokens);
+        }
+
+        assertEquals(3, spool.drain(10, upload -> upload.getCaseId() == 2L ? Replay.DEAD_LETTER : Replay.REPLAYED));
+
+        assertEquals(0, spool.getDepth());
+        assertEquals(1, spool.getDeadLettered());
+        List<String> deadLetters = Files.readAllLines(directory.resolve(RoboticsUploadSpool.DEAD_LETTER_FILE), UTF_8);
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.get(0).contains("\"caseId\":2"));
+        assertEquals(1, spool(1024 * 1024).getDeadLettered());
+    }
+
+    @Test
+    public void givenUnreadableLine_thenMovesItToTheDeadLetters() throws IOException {
+        RoboticsUploadSpool spool = spool(1024 * 1024);
+        spool.spool(1L, json(1), idamTokens);
+        Files.write(segments().get(0), "not json\n".getBytes(UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(2, spool.drain(10, upload -> Replay.REPLAYED));
+
+        assertEquals(1, spool.getDeadLettered());
+        assertEquals("not json",
+                Files.readAllLines(directory.resolve(RoboticsUploadSpool.DEAD_LETTER_FILE), UTF_8).get(0));
+    }
+
+    @Test
+    public void whenDisabled_thenDrainsNothing() {
+        RoboticsUploadSpool spool = RoboticsUploadSpool.disabled();
+
+        assertFalse(spool.isEnabled());
+        assertEquals(0, spool.drain(10, upload -> Replay.REPLAYED));
+        assertTrue(!Files.exists(directory));
+    }
+
+    private RoboticsUploadSpool spool(long maxSegmentBytes) {
+        return new RoboticsUploadSpool(true, directory, maxSegmentBytes, clock);
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] json(long caseId) {
+        return ("{\"caseId\":" + caseId + "}").getBytes(UTF_8);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2019-06-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package uk.gov.hmcts.reform.sscs.startup;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import uk.gov.hmcts.reform.sscs.startup.RoboticsStartupTraining.Result;
+
+/**
+ * Measures robotics worker startup with and without the class-data-sharing archive, by launching
+ * {@link RoboticsStartupTraining} in fresh JVMs on this JVM's class path.
+ *
+ * <p>Usage: {@code ./gradlew startupBenchmarkRobotics -PstartupArgs="--runs 10"}. The archive
+ * ({@code --archive}) must have been dumped with exactly the same class path, which the Gradle tasks
+ * take care of. The Gradle 4.9 wrapper runs on JDK 8 to 10 and the archive needs JDK 10 or later, so
+ * the tasks need JDK 10. On a later JDK, build the jars and run the same three java commands by hand:
+ * {@code -Xshare:off -XX:DumpLoadedClassList=...}, then {@code -Xshare:dump -XX:SharedClassListFile=...
+ * -XX:SharedArchiveFile=...}, both with main class {@link RoboticsStartupTraining}, then this class
+ * with {@code --archive}.
+ */
+public final class RoboticsStartupBenchmark {
+
+    private RoboticsStartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parse(args);
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        String archive = options.get("archive");
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+
+        long[] baseline = measure(runs, java, classPath, "-Xshare:auto");
+        System.out.println(summary("default CDS", baseline));
+
+        if (archive != null && Files.isRegularFile(Paths.get(archive))) {
+            long[] withArchive = measure(runs, java, classPath, "-Xshare:on", "-XX:SharedArchiveFile=" + archive);
+            System.out.println(summary("robotics archive", withArchive));
+            System.out.printf("Median startup to first cases %.1f%% faster with the robotics archive%n",
+                    100.0 * (median(baseline) - median(withArchive)) / median(baseline));
+        } else {
+            System.out.println("No archive at " + archive + ", run roboticsCdsArchive first to compare");
+        }
+    }
+
+    /**
+     * Milliseconds from launch to the training run's first cases being done, one per run.
+     */
+    static long[] measure(int runs, String java, String classPath, String... jvmArgs)
+            throws IOException, InterruptedException {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(Arrays.asList(jvmArgs));
+            command.add("-cp");
+            command.add(classPath);
+            command.add(RoboticsStartupTraining.class.getName());
+
+            long start = System.nanoTime();
+            Result result = launch(command);
+            long launchMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            // uptime excludes the time to create the JVM, so take the larger of the two views
+            millis[i] = Math.max(launchMillis, result.getJvmUptimeMillis());
+        }
+        return millis;
+    }
+
+    private static Result launch(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Result result = null;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RoboticsStartupTraining.RESULT_PREFIX)) {
+                    result = Result.parse(line);
+                } else {
+                    output.add(line);
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0 || result == null) {
+            throw new IllegalStateException("Training run exited with " + exitCode + ": " + String.join("\n", output));
+        }
+        return result;
+    }
+
+    static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String summary(String name, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return String.format("%-16s median %d ms, min %d ms, max %d ms over %d runs", name, median(millis),
+                sorted[0], sorted[sorted.length - 1], sorted.length);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(StringUtils.removeStart(args[i], "--"), args[i + 1]);
+        }
+        return options;
+    }
+}
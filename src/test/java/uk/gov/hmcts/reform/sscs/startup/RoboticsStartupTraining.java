@@ -0,0 +1,114 @@
+package uk.gov.hmcts.reform.sscs.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategyRegistry;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.json.RoboticsPayloadWriter;
+import uk.gov.hmcts.reform.sscs.json.RoboticsSchemaRegistry;
+import uk.gov.hmcts.reform.sscs.json.RoboticsStringCanonicaliser;
+import uk.gov.hmcts.reform.sscs.json.RoboticsValidationPolicy;
+import uk.gov.hmcts.reform.sscs.warmup.RoboticsWarmupFixtures;
+
+/**
+ * The training run for the class-data-sharing archive: starts a Spring context holding the robotics
+ * beans and sends each {@link RoboticsWarmupFixtures} case through map, validate and write once, which
+ * loads the classes a robotics worker needs to handle its first case.
+ *
+ * <p>Prints a single {@link #RESULT_PREFIX} line with the timings, read by {@link RoboticsStartupBenchmark}.
+ */
+public final class RoboticsStartupTraining {
+
+    static final String RESULT_PREFIX = "roboticsStartup";
+
+    private RoboticsStartupTraining() {
+    }
+
+    public static void main(String[] args) {
+        System.out.println(run().toLine());
+    }
+
+    static Result run() {
+        long start = System.nanoTime();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("robotics.schema.resource.location", "/schema/sscs-robotics.json");
+        properties.put("feature.rpc_email_robotics", "true");
+
+        int cases = 0;
+        long contextNanos;
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.getEnvironment().getPropertySources()
+                    .addFirst(new MapPropertySource("roboticsStartupTraining", properties));
+            context.register(RoboticsSchemaRegistry.class, RoboticsValidationPolicy.class, RoboticsJsonValidator.class,
+                    BenefitStrategyRegistry.class, RoboticsStringCanonicaliser.class, RoboticsJsonMapper.class);
+            context.refresh();
+            contextNanos = System.nanoTime() - start;
+
+            RoboticsJsonMapper mapper = context.getBean(RoboticsJsonMapper.class);
+            RoboticsJsonValidator validator = context.getBean(RoboticsJsonValidator.class);
+            for (RoboticsWrapper fixture : RoboticsWarmupFixtures.fixtures()) {
+                JSONObject roboticsJson = mapper.map(fixture);
+                validator.validate(roboticsJson);
+                RoboticsPayloadWriter.write(mapper.mapToPayload(fixture));
+                cases++;
+            }
+        }
+
+        return new Result(cases, TimeUnit.NANOSECONDS.toMillis(contextNanos),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    static final class Result {
+        private final int cases;
+        private final long contextMillis;
+        private final long firstCasesMillis;
+        private final long jvmUptimeMillis;
+
+        Result(int cases, long contextMillis, long firstCasesMillis, long jvmUptimeMillis) {
+            this.cases = cases;
+            this.contextMillis = contextMillis;
+            this.firstCasesMillis = firstCasesMillis;
+            this.jvmUptimeMillis = jvmUptimeMillis;
+        }
+
+        static Result parse(String line) {
+            Map<String, Long> values = new HashMap<>();
+            for (String token : line.substring(RESULT_PREFIX.length()).trim().split(" ")) {
+                String[] pair = token.split("=");
+                values.put(pair[0], Long.valueOf(pair[1]));
+            }
+            return new Result(values.get("cases").intValue(), values.get("contextMillis"),
+                    values.get("firstCasesMillis"), values.get("jvmUptimeMillis"));
+        }
+
+        String toLine() {
+            return RESULT_PREFIX + " cases=" + cases + " contextMillis=" + contextMillis
+                    + " firstCasesMillis=" + firstCasesMillis + " jvmUptimeMillis=" + jvmUptimeMillis;
+        }
+
+        int getCases() {
+            return cases;
+        }
+
+        long getContextMillis() {
+            return contextMillis;
+        }
+
+        long getFirstCasesMillis() {
+            return firstCasesMillis;
+        }
+
+        long getJvmUptimeMillis() {
+            return jvmUptimeMillis;
+        }
+    }
+}
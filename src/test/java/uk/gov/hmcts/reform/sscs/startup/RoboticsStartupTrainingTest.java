@@ -0,0 +1,35 @@
+package uk.gov.hmcts.reform.sscs.startup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import uk.gov.hmcts.reform.sscs.startup.RoboticsStartupTraining.Result;
+import uk.gov.hmcts.reform.sscs.warmup.RoboticsWarmupFixtures;
+
+public class RoboticsStartupTrainingTest {
+
+    @Test
+    public void trainingRunStartsTheContextAndHandlesEveryFixture() {
+        Result result = RoboticsStartupTraining.run();
+
+        assertEquals(RoboticsWarmupFixtures.fixtures().size(), result.getCases());
+        assertTrue(result.getFirstCasesMillis() >= result.getContextMillis());
+    }
+
+    @Test
+    public void resultLineRoundTrips() {
+        Result parsed = Result.parse(new Result(3, 120, 180, 950).toLine());
+
+        assertEquals(3, parsed.getCases());
+        assertEquals(120, parsed.getContextMillis());
+        assertEquals(180, parsed.getFirstCasesMillis());
+        assertEquals(950, parsed.getJvmUptimeMillis());
+    }
+
+    @Test
+    public void medianOfOddAndEvenRuns() {
+        assertEquals(20, RoboticsStartupBenchmark.median(new long[] {30, 10, 20}));
+        assertEquals(30, RoboticsStartupBenchmark.median(new long[] {40, 10, 30, 20}));
+    }
+}
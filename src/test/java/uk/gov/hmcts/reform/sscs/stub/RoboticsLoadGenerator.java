@@ -0,0 +1,149 @@
+package uk.gov.hmcts.reform.sscs.stub;
+
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.StringUtils;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.service.RoboticsService;
+
+/**
+ * Drives the full robotics pipeline (venue lookup, map, validate, email, DM upload, CCD update) against
+ * {@link RoboticsStubs} and reports throughput and tail latency.
+ *
+ * <p>Usage: {@code ./gradlew loadTestRobotics -PloadArgs="--cases 5000 --threads 16 --emailMs 40"}.
+ * Stub latencies are log-normal with the given median in ms ({@code --emailMs}, {@code --uploadMs},
+ * {@code --ccdMs}, {@code --lookupMs}) and spread ({@code --sigma}); {@code --errorRate} applies to every
+ * stub.
+ */
+public final class RoboticsLoadGenerator {
+
+    private final RoboticsService roboticsService;
+    private final int threads;
+
+    RoboticsLoadGenerator(RoboticsService roboticsService, int threads) {
+        this.roboticsService = roboticsService;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parse(args);
+        double sigma = Double.parseDouble(options.getOrDefault("sigma", "0.5"));
+        double errorRate = Double.parseDouble(options.getOrDefault("errorRate", "0"));
+
+        RoboticsStubs stubs = new RoboticsStubs(
+                endpoint("email", options.getOrDefault("emailMs", "40"), sigma, errorRate),
+                endpoint("documentUpload", options.getOrDefault("uploadMs", "25"), sigma, errorRate),
+                endpoint("ccd", options.getOrDefault("ccdMs", "60"), sigma, errorRate),
+                endpoint("airLookup", options.getOrDefault("lookupMs", "0"), sigma, errorRate));
+
+        RoboticsService roboticsService = stubs.roboticsService(new RoboticsJsonMapper(true),
+                new RoboticsJsonValidator("/schema/sscs-robotics.json"));
+
+        Result result = new RoboticsLoadGenerator(roboticsService,
+                Integer.parseInt(options.getOrDefault("threads", "8")))
+                .run(Integer.parseInt(options.getOrDefault("cases", "1000")));
+
+        System.out.print(result.summary());
+        for (StubEndpoint endpoint : stubs.getEndpoints()) {
+            System.out.println(endpoint);
+        }
+    }
+
+    Result run(int cases) throws InterruptedException {
+        long[] latencies = new long[cases];
+        AtomicInteger failures = new AtomicInteger();
+        IdamTokens idamTokens = RoboticsStubs.idamTokens();
+        byte[] pdf = new byte[64 * 1024];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final long start = System.nanoTime();
+        for (int i = 0; i < cases; i++) {
+            int index = i;
+            executor.execute(() -> {
+                SscsCaseData caseData = buildCaseData();
+                long caseId = 1_000_000L + index;
+                long caseStart = System.nanoTime();
+                try {
+                    RoboticsPayload payload = roboticsService.sendPayloadToRobotics(
+                            caseData, caseId, "AB12 XYZ", pdf, new HashMap<>());
+                    roboticsService.attachRoboticsJsonToCaseInCcd(payload, caseData, idamTokens,
+                            SscsCaseDetails.builder().id(caseId).data(caseData).build());
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - caseStart;
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+
+        return new Result(latencies, failures.get(), System.nanoTime() - start);
+    }
+
+    private static StubEndpoint endpoint(String name, String medianMillis, double sigma, double errorRate) {
+        long millis = Long.parseLong(medianMillis);
+        return new StubEndpoint(name, millis == 0 ? LatencyDistribution.none()
+                : LatencyDistribution.logNormal(Duration.ofMillis(millis), sigma), errorRate);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(StringUtils.removeStart(args[i], "--"), args[i + 1]);
+        }
+        return options;
+    }
+
+    static final class Result {
+        private final long[] sortedLatencies;
+        private final int failures;
+        private final long elapsedNanos;
+
+        private Result(long[] latencies, int failures, long elapsedNanos) {
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(this.sortedLatencies);
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        int getCases() {
+            return sortedLatencies.length;
+        }
+
+        int getFailures() {
+            return failures;
+        }
+
+        long percentileMicros(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(sortedLatencies[Math.max(0, index)]);
+        }
+
+        double throughputPerSecond() {
+            return elapsedNanos <= 0 ? 0 : getCases() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        String summary() {
+            return String.format("%d cases in %d ms (%.1f cases/s), %d failed%n"
+                            + "Latency p50 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+                    getCases(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughputPerSecond(), failures,
+                    percentileMicros(50), percentileMicros(99), percentileMicros(99.9), percentileMicros(100));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package uk.gov.hmcts.reform.sscs.stub;
+
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+import uk.gov.hmcts.reform.document.DocumentUploadClientApi;
+import uk.gov.hmcts.reform.document.domain.Document;
+import uk.gov.hmcts.reform.document.domain.UploadResponse;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategyRegistry;
+import uk.gov.hmcts.reform.sscs.ccd.domain.Appellant;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.ccd.service.CcdService;
+import uk.gov.hmcts.reform.sscs.domain.email.Email;
+import uk.gov.hmcts.reform.sscs.domain.email.EmailAttachment;
+import uk.gov.hmcts.reform.sscs.domain.email.RoboticsEmailTemplate;
+import uk.gov.hmcts.reform.sscs.emailid.RoboticsEmailIdAllocator;
+import uk.gov.hmcts.reform.sscs.evidence.RoboticsEvidencePipeline;
+import uk.gov.hmcts.reform.sscs.idam.IdamTokens;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.limiter.RoboticsEmailLimiter;
+import uk.gov.hmcts.reform.sscs.model.AirlookupBenefitToVenue;
+import uk.gov.hmcts.reform.sscs.service.AirLookupService;
+import uk.gov.hmcts.reform.sscs.service.EmailService;
+import uk.gov.hmcts.reform.sscs.service.RoboticsJsonUploadService;
+import uk.gov.hmcts.reform.sscs.service.RoboticsService;
+
+/**
+ * In-process stand-ins for SMTP, the DM store, CCD and the postcode lookup, for load testing
+ * {@link RoboticsService} and {@link RoboticsJsonUploadService} without a network.
+ *
+ * <p>The stubs are plain code driven by a {@link StubEndpoint} each. The concrete collaborator classes
+ * have no interface, so each stub subclasses its class and overrides the calls the robotics services make.
+ */
+public class RoboticsStubs {
+
+    private final StubEndpoint email;
+    private final StubEndpoint documentUpload;
+    private final StubEndpoint ccd;
+    private final StubEndpoint airLookup;
+
+    private final EmailService emailService;
+    private final DocumentUploadClientApi documentUploadClientApi;
+    private final CcdStub ccdService;
+    private final AirLookupService airLookupService;
+
+    public RoboticsStubs(StubEndpoint email, StubEndpoint documentUpload, StubEndpoint ccd, StubEndpoint airLookup) {
+        this.email = email;
+        this.documentUpload = documentUpload;
+        this.ccd = ccd;
+        this.airLookup = airLookup;
+
+        this.emailService = new EmailStub(email);
+        this.documentUploadClientApi = new DocumentUploadStub(documentUpload);
+        this.ccdService = new CcdStub(ccd);
+        this.airLookupService = new AirLookupStub(airLookup);
+    }
+
+    public static RoboticsStubs instant() {
+        return new RoboticsStubs(StubEndpoint.instant("email"), StubEndpoint.instant("documentUpload"),
+                StubEndpoint.instant("ccd"), StubEndpoint.instant("airLookup"));
+    }
+
+    public RoboticsService roboticsService(RoboticsJsonMapper mapper, RoboticsJsonValidator validator) {
+        return new RoboticsService(
+                airLookupService,
+                emailService,
+                mapper,
+                validator,
+                new RoboticsEmailTemplate("robotics@localhost", "robotics@localhost", "scotland@localhost", "Robotics"),
+                roboticsJsonUploadService(),
+                BenefitStrategyRegistry.defaultRegistry(),
+                RoboticsEmailIdAllocator.legacy(emailService),
+                RoboticsEmailLimiter.unlimited(),
+                RoboticsEvidencePipeline.passThrough());
+    }
+
+    public RoboticsJsonUploadService roboticsJsonUploadService() {
+        return new RoboticsJsonUploadService(documentUploadClientApi, () -> "stub-s2s-token", ccdService);
+    }
+
+    public static IdamTokens idamTokens() {
+        return IdamTokens.builder().idamOauth2Token("stub-oauth2-token").serviceAuthorization("stub-s2s-token")
+                .userId("stub-user").build();
+    }
+
+    /**
+     * Makes CCD return this case data for the case id. Cases not given are built with
+     * {@code CaseDataUtils.buildCaseData()} when first read, and keep any document attached to them.
+     */
+    public void putCase(Long caseId, SscsCaseData caseData) {
+        ccdService.cases.put(caseId, caseData);
+    }
+
+    public void removeCase(Long caseId) {
+        ccdService.missing.add(caseId);
+    }
+
+    public List<StubEndpoint> getEndpoints() {
+        return Arrays.asList(email, documentUpload, ccd, airLookup);
+    }
+
+    public EmailService getEmailService() {
+        return emailService;
+    }
+
+    public DocumentUploadClientApi getDocumentUploadClientApi() {
+        return documentUploadClientApi;
+    }
+
+    public CcdService getCcdService() {
+        return ccdService;
+    }
+
+    public AirLookupService getAirLookupService() {
+        return airLookupService;
+    }
+
+    private static final class EmailStub extends EmailService {
+        private final StubEndpoint endpoint;
+        private final AtomicLong sequence = new AtomicLong();
+
+        private EmailStub(StubEndpoint endpoint) {
+            super(null);
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public void sendEmail(Email email) {
+            long bytes = 0;
+            for (EmailAttachment attachment : email.getAttachments()) {
+                bytes += size(attachment.getData());
+            }
+            endpoint.call(bytes);
+        }
+
+        @Override
+        public String generateUniqueEmailId(Appellant appellant) {
+            return appellant.getName().getLastName() + "_" + sequence.incrementAndGet();
+        }
+
+        private static long size(InputStreamSource data) {
+            try {
+                if (data instanceof Resource) {
+                    return ((Resource) data).contentLength();
+                }
+                long size = 0;
+                byte[] buffer = new byte[8192];
+                try (InputStream inputStream = data.getInputStream()) {
+                    int read;
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        size += read;
+                    }
+                }
+                return size;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class DocumentUploadStub implements DocumentUploadClientApi {
+        private final StubEndpoint endpoint;
+        private final UploadResponse response;
+
+        private DocumentUploadStub(StubEndpoint endpoint) {
+            this.endpoint = endpoint;
+            this.response = uploadResponse();
+        }
+
+        @Override
+        public UploadResponse upload(String authorisation, String serviceAuth, String userId, List<MultipartFile> files) {
+            long bytes = 0;
+            for (MultipartFile file : files) {
+                bytes += file.getSize();
+            }
+            endpoint.call(bytes);
+            return response;
+        }
+
+        // built once, up front, so that per-call timings are not skewed by creating the response
+        private static UploadResponse uploadResponse() {
+            Document.Link link = new Document.Link();
+            link.href = "http://dm-store.local/documents/stub";
+            Document.Links links = new Document.Links();
+            links.self = link;
+            links.binary = link;
+            Document document = new Document();
+            document.links = links;
+
+            return new UploadResponse(Collections.singletonList(document));
+        }
+    }
+
+    private static final class CcdStub extends CcdService {
+        private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+        private final StubEndpoint endpoint;
+        private final Map<Long, SscsCaseData> cases = new ConcurrentHashMap<>();
+        private final Set<Long> missing = ConcurrentHashMap.newKeySet();
+
+        private CcdStub(StubEndpoint endpoint) {
+            super(null, null);
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public SscsCaseDetails updateCase(SscsCaseData caseData, Long caseId, String eventType, String summary,
+                                          String description, IdamTokens idamTokens) {
+            // CCD receives the whole case as json, so the update is charged the size of the case sent
+            endpoint.call(caseBytes(caseData));
+            return SscsCaseDetails.builder().id(caseId).data(caseData).build();
+        }
+
+        private static long caseBytes(SscsCaseData caseData) {
+            try {
+                return OBJECT_MAPPER.writeValueAsBytes(caseData).length;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public SscsCaseDetails getByCaseId(Long caseId, IdamTokens idamTokens) {
+            endpoint.call(0);
+            if (missing.contains(caseId)) {
+                return null;
+            }
+            SscsCaseData caseData = cases.computeIfAbsent(caseId, id -> {
+                SscsCaseData stored = buildCaseData();
+                stored.setCcdCaseId(id.toString());
+                return stored;
+            });
+            return SscsCaseDetails.builder().id(caseId).data(caseData).build();
+        }
+
+    }
+
+    private static final class AirLookupStub extends AirLookupService {
+        private final StubEndpoint endpoint;
+
+        private AirLookupStub(StubEndpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public AirlookupBenefitToVenue lookupAirVenueNameByPostCode(String postcode) {
+            endpoint.call(postcode == null ? 0 : postcode.length());
+            return AirlookupBenefitToVenue.builder().pipVenue("Bromley").esaVenue("Bromley").build();
+        }
+    }
+}
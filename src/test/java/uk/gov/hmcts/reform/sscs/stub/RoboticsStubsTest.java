@@ -0,0 +1,100 @@
+package uk.gov.hmcts.reform.sscs.stub;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static uk.gov.hmcts.reform.sscs.ccd.util.CaseDataUtils.buildCaseData;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.Collections;
+import org.junit.Test;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseData;
+import uk.gov.hmcts.reform.sscs.ccd.domain.SscsCaseDetails;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsPayload;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.json.RoboticsPayloadWriter;
+import uk.gov.hmcts.reform.sscs.service.RoboticsService;
+
+public class RoboticsStubsTest {
+
+    private final RoboticsJsonMapper mapper = new RoboticsJsonMapper(false);
+    private final RoboticsJsonValidator validator = new RoboticsJsonValidator("/schema/sscs-robotics.json");
+
+    @Test
+    public void givenInstantStubs_thenRunsTheWholePipelineAndAccountsPayloadBytes() throws Exception {
+        StubEndpoint email = StubEndpoint.instant("email");
+        StubEndpoint documentUpload = StubEndpoint.instant("documentUpload");
+        StubEndpoint ccd = StubEndpoint.instant("ccd");
+        StubEndpoint airLookup = StubEndpoint.instant("airLookup");
+        RoboticsService service = new RoboticsStubs(email, documentUpload, ccd, airLookup)
+                .roboticsService(mapper, validator);
+        SscsCaseData caseData = buildCaseData();
+        byte[] pdf = new byte[100];
+
+        RoboticsPayload payload = service.sendPayloadToRobotics(caseData, 123L, "AB12 XYZ", pdf,
+                Collections.emptyMap());
+        service.attachRoboticsJsonToCaseInCcd(payload, caseData, RoboticsStubs.idamTokens(),
+                SscsCaseDetails.builder().id(123L).data(caseData).build());
+
+        int jsonBytes = RoboticsPayloadWriter.write(payload).length();
+        assertEquals(1, airLookup.getCalls());
+        assertEquals(1, email.getCalls());
+        assertEquals(jsonBytes + pdf.length, email.getBytes());
+        assertEquals(1, documentUpload.getCalls());
+        assertEquals(jsonBytes, documentUpload.getBytes());
+        assertEquals(1, ccd.getCalls());
+        assertEquals(new ObjectMapper().writeValueAsBytes(caseData).length, ccd.getBytes());
+    }
+
+    @Test
+    public void givenErrorRateOfOne_thenEveryCallFails() {
+        StubEndpoint email = new StubEndpoint("email", LatencyDistribution.none(), 1);
+        RoboticsService service = new RoboticsStubs(email, StubEndpoint.instant("documentUpload"),
+                StubEndpoint.instant("ccd"), StubEndpoint.instant("airLookup")).roboticsService(mapper, validator);
+
+        try {
+            service.sendCaseToRobotics(buildCaseData(), 123L, "AB12 XYZ", null);
+            fail("Expected StubFailureException");
+        } catch (StubFailureException expected) {
+            assertEquals(1, email.getErrors());
+        }
+    }
+
+    @Test
+    public void givenFixedLatency_thenCallsTakeAtLeastThatLong() {
+        StubEndpoint airLookup = new StubEndpoint("airLookup", LatencyDistribution.fixed(Duration.ofMillis(20)), 0);
+        RoboticsStubs stubs = new RoboticsStubs(StubEndpoint.instant("email"), StubEndpoint.instant("documentUpload"),
+                StubEndpoint.instant("ccd"), airLookup);
+
+        long start = System.nanoTime();
+        stubs.getAirLookupService().lookupAirVenueNameByPostCode("AB12 XYZ");
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+        assertEquals(20, airLookup.getSimulatedLatencyMillis());
+    }
+
+    @Test
+    public void logNormalLatencyHasTheRequestedMedian() {
+        LatencyDistribution latency = LatencyDistribution.logNormal(Duration.ofMillis(10), 0.5);
+        int below = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (latency.sampleNanos() < Duration.ofMillis(10).toNanos()) {
+                below++;
+            }
+        }
+
+        assertTrue("below median " + below, below > 4_500 && below < 5_500);
+    }
+
+    @Test
+    public void loadGeneratorReportsEveryCase() throws InterruptedException {
+        RoboticsLoadGenerator.Result result = new RoboticsLoadGenerator(
+                RoboticsStubs.instant().roboticsService(mapper, validator), 4).run(50);
+
+        assertEquals(50, result.getCases());
+        assertEquals(0, result.getFailures());
+        assertTrue(result.percentileMicros(99) >= result.percentileMicros(50));
+    }
+}
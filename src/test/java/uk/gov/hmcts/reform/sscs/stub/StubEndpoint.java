@@ -0,0 +1,80 @@
+package uk.gov.hmcts.reform.sscs.stub;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Behaviour and accounting shared by the stub collaborators: each call sleeps for a sampled latency,
+ * fails with the configured probability and adds its payload size to the byte count.
+ */
+public class StubEndpoint {
+
+    private final String name;
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    public StubEndpoint(String name, LatencyDistribution latency, double errorRate) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("errorRate must be between 0 and 1, was " + errorRate);
+        }
+        this.name = name;
+        this.latency = latency;
+        this.errorRate = errorRate;
+    }
+
+    public static StubEndpoint instant(String name) {
+        return new StubEndpoint(name, LatencyDistribution.none(), 0);
+    }
+
+    void call(long payloadBytes) {
+        calls.increment();
+        bytes.add(payloadBytes);
+
+        long sleep = latency.sampleNanos();
+        if (sleep > 0) {
+            latencyNanos.add(sleep);
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleep);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StubFailureException(name + " interrupted");
+            }
+        }
+
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            errors.increment();
+            throw new StubFailureException(name + " failed (simulated)");
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public long getSimulatedLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(latencyNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, %d errors, %d bytes, %d ms simulated latency",
+                name, getCalls(), getErrors(), getBytes(), getSimulatedLatencyMillis());
+    }
+}
@@ -0,0 +1,8 @@
+package uk.gov.hmcts.reform.sscs.stub;
+
+public class StubFailureException extends RuntimeException {
+
+    public StubFailureException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,128 @@
+package uk.gov.hmcts.reform.sscs.warmup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import uk.gov.hmcts.reform.sscs.benefit.BenefitStrategyRegistry;
+import uk.gov.hmcts.reform.sscs.domain.robotics.RoboticsWrapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonMapper;
+import uk.gov.hmcts.reform.sscs.json.RoboticsJsonValidator;
+import uk.gov.hmcts.reform.sscs.json.RoboticsSchemaRegistry;
+import uk.gov.hmcts.reform.sscs.json.RoboticsStringCanonicaliser;
+import uk.gov.hmcts.reform.sscs.json.RoboticsValidationPolicy;
+import uk.gov.hmcts.reform.sscs.json.RoboticsValidationPolicy.Mode;
+import uk.gov.hmcts.reform.sscs.json.RoboticsValidationResult;
+
+public class RoboticsWarmupTest {
+
+    private final RoboticsJsonMapper mapper = new RoboticsJsonMapper(true);
+    private final RoboticsJsonValidator validator = new RoboticsJsonValidator("/schema/sscs-robotics.json");
+    private final ContextRefreshedEvent event = new ContextRefreshedEvent(mock(ApplicationContext.class));
+
+    @Test
+    public void fixturesAreValidRoboticsCases() {
+        for (RoboticsWrapper fixture : RoboticsWarmupFixtures.fixtures()) {
+            validator.validate(mapper.map(fixture));
+        }
+    }
+
+    @Test
+    public void givenWarmupDisabled_thenIsReadyWithoutRunning() {
+        RoboticsWarmup warmup = new RoboticsWarmup(mapper, validator, false, 200, 10000);
+        assertFalse(warmup.isReady());
+
+        warmup.onApplicationEvent(event);
+
+        assertTrue(warmup.isReady());
+        assertNull(warmup.getResult());
+    }
+
+    @Test
+    public void givenWarmupEnabled_thenRunsRoundsAndBecomesReady() throws InterruptedException {
+        RoboticsWarmup warmup = new RoboticsWarmup(mapper, validator, true, 200, 10000);
+
+        warmup.onApplicationEvent(event);
+
+        assertTrue(warmup.awaitReady(30, TimeUnit.SECONDS));
+        assertTrue(warmup.isReady());
+        RoboticsWarmup.Result result = warmup.getResult();
+        assertTrue(result.getRounds() > 0);
+        assertEquals(result.getRounds() * 3 * RoboticsWarmup.CASES_PER_FIXTURE_PER_ROUND, result.getCases());
+    }
+
+    @Test
+    public void givenRoundLimit_thenStopsThere() throws InterruptedException {
+        RoboticsWarmup warmup = new RoboticsWarmup(mapper, validator, true, 1, 10000);
+
+        warmup.onApplicationEvent(event);
+        assertTrue(warmup.awaitReady(30, TimeUnit.SECONDS));
+
+        assertEquals(1, warmup.getResult().getRounds());
+        assertFalse(warmup.getResult().isSettled());
+    }
+
+    @Test
+    public void givenRepeatedRefreshEvents_thenWarmsUpOnce() throws InterruptedException {
+        RoboticsWarmup warmup = new RoboticsWarmup(mapper, validator, true, 1, 10000);
+
+        warmup.onApplicationEvent(event);
+        assertTrue(warmup.awaitReady(30, TimeUnit.SECONDS));
+        RoboticsWarmup.Result first = warmup.getResult();
+        warmup.onApplicationEvent(event);
+
+        assertTrue(first == warmup.getResult());
+    }
+
+    @Test
+    public void warmsUpWithoutHoldingUpTheRefreshEvent() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RoboticsJsonValidator blockingValidator = mock(RoboticsJsonValidator.class);
+        when(blockingValidator.validateAll(any(JSONObject.class))).thenAnswer(invocation -> {
+            release.await();
+            return RoboticsValidationResult.valid();
+        });
+        RoboticsWarmup warmup = new RoboticsWarmup(mapper, blockingValidator, true, 1, 10000);
+
+        warmup.onApplicationEvent(event);
+
+        assertFalse(warmup.isReady());
+        release.countDown();
+        assertTrue(warmup.awaitReady(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void leavesTheValidationPolicyAndSharedStringsUntouched() throws InterruptedException {
+        RoboticsValidationPolicy policy = new RoboticsValidationPolicy(Collections.singletonMap("Online",
+                Mode.SAMPLED), Mode.FULL, 0.1, Duration.ofMinutes(60), Clock.systemUTC());
+        RoboticsStringCanonicaliser canonicaliser = new RoboticsStringCanonicaliser(100, 64);
+        RoboticsWarmup warmup = new RoboticsWarmup(
+                new RoboticsJsonMapper(true, BenefitStrategyRegistry.defaultRegistry(), canonicaliser),
+                new RoboticsJsonValidator(new RoboticsSchemaRegistry("/schema/sscs-robotics.json"), 10, policy),
+                true, 2, 10000);
+        final int sharedStrings = canonicaliser.getSize();
+
+        warmup.onApplicationEvent(event);
+        assertTrue(warmup.awaitReady(30, TimeUnit.SECONDS));
+
+        assertEquals(2, warmup.getResult().getRounds());
+        assertEquals(sharedStrings, canonicaliser.getSize());
+        policy.getMetrics().values().forEach(metrics -> {
+            assertEquals(0, metrics.getFullValidations());
+            assertEquals(0, metrics.getStructuralValidations());
+        });
+    }
+}